@@ -0,0 +1,79 @@
+package br.com.bot.games.reflexo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a pontuação do Reflexo: a implementação original, com a 2ª passada em O(n·m), e a atual,
+ * linear e sem alocações, com e sem o limite de tamanho usado pelo {@link ReflexoGame}.
+ * <p>
+ * O caso "colagem" é uma mensagem de 2000 caracteres colada em resposta a uma frase longa.
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="VerificadorDePontosBenchmark -prof gc"}
+ *
+ * @author Lucas
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerificadorDePontosBenchmark {
+
+    @Param({"tipica", "colagem"})
+    public String caso;
+
+    private String frase;
+    private String resposta;
+    private final VerificadorDePontos semLimite = new VerificadorDePontos();
+    private VerificadorDePontos comLimite;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        if (caso.equals("tipica")) {
+            frase = "O rápido cachorro marrom pula sobre a raposa preguiçosa";
+            resposta = "o rapido cachoro marrom pula sobre a rapoza preguicosa";
+        } else {
+            Random random = new Random(42);
+            frase = texto(random, 1800);
+            resposta = texto(random, 2000);
+        }
+        comLimite = new VerificadorDePontos(frase.length() * 2);
+    }
+
+    @Benchmark
+    public int original() {
+        return VerificadorDePontosOriginal.calcularPontuacao(frase, resposta);
+    }
+
+    @Benchmark
+    public int linear() {
+        return semLimite.calcularPontuacao(frase, resposta);
+    }
+
+    @Benchmark
+    public int linearComLimite() {
+        return comLimite.calcularPontuacao(frase, resposta);
+    }
+
+    private static String texto(Random random, int tamanho) {
+        StringBuilder texto = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            texto.append((char) ('a' + random.nextInt(26)));
+        }
+        return texto.toString();
+    }
+}
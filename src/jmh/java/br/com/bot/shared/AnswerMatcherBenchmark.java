@@ -0,0 +1,70 @@
+package br.com.bot.shared;
+
+import br.com.bot.utils.NormalizadorDeTexto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a verificação de uma tentativa com tolerância a erros de digitação: o algoritmo bit-paralelo
+ * de Myers do {@link AnswerMatcher} e a programação dinâmica ingênua sobre as formas canônicas.
+ * <p>
+ * As tentativas misturam mensagens de chat sem relação com a resposta e quase acertos.
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="AnswerMatcherBenchmark -prof gc"}
+ *
+ * @author Lucas
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswerMatcherBenchmark {
+
+    @Param({"Brasília", "Antoine de Saint-Exupéry", "Qual é o ponto mais alto do Brasil? Pico da Neblina, no Amazonas"})
+    public String resposta;
+
+    @Param({"2"})
+    public int maxErros;
+
+    private AnswerMatcher matcher;
+    private String chave;
+    private String[] tentativas;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        matcher = AnswerMatcher.compilar(resposta, AnswerMatcher.Modo.SEM_ACENTOS);
+        chave = NormalizadorDeTexto.normalizar(resposta);
+        String quaseAcerto = resposta.substring(0, resposta.length() - 1) + "x";
+        String semAcento = NormalizadorDeTexto.normalizar(resposta).toUpperCase();
+        tentativas = new String[]{"kkkkkk", quaseAcerto, "não sei", "acho que é " + resposta, semAcento,
+                "alguém sabe?", resposta.substring(1), "boa noite"};
+    }
+
+    @Benchmark
+    public boolean myers() {
+        return matcher.corresponde(proximaTentativa(), maxErros);
+    }
+
+    @Benchmark
+    public boolean programacaoDinamica() {
+        return LevenshteinIngenuo.distancia(chave, NormalizadorDeTexto.normalizar(proximaTentativa())) <= maxErros;
+    }
+
+    private String proximaTentativa() {
+        return tentativas[proxima++ & (tentativas.length - 1)];
+    }
+}
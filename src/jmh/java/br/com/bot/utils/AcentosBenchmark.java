@@ -0,0 +1,81 @@
+package br.com.bot.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compara a normalização das mensagens de chat (sem acentos e em minúsculas), feita para cada
+ * mensagem de um canal com jogo ativo: antes, {@link Normalizer} (NFD) seguido de uma expressão
+ * regular compilada a cada chamada; depois, a conversão por tabela do {@link NormalizadorDeTexto},
+ * retornando uma String ou escrevendo em um buffer reutilizável.
+ * <p>
+ * Cada operação normaliza uma mensagem de um conjunto fixo de mensagens típicas em português.
+ * Para ver a alocação, execute com {@code -prof gc}:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="AcentosBenchmark -prof gc"}
+ *
+ * @author Lucas
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AcentosBenchmark {
+
+    private static final String[] MENSAGENS = {
+            "kkkkkkk",
+            "Brasília",
+            "não sei, é a capital da França?",
+            "PARABÉNS!!! Você acertou",
+            "ação",
+            "vc viu o jogo ontem? foi demais",
+            "Pedro Álvares Cabral",
+            "Tóquio",
+            "acho que é mitocôndria",
+            "rio de janeiro",
+            "ÔNIBUS ESPACIAL 🚀",
+            "Machado de Assis",
+            "eita, quase",
+            "São Paulo",
+            "qual era a pergunta mesmo",
+            "Júpiter"
+    };
+
+    private final StringBuilder buffer = new StringBuilder(64);
+    private int proxima;
+
+    /** A implementação original de {@code removerAcentos}, seguida de {@code toLowerCase}. */
+    @Benchmark
+    public String antesRegex() {
+        String decomposto = Normalizer.normalize(proximaMensagem(), Normalizer.Form.NFD);
+        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+        return pattern.matcher(decomposto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    @Benchmark
+    public String depoisTabela() {
+        return NormalizadorDeTexto.normalizar(proximaMensagem());
+    }
+
+    @Benchmark
+    public StringBuilder depoisTabelaComBuffer() {
+        return NormalizadorDeTexto.normalizar(proximaMensagem(), buffer);
+    }
+
+    private String proximaMensagem() {
+        return MENSAGENS[proxima++ & (MENSAGENS.length - 1)];
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.bot.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a consulta do jogo ativo de um canal, feita pelo {@code GameManager} a cada mensagem recebida:
+ * antes, um {@link ConcurrentHashMap} indexado pelo ID do canal em texto ({@code getChannel().getId()});
+ * depois, o {@link ConcurrentLongMap} indexado pelo snowflake ({@code getIdLong()}).
+ * <p>
+ * A maioria das mensagens vem de canais sem jogo; a proporção de acertos é um parâmetro. Para ver a
+ * alocação por mensagem, execute com {@code -prof gc}:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="IndiceDeJogosBenchmark -prof gc"}
+ *
+ * @author Lucas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndiceDeJogosBenchmark {
+
+    /** O número de canais com jogo ativo. */
+    @Param({"100", "10000"})
+    public int jogosAtivos;
+
+    /** A porcentagem das mensagens que vêm de um canal com jogo ativo. */
+    @Param({"5"})
+    public int porcentagemDeAcertos;
+
+    private static final int MENSAGENS = 4096;
+
+    private final ConcurrentHashMap<String, Object> antes = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<Object> depois = new ConcurrentLongMap<>();
+    private long[] canaisDasMensagens;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        long[] canaisComJogo = new long[jogosAtivos];
+        Object jogo = new Object();
+        for (int i = 0; i < jogosAtivos; i++) {
+            canaisComJogo[i] = snowflake(random);
+            antes.put(Long.toUnsignedString(canaisComJogo[i]), jogo);
+            depois.put(canaisComJogo[i], jogo);
+        }
+        canaisDasMensagens = new long[MENSAGENS];
+        for (int i = 0; i < MENSAGENS; i++) {
+            canaisDasMensagens[i] = random.nextInt(100) < porcentagemDeAcertos
+                    ? canaisComJogo[random.nextInt(jogosAtivos)]
+                    : snowflake(random);
+        }
+    }
+
+    /** A consulta original: o ID em texto é criado a cada mensagem, como em {@code Channel.getId()}. */
+    @Benchmark
+    public Object antesChaveEmTexto() {
+        return antes.get(Long.toUnsignedString(proximoCanal()));
+    }
+
+    /** A consulta atual, sem alocação. */
+    @Benchmark
+    public Object depoisChavePrimitiva() {
+        return depois.get(proximoCanal());
+    }
+
+    private long proximoCanal() {
+        return canaisDasMensagens[proxima++ & (MENSAGENS - 1)];
+    }
+
+    /** Um snowflake plausível: um instante dos últimos anos no campo de tempo, com bits baixos aleatórios. */
+    private static long snowflake(Random random) {
+        long instante = 200_000_000_000L + (long) (random.nextDouble() * 100_000_000_000L);
+        return (instante << 22) | (random.nextInt() & 0x3FFFFF);
+    }
+}
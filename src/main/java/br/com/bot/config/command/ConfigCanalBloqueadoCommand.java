@@ -48,7 +48,7 @@ public class ConfigCanalBloqueadoCommand implements ICommand {
 
         boolean bloquear = event.getOption("bloquear").getAsBoolean();
         String guildId = event.getGuild().getId();
-        String channelId = event.getChannel().getId(); // Pega o canal onde o comando foi usado
+        long channelId = event.getChannel().getIdLong(); // Pega o canal onde o comando foi usado
 
         if (bloquear) {
             configManager.blockChannel(guildId, channelId);
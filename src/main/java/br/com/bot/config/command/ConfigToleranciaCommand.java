@@ -0,0 +1,98 @@
+package br.com.bot.config.command;
+
+import br.com.bot.core.ConfigManager;
+import br.com.bot.shared.ICommand;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+/**
+ * Comando de configuração para aceitar respostas com erros de digitação nos jogos de um servidor.
+ * <p>
+ * A tolerância pode ser um número fixo de erros (letras trocadas, faltando ou sobrando) ou uma
+ * porcentagem do tamanho da resposta. Vale para os jogos de resposta, memória e embaralhar.
+ * Este comando é restrito a administradores e altera uma configuração persistente
+ * para o servidor (guild) onde é executado, utilizando o {@link ConfigManager}.
+ *
+ * @author Lucas
+ */
+public class ConfigToleranciaCommand implements ICommand {
+
+    /** O maior número fixo de erros aceito pelo comando. */
+    private static final int MAX_ERROS = 10;
+
+    /** A maior porcentagem aceita pelo comando. */
+    private static final int MAX_PORCENTAGEM = 50;
+
+    /** Gerenciador de configurações de servidor. */
+    private final ConfigManager configManager;
+
+    /**
+     * Constrói o comando de configuração com suas dependências.
+     *
+     * @param configManager O gerenciador de configurações, necessário para alterar e salvar a regra.
+     */
+    public ConfigToleranciaCommand(ConfigManager configManager) {
+        this.configManager = configManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Lê as opções 'erros' e 'porcentagem' (apenas uma pode ser usada). Sem nenhuma das duas,
+     * ou com o valor zero, a tolerância é desativada e as respostas voltam a ter de ser exatas.
+     */
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        if (event.getGuild() == null) {
+            event.reply("Este comando só pode ser usado em um servidor.").setEphemeral(true).queue();
+            return;
+        }
+
+        OptionMapping opcaoErros = event.getOption("erros");
+        OptionMapping opcaoPorcentagem = event.getOption("porcentagem");
+        if (opcaoErros != null && opcaoPorcentagem != null) {
+            event.reply("❌ Use apenas uma das opções: `erros` ou `porcentagem`.").setEphemeral(true).queue();
+            return;
+        }
+
+        int erros = opcaoErros != null ? opcaoErros.getAsInt() : 0;
+        int porcentagem = opcaoPorcentagem != null ? opcaoPorcentagem.getAsInt() : 0;
+        configManager.setTypoTolerance(event.getGuild().getId(), erros, porcentagem);
+
+        String resposta;
+        if (porcentagem > 0) {
+            resposta = String.format("✅ Respostas com até **%d%%** de erros de digitação (em relação ao tamanho da resposta) agora são aceitas.", porcentagem);
+        } else if (erros > 0) {
+            resposta = String.format("✅ Respostas com até **%d** erro(s) de digitação agora são aceitas.", erros);
+        } else {
+            resposta = "✅ A tolerância a erros de digitação foi **desativada**. As respostas precisam ser exatas.";
+        }
+        event.reply(resposta).queue();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cria e retorna a definição do comando /config-tolerancia para o Discord.
+     * O comando é restrito a membros com a permissão de Administrador por padrão.
+     *
+     * @return A definição do comando de barra.
+     */
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("config-tolerancia", "Define quantos erros de digitação são aceitos nas respostas dos jogos.")
+                .addOptions(
+                        new OptionData(OptionType.INTEGER, "erros", "Número máximo de letras erradas. Use 0 para exigir a resposta exata.", false)
+                                .setRequiredRange(0, MAX_ERROS),
+                        new OptionData(OptionType.INTEGER, "porcentagem", "Erros aceitos como porcentagem do tamanho da resposta.", false)
+                                .setRequiredRange(0, MAX_PORCENTAGEM)
+                )
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.ADMINISTRATOR));
+    }
+}
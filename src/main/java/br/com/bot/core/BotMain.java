@@ -1,19 +1,32 @@
 package br.com.bot.core;
 
+import br.com.bot.estatisticas.EstatisticasManager;
+import br.com.bot.ranking.RankingManager;
 import br.com.bot.shared.ICommand;
+import br.com.bot.shared.IMetricsSource;
+import br.com.bot.utils.BancoDePerguntas;
+import br.com.bot.utils.CorpusDePalavras;
 import br.com.bot.utils.command.ListServersCommand;
+import br.com.bot.utils.command.MetricasCommand;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +39,7 @@ import java.util.stream.Collectors;
  * <li>Inicia a lógica de conexão e configuração do bot em uma thread separada.</li>
  * <li>Atua como o "Injetor de Dependências" manual da aplicação.</li>
  * <li>Gerencia o registro de comandos de barra, alternando entre modo de desenvolvimento e produção.</li>
+ * <li>Conecta com uma única conexão ou, se configurado, com vários shards via {@link ShardManager}.</li>
  * </ol>
  *
  * @author Lucas
@@ -39,12 +53,46 @@ public class BotMain {
     private static String TOKEN;
     /** O ID do servidor de teste. Lido de config.properties. */
     public static String ID_SERVIDOR_TESTE;
+    /** O número de trabalhadores do despachante de canais. Lido de config.properties. */
+    private static int DISPATCHER_WORKERS;
+    /** O número total de shards; zero ou negativo desativa o sharding. Lido de config.properties. */
+    private static int SHARDS_TOTAL;
+    /** O intervalo de shards iniciados por este processo, ou {@code null} para todos. Lido de config.properties. */
+    private static int[] SHARD_RANGE;
+    /** Quanto tempo, no máximo, se espera o ShardManager criar cada shard do intervalo. */
+    private static final long ESPERA_MAXIMA_SHARD_MS = TimeUnit.MINUTES.toMillis(2);
+    /** O perfil de cache e eventos da conexão com o gateway. Lido de config.properties. */
+    private static GatewayProfile GATEWAY_PROFILE;
+    /** O intervalo de agrupamento das gravações de configuração, em milissegundos. Lido de config.properties. */
+    private static int CONFIG_SAVE_DEBOUNCE_MS;
+    /** O armazenamento das configurações dos servidores. Escolhido em config.properties. */
+    private static IConfigStorage CONFIG_STORAGE;
+    /** O intervalo da reconciliação das configurações com os servidores atuais, em minutos. Lido de config.properties. */
+    private static int CONFIG_RECONCILE_MINUTES;
     // ------------------------------------------
 
-    /** A instância principal do JDA, para ser acessível globalmente. */
+    /** A instância principal do JDA, para ser acessível globalmente (modo sem shards). */
     private static JDA jda;
+    /** O gerenciador de shards (modo com shards), ou {@code null} no modo de conexão única. */
+    private static ShardManager shardManager;
     /** A instância do gerenciador do ícone da bandeja do sistema. */
     private static TrayManager trayManager;
+    /** O despachante que processa as mensagens dos jogos, um "ator" por canal. */
+    private static ChannelDispatcher dispatcher;
+    /** O gerenciador de jogos ativos, dono dos timers das partidas. */
+    private static GameManager gameManager;
+    /** O gerenciador das configurações dos servidores, que grava as alterações em segundo plano. */
+    private static ConfigManager configManager;
+    /** O gerenciador dos rankings, que grava os pontos das partidas em um log local. */
+    private static RankingManager rankingManager;
+    /** O gerenciador das estatísticas de tempo de reação, gravadas em segundo plano. */
+    private static EstatisticasManager estatisticasManager;
+    /** Executa as tarefas periódicas de manutenção (ex: reconciliação das configurações). */
+    private static final ScheduledExecutorService manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "manutencao");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * O método principal que inicia a aplicação.
@@ -62,6 +110,13 @@ public class BotMain {
         TOKEN = config.getToken();
         ID_SERVIDOR_TESTE = config.getTestGuildId();
         IS_DEV_MODE = config.isDevMode();
+        DISPATCHER_WORKERS = config.getDispatcherWorkers();
+        SHARDS_TOTAL = config.getShardsTotal();
+        SHARD_RANGE = config.getShardRange();
+        GATEWAY_PROFILE = config.getGatewayProfile();
+        CONFIG_SAVE_DEBOUNCE_MS = config.getConfigSaveDebounceMs();
+        CONFIG_STORAGE = config.getConfigStorage();
+        CONFIG_RECONCILE_MINUTES = config.getConfigReconcileMinutes();
 
         // Define a ação de desligamento que será usada pelo ícone da bandeja.
         Runnable shutdownHook = () -> {
@@ -69,12 +124,45 @@ public class BotMain {
                 System.out.println("Desligando o bot...");
                 jda.shutdown();
             }
+            if (shardManager != null) {
+                System.out.println("Desligando todos os shards...");
+                shardManager.shutdown();
+            }
+            if (gameManager != null) {
+                gameManager.shutdown();
+            }
+            if (dispatcher != null) {
+                dispatcher.shutdown();
+            }
+            manutencao.shutdownNow();
+            if (configManager != null) {
+                configManager.shutdown();
+            }
+            if (rankingManager != null) {
+                rankingManager.fechar();
+            }
+            if (estatisticasManager != null) {
+                estatisticasManager.fechar();
+            }
         };
         trayManager = new TrayManager(shutdownHook);
         javax.swing.SwingUtilities.invokeLater(trayManager::init);
 
         // Inicia a lógica principal do bot em uma thread separada para não travar a UI.
         new Thread(BotMain::conectarEConfigurarBot).start();
+
+        // Garante que as configurações pendentes sejam gravadas mesmo sem o ícone da bandeja (ex: Ctrl+C).
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (configManager != null) {
+                configManager.shutdown();
+            }
+            if (rankingManager != null) {
+                rankingManager.fechar();
+            }
+            if (estatisticasManager != null) {
+                estatisticasManager.fechar();
+            }
+        }));
     }
 
     /**
@@ -83,58 +171,57 @@ public class BotMain {
      */
     private static void conectarEConfigurarBot() {
         try {
+            StartupStats startupStats = new StartupStats(GATEWAY_PROFILE);
+
             // --- INÍCIO DA INJEÇÃO DE DEPENDÊNCIA ---
-            GameManager gameManager = new GameManager();
-            ConfigManager configManager = new ConfigManager();
-            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            int particoes = Math.max(1, SHARDS_TOTAL);
+            dispatcher = new ChannelDispatcher(DISPATCHER_WORKERS);
+            gameManager = new GameManager(dispatcher, particoes);
+            configManager = new ConfigManager(particoes, CONFIG_STORAGE, CONFIG_SAVE_DEBOUNCE_MS);
+            rankingManager = new RankingManager(Paths.get("."));
+            rankingManager.carregar();
+            gameManager.getMotorDeFases().adicionarOuvinte(rankingManager);
+            estatisticasManager = new EstatisticasManager(Paths.get("."));
+            estatisticasManager.carregar();
+            gameManager.getMotorDeFases().adicionarOuvinte(estatisticasManager);
 
-            Map<String, ICommand> commandMap = CommandRegistry.createCommands(gameManager, configManager, scheduler);
-            GameCommands gameCommandsManager = new GameCommands(gameManager, configManager, commandMap);
+            List<IMetricsSource> metricsSources = new ArrayList<>(List.of(dispatcher, gameManager.getTimingWheel(), gameManager.getEditCoalescer(), configManager.getPersister(), rankingManager, estatisticasManager, estatisticasManager.getPersister(), startupStats));
+            if (CONFIG_STORAGE instanceof IMetricsSource) {
+                metricsSources.add((IMetricsSource) CONFIG_STORAGE);
+            }
+            CorpusDePalavras corpus = CorpusDePalavras.carregarEmbutido(Paths.get("."));
+            BancoDePerguntas banco = BancoDePerguntas.embutido(Paths.get(".")); // Carregado no primeiro sorteio.
+            Map<String, ICommand> commandMap = CommandRegistry.createCommands(gameManager, configManager, metricsSources, corpus, banco, rankingManager, estatisticasManager);
+            GameCommands gameCommandsManager = new GameCommands(gameManager, configManager, commandMap, dispatcher);
             // --- FIM DA INJEÇÃO DE DEPENDÊNCIA ---
 
 
-            // Constrói a instância do JDA usando as dependências e configurações.
-            jda = JDABuilder.createDefault(TOKEN)
-                    .enableIntents(GatewayIntent.MESSAGE_CONTENT)
-                    .addEventListeners(gameCommandsManager)
-                    .setActivity(Activity.customStatus("Gerenciando Jogos 🦆"))
-                    .build();
+            // O manifesto dos comandos é calculado e comparado com o último registro enquanto o gateway conecta.
+            List<ICommand> allCommands = new ArrayList<>(gameCommandsManager.getCommands().values());
+            CompletableFuture<CommandManifest> manifestoFuturo = CompletableFuture.supplyAsync(() -> montarManifesto(allCommands));
+
+            // Constrói a conexão (única ou com shards) usando as dependências e configurações.
+            if (SHARDS_TOTAL > 0) {
+                conectarComShards(gameCommandsManager);
+            } else {
+                JDABuilder builder = JDABuilder.createDefault(TOKEN)
+                        .enableIntents(GatewayIntent.MESSAGE_CONTENT)
+                        .addEventListeners(gameCommandsManager)
+                        .setActivity(Activity.customStatus("Gerenciando Jogos 🦆"));
+                jda = GATEWAY_PROFILE.aplicar(builder).build();
 
-            jda.awaitReady();
+                jda.awaitReady();
+            }
+            startupStats.registrarPronto(shardManager != null ? shardManager.getGuildCache().size() : jda.getGuildCache().size());
             trayManager.updateTooltip("Bot de Jogos (Online)");
 
             // --- LÓGICA DE REGISTRO E LIMPEZA AUTOMÁTICA DE COMANDOS ---
-            List<ICommand> allCommands = new ArrayList<>(gameCommandsManager.getCommands().values());
-
-            if (IS_DEV_MODE) {
-                Guild guild = jda.getGuildById(ID_SERVIDOR_TESTE);
-                if (guild != null) {
-                    System.out.println("Modo de Desenvolvimento Ativo.");
-                    System.out.println("Limpando comandos globais...");
-                    jda.updateCommands().addCommands().queue();
-
-                    List<SlashCommandData> allCommandDataForGuild = allCommands.stream()
-                            .map(ICommand::getCommandData)
-                            .collect(Collectors.toList());
-                    guild.updateCommands().addCommands(allCommandDataForGuild).queue();
-                    System.out.println("Todos os comandos registrados no servidor de teste: " + guild.getName());
-                } else {
-                    System.err.println("Servidor de teste não encontrado! Verifique o ID em config.properties.");
-                }
-            } else {
-                System.out.println("Modo de Produção Ativo.");
-                Guild guild = jda.getGuildById(ID_SERVIDOR_TESTE);
-                if (guild != null) {
-                    System.out.println("Limpando comandos do servidor de teste...");
-                    guild.updateCommands().addCommands().queue();
-                }
+            System.out.println(IS_DEV_MODE ? "Modo de Desenvolvimento Ativo." : "Modo de Produção Ativo.");
+            registrarComandos(manifestoFuturo.join());
 
-                List<SlashCommandData> publicCommands = allCommands.stream()
-                        .filter(c -> !(c instanceof ListServersCommand))
-                        .map(ICommand::getCommandData)
-                        .collect(Collectors.toList());
-                jda.updateCommands().addCommands(publicCommands).queue();
-                System.out.println("Apenas os comandos públicos foram registrados globalmente.");
+            if (CONFIG_RECONCILE_MINUTES > 0) {
+                manutencao.scheduleWithFixedDelay(BotMain::reconciliarConfiguracoes,
+                        CONFIG_RECONCILE_MINUTES, CONFIG_RECONCILE_MINUTES, TimeUnit.MINUTES);
             }
 
             System.out.println("Bot está online e pronto!");
@@ -144,4 +231,171 @@ public class BotMain {
             System.exit(1);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Apaga as configurações de servidores dos quais o bot saiu enquanto estava desligado
+     * (ou cujo evento de saída foi perdido), comparando-as com a lista de servidores atual.
+     * <p>
+     * Só é executada quando todas as conexões desta instância estão ativas, já que uma conexão
+     * caída teria uma lista de servidores incompleta. Servidores temporariamente indisponíveis
+     * (ex: durante uma instabilidade do Discord) são considerados presentes.
+     */
+    private static void reconciliarConfiguracoes() {
+        try {
+            List<JDA> conexoes = shardManager != null ? shardManager.getShards() : List.of(jda);
+            Set<String> presentes = new HashSet<>();
+            Set<Integer> shardsGerenciados = new HashSet<>();
+            for (JDA conexao : conexoes) {
+                if (conexao.getStatus() != JDA.Status.CONNECTED) {
+                    System.out.println("Reconciliação das configurações adiada: nem todos os shards estão conectados.");
+                    return;
+                }
+                conexao.getGuildCache().forEach(guild -> presentes.add(guild.getId()));
+                presentes.addAll(conexao.getUnavailableGuilds());
+                shardsGerenciados.add(shardManager != null ? conexao.getShardInfo().getShardId() : 0);
+            }
+            int removidas = configManager.removerAusentes(shardsGerenciados, presentes::contains);
+            if (removidas > 0) {
+                System.out.printf("Reconciliação das configurações: %d servidor(es) ausente(s) removido(s).%n", removidas);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("ERRO: Falha na reconciliação das configurações dos servidores.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Monta o manifesto dos comandos desejados para cada alvo de registro.
+     * <p>
+     * No modo de desenvolvimento, todos os comandos ficam no servidor de teste e os globais são limpos.
+     * No modo de produção, apenas os comandos públicos ficam globais e o servidor de teste é limpo.
+     *
+     * @param allCommands Todos os comandos do bot.
+     * @return O manifesto, já comparado com o último registro salvo em disco.
+     */
+    private static CommandManifest montarManifesto(List<ICommand> allCommands) {
+        CommandManifest manifesto = new CommandManifest();
+        boolean temServidorDeTeste = ID_SERVIDOR_TESTE != null && !ID_SERVIDOR_TESTE.isBlank();
+
+        if (IS_DEV_MODE) {
+            List<SlashCommandData> allCommandDataForGuild = allCommands.stream()
+                    .map(ICommand::getCommandData)
+                    .collect(Collectors.toList());
+            manifesto.definir(CommandManifest.ALVO_GLOBAL, List.of());
+            if (temServidorDeTeste) {
+                manifesto.definir(CommandManifest.alvoServidor(ID_SERVIDOR_TESTE), allCommandDataForGuild);
+            }
+        } else {
+            List<SlashCommandData> publicCommands = allCommands.stream()
+                    .filter(c -> !(c instanceof ListServersCommand) && !(c instanceof MetricasCommand))
+                    .map(ICommand::getCommandData)
+                    .collect(Collectors.toList());
+            manifesto.definir(CommandManifest.ALVO_GLOBAL, publicCommands);
+            if (temServidorDeTeste) {
+                manifesto.definir(CommandManifest.alvoServidor(ID_SERVIDOR_TESTE), List.of());
+            }
+        }
+        return manifesto;
+    }
+
+    /**
+     * Envia ao Discord apenas as listas de comandos que mudaram desde o último registro.
+     * O manifesto só é atualizado em disco depois que o Discord confirma cada envio.
+     *
+     * @param manifesto O manifesto montado por {@link #montarManifesto(List)}.
+     */
+    private static void registrarComandos(CommandManifest manifesto) {
+        System.out.println("Manifesto de comandos:\n" + manifesto.resumo());
+
+        // Qualquer conexão serve para registrar comandos globais; os servidores são buscados em todos os shards.
+        JDA jdaPrincipal = shardManager != null ? shardManager.getShards().get(0) : jda;
+        String alvoGlobal = CommandManifest.ALVO_GLOBAL;
+        if (manifesto.mudou(alvoGlobal)) {
+            jdaPrincipal.updateCommands().addCommands(manifesto.getComandos(alvoGlobal))
+                    .queue(ok -> manifesto.confirmar(alvoGlobal));
+            System.out.println(IS_DEV_MODE ? "Limpando comandos globais..." : "Apenas os comandos públicos foram registrados globalmente.");
+        }
+
+        if (ID_SERVIDOR_TESTE == null || ID_SERVIDOR_TESTE.isBlank()) {
+            if (IS_DEV_MODE) {
+                System.err.println("Servidor de teste não encontrado! Verifique o ID em config.properties.");
+            }
+            return;
+        }
+        String alvoTeste = CommandManifest.alvoServidor(ID_SERVIDOR_TESTE);
+        if (!manifesto.mudou(alvoTeste)) {
+            return;
+        }
+        Guild guild = buscarServidor(ID_SERVIDOR_TESTE);
+        if (guild != null) {
+            guild.updateCommands().addCommands(manifesto.getComandos(alvoTeste))
+                    .queue(ok -> manifesto.confirmar(alvoTeste));
+            System.out.println(IS_DEV_MODE
+                    ? "Todos os comandos registrados no servidor de teste: " + guild.getName()
+                    : "Limpando comandos do servidor de teste...");
+        } else if (IS_DEV_MODE) {
+            System.err.println("Servidor de teste não encontrado! Verifique o ID em config.properties.");
+        }
+    }
+
+    /**
+     * Inicia o bot no modo com shards, usando o {@link ShardManager}.
+     * <p>
+     * Cada shard é uma conexão independente com o gateway, com sua própria thread de eventos.
+     * Os shards são iniciados em sequência pelo JDA (respeitando o limite de identificação do
+     * Discord), então este método espera até que todos os shards do intervalo estejam prontos.
+     *
+     * @param listener O listener de eventos compartilhado por todos os shards.
+     * @throws InterruptedException Se a espera pelos shards for interrompida.
+     */
+    private static void conectarComShards(GameCommands listener) throws InterruptedException {
+        DefaultShardManagerBuilder builder = DefaultShardManagerBuilder.createDefault(TOKEN)
+                .enableIntents(GatewayIntent.MESSAGE_CONTENT)
+                .addEventListeners(listener)
+                .setActivity(Activity.customStatus("Gerenciando Jogos 🦆"))
+                .setShardsTotal(SHARDS_TOTAL);
+        GATEWAY_PROFILE.aplicar(builder);
+
+        int primeiro = 0;
+        int ultimo = SHARDS_TOTAL - 1;
+        if (SHARD_RANGE != null) {
+            primeiro = SHARD_RANGE[0];
+            ultimo = SHARD_RANGE[1];
+            builder.setShards(primeiro, ultimo);
+        }
+        System.out.printf("Iniciando os shards %d a %d (de %d no total)...%n", primeiro, ultimo, SHARDS_TOTAL);
+        shardManager = builder.build();
+
+        for (int shardId = primeiro; shardId <= ultimo; shardId++) {
+            JDA shard;
+            // O ShardManager cria os shards aos poucos; espera este shard existir antes de aguardar sua conexão.
+            long limite = System.currentTimeMillis() + ESPERA_MAXIMA_SHARD_MS;
+            while ((shard = shardManager.getShardById(shardId)) == null) {
+                if (System.currentTimeMillis() > limite) {
+                    System.err.printf("ERRO: O shard %d não foi criado em %d segundos. Encerrando.%n", shardId, ESPERA_MAXIMA_SHARD_MS / 1000);
+                    System.exit(1);
+                }
+                Thread.sleep(1000);
+            }
+            shard.awaitReady();
+            System.out.printf("Shard %d pronto (%d servidores).%n", shardId, shard.getGuildCache().size());
+        }
+    }
+
+    /**
+     * Busca um servidor pelo ID, tanto no modo de conexão única quanto no modo com shards.
+     *
+     * @param guildId O ID do servidor.
+     * @return O servidor, ou {@code null} se ele não for encontrado nesta instância do bot.
+     */
+    private static Guild buscarServidor(String guildId) {
+        if (guildId == null || guildId.isBlank()) {
+            return null;
+        }
+        try {
+            return shardManager != null ? shardManager.getGuildById(guildId) : jda.getGuildById(guildId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package br.com.bot.core;
+
+import br.com.bot.shared.IMetricsSource;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Despachante de tarefas no modelo de "atores por canal".
+ * <p>
+ * Cada canal é associado, por hash do seu ID, a um único trabalhador (worker) dentre um
+ * conjunto fixo de N threads. Todas as tarefas de um mesmo canal são executadas em ordem
+ * e sempre pela mesma thread, o que elimina a necessidade de travas no estado dos jogos.
+ * Canais diferentes são distribuídos entre os trabalhadores, de forma que um jogo lento
+ * não bloqueia os demais servidores.
+ *
+ * @author Lucas
+ */
+public class ChannelDispatcher implements IMetricsSource {
+
+    /** Os trabalhadores, cada um com sua própria fila e thread. */
+    private final Worker[] workers;
+
+    /**
+     * Constrói o despachante e inicia suas threads de trabalho.
+     *
+     * @param numWorkers O número de trabalhadores (threads). Valores menores que 1 são tratados como 1.
+     */
+    public ChannelDispatcher(int numWorkers) {
+        int total = Math.max(1, numWorkers);
+        this.workers = new Worker[total];
+        for (int i = 0; i < total; i++) {
+            workers[i] = new Worker(i);
+            workers[i].thread.start();
+        }
+    }
+
+    /**
+     * Enfileira uma tarefa para ser executada pelo trabalhador responsável pelo canal.
+     * Tarefas de um mesmo canal são executadas na ordem em que foram despachadas.
+     *
+     * @param channelId O ID (snowflake) do canal ao qual a tarefa pertence.
+     * @param tarefa    A tarefa a ser executada.
+     */
+    public void despachar(long channelId, Runnable tarefa) {
+        workerDe(channelId).enfileirar(tarefa);
+    }
+
+    /**
+     * Encerra todos os trabalhadores após o processamento das tarefas já enfileiradas.
+     */
+    public void shutdown() {
+        for (Worker worker : workers) {
+            worker.enfileirar(Worker.PILULA_DE_VENENO);
+        }
+    }
+
+    /**
+     * Aguarda até que todas as filas sejam esvaziadas ou o tempo limite expire.
+     * Útil no desligamento do bot, para não descartar respostas já recebidas.
+     *
+     * @param timeout O tempo máximo de espera.
+     * @param unit    A unidade do tempo de espera.
+     * @throws InterruptedException Se a thread for interrompida durante a espera.
+     */
+    public void awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long limite = System.nanoTime() + unit.toNanos(timeout);
+        for (Worker worker : workers) {
+            long restante = limite - System.nanoTime();
+            if (restante <= 0) return;
+            worker.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(restante)));
+        }
+    }
+
+    /**
+     * Seleciona o trabalhador de um canal. Os bits baixos de um snowflake (contador de
+     * incremento) são pouco uniformes, então o ID é embaralhado antes do módulo.
+     */
+    private Worker workerDe(long channelId) {
+        long h = channelId * 0x9E3779B97F4A7C15L;
+        h ^= (h >>> 32);
+        return workers[(int) Math.floorMod(h, (long) workers.length)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMetricsName() {
+        return "Despachante de canais";
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Exibe, para cada trabalhador, a profundidade atual e máxima da fila, o total de
+     * tarefas processadas e os tempos médio e máximo de processamento.
+     */
+    @Override
+    public String getMetricsSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (Worker worker : workers) {
+            long processadas = worker.processadas.sum();
+            double mediaMs = processadas == 0 ? 0.0 : worker.tempoTotalNanos.sum() / (double) processadas / 1_000_000.0;
+            sb.append(String.format("#%d: fila %d (máx %d) | %d tarefas | média %.3f ms | máx %.3f ms%n",
+                    worker.indice,
+                    worker.fila.size(),
+                    worker.profundidadeMaxima.get(),
+                    processadas,
+                    mediaMs,
+                    worker.tempoMaximoNanos.get() / 1_000_000.0));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Um trabalhador: uma thread dedicada consumindo uma fila FIFO própria.
+     */
+    private static final class Worker implements Runnable {
+        /** Tarefa sentinela que sinaliza o encerramento da thread. */
+        private static final Runnable PILULA_DE_VENENO = () -> {};
+
+        private final int indice;
+        private final BlockingQueue<Runnable> fila = new LinkedBlockingQueue<>();
+        private final Thread thread;
+
+        private final LongAdder processadas = new LongAdder();
+        private final LongAdder tempoTotalNanos = new LongAdder();
+        private final AtomicLong tempoMaximoNanos = new AtomicLong();
+        private final AtomicLong profundidadeMaxima = new AtomicLong();
+
+        private Worker(int indice) {
+            this.indice = indice;
+            this.thread = new Thread(this, "canal-worker-" + indice);
+            this.thread.setDaemon(true);
+        }
+
+        private void enfileirar(Runnable tarefa) {
+            fila.add(tarefa);
+            long profundidade = fila.size();
+            profundidadeMaxima.accumulateAndGet(profundidade, Math::max);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable tarefa;
+                try {
+                    tarefa = fila.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (tarefa == PILULA_DE_VENENO) {
+                    return;
+                }
+
+                long inicio = System.nanoTime();
+                try {
+                    tarefa.run();
+                } catch (Exception e) {
+                    // Uma falha em um jogo não pode derrubar a thread que atende outros canais.
+                    System.err.println("ERRO: Falha ao processar tarefa no " + thread.getName() + ".");
+                    e.printStackTrace();
+                }
+                long duracao = System.nanoTime() - inicio;
+
+                processadas.increment();
+                tempoTotalNanos.add(duracao);
+                tempoMaximoNanos.accumulateAndGet(duracao, Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package br.com.bot.core;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * O manifesto dos comandos de barra registrados no Discord.
+ * <p>
+ * Para cada alvo de registro (os comandos globais ou os de um servidor), guarda um hash SHA-256
+ * da lista de comandos, calculado a partir da serialização de cada {@link SlashCommandData}.
+ * Os hashes do último registro bem-sucedido ficam no arquivo {@value #MANIFEST_FILE}, ao lado de
+ * {@code server_configs.json}. Na inicialização, apenas os alvos cujo hash mudou são enviados
+ * novamente ao Discord, economizando chamadas REST e evitando que os comandos "pisquem".
+ * <p>
+ * Se os comandos forem alterados fora do bot (ex: por outra instância), basta apagar o arquivo
+ * do manifesto para forçar um novo registro completo.
+ *
+ * @author Lucas
+ */
+public class CommandManifest {
+
+    /** O nome do arquivo JSON onde os hashes do último registro são persistidos. */
+    private static final String MANIFEST_FILE = "command_manifest.json";
+
+    /** O alvo que representa os comandos globais. */
+    public static final String ALVO_GLOBAL = "global";
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    /** Os hashes do último registro bem-sucedido, lidos do disco, por alvo. */
+    private final Map<String, String> hashesRegistrados;
+
+    /** Os hashes das listas de comandos atuais, por alvo. */
+    private final Map<String, String> hashesAtuais = new TreeMap<>();
+
+    /** As listas de comandos atuais, por alvo, prontas para o envio. */
+    private final Map<String, List<SlashCommandData>> comandosAtuais = new TreeMap<>();
+
+    /**
+     * Constrói o manifesto, carregando os hashes do último registro do disco.
+     */
+    public CommandManifest() {
+        this.hashesRegistrados = carregar();
+    }
+
+    /**
+     * Retorna o alvo que representa os comandos de um servidor específico.
+     *
+     * @param guildId O ID do servidor.
+     * @return O identificador do alvo.
+     */
+    public static String alvoServidor(String guildId) {
+        return "guild:" + guildId;
+    }
+
+    /**
+     * Define a lista de comandos desejada para um alvo e calcula o seu hash.
+     *
+     * @param alvo     O alvo do registro ({@link #ALVO_GLOBAL} ou {@link #alvoServidor(String)}).
+     * @param comandos Os comandos que devem estar registrados no alvo (pode ser vazia, para limpá-lo).
+     */
+    public synchronized void definir(String alvo, List<SlashCommandData> comandos) {
+        comandosAtuais.put(alvo, comandos);
+        hashesAtuais.put(alvo, calcularHash(comandos));
+    }
+
+    /**
+     * Verifica se a lista de comandos de um alvo mudou desde o último registro bem-sucedido.
+     *
+     * @param alvo O alvo do registro.
+     * @return {@code true} se os comandos precisam ser enviados novamente ao Discord.
+     */
+    public synchronized boolean mudou(String alvo) {
+        return !hashesAtuais.get(alvo).equals(hashesRegistrados.get(alvo));
+    }
+
+    /**
+     * Retorna a lista de comandos definida para um alvo.
+     *
+     * @param alvo O alvo do registro.
+     * @return Os comandos do alvo.
+     */
+    public synchronized List<SlashCommandData> getComandos(String alvo) {
+        return comandosAtuais.get(alvo);
+    }
+
+    /**
+     * Confirma que os comandos de um alvo foram registrados com sucesso e salva o manifesto.
+     * Deve ser chamado apenas após a resposta positiva do Discord.
+     *
+     * @param alvo O alvo registrado.
+     */
+    public synchronized void confirmar(String alvo) {
+        hashesRegistrados.put(alvo, hashesAtuais.get(alvo));
+        salvar();
+    }
+
+    /**
+     * Calcula o hash de uma lista de comandos. Os comandos são ordenados pelo nome e o JSON de
+     * cada um é normalizado (chaves em ordem alfabética), para que o hash dependa apenas do conteúdo.
+     */
+    private static String calcularHash(List<SlashCommandData> comandos) {
+        JsonArray documento = new JsonArray();
+        comandos.stream()
+                .sorted(Comparator.comparing(SlashCommandData::getName))
+                .map(c -> normalizar(JsonParser.parseString(new String(c.toData().toJson(), StandardCharsets.UTF_8))))
+                .forEach(documento::add);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(documento.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM é obrigada a oferecer SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reescreve um elemento JSON com as chaves de todos os objetos em ordem alfabética.
+     */
+    private static JsonElement normalizar(JsonElement elemento) {
+        if (elemento.isJsonObject()) {
+            JsonObject ordenado = new JsonObject();
+            new TreeMap<>(elemento.getAsJsonObject().asMap())
+                    .forEach((chave, valor) -> ordenado.add(chave, normalizar(valor)));
+            return ordenado;
+        }
+        if (elemento.isJsonArray()) {
+            JsonArray normalizado = new JsonArray();
+            elemento.getAsJsonArray().forEach(item -> normalizado.add(normalizar(item)));
+            return normalizado;
+        }
+        return elemento;
+    }
+
+    private Map<String, String> carregar() {
+        try (FileReader reader = new FileReader(MANIFEST_FILE)) {
+            Type type = new TypeToken<TreeMap<String, String>>(){}.getType();
+            Map<String, String> hashes = gson.fromJson(reader, type);
+            return hashes == null ? new TreeMap<>() : hashes;
+        } catch (IOException e) {
+            System.out.println("Manifesto de comandos não encontrado. Todos os comandos serão registrados.");
+            return new TreeMap<>();
+        }
+    }
+
+    private void salvar() {
+        try (FileWriter writer = new FileWriter(MANIFEST_FILE)) {
+            gson.toJson(hashesRegistrados, writer);
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar o manifesto de comandos!");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Resume o manifesto para o log, listando cada alvo e se ele será enviado.
+     *
+     * @return Uma linha por alvo.
+     */
+    public synchronized String resumo() {
+        return hashesAtuais.keySet().stream()
+                .map(alvo -> String.format("  %s: %d comandos, %s", alvo, comandosAtuais.get(alvo).size(),
+                        mudou(alvo) ? "alterado (será registrado)" : "sem alterações"))
+                .collect(Collectors.joining("\n"));
+    }
+}
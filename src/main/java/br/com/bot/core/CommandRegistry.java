@@ -2,18 +2,29 @@ package br.com.bot.core;
 
 import br.com.bot.config.command.ConfigCanalBloqueadoCommand;
 import br.com.bot.config.command.ConfigTempoMaximoCommand;
+import br.com.bot.config.command.ConfigToleranciaCommand;
+import br.com.bot.estatisticas.EstatisticasManager;
+import br.com.bot.estatisticas.command.EstatisticasCommand;
+import br.com.bot.games.embaralhar.EmbaralharCommand;
 import br.com.bot.games.forca.ForcaCommand;
 import br.com.bot.games.memoria.MemoriaCommand;
 import br.com.bot.games.reflexo.ReflexoCommand;
 import br.com.bot.games.resposta.RespostaCommand;
+import br.com.bot.ranking.RankingManager;
+import br.com.bot.ranking.command.MeuRankCommand;
+import br.com.bot.ranking.command.RankingCommand;
 import br.com.bot.shared.ICommand;
+import br.com.bot.shared.IMetricsSource;
+import br.com.bot.utils.BancoDePerguntas;
+import br.com.bot.utils.CorpusDePalavras;
 import br.com.bot.utils.command.CancelarCommand;
 import br.com.bot.config.command.ConfigAutorespostaCommand;
 import br.com.bot.utils.command.ListServersCommand;
+import br.com.bot.utils.command.MetricasCommand;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Classe responsável por criar e registrar todos os comandos da aplicação.
@@ -21,26 +32,46 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 public class CommandRegistry {
 
-    public static Map<String, ICommand> createCommands(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
+    public static Map<String, ICommand> createCommands(GameManager gameManager, ConfigManager configManager, List<IMetricsSource> metricsSources,
+                                                   CorpusDePalavras corpus, BancoDePerguntas banco, RankingManager rankingManager, EstatisticasManager estatisticasManager) {
         Map<String, ICommand> commandMap = new ConcurrentHashMap<>();
 
         // --- Comandos de Jogo ---
-        commandMap.put("reflexos", new ReflexoCommand(gameManager, configManager, scheduler));
-        commandMap.put("resposta", new RespostaCommand(gameManager, configManager, scheduler));
-        commandMap.put("memoria", new MemoriaCommand(gameManager, configManager, scheduler));
-        commandMap.put("forca", new ForcaCommand(gameManager, configManager, scheduler));
+        registrar(commandMap, new ReflexoCommand(gameManager, configManager));
+        registrar(commandMap, new RespostaCommand(gameManager, configManager, banco));
+        registrar(commandMap, new MemoriaCommand(gameManager, configManager));
+        registrar(commandMap, new ForcaCommand(gameManager, configManager, corpus));
+        registrar(commandMap, new EmbaralharCommand(gameManager, configManager, corpus));
         // Adicione futuros jogos aqui...
 
+        // --- Comandos de Ranking e Estatísticas ---
+        registrar(commandMap, new RankingCommand(rankingManager));
+        registrar(commandMap, new MeuRankCommand(rankingManager));
+        registrar(commandMap, new EstatisticasCommand(estatisticasManager));
+
         // --- Comandos de Configuração ---
-        commandMap.put("config-autoresposta", new ConfigAutorespostaCommand(configManager));
-        commandMap.put("config-tempomaximo", new ConfigTempoMaximoCommand(configManager));
-        commandMap.put("config-canalbloqueado", new ConfigCanalBloqueadoCommand(configManager));
+        registrar(commandMap, new ConfigAutorespostaCommand(configManager));
+        registrar(commandMap, new ConfigTempoMaximoCommand(configManager));
+        registrar(commandMap, new ConfigCanalBloqueadoCommand(configManager));
+        registrar(commandMap, new ConfigToleranciaCommand(configManager));
         // Adicione futuros comandos de config aqui...
 
         // --- Comandos de Utilidade/Admin ---
-        commandMap.put("cancelar", new CancelarCommand(gameManager));
-        commandMap.put("servidores", new ListServersCommand());
+        registrar(commandMap, new CancelarCommand(gameManager));
+        registrar(commandMap, new ListServersCommand());
+        registrar(commandMap, new MetricasCommand(metricsSources));
 
         return commandMap;
     }
+
+    /**
+     * Registra um comando sob o nome com que ele é publicado no Discord, para que a chave do mapa
+     * nunca divirja do nome recebido nas interações.
+     */
+    private static void registrar(Map<String, ICommand> commandMap, ICommand command) {
+        String nome = command.getCommandData().getName();
+        if (commandMap.putIfAbsent(nome, command) != null) {
+            throw new IllegalStateException("Comando registrado mais de uma vez: /" + nome);
+        }
+    }
 }
\ No newline at end of file
@@ -69,4 +69,123 @@ public class ConfigLoader {
     public boolean isDevMode() {
         return Boolean.parseBoolean(properties.getProperty("DEV_MODE"));
     }
+
+    /**
+     * Retorna o número de trabalhadores (threads) que processam as mensagens dos jogos.
+     *
+     * @return O valor da propriedade 'DISPATCHER_WORKERS', ou o número de processadores
+     * disponíveis se a propriedade estiver ausente ou inválida.
+     */
+    public int getDispatcherWorkers() {
+        return getIntProperty("DISPATCHER_WORKERS", Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Retorna o número total de shards do bot.
+     *
+     * @return O valor da propriedade 'SHARDS_TOTAL'. Um valor menor ou igual a zero (ou a ausência
+     * da propriedade) indica que o bot deve usar uma única conexão, sem sharding.
+     */
+    public int getShardsTotal() {
+        return getIntProperty("SHARDS_TOTAL", 0);
+    }
+
+    /**
+     * Retorna o intervalo de shards que esta instância do bot deve iniciar.
+     * Permite dividir os shards entre vários processos (ex: "0-3" em uma máquina e "4-7" em outra).
+     *
+     * @return Um array {@code [primeiro, ultimo]} lido da propriedade 'SHARD_RANGE' (formato "min-max"),
+     * ou {@code null} se a propriedade estiver ausente ou inválida, indicando todos os shards. O intervalo
+     * só é válido se {@code 0 <= min <= max < SHARDS_TOTAL}.
+     */
+    public int[] getShardRange() {
+        String value = properties.getProperty("SHARD_RANGE");
+        int total = getShardsTotal();
+        if (value == null || value.isBlank() || total <= 0) {
+            return null; // Sem sharding, o intervalo não se aplica.
+        }
+        String[] partes = value.trim().split("-");
+        try {
+            if (partes.length == 2) {
+                int primeiro = Integer.parseInt(partes[0].trim());
+                int ultimo = Integer.parseInt(partes[1].trim());
+                if (primeiro >= 0 && primeiro <= ultimo && ultimo < total) {
+                    return new int[]{primeiro, ultimo};
+                }
+                System.err.printf("AVISO: 'SHARD_RANGE' (%s) em config.properties não é um intervalo válido dos shards 0 a %d (de 'SHARDS_TOTAL'). Iniciando todos os shards.%n",
+                        value.trim(), total - 1);
+                return null;
+            }
+        } catch (NumberFormatException ignored) {
+            // Tratado abaixo, junto com o formato inválido.
+        }
+        System.err.println("AVISO: Valor inválido para 'SHARD_RANGE' em config.properties (use o formato min-max). Iniciando todos os shards.");
+        return null;
+    }
+
+    /**
+     * Retorna o intervalo usado para agrupar alterações de configuração antes de gravá-las em disco.
+     *
+     * @return O valor da propriedade 'CONFIG_SAVE_DEBOUNCE_MS', ou 2000 se ela estiver ausente ou inválida.
+     */
+    public int getConfigSaveDebounceMs() {
+        return getIntProperty("CONFIG_SAVE_DEBOUNCE_MS", 2000);
+    }
+
+    /**
+     * Retorna o intervalo da verificação periódica que apaga configurações de servidores dos quais o bot saiu.
+     *
+     * @return O valor da propriedade 'CONFIG_RECONCILE_MINUTES', ou 360 (6 horas) se ela estiver ausente
+     * ou inválida. Um valor menor ou igual a zero desativa a verificação.
+     */
+    public int getConfigReconcileMinutes() {
+        return getIntProperty("CONFIG_RECONCILE_MINUTES", 360);
+    }
+
+    /**
+     * Retorna o mecanismo de armazenamento das configurações dos servidores.
+     *
+     * @return Um {@link LogConfigStorage} se a propriedade 'CONFIG_STORAGE' for "log", ou um
+     * {@link JsonConfigStorage} (o arquivo {@code server_configs.json}) em todos os outros casos.
+     */
+    public IConfigStorage getConfigStorage() {
+        String value = properties.getProperty("CONFIG_STORAGE");
+        if (value != null && value.trim().equalsIgnoreCase("log")) {
+            return new LogConfigStorage();
+        }
+        if (value != null && !value.isBlank() && !value.trim().equalsIgnoreCase("json")) {
+            System.err.println("AVISO: Valor inválido para 'CONFIG_STORAGE' em config.properties. Usando json.");
+        }
+        return new JsonConfigStorage();
+    }
+
+    /**
+     * Retorna o perfil de conexão com o gateway do Discord.
+     *
+     * @return O perfil lido da propriedade 'GATEWAY_PROFILE' ("default" ou "lean"),
+     * ou {@link GatewayProfile#DEFAULT} se a propriedade estiver ausente ou inválida.
+     */
+    public GatewayProfile getGatewayProfile() {
+        return GatewayProfile.fromConfig(properties.getProperty("GATEWAY_PROFILE"));
+    }
+
+    /**
+     * Lê uma propriedade numérica inteira, usando um valor padrão se ela estiver ausente ou inválida.
+     *
+     * @param key O nome da propriedade.
+     * @param defaultValue O valor a ser usado caso a propriedade não possa ser lida.
+     * @return O valor da propriedade ou o valor padrão.
+     */
+    private int getIntProperty(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("AVISO: Valor inválido para '" + key + "' em config.properties. Usando " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
 }
\ No newline at end of file
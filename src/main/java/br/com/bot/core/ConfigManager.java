@@ -1,85 +1,189 @@
 package br.com.bot.core;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.lang.reflect.Type;
+import br.com.bot.utils.ShardUtils;
+
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
- * Gerencia as configurações personalizadas de cada servidor, salvando e carregando de um arquivo JSON.
+ * Gerencia as configurações personalizadas de cada servidor, salvando e carregando de um {@link IConfigStorage}.
  * <p>
  * Esta classe atua como a única fonte de verdade para as configurações por servidor,
  * abstraindo a lógica de leitura e escrita do disco (persistência). Ela mantém um
- * cache em memória das configurações para acesso rápido e cria configurações padrão
- * para novos servidores sob demanda.
+ * cache em memória das configurações para acesso rápido.
+ * <p>
+ * Apenas servidores com alguma configuração personalizada ocupam espaço: a leitura de um servidor
+ * sem configuração retorna a instância compartilhada {@link ServerConfig#PADRAO}, a configuração só
+ * é criada na primeira alteração, e uma configuração que volta a ser igual à padrão é apagada.
+ * Configurações de servidores dos quais o bot saiu também são apagadas.
+ * <p>
+ * O cache é particionado por shard, com a mesma fórmula usada pelo Discord para distribuir
+ * os servidores, de forma que shards diferentes não disputam o mesmo mapa.
+ * <p>
+ * As alterações são gravadas em segundo plano por um {@link ConfigPersister}, que agrupa várias
+ * alterações em uma única gravação e entrega ao armazenamento apenas os servidores alterados.
  *
  * @author Lucas
  */
 public class ConfigManager {
-    /** O nome do arquivo JSON onde as configurações são persistidas. */
-    private static final String CONFIG_FILE = "server_configs.json";
+    /** O cache em memória das configurações, uma partição por shard, mapeando ID do Servidor para seu objeto de configuração. */
+    private final Map<String, ServerConfig>[] particoes;
+
+    /** O mecanismo de armazenamento das configurações em disco. */
+    private final IConfigStorage storage;
 
-    /** O cache em memória das configurações, mapeando ID do Servidor para seu objeto de configuração. */
-    private final Map<String, ServerConfig> serverConfigs;
+    /** O persistidor que grava as alterações em segundo plano. */
+    private final ConfigPersister persister;
 
-    /** Instância da biblioteca Gson para serialização e desserialização de JSON. */
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    /** Indica que o gerenciador já foi encerrado. */
+    private boolean encerrado;
 
     /**
      * Constrói uma nova instância do ConfigManager.
-     * Ao ser criado, ele imediatamente tenta carregar as configurações existentes do disco.
+     * Ao ser criado, ele imediatamente tenta carregar as configurações existentes do disco
+     * e as distribui entre as partições.
+     *
+     * @param shardsTotal O número total de shards do bot (1 quando não há sharding).
+     * @param storage O mecanismo de armazenamento das configurações.
+     * @param debounceMs O intervalo, em milissegundos, usado para agrupar alterações antes de gravá-las.
      */
-    public ConfigManager() {
-        this.serverConfigs = loadConfigs();
+    public ConfigManager(int shardsTotal, IConfigStorage storage, long debounceMs) {
+        this.storage = storage;
+        @SuppressWarnings("unchecked")
+        Map<String, ServerConfig>[] particoes = (Map<String, ServerConfig>[]) new Map<?, ?>[Math.max(1, shardsTotal)];
+        this.particoes = particoes;
+        for (int i = 0; i < particoes.length; i++) {
+            particoes[i] = new ConcurrentHashMap<>();
+        }
+        this.persister = new ConfigPersister(this::saveConfigs, debounceMs, TimeUnit.MILLISECONDS);
+        storage.carregarTodas().forEach((guildId, config) -> {
+            if (config.isPadrao()) {
+                // Entradas iguais à padrão (criadas por versões anteriores do bot) são apagadas do armazenamento.
+                persister.marcarAlterado(guildId);
+            } else {
+                particao(guildId).put(guildId, config);
+            }
+        });
     }
 
     /**
-     * Carrega as configurações do arquivo {@value #CONFIG_FILE} para a memória.
-     * Se o arquivo não existir, um novo mapa vazio é criado e o programa continua normalmente.
+     * Entrega ao armazenamento a versão atual das configurações dos servidores alterados.
+     * Chamado apenas pelo {@link ConfigPersister}, que nunca executa duas gravações em paralelo.
+     * Como as configurações são imutáveis, nenhuma cópia ou trava é necessária.
      *
-     * @return Um {@link Map} contendo as configurações de todos os servidores.
+     * @param alterados Os IDs dos servidores alterados desde a última gravação.
      */
-    private Map<String, ServerConfig> loadConfigs() {
-        try (FileReader reader = new FileReader(CONFIG_FILE)) {
-            Type type = new TypeToken<ConcurrentHashMap<String, ServerConfig>>(){}.getType();
-            Map<String, ServerConfig> configs = gson.fromJson(reader, type);
-            return configs == null ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(configs);
-        } catch (IOException e) {
-            System.out.println("Arquivo de configuração de servidores não encontrado. Um novo será criado na primeira alteração.");
-            return new ConcurrentHashMap<>();
+    private void saveConfigs(Set<String> alterados) {
+        Map<String, ServerConfig> versoes = new TreeMap<>();
+        for (String guildId : alterados) {
+            versoes.put(guildId, particao(guildId).get(guildId));
         }
+        storage.gravar(versoes);
+    }
+
+    /**
+     * Retorna o persistidor das configurações, para exposição de suas métricas.
+     *
+     * @return O {@link ConfigPersister} deste gerenciador.
+     */
+    public ConfigPersister getPersister() {
+        return persister;
     }
 
     /**
-     * Salva o estado atual do mapa de configurações em memória para o arquivo {@value #CONFIG_FILE}.
-     * Este método é sincronizado para evitar problemas de concorrência ao escrever no arquivo.
+     * Grava as alterações pendentes, encerra a gravação em segundo plano e fecha o armazenamento.
+     * Pode ser chamado mais de uma vez.
      */
-    private synchronized void saveConfigs() {
-        try (FileWriter writer = new FileWriter(CONFIG_FILE)) {
-            gson.toJson(serverConfigs, writer);
-        } catch (IOException e) {
-            System.err.println("ERRO: Falha ao salvar as configurações dos servidores.");
-            e.printStackTrace();
+    public synchronized void shutdown() {
+        if (encerrado) {
+            return;
         }
+        encerrado = true;
+        persister.encerrar();
+        storage.fechar();
     }
 
     /**
-     * Obtém o objeto de configuração para um servidor específico.
+     * Obtém a versão atual da configuração de um servidor específico.
      * <p>
-     * Se o servidor ainda não tiver uma configuração salva, uma nova configuração
-     * padrão será criada, armazenada em memória e retornada.
+     * Se o servidor não tiver uma configuração personalizada, a configuração padrão compartilhada
+     * é retornada, sem que nada seja criado ou guardado.
+     * <p>
+     * A configuração retornada é imutável: alterações posteriores do servidor não a afetam.
      *
      * @param guildId O ID do servidor (Guild) cuja configuração é desejada.
      * @return O objeto {@link ServerConfig} para o servidor especificado (nunca nulo).
      */
     public ServerConfig getConfig(String guildId) {
-        return serverConfigs.computeIfAbsent(guildId, id -> new ServerConfig());
+        return particao(guildId).getOrDefault(guildId, ServerConfig.PADRAO);
+    }
+
+    /**
+     * Seleciona a partição (shard) à qual um servidor pertence.
+     *
+     * @param guildId O ID do servidor.
+     * @return O mapa de configurações da partição.
+     */
+    private Map<String, ServerConfig> particao(String guildId) {
+        return particoes[ShardUtils.shardDe(guildId, particoes.length)];
+    }
+
+    /**
+     * Aplica uma alteração à configuração de um servidor, trocando atomicamente a versão atual
+     * pela nova, e agenda a gravação. Se a nova versão for igual à padrão, a entrada é removida.
+     *
+     * @param guildId O ID do servidor.
+     * @param alteracao A função que cria a nova versão a partir da atual.
+     */
+    private void alterar(String guildId, UnaryOperator<ServerConfig> alteracao) {
+        particao(guildId).compute(guildId, (id, atual) -> {
+            ServerConfig nova = alteracao.apply(atual == null ? ServerConfig.PADRAO : atual);
+            return nova.isPadrao() ? null : nova;
+        });
+        persister.marcarAlterado(guildId);
+    }
+
+    /**
+     * Apaga a configuração de um servidor (ex: quando o bot sai dele).
+     *
+     * @param guildId O ID do servidor.
+     */
+    public void removerServidor(String guildId) {
+        if (particao(guildId).remove(guildId) != null) {
+            persister.marcarAlterado(guildId);
+        }
+    }
+
+    /**
+     * Apaga as configurações de servidores dos quais o bot não faz mais parte, corrigindo saídas
+     * que aconteceram enquanto o bot estava desligado.
+     * <p>
+     * Apenas as partições dos shards conectados a esta instância são verificadas: os servidores
+     * dos demais shards não aparecem na lista de servidores desta instância.
+     *
+     * @param shardsGerenciados Os IDs dos shards conectados a esta instância.
+     * @param presente Indica se o bot ainda faz parte de um servidor (pelo ID).
+     * @return O número de configurações apagadas.
+     */
+    public int removerAusentes(Set<Integer> shardsGerenciados, Predicate<String> presente) {
+        int removidas = 0;
+        for (int shard : shardsGerenciados) {
+            if (shard < 0 || shard >= particoes.length) {
+                continue;
+            }
+            for (String guildId : particoes[shard].keySet()) {
+                if (!presente.test(guildId)) {
+                    removerServidor(guildId);
+                    removidas++;
+                }
+            }
+        }
+        return removidas;
     }
 
     /**
@@ -89,8 +193,7 @@ public class ConfigManager {
      * @param allow {@code true} para permitir, {@code false} para proibir.
      */
     public void setAllowCreatorToPlay(String guildId, boolean allow) {
-        getConfig(guildId).setAllowCreatorToPlay(allow);
-        saveConfigs();
+        alterar(guildId, config -> config.comAllowCreatorToPlay(allow));
     }
 
     /**
@@ -100,8 +203,7 @@ public class ConfigManager {
      * @param seconds O tempo máximo em segundos. Um valor <= 0 desativa o limite.
      */
     public void setMaxGameTime(String guildId, long seconds) {
-        getConfig(guildId).setMaxGameTimeSeconds(seconds);
-        saveConfigs();
+        alterar(guildId, config -> config.comMaxGameTimeSeconds(seconds));
     }
 
     /**
@@ -110,9 +212,8 @@ public class ConfigManager {
      * @param guildId O ID do servidor.
      * @param channelId O ID do canal a ser bloqueado.
      */
-    public void blockChannel(String guildId, String channelId) {
-        getConfig(guildId).blockChannel(channelId);
-        saveConfigs();
+    public void blockChannel(String guildId, long channelId) {
+        alterar(guildId, config -> config.comCanalBloqueado(channelId));
     }
 
     /**
@@ -121,8 +222,18 @@ public class ConfigManager {
      * @param guildId O ID do servidor.
      * @param channelId O ID do canal a ser desbloqueado.
      */
-    public void unblockChannel(String guildId, String channelId) {
-        getConfig(guildId).unblockChannel(channelId);
-        saveConfigs();
+    public void unblockChannel(String guildId, long channelId) {
+        alterar(guildId, config -> config.semCanalBloqueado(channelId));
+    }
+
+    /**
+     * Define a tolerância a erros de digitação nas respostas dos jogos de um servidor.
+     *
+     * @param guildId O ID do servidor.
+     * @param maxEdits O número máximo de erros aceitos, usado se a porcentagem for zero.
+     * @param percent Os erros aceitos como porcentagem do tamanho da resposta.
+     */
+    public void setTypoTolerance(String guildId, int maxEdits, int percent) {
+        alterar(guildId, config -> config.comTypoTolerance(maxEdits, percent));
     }
-}
\ No newline at end of file
+}
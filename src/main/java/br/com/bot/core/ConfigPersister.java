@@ -0,0 +1,28 @@
+package br.com.bot.core;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Persistência "write-behind" das configurações dos servidores.
+ * <p>
+ * Os comandos de configuração apenas marcam o servidor como alterado e retornam imediatamente; as
+ * alterações são agrupadas e gravadas em segundo plano (ver {@link WriteBehindPersister}).
+ *
+ * @author Lucas
+ */
+public class ConfigPersister extends WriteBehindPersister {
+
+    /**
+     * Constrói o persistidor e inicia sua thread de fundo.
+     *
+     * @param gravador  A ação que grava em disco os servidores informados. Executada apenas
+     *                  pela thread de fundo (ou pela thread que chamar {@link #encerrar()}), nunca em paralelo.
+     * @param debounce  O intervalo de agrupamento entre a primeira alteração e a gravação.
+     * @param unit      A unidade de tempo do intervalo.
+     */
+    public ConfigPersister(Consumer<Set<String>> gravador, long debounce, TimeUnit unit) {
+        super("Persistência de configurações", "config-persister", gravador, debounce, unit);
+    }
+}
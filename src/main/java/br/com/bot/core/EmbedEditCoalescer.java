@@ -0,0 +1,241 @@
+package br.com.bot.core;
+
+import br.com.bot.shared.IMetricsSource;
+import br.com.bot.utils.ConcurrentLongMap;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa as edições do "tabuleiro" de um jogo (ex: a Forca) para respeitar o limite de edições
+ * do Discord: o estado mais recente sempre vence.
+ * <p>
+ * Cada canal tem no máximo uma edição em andamento e uma pendente. Se várias jogadas chegam
+ * enquanto uma edição está em andamento, só a última fica pendente, e os estados intermediários
+ * nunca são nem montados (o embed é gerado apenas no momento do envio). Além disso, o canal faz no
+ * máximo {@value #EDICOES_POR_JANELA} edições a cada {@value #JANELA_MS} ms, deixando folga no limite do
+ * Discord para as mensagens de vitória e derrota.
+ * <p>
+ * Todo o estado de um canal é lido e alterado apenas no trabalhador do canal, no {@link ChannelDispatcher}:
+ * as respostas do Discord e os reenvios agendados são despachados de volta para ele.
+ *
+ * @author Lucas
+ */
+public class EmbedEditCoalescer implements IMetricsSource {
+
+    /** O número máximo de edições por canal dentro de uma janela. O Discord permite cerca de 5. */
+    private static final int EDICOES_POR_JANELA = 4;
+
+    /** A duração da janela do limite de edições, em milissegundos. */
+    private static final long JANELA_MS = 5_000;
+
+    private static final long JANELA_NANOS = TimeUnit.MILLISECONDS.toNanos(JANELA_MS);
+
+    private final ChannelDispatcher dispatcher;
+    private final TimingWheel timingWheel;
+
+    /** O estado de edição de cada canal com um tabuleiro sendo atualizado. */
+    private final ConcurrentLongMap<Estado> estados = new ConcurrentLongMap<>();
+
+    // --- Métricas ---
+    private final LongAdder solicitadas = new LongAdder();
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder economizadas = new LongAdder();
+    private final LongAdder adiadas = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    /** As edições concluídas com sucesso, as únicas cujo atraso é medido. */
+    private final LongAdder exibidas = new LongAdder();
+    private final LongAdder atrasoTotalNanos = new LongAdder();
+    private final AtomicLong atrasoMaximoNanos = new AtomicLong();
+
+    /**
+     * Constrói o agrupador de edições.
+     *
+     * @param dispatcher  O despachante por canal, onde todo o estado de um canal é manipulado.
+     * @param timingWheel O agendador usado para esperar vagas no limite de edições.
+     */
+    public EmbedEditCoalescer(ChannelDispatcher dispatcher, TimingWheel timingWheel) {
+        this.dispatcher = dispatcher;
+        this.timingWheel = timingWheel;
+    }
+
+    /**
+     * Registra um novo estado do tabuleiro. Deve ser chamado no trabalhador do canal
+     * (ex: durante o processamento de uma resposta).
+     *
+     * @param jda       A conexão (shard) à qual o canal pertence.
+     * @param channelId O ID do canal.
+     * @param messageId O ID da mensagem do tabuleiro.
+     * @param embed     Gera o embed do estado atual. Chamado no trabalhador do canal, apenas quando a edição for enviada.
+     */
+    public void atualizar(JDA jda, long channelId, long messageId, Supplier<MessageEmbed> embed) {
+        solicitadas.increment();
+        Estado estado = estados.get(channelId);
+        if (estado == null) {
+            estado = new Estado(channelId);
+            estados.put(channelId, estado);
+        }
+        estado.jda = jda;
+        estado.messageId = messageId;
+        estado.encerrado = false;
+        if (estado.pendente != null) {
+            economizadas.increment(); // O estado anterior nunca será exibido.
+        } else {
+            estado.alteracaoMaisAntigaNanos = System.nanoTime();
+        }
+        estado.pendente = embed;
+        tentarEnviar(estado);
+    }
+
+    /**
+     * Indica que o jogo do canal terminou. A edição pendente, se houver, ainda é enviada
+     * (para que o tabuleiro final seja exibido) e depois o estado do canal é descartado.
+     *
+     * @param channelId O ID do canal.
+     */
+    public void liberar(long channelId) {
+        if (estados.get(channelId) == null) {
+            return;
+        }
+        dispatcher.despachar(channelId, () -> {
+            Estado estado = estados.get(channelId);
+            if (estado != null) {
+                estado.encerrado = true;
+                descartarSeOcioso(estado);
+            }
+        });
+    }
+
+    /**
+     * Envia a edição pendente, se não houver outra em andamento e houver vaga no limite.
+     * Caso contrário, ela é enviada quando a edição em andamento terminar ou quando a vaga abrir.
+     */
+    private void tentarEnviar(Estado estado) {
+        if (estado.pendente == null || estado.emAndamento || estado.aguardandoVaga) {
+            return;
+        }
+        long agora = System.nanoTime();
+        long espera = estado.totalEnvios < EDICOES_POR_JANELA
+                ? 0
+                : estado.envios[estado.proximoEnvio] + JANELA_NANOS - agora;
+        if (espera > 0) {
+            adiadas.increment();
+            estado.aguardandoVaga = true;
+            timingWheel.agendar(() -> dispatcher.despachar(estado.channelId, () -> {
+                estado.aguardandoVaga = false;
+                tentarEnviar(estado);
+            }), espera, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        MessageChannel canal = estado.jda.getChannelById(MessageChannel.class, estado.channelId);
+        if (canal == null) {
+            estado.pendente = null;
+            descartarSeOcioso(estado);
+            return;
+        }
+
+        MessageEmbed embed = estado.pendente.get();
+        long alteracaoNanos = estado.alteracaoMaisAntigaNanos;
+        estado.pendente = null;
+        estado.emAndamento = true;
+        estado.envios[estado.proximoEnvio] = agora;
+        estado.proximoEnvio = (estado.proximoEnvio + 1) % EDICOES_POR_JANELA;
+        estado.totalEnvios++;
+        enviadas.increment();
+
+        canal.editMessageEmbedsById(estado.messageId, embed).queue(
+                sucesso -> {
+                    registrarAtraso(alteracaoNanos);
+                    dispatcher.despachar(estado.channelId, () -> concluir(estado));
+                },
+                erro -> {
+                    falhas.increment();
+                    dispatcher.despachar(estado.channelId, () -> concluir(estado));
+                });
+    }
+
+    /**
+     * Registra o atraso de uma edição exibida com sucesso. Edições que falharam não entram na média,
+     * já que a alteração não chegou a ser exibida.
+     *
+     * @param alteracaoNanos O instante da alteração mais antiga exibida pela edição.
+     */
+    private void registrarAtraso(long alteracaoNanos) {
+        long atraso = System.nanoTime() - alteracaoNanos;
+        exibidas.increment();
+        atrasoTotalNanos.add(atraso);
+        atrasoMaximoNanos.accumulateAndGet(atraso, Math::max);
+    }
+
+    /**
+     * Registra o fim de uma edição e envia a pendente, se houver.
+     */
+    private void concluir(Estado estado) {
+        estado.emAndamento = false;
+        tentarEnviar(estado);
+        descartarSeOcioso(estado);
+    }
+
+    /**
+     * Remove o estado do canal se o jogo terminou e não há mais edições a fazer.
+     */
+    private void descartarSeOcioso(Estado estado) {
+        if (estado.encerrado && !estado.emAndamento && !estado.aguardandoVaga && estado.pendente == null) {
+            estados.remove(estado.channelId, estado);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMetricsName() {
+        return "Edições de tabuleiro";
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Exibe quantas edições foram pedidas e enviadas, quantas foram economizadas por agrupamento,
+     * quantas esperaram o limite do Discord, e o atraso entre uma jogada e a sua exibição no tabuleiro.
+     */
+    @Override
+    public String getMetricsSummary() {
+        long n = exibidas.sum();
+        double atrasoMedio = n <= 0 ? 0 : atrasoTotalNanos.sum() / (double) n / 1_000_000;
+        return String.format("pedidas %d | enviadas %d | economizadas %d | adiadas pelo limite %d | falhas %d | canais %d%n" +
+                        "atraso médio %.0f ms (máx %.0f ms)%n",
+                solicitadas.sum(), enviadas.sum(), economizadas.sum(), adiadas.sum(), falhas.sum(), estados.size(),
+                atrasoMedio, atrasoMaximoNanos.get() / 1_000_000.0);
+    }
+
+    /**
+     * O estado de edição de um canal. Acessado apenas pelo trabalhador do canal.
+     */
+    private static final class Estado {
+        private final long channelId;
+        private JDA jda;
+        private long messageId;
+        /** Gera o embed do estado mais recente ainda não enviado, ou {@code null}. */
+        private Supplier<MessageEmbed> pendente;
+        /** O instante da alteração mais antiga ainda não enviada. */
+        private long alteracaoMaisAntigaNanos;
+        private boolean emAndamento;
+        private boolean aguardandoVaga;
+        private boolean encerrado;
+        /** Os instantes dos últimos envios, em um vetor circular; {@code proximoEnvio} aponta o mais antigo. */
+        private final long[] envios = new long[EDICOES_POR_JANELA];
+        private int proximoEnvio;
+        private long totalEnvios;
+
+        private Estado(long channelId) {
+            this.channelId = channelId;
+        }
+    }
+}
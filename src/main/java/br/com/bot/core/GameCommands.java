@@ -2,6 +2,7 @@ package br.com.bot.core;
 
 import br.com.bot.shared.Game;
 import br.com.bot.shared.ICommand;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -26,6 +27,8 @@ public class GameCommands extends ListenerAdapter {
     private final ConfigManager configManager;
     /** Mapa de todos os comandos registrados, associando nome ao objeto de comando. */
     private final Map<String, ICommand> commands;
+    /** Despachante que processa as respostas de cada canal em ordem, fora da thread de eventos do JDA. */
+    private final ChannelDispatcher dispatcher;
 
     /**
      * Constrói o listener de comandos com suas dependências injetadas.
@@ -33,11 +36,13 @@ public class GameCommands extends ListenerAdapter {
      * @param gameManager O gerenciador de jogos ativos.
      * @param configManager O gerenciador de configurações de servidor.
      * @param commands O mapa de todos os comandos disponíveis.
+     * @param dispatcher O despachante de tarefas por canal.
      */
-    public GameCommands(GameManager gameManager, ConfigManager configManager, Map<String, ICommand> commands) {
+    public GameCommands(GameManager gameManager, ConfigManager configManager, Map<String, ICommand> commands, ChannelDispatcher dispatcher) {
         this.gameManager = gameManager;
         this.configManager = configManager;
         this.commands = commands;
+        this.dispatcher = dispatcher;
     }
 
     /**
@@ -71,12 +76,10 @@ public class GameCommands extends ListenerAdapter {
 
         // --- VERIFICAÇÃO CENTRALIZADA ---
         if (event.getGuild() != null) {
-            String channelId = event.getChannel().getId();
-            String guildId = event.getGuild().getId();
-            ServerConfig config = configManager.getConfig(guildId);
+            ServerConfig config = configManager.getConfig(event.getGuild().getId());
 
             // Bloqueia comandos de jogo, mas permite comandos de configuração
-            if (config.getBlockedChannelIds().contains(channelId) && !commandName.startsWith("config")) {
+            if (!commandName.startsWith("config") && config.isChannelBlocked(event.getChannel().getIdLong())) {
                 event.reply("Este canal está bloqueado para o uso de comandos de jogo.").setEphemeral(true).queue();
                 return;
             }
@@ -92,9 +95,11 @@ public class GameCommands extends ListenerAdapter {
      * Este método tem duas responsabilidades principais:
      * <ol>
      * <li>Responder com "Quack!" se o bot for mencionado.</li>
-     * <li>Verificar se há um jogo ativo no canal e, em caso afirmativo, passar a mensagem
-     * para o objeto do jogo para que ela seja processada como uma resposta.</li>
+     * <li>Verificar se há um jogo ativo no canal e, em caso afirmativo, despachar a mensagem
+     * para o trabalhador do canal no {@link ChannelDispatcher}, onde ela é processada como uma resposta.</li>
      * </ol>
+     * O processamento fora da thread de eventos impede que um jogo lento atrase todos os servidores,
+     * e a ordem por canal garante que o estado de cada jogo seja alterado por uma única thread.
      *
      * @param event O evento da mensagem recebida.
      */
@@ -108,12 +113,36 @@ public class GameCommands extends ListenerAdapter {
             return;
         }
 
+        // Jogos só acontecem em servidores
+        if (!event.isFromGuild()) return;
+
         // Lógica de resposta para jogos ativos
-        String channelId = event.getChannel().getId();
-        Game jogo = gameManager.getJogo(channelId);
+        long guildId = event.getGuild().getIdLong();
+        long channelId = event.getChannel().getIdLong();
+        Game jogo = gameManager.getJogo(guildId, channelId);
 
         if (jogo != null) {
-            jogo.processarResposta(event, gameManager, configManager);
+            dispatcher.despachar(channelId, () -> {
+                // O jogo pode ter terminado enquanto a mensagem aguardava na fila.
+                if (gameManager.getJogo(guildId, channelId) == jogo) {
+                    jogo.processarResposta(event, gameManager, configManager);
+                }
+            });
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Chamado pelo JDA quando o bot sai de um servidor (ou é removido dele).
+     * Finaliza as partidas ativas do servidor e apaga sua configuração, para que nada
+     * de um servidor que o bot não atende mais continue ocupando memória ou disco.
+     *
+     * @param event O evento de saída do servidor.
+     */
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        int jogos = gameManager.finalizarJogosDoServidor(event.getGuild().getIdLong());
+        configManager.removerServidor(event.getGuild().getId());
+        System.out.printf("Saída do servidor %s: %d jogo(s) finalizado(s) e configuração removida.%n",
+                event.getGuild().getName(), jogos);
+    }
+}
@@ -1,61 +1,282 @@
 package br.com.bot.core;
 
 import br.com.bot.shared.Game;
+import br.com.bot.shared.MotorDeFases;
+import br.com.bot.utils.ConcurrentLongMap;
+import br.com.bot.utils.ShardUtils;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Gerencia o estado em tempo real dos jogos ativos no bot.
  * <p>
  * Esta classe atua como um "gerenciador de tráfego" para as partidas, mantendo um registro
- * de qual jogo está acontecendo em qual canal. Ela utiliza um {@link ConcurrentHashMap}
- * para garantir a segurança em um ambiente com múltiplas threads (thread-safe).
+ * de qual jogo está acontecendo em qual canal. Ela utiliza um {@link ConcurrentLongMap}, indexado
+ * pelo ID numérico (snowflake) do canal, para garantir a segurança em um ambiente com múltiplas
+ * threads (thread-safe) sem alocar memória na consulta feita a cada mensagem recebida.
+ * <p>
+ * Também é dona dos timers dos jogos: cada canal possui no máximo um timer pendente, agendado
+ * em uma {@link TimingWheel}, que é cancelado automaticamente quando o jogo do canal é finalizado.
+ * Quando um timer dispara, sua tarefa é executada no trabalhador do canal no {@link ChannelDispatcher},
+ * em ordem com as respostas dos jogadores.
+ * <p>
+ * O estado é particionado por shard: cada servidor (Guild) pertence a uma partição, calculada
+ * pela mesma fórmula que o Discord usa para distribuir servidores entre shards. Assim, shards
+ * diferentes nunca disputam os mesmos mapas.
+ * <p>
+ * As partidas são conduzidas pelas suas fases pelo {@link MotorDeFases}, que usa o timer do canal
+ * para cada fase e é notificado quando o jogo é finalizado.
  *
  * @author Lucas
  */
 public class GameManager {
 
-    /** Mapeia o ID de um canal (String) para a instância do jogo (Game) que está ativa nele. */
-    private final Map<String, Game> jogosAtivos = new ConcurrentHashMap<>();
+    /** Resolução dos timers dos jogos. */
+    private static final long TICK_MS = 10;
+
+    /** As partições do estado dos jogos, uma por shard. */
+    private final Particao[] particoes;
+
+    /** O agendador dos timers dos jogos. */
+    private final TimingWheel timingWheel = new TimingWheel(TICK_MS, TimeUnit.MILLISECONDS);
+
+    /** O despachante onde as tarefas dos timers são executadas. */
+    private final ChannelDispatcher dispatcher;
+
+    /** O agrupador das edições dos tabuleiros dos jogos. */
+    private final EmbedEditCoalescer editCoalescer;
+
+    /** O motor que conduz as partidas pelas suas fases. */
+    private final MotorDeFases motorDeFases = new MotorDeFases(this);
+
+    /**
+     * Constrói o gerenciador de jogos.
+     *
+     * @param dispatcher O despachante de tarefas por canal, onde os timers disparados são executados.
+     * @param shardsTotal O número total de shards do bot (1 quando não há sharding).
+     */
+    public GameManager(ChannelDispatcher dispatcher, int shardsTotal) {
+        this.dispatcher = dispatcher;
+        this.editCoalescer = new EmbedEditCoalescer(dispatcher, timingWheel);
+        this.particoes = new Particao[Math.max(1, shardsTotal)];
+        for (int i = 0; i < particoes.length; i++) {
+            particoes[i] = new Particao();
+        }
+    }
 
     /**
      * Inicia uma nova partida em um canal específico, registrando-a como ativa.
      *
+     * @param guildId   O ID do servidor ao qual o canal pertence.
      * @param channelId O ID do canal onde o jogo será iniciado.
      * @param game      A instância do jogo a ser iniciada.
      */
-    public void iniciarJogo(String channelId, Game game) {
-        jogosAtivos.put(channelId, game);
+    public void iniciarJogo(long guildId, long channelId, Game game) {
+        Particao particao = particao(guildId);
+        particao.servidorDoCanal.put(channelId, guildId);
+        particao.jogosAtivos.put(channelId, game);
     }
 
     /**
      * Finaliza a partida ativa em um canal específico, removendo-a do registro.
+     * O timer pendente do canal, se houver, é cancelado, o estado das edições do
+     * tabuleiro é descartado após a última edição e a partida passa para a fase final.
      *
+     * @param guildId   O ID do servidor ao qual o canal pertence.
      * @param channelId O ID do canal cuja partida será finalizada.
      * @return O objeto {@link Game} que foi removido, ou {@code null} se não havia jogo ativo.
      */
-    public Game finalizarJogo(String channelId) {
-        return jogosAtivos.remove(channelId);
+    public Game finalizarJogo(long guildId, long channelId) {
+        Particao particao = particao(guildId);
+        Game jogo = particao.jogosAtivos.remove(channelId);
+        particao.servidorDoCanal.remove(channelId);
+        cancelarTimer(guildId, channelId);
+        editCoalescer.liberar(channelId);
+        if (jogo != null) {
+            jogo.encerrar();
+            motorDeFases.notificarFim(guildId, channelId, jogo);
+        }
+        return jogo;
+    }
+
+    /**
+     * Finaliza a partida de um canal somente se ela ainda for a partida ativa nele. Usado por quem
+     * decidiu o desfecho de um jogo, para não finalizar um jogo que o substituiu no canal.
+     *
+     * @param guildId   O ID do servidor ao qual o canal pertence.
+     * @param channelId O ID do canal.
+     * @param game      A partida a ser finalizada.
+     * @return {@code true} se a partida estava ativa e foi finalizada por esta chamada.
+     */
+    public boolean finalizarJogo(long guildId, long channelId, Game game) {
+        Particao particao = particao(guildId);
+        if (!particao.jogosAtivos.remove(channelId, game)) {
+            return false;
+        }
+        particao.servidorDoCanal.remove(channelId);
+        cancelarTimer(guildId, channelId);
+        editCoalescer.liberar(channelId);
+        game.encerrar();
+        motorDeFases.notificarFim(guildId, channelId, game);
+        return true;
+    }
+
+    /**
+     * Finaliza todas as partidas ativas de um servidor (ex: quando o bot sai dele), cancelando seus timers.
+     *
+     * @param guildId O ID do servidor.
+     * @return O número de partidas finalizadas.
+     */
+    public int finalizarJogosDoServidor(long guildId) {
+        Particao particao = particao(guildId);
+        List<Long> canais = new ArrayList<>();
+        particao.servidorDoCanal.forEach((channelId, servidor) -> {
+            if (servidor == guildId) {
+                canais.add(channelId);
+            }
+        });
+        int finalizados = 0;
+        for (long channelId : canais) {
+            if (finalizarJogo(guildId, channelId) != null) {
+                finalizados++;
+            }
+        }
+        return finalizados;
     }
 
     /**
      * Obtém a instância do jogo ativo em um canal, sem finalizá-lo.
      *
+     * @param guildId   O ID do servidor ao qual o canal pertence.
      * @param channelId O ID do canal a ser verificado.
      * @return O objeto {@link Game} ativo, ou {@code null} se não houver jogo naquele canal.
      */
-    public Game getJogo(String channelId) {
-        return jogosAtivos.get(channelId);
+    public Game getJogo(long guildId, long channelId) {
+        return particao(guildId).jogosAtivos.get(channelId);
     }
 
     /**
      * Verifica se há um jogo em andamento em um canal específico.
      *
+     * @param guildId   O ID do servidor ao qual o canal pertence.
      * @param channelId O ID do canal a ser verificado.
      * @return {@code true} se houver um jogo ativo, {@code false} caso contrário.
      */
-    public boolean isJogoAtivo(String channelId) {
-        return jogosAtivos.containsKey(channelId);
+    public boolean isJogoAtivo(long guildId, long channelId) {
+        return particao(guildId).jogosAtivos.containsKey(channelId);
+    }
+
+    /**
+     * Agenda a próxima etapa do jogo de um canal. Um canal tem no máximo um timer pendente;
+     * agendar um novo timer cancela o anterior.
+     * <p>
+     * A tarefa deve capturar apenas IDs (e o próprio jogo), nunca o evento da interação,
+     * para que nada além do necessário fique retido na memória até o prazo.
+     *
+     * @param guildId   O ID do servidor ao qual o canal pertence.
+     * @param channelId O ID do canal ao qual o timer pertence.
+     * @param atraso    O atraso até a execução.
+     * @param unit      A unidade de tempo do atraso.
+     * @param tarefa    A tarefa a ser executada no trabalhador do canal.
+     */
+    public void agendar(long guildId, long channelId, long atraso, TimeUnit unit, Runnable tarefa) {
+        Particao particao = particao(guildId);
+        TimerDeCanal timer = new TimerDeCanal(particao, channelId, tarefa);
+        timer.timeout = timingWheel.agendar(timer, atraso, unit);
+        TimingWheel.Timeout anterior = particao.timersAtivos.put(channelId, timer.timeout);
+        if (anterior != null) {
+            anterior.cancelar();
+        }
+    }
+
+    /**
+     * Cancela o timer pendente de um canal, se houver.
+     *
+     * @param guildId   O ID do servidor ao qual o canal pertence.
+     * @param channelId O ID do canal.
+     */
+    public void cancelarTimer(long guildId, long channelId) {
+        TimingWheel.Timeout timeout = particao(guildId).timersAtivos.remove(channelId);
+        if (timeout != null) {
+            timeout.cancelar();
+        }
+    }
+
+    /**
+     * Retorna o agendador de timers, para exposição de suas métricas.
+     *
+     * @return A {@link TimingWheel} dos jogos.
+     */
+    public TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
+    /**
+     * Retorna o agrupador das edições dos tabuleiros, usado pelos jogos que editam sua mensagem a cada jogada.
+     *
+     * @return O {@link EmbedEditCoalescer} dos jogos.
+     */
+    public EmbedEditCoalescer getEditCoalescer() {
+        return editCoalescer;
+    }
+
+    /**
+     * Retorna o motor de fases, que inicia as partidas e publica as suas transições de fase.
+     *
+     * @return O {@link MotorDeFases} dos jogos.
+     */
+    public MotorDeFases getMotorDeFases() {
+        return motorDeFases;
+    }
+
+    /**
+     * Encerra o agendador de timers. Os timers pendentes são descartados.
+     */
+    public void shutdown() {
+        timingWheel.shutdown();
+    }
+
+    /**
+     * Seleciona a partição (shard) à qual um servidor pertence.
+     */
+    private Particao particao(long guildId) {
+        return particoes[ShardUtils.shardDe(guildId, particoes.length)];
+    }
+
+    /**
+     * O estado de um shard: os jogos ativos e os timers pendentes dos seus canais.
+     */
+    private static final class Particao {
+        /** Mapeia o ID de um canal para a instância do jogo (Game) que está ativa nele. */
+        private final ConcurrentLongMap<Game> jogosAtivos = new ConcurrentLongMap<>();
+        /** Mapeia o ID de um canal para o seu timer pendente (preparo, ocultação ou tempo limite). */
+        private final ConcurrentLongMap<TimingWheel.Timeout> timersAtivos = new ConcurrentLongMap<>();
+        /** Mapeia o ID de um canal com jogo ativo para o ID do seu servidor. */
+        private final ConcurrentLongMap<Long> servidorDoCanal = new ConcurrentLongMap<>();
+    }
+
+    /**
+     * A tarefa efetivamente agendada na roda: remove o registro do timer e repassa
+     * a tarefa do jogo para o trabalhador do canal.
+     */
+    private final class TimerDeCanal implements Runnable {
+        private final Particao particao;
+        private final long channelId;
+        private final Runnable tarefa;
+        private volatile TimingWheel.Timeout timeout;
+
+        private TimerDeCanal(Particao particao, long channelId, Runnable tarefa) {
+            this.particao = particao;
+            this.channelId = channelId;
+            this.tarefa = tarefa;
+        }
+
+        @Override
+        public void run() {
+            particao.timersAtivos.remove(channelId, timeout);
+            dispatcher.despachar(channelId, tarefa);
+        }
     }
-}
\ No newline at end of file
+}
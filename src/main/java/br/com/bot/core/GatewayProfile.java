@@ -0,0 +1,99 @@
+package br.com.bot.core;
+
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+
+import java.util.EnumSet;
+
+/**
+ * Os perfis de conexão com o gateway do Discord, escolhidos pela propriedade 'GATEWAY_PROFILE'.
+ * <p>
+ * Os jogos usam apenas IDs de canais e autores e o conteúdo das mensagens. O perfil
+ * {@link #LEAN} desliga todo o resto: a requisição de membros (chunking), o cache de membros
+ * (o próprio bot continua sempre em cache), os caches de voz, atividades, emojis e stickers,
+ * e os eventos de gateway que alimentariam esses caches. A contagem de membros usada pelo
+ * {@code /servidores} vem do próprio evento de criação do servidor e continua disponível.
+ *
+ * @author Lucas
+ */
+public enum GatewayProfile {
+
+    /** Os padrões do {@code createDefault} do JDA. */
+    DEFAULT,
+
+    /** Perfil enxuto, com o mínimo de cache e de eventos necessários para os jogos. */
+    LEAN;
+
+    /** Caches desligados no perfil enxuto. */
+    private static final EnumSet<CacheFlag> CACHES_DESLIGADOS = EnumSet.of(
+            CacheFlag.VOICE_STATE, CacheFlag.ACTIVITY, CacheFlag.EMOJI, CacheFlag.STICKER,
+            CacheFlag.CLIENT_STATUS, CacheFlag.ONLINE_STATUS, CacheFlag.SCHEDULED_EVENTS,
+            CacheFlag.MEMBER_OVERRIDES, CacheFlag.ROLE_TAGS, CacheFlag.FORUM_TAGS);
+
+    /** Eventos de gateway que nenhum jogo utiliza, desligados no perfil enxuto. */
+    private static final EnumSet<GatewayIntent> INTENTS_DESLIGADAS = EnumSet.of(
+            GatewayIntent.GUILD_VOICE_STATES, GatewayIntent.GUILD_EMOJIS_AND_STICKERS,
+            GatewayIntent.SCHEDULED_EVENTS, GatewayIntent.GUILD_MESSAGE_TYPING,
+            GatewayIntent.DIRECT_MESSAGE_TYPING, GatewayIntent.GUILD_MESSAGE_REACTIONS,
+            GatewayIntent.DIRECT_MESSAGE_REACTIONS, GatewayIntent.GUILD_INVITES,
+            GatewayIntent.GUILD_WEBHOOKS, GatewayIntent.GUILD_MODERATION);
+
+    /** O menor "large threshold" aceito pelo Discord: servidores grandes chegam sem a lista de membros. */
+    private static final int LARGE_THRESHOLD_MINIMO = 50;
+
+    /**
+     * Aplica o perfil a um construtor de conexão única.
+     *
+     * @param builder O construtor do JDA.
+     * @return O mesmo construtor, para encadeamento.
+     */
+    public JDABuilder aplicar(JDABuilder builder) {
+        if (this == LEAN) {
+            builder.setChunkingFilter(ChunkingFilter.NONE)
+                    .setMemberCachePolicy(MemberCachePolicy.NONE)
+                    .setLargeThreshold(LARGE_THRESHOLD_MINIMO)
+                    .disableCache(CACHES_DESLIGADOS)
+                    .disableIntents(INTENTS_DESLIGADAS);
+        }
+        return builder;
+    }
+
+    /**
+     * Aplica o perfil a um construtor de shards.
+     *
+     * @param builder O construtor do ShardManager.
+     * @return O mesmo construtor, para encadeamento.
+     */
+    public DefaultShardManagerBuilder aplicar(DefaultShardManagerBuilder builder) {
+        if (this == LEAN) {
+            builder.setChunkingFilter(ChunkingFilter.NONE)
+                    .setMemberCachePolicy(MemberCachePolicy.NONE)
+                    .setLargeThreshold(LARGE_THRESHOLD_MINIMO)
+                    .disableCache(CACHES_DESLIGADOS)
+                    .disableIntents(INTENTS_DESLIGADAS);
+        }
+        return builder;
+    }
+
+    /**
+     * Converte o valor da configuração em um perfil.
+     *
+     * @param valor O texto lido do arquivo de configuração (ex: "lean").
+     * @return O perfil correspondente, ou {@link #DEFAULT} se o valor estiver ausente ou for desconhecido.
+     */
+    public static GatewayProfile fromConfig(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return DEFAULT;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("AVISO: Perfil de gateway desconhecido '" + valor + "'. Usando o perfil padrão.");
+            return DEFAULT;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.bot.core;
+
+import java.util.Map;
+
+/**
+ * A interface de contrato para os mecanismos de armazenamento das configurações dos servidores.
+ * <p>
+ * O {@link ConfigManager} mantém as configurações em memória e usa o armazenamento apenas para
+ * carregá-las na inicialização e para gravar, em lotes, as configurações que foram alteradas.
+ * As gravações são feitas sempre pela mesma thread (a do {@link ConfigPersister}).
+ *
+ * @author Lucas
+ */
+public interface IConfigStorage {
+
+    /**
+     * Carrega as configurações de todos os servidores.
+     * @return Um mapa do ID do servidor para a sua configuração (nunca nulo).
+     */
+    Map<String, ServerConfig> carregarTodas();
+
+    /**
+     * Grava as configurações alteradas desde a última gravação.
+     * @param alteradas Um mapa do ID do servidor para a sua nova configuração. Um valor {@code null}
+     *                  indica que a configuração do servidor deve ser apagada.
+     * @throws java.io.UncheckedIOException Se a gravação falhar.
+     */
+    void gravar(Map<String, ServerConfig> alteradas);
+
+    /**
+     * Libera os recursos do armazenamento. Chamado uma única vez, após a última gravação.
+     */
+    void fechar();
+}
@@ -0,0 +1,136 @@
+package br.com.bot.core;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Armazena as configurações de todos os servidores em um único documento JSON ({@value #CONFIG_FILE}).
+ * <p>
+ * É o formato original do bot: simples e legível, mas cada gravação reescreve o documento inteiro
+ * e a inicialização precisa interpretar o arquivo todo. O documento é escrito em um arquivo
+ * temporário, sincronizado com o disco e renomeado atomicamente sobre o original.
+ *
+ * @author Lucas
+ */
+public class JsonConfigStorage implements IConfigStorage {
+
+    /** O nome do arquivo JSON onde as configurações são persistidas. */
+    public static final String CONFIG_FILE = "server_configs.json";
+
+    /** O arquivo temporário usado na gravação, renomeado para {@value #CONFIG_FILE} ao final. */
+    private static final String TEMP_FILE = CONFIG_FILE + ".tmp";
+
+    /** Instância da biblioteca Gson para serialização e desserialização de JSON. */
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    /** O conteúdo atual do documento, ordenado para manter o arquivo estável entre gravações. */
+    private final Map<String, JsonElement> documento = new TreeMap<>();
+
+    /** O caminho do arquivo JSON. */
+    private final Path arquivo;
+
+    /** O caminho do arquivo temporário. */
+    private final Path temporario;
+
+    /**
+     * Cria o armazenamento no diretório de trabalho do bot.
+     */
+    public JsonConfigStorage() {
+        this(Paths.get("."));
+    }
+
+    /**
+     * Cria o armazenamento em um diretório específico.
+     *
+     * @param diretorio O diretório onde o arquivo {@value #CONFIG_FILE} é mantido.
+     */
+    public JsonConfigStorage(Path diretorio) {
+        this.arquivo = diretorio.resolve(CONFIG_FILE);
+        this.temporario = diretorio.resolve(TEMP_FILE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Se o arquivo não existir, um mapa vazio é retornado e o programa continua normalmente.
+     */
+    @Override
+    public Map<String, ServerConfig> carregarTodas() {
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            Type type = new TypeToken<HashMap<String, ServerConfig>>(){}.getType();
+            Map<String, ServerConfig> configs = gson.fromJson(reader, type);
+            if (configs == null) {
+                return new HashMap<>();
+            }
+            configs.forEach((guildId, config) -> documento.put(guildId, gson.toJsonTree(config)));
+            return configs;
+        } catch (IOException e) {
+            System.out.println("Arquivo de configuração de servidores não encontrado. Um novo será criado na primeira alteração.");
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Como o formato guarda todos os servidores em um único documento, o arquivo inteiro é reescrito.
+     */
+    @Override
+    public void gravar(Map<String, ServerConfig> alteradas) {
+        alteradas.forEach((guildId, config) -> {
+            if (config == null) {
+                documento.remove(guildId);
+            } else {
+                documento.put(guildId, gson.toJsonTree(config));
+            }
+        });
+
+        JsonObject raiz = new JsonObject();
+        documento.forEach(raiz::add);
+
+        try {
+            try (FileOutputStream out = new FileOutputStream(temporario.toFile());
+                 Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+                gson.toJson(raiz, writer);
+                writer.flush();
+                out.getFD().sync();
+            }
+            try {
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Não há recursos abertos entre as gravações.
+     */
+    @Override
+    public void fechar() {
+    }
+}
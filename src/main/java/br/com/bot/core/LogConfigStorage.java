@@ -0,0 +1,518 @@
+package br.com.bot.core;
+
+import br.com.bot.shared.IMetricsSource;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Armazena as configurações dos servidores em um log local, somente de acréscimo, mapeado em memória.
+ * <p>
+ * Cada alteração de um servidor acrescenta um único registro ao fim do log, então o custo de
+ * gravação não depende do número de servidores. Um índice em memória guarda a posição do registro
+ * mais recente de cada servidor. Na inicialização, o log é percorrido uma vez para reconstruir o
+ * índice, e apenas o registro mais recente de cada servidor é interpretado.
+ * <p>
+ * Formato de cada registro: {@code [tamanho do conteúdo: int][CRC32: int][tipo: byte][ID do servidor: long][conteúdo JSON]}.
+ * O CRC protege contra um registro incompleto no fim do log, caso o processo caia durante uma gravação:
+ * se nenhum registro válido vem depois do primeiro inválido, o restante do log é descartado. Se ainda há
+ * registros válidos depois dele, o arquivo está danificado: ele é copiado para
+ * {@code server_configs.<geração>.log.corrompido}, a leitura continua no próximo registro válido e o log é
+ * compactado, para que o trecho danificado não seja lido de novo.
+ * <p>
+ * Quando mais da metade do log é ocupada por registros substituídos, uma compactação em segundo plano
+ * copia apenas os registros vivos para uma nova geração do arquivo ({@code server_configs.<geração>.log}).
+ * A nova geração só recebe o nome definitivo depois de completamente gravada, então uma queda durante
+ * a compactação apenas descarta o trabalho incompleto.
+ * <p>
+ * Na primeira execução, se existir um {@code server_configs.json}, as configurações são migradas para
+ * o log e o arquivo JSON é renomeado para {@code server_configs.json.migrado}.
+ *
+ * @author Lucas
+ */
+public class LogConfigStorage implements IConfigStorage, IMetricsSource {
+
+    /** O padrão do nome dos arquivos do log, com o número da geração. */
+    private static final Pattern ARQUIVO_LOG = Pattern.compile("server_configs\\.(\\d+)\\.log");
+
+    private static final byte TIPO_GRAVACAO = 1;
+    private static final byte TIPO_REMOCAO = 2;
+
+    /** O tamanho do cabeçalho de um registro: tamanho (4) + CRC (4) + tipo (1) + ID (8). */
+    private static final int CABECALHO = 17;
+
+    /** O sufixo da cópia de um log com um registro inválido antes do fim. */
+    private static final String SUFIXO_CORROMPIDO = ".corrompido";
+
+    /** O tamanho inicial da região mapeada; ela dobra sempre que o log a preenche. */
+    private static final int CAPACIDADE_INICIAL = 1 << 20;
+
+    /** Logs menores que isto nunca são compactados. */
+    private static final int TAMANHO_MINIMO_COMPACTACAO = 1 << 20;
+
+    private final Path diretorio;
+    private final Gson gson = new Gson();
+    private final ExecutorService compactador = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "config-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // --- Estado do log, protegido pela trava desta instância ---
+    private int geracao;
+    private FileChannel canal;
+    private MappedByteBuffer mapa;
+    /** A posição onde o próximo registro será escrito (e o tamanho útil do log). */
+    private int posicao;
+    /** O índice do ID de cada servidor para a posição do seu registro mais recente. */
+    private Map<Long, Integer> indice = new HashMap<>();
+    /** A soma dos tamanhos dos registros apontados pelo índice. */
+    private long bytesVivos;
+    private boolean compactacaoAgendada;
+
+    // --- Métricas ---
+    private long registrosGravados;
+    private long compactacoes;
+    private long ultimaCompactacaoMs;
+    private long tempoCargaMs;
+
+    /**
+     * Cria o armazenamento no diretório de trabalho do bot, ao lado de {@code server_configs.json}.
+     */
+    public LogConfigStorage() {
+        this(Paths.get("."));
+    }
+
+    /**
+     * Cria o armazenamento em um diretório específico.
+     *
+     * @param diretorio O diretório onde os arquivos do log são mantidos.
+     */
+    public LogConfigStorage(Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Abre a geração mais recente do log (apagando gerações antigas que tenham sobrado) e reconstrói
+     * o índice. Se ainda não houver log, migra o {@code server_configs.json}, se ele existir.
+     */
+    @Override
+    public synchronized Map<String, ServerConfig> carregarTodas() {
+        long inicio = System.nanoTime();
+        try {
+            geracao = localizarGeracaoMaisRecente();
+            if (geracao == 0) {
+                geracao = 1;
+                abrir(geracao);
+                Map<String, ServerConfig> migradas = migrarJson();
+                tempoCargaMs = (System.nanoTime() - inicio) / 1_000_000;
+                return migradas;
+            }
+
+            abrir(geracao);
+            if (escanear()) {
+                compactar();
+            }
+            Map<String, ServerConfig> configs = new HashMap<>();
+            indice.forEach((guildId, offset) -> configs.put(String.valueOf(guildId), lerConfig(offset)));
+            tempoCargaMs = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.printf("Log de configurações (geração %d) carregado: %d servidores em %d ms.%n",
+                    geracao, configs.size(), tempoCargaMs);
+            return configs;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Acrescenta um registro por servidor e sincroniza a região mapeada com o disco.
+     */
+    @Override
+    public synchronized void gravar(Map<String, ServerConfig> alteradas) {
+        try {
+            for (Map.Entry<String, ServerConfig> entrada : alteradas.entrySet()) {
+                long guildId = Long.parseLong(entrada.getKey());
+                if (entrada.getValue() == null) {
+                    anexar(TIPO_REMOCAO, guildId, new byte[0]);
+                } else {
+                    anexar(TIPO_GRAVACAO, guildId, gson.toJson(entrada.getValue()).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            mapa.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (!compactacaoAgendada && posicao >= TAMANHO_MINIMO_COMPACTACAO && posicao - bytesVivos > bytesVivos) {
+            compactacaoAgendada = true;
+            compactador.execute(this::compactar);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Espera uma compactação em andamento terminar e fecha o arquivo.
+     */
+    @Override
+    public void fechar() {
+        compactador.shutdown();
+        try {
+            compactador.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (canal == null) {
+                return;
+            }
+            mapa.force();
+            try {
+                canal.close();
+            } catch (IOException e) {
+                System.err.println("AVISO: Falha ao fechar o log de configurações.");
+                e.printStackTrace();
+            }
+            canal = null;
+        }
+    }
+
+    /**
+     * Procura a geração mais recente do log e apaga as gerações antigas e as compactações incompletas.
+     *
+     * @return O número da geração mais recente, ou 0 se não houver log.
+     */
+    private int localizarGeracaoMaisRecente() throws IOException {
+        int maisRecente = 0;
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "server_configs.*.log*")) {
+            for (Path arquivo : arquivos) {
+                Matcher m = ARQUIVO_LOG.matcher(arquivo.getFileName().toString());
+                if (m.matches()) {
+                    maisRecente = Math.max(maisRecente, Integer.parseInt(m.group(1)));
+                }
+            }
+        }
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "server_configs.*.log*")) {
+            for (Path arquivo : arquivos) {
+                // Cópias de logs danificados são mantidas para recuperação manual.
+                if (!arquivo.equals(caminhoDaGeracao(maisRecente)) && !arquivo.toString().endsWith(SUFIXO_CORROMPIDO)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+        return maisRecente;
+    }
+
+    private Path caminhoDaGeracao(int numero) {
+        return diretorio.resolve("server_configs." + numero + ".log");
+    }
+
+    /**
+     * Abre o arquivo de uma geração e mapeia uma região grande o suficiente para todo o seu conteúdo.
+     */
+    private void abrir(int numero) throws IOException {
+        canal = FileChannel.open(caminhoDaGeracao(numero),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long capacidade = CAPACIDADE_INICIAL;
+        while (capacidade < canal.size()) {
+            capacidade <<= 1;
+        }
+        mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+    }
+
+    /**
+     * Percorre o log do início, reconstruindo o índice. Um registro vazio ou inválido sem nenhum registro
+     * válido depois dele marca o fim do log; o que houver dali em diante é apagado. Um registro inválido
+     * seguido de registros válidos é tratado como dano: o arquivo é preservado e a leitura continua
+     * no próximo registro válido.
+     *
+     * @return {@code true} se o log tem um trecho danificado antes do fim e deve ser compactado.
+     */
+    private boolean escanear() throws IOException {
+        indice = new HashMap<>();
+        bytesVivos = 0;
+        int pos = 0;
+        int danificadoEm = -1;
+        while (pos + CABECALHO <= mapa.capacity()) {
+            int tamanho = tamanhoSeValido(pos);
+            if (tamanho >= 0) {
+                indexar(mapa.get(pos + 8), mapa.getLong(pos + 9), pos, tamanho);
+                pos += CABECALHO + tamanho;
+                continue;
+            }
+            int seguinte = proximoRegistroValido(pos + 1);
+            if (seguinte < 0) {
+                break; // Nenhum registro válido adiante: este é o fim do log.
+            }
+            if (danificadoEm < 0) {
+                danificadoEm = pos;
+                preservarDanificado(pos);
+            }
+            pos = seguinte;
+        }
+        posicao = pos;
+
+        if (algumByteNaoNulo(posicao)) {
+            System.err.println("AVISO: Registro incompleto no fim do log de configurações (provável queda durante uma gravação). Ele foi descartado.");
+            // Apaga o lixo para que os próximos registros não fiquem seguidos de dados inválidos.
+            for (int i = posicao; i < mapa.capacity(); i++) {
+                mapa.put(i, (byte) 0);
+            }
+            mapa.force();
+        }
+        return danificadoEm >= 0;
+    }
+
+    /**
+     * Verifica se o registro que começa na posição está completo e íntegro.
+     *
+     * @return O tamanho do seu conteúdo, ou -1 se o registro for vazio ou inválido.
+     */
+    private int tamanhoSeValido(int pos) {
+        if (pos + CABECALHO > mapa.capacity()) {
+            return -1;
+        }
+        byte tipo = mapa.get(pos + 8);
+        int tamanho = mapa.getInt(pos);
+        if ((tipo != TIPO_GRAVACAO && tipo != TIPO_REMOCAO) || tamanho < 0
+                || (long) pos + CABECALHO + tamanho > mapa.capacity()) {
+            return -1;
+        }
+        long guildId = mapa.getLong(pos + 9);
+        return mapa.getInt(pos + 4) == crc(tipo, guildId, lerConteudo(pos, tamanho)) ? tamanho : -1;
+    }
+
+    /**
+     * Procura, byte a byte, o próximo registro íntegro a partir de uma posição.
+     *
+     * @return A posição do registro, ou -1 se não houver nenhum.
+     */
+    private int proximoRegistroValido(int inicio) {
+        for (int pos = inicio; pos + CABECALHO <= mapa.capacity(); pos++) {
+            byte tipo = mapa.get(pos + 8);
+            if ((tipo == TIPO_GRAVACAO || tipo == TIPO_REMOCAO) && tamanhoSeValido(pos) >= 0) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private boolean algumByteNaoNulo(int inicio) {
+        for (int i = inicio; i < mapa.capacity(); i++) {
+            if (mapa.get(i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copia o arquivo da geração atual, ainda intacto, para {@code <arquivo>.corrompido}. Uma cópia anterior
+     * não é substituída, pois ela é a mais próxima do log original.
+     */
+    private void preservarDanificado(int pos) throws IOException {
+        Path origem = caminhoDaGeracao(geracao);
+        Path copia = origem.resolveSibling(origem.getFileName() + SUFIXO_CORROMPIDO);
+        if (Files.exists(copia)) {
+            System.err.printf("ERRO: Registro inválido no meio do log de configurações (byte %d). Os registros válidos seguintes serão recuperados; "
+                    + "uma cópia anterior do log danificado já existe em %s.%n", pos, copia);
+            return;
+        }
+        Files.copy(origem, copia);
+        System.err.printf("ERRO: Registro inválido no meio do log de configurações (byte %d). Os registros válidos seguintes serão recuperados "
+                + "e o log será compactado; o arquivo original foi preservado em %s.%n", pos, copia);
+    }
+
+    /**
+     * Atualiza o índice e a contagem de bytes vivos com um registro.
+     */
+    private void indexar(byte tipo, long guildId, int offset, int tamanho) {
+        Integer anterior = tipo == TIPO_GRAVACAO ? indice.put(guildId, offset) : indice.remove(guildId);
+        if (anterior != null) {
+            bytesVivos -= CABECALHO + mapa.getInt(anterior);
+        }
+        if (tipo == TIPO_GRAVACAO) {
+            bytesVivos += CABECALHO + tamanho;
+        }
+    }
+
+    private ServerConfig lerConfig(int offset) {
+        byte[] conteudo = lerConteudo(offset, mapa.getInt(offset));
+        return gson.fromJson(new String(conteudo, StandardCharsets.UTF_8), ServerConfig.class);
+    }
+
+    /**
+     * Acrescenta um registro ao fim do log, aumentando a região mapeada se necessário.
+     */
+    private void anexar(byte tipo, long guildId, byte[] conteudo) throws IOException {
+        int tamanhoRegistro = CABECALHO + conteudo.length;
+        if ((long) posicao + tamanhoRegistro > mapa.capacity()) {
+            long capacidade = mapa.capacity();
+            while (capacidade < (long) posicao + tamanhoRegistro) {
+                capacidade <<= 1;
+            }
+            if (capacidade > Integer.MAX_VALUE) {
+                throw new IOException("O log de configurações excedeu o tamanho máximo mapeável.");
+            }
+            mapa.force();
+            mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+        }
+
+        ByteBuffer destino = mapa.duplicate();
+        destino.position(posicao + CABECALHO);
+        destino.put(conteudo);
+        mapa.putLong(posicao + 9, guildId);
+        mapa.putInt(posicao + 4, crc(tipo, guildId, conteudo));
+        mapa.putInt(posicao, conteudo.length);
+        // O tipo é escrito por último: até ele ser escrito, o registro é visto como o fim do log.
+        mapa.put(posicao + 8, tipo);
+
+        indexar(tipo, guildId, posicao, conteudo.length);
+        posicao += tamanhoRegistro;
+        registrosGravados++;
+    }
+
+    private byte[] lerConteudo(int offset, int tamanho) {
+        byte[] conteudo = new byte[tamanho];
+        ByteBuffer origem = mapa.duplicate();
+        origem.position(offset + CABECALHO);
+        origem.get(conteudo);
+        return conteudo;
+    }
+
+    private static int crc(byte tipo, long guildId, byte[] conteudo) {
+        CRC32 crc = new CRC32();
+        crc.update(tipo);
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, guildId));
+        crc.update(conteudo);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Grava os registros vivos em uma nova geração e passa a usá-la. Executado na thread de compactação,
+     * com a trava do log: gravações que chegarem durante a compactação esperam o seu fim.
+     */
+    private synchronized void compactar() {
+        compactacaoAgendada = false;
+        if (canal == null) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        int novaGeracao = geracao + 1;
+        Path temporario = diretorio.resolve("server_configs." + novaGeracao + ".log.tmp");
+        Map<Long, Integer> novoIndice = new HashMap<>();
+        int tamanhoNovo = 0;
+        try {
+            try (FileChannel saida = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (Map.Entry<Long, Integer> entrada : indice.entrySet()) {
+                    int offset = entrada.getValue();
+                    int tamanhoRegistro = CABECALHO + mapa.getInt(offset);
+                    ByteBuffer registro = mapa.duplicate();
+                    registro.limit(offset + tamanhoRegistro).position(offset);
+                    while (registro.hasRemaining()) {
+                        saida.write(registro);
+                    }
+                    novoIndice.put(entrada.getKey(), tamanhoNovo);
+                    tamanhoNovo += tamanhoRegistro;
+                }
+                saida.force(true);
+            }
+            try {
+                Files.move(temporario, caminhoDaGeracao(novaGeracao), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, caminhoDaGeracao(novaGeracao));
+            }
+
+            Path antigo = caminhoDaGeracao(geracao);
+            canal.close();
+            abrir(novaGeracao);
+            geracao = novaGeracao;
+            indice = novoIndice;
+            posicao = tamanhoNovo;
+            bytesVivos = tamanhoNovo;
+            try {
+                Files.deleteIfExists(antigo);
+            } catch (IOException e) {
+                // Em alguns sistemas o arquivo continua mapeado até a coleta de lixo; ele é apagado na próxima inicialização.
+            }
+
+            compactacoes++;
+            ultimaCompactacaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.printf("Log de configurações compactado para a geração %d: %d servidores, %d bytes, %d ms.%n",
+                    geracao, indice.size(), posicao, ultimaCompactacaoMs);
+        } catch (IOException e) {
+            System.err.println("ERRO: Falha ao compactar o log de configurações. O log atual continua em uso.");
+            e.printStackTrace();
+            try {
+                Files.deleteIfExists(temporario);
+            } catch (IOException ignored) {
+                // Será apagado na próxima inicialização.
+            }
+        }
+    }
+
+    /**
+     * Migra o {@code server_configs.json} para o log, uma única vez.
+     *
+     * @return As configurações migradas (vazio se não havia arquivo JSON).
+     */
+    private Map<String, ServerConfig> migrarJson() throws IOException {
+        Path json = diretorio.resolve(JsonConfigStorage.CONFIG_FILE);
+        if (!Files.exists(json)) {
+            return new HashMap<>();
+        }
+        Map<String, ServerConfig> configs = new JsonConfigStorage(diretorio).carregarTodas();
+        gravar(configs);
+        Files.move(json, diretorio.resolve(JsonConfigStorage.CONFIG_FILE + ".migrado"), StandardCopyOption.REPLACE_EXISTING);
+        System.out.printf("Migração concluída: %d servidores copiados de %s para o log de configurações.%n",
+                configs.size(), JsonConfigStorage.CONFIG_FILE);
+        return configs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMetricsName() {
+        return "Log de configurações";
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Exibe a geração atual, o tamanho do log e a fração ocupada por registros vivos.
+     */
+    @Override
+    public synchronized String getMetricsSummary() {
+        double vivos = posicao == 0 ? 100.0 : bytesVivos * 100.0 / posicao;
+        return String.format("geração %d | servidores %d | log %d KB (%.0f%% vivo) | registros gravados %d%n" +
+                        "carga %d ms | compactações %d (última %d ms)%n",
+                geracao, indice.size(), posicao / 1024, vivos, registrosGravados,
+                tempoCargaMs, compactacoes, ultimaCompactacaoMs);
+    }
+}
@@ -1,27 +1,65 @@
 package br.com.bot.core;
 
-import java.util.HashSet;
-import java.util.Set;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
- * Representa um objeto de dados (POJO) que armazena todas as configurações personalizáveis
+ * Representa uma "fotografia" imutável de todas as configurações personalizáveis
  * para um único servidor (Guild) do Discord.
  * <p>
- * Uma instância desta classe é criada para cada servidor que possui configurações customizadas
- * e é serializada para e de um arquivo JSON pelo {@link ConfigManager}.
+ * Uma instância nunca é alterada depois de criada: cada alteração gera uma nova instância,
+ * que o {@link ConfigManager} troca atomicamente no lugar da anterior.
+ * Assim, qualquer thread pode ler uma configuração sem travas e sem cópias, e um jogo pode
+ * guardar a configuração vigente no seu início.
+ * <p>
+ * Servidores que nunca alteraram nada compartilham a mesma instância, {@link #PADRAO}.
+ * <p>
+ * Os canais bloqueados são guardados como um vetor ordenado de IDs numéricos, consultado por
+ * busca binária, sem alocar memória. A serialização para JSON mantém o formato original,
+ * com os IDs dos canais como texto.
  *
  * @author Lucas
  */
-public class ServerConfig {
+@JsonAdapter(ServerConfig.Adapter.class)
+public final class ServerConfig {
+
+    private static final long[] NENHUM_CANAL = new long[0];
+
+    /** A configuração padrão, compartilhada por todos os servidores sem configurações personalizadas. */
+    public static final ServerConfig PADRAO = new ServerConfig(false, -1, NENHUM_CANAL, 0, 0);
 
     /** Define se o criador de um jogo pode participar de sua própria partida. Padrão: {@code false}. */
-    private boolean allowCreatorToPlay = false;
+    private final boolean allowCreatorToPlay;
 
     /** Define o tempo máximo em segundos que qualquer jogo pode durar. Padrão: {@code -1} (desativado). */
-    private long maxGameTimeSeconds = -1;
+    private final long maxGameTimeSeconds;
+
+    /** Os IDs dos canais onde os jogos são proibidos, em ordem crescente e sem repetições. */
+    private final long[] blockedChannelIds;
+
+    /** O número máximo de erros de digitação aceitos em uma resposta. Padrão: {@code 0} (desativado). */
+    private final int typoMaxEdits;
+
+    /**
+     * Os erros de digitação aceitos, como porcentagem do tamanho da resposta. Padrão: {@code 0} (desativado).
+     * Quando definido, substitui {@link #typoMaxEdits}.
+     */
+    private final int typoTolerancePercent;
 
-    /** Armazena um conjunto de IDs de canais onde os jogos são proibidos. */
-    private Set<String> blockedChannelIds = new HashSet<>();
+    private ServerConfig(boolean allowCreatorToPlay, long maxGameTimeSeconds, long[] blockedChannelIds,
+                         int typoMaxEdits, int typoTolerancePercent) {
+        this.allowCreatorToPlay = allowCreatorToPlay;
+        this.maxGameTimeSeconds = maxGameTimeSeconds;
+        this.blockedChannelIds = blockedChannelIds;
+        this.typoMaxEdits = typoMaxEdits;
+        this.typoTolerancePercent = typoTolerancePercent;
+    }
 
     /**
      * Verifica se o criador do jogo tem permissão para jogar neste servidor.
@@ -33,66 +71,216 @@ public class ServerConfig {
     }
 
     /**
-     * Define a permissão para o criador do jogo poder jogar.
+     * Obtém o tempo máximo em segundos que um jogo pode durar neste servidor.
      *
-     * @param allowCreatorToPlay O novo valor da permissão.
+     * @return O tempo máximo em segundos, ou um valor <= 0 se não houver limite.
      */
-    public void setAllowCreatorToPlay(boolean allowCreatorToPlay) {
-        this.allowCreatorToPlay = allowCreatorToPlay;
+    public long getMaxGameTimeSeconds() {
+        return maxGameTimeSeconds;
     }
 
     /**
-     * Obtém o tempo máximo em segundos que um jogo pode durar neste servidor.
+     * Verifica se um canal está bloqueado para jogos, sem alocar memória.
      *
-     * @return O tempo máximo em segundos, ou um valor <= 0 se não houver limite.
+     * @param channelId O ID do canal.
+     * @return {@code true} se o canal estiver bloqueado.
      */
-    public long getMaxGameTimeSeconds() {
-        return maxGameTimeSeconds;
+    public boolean isChannelBlocked(long channelId) {
+        return Arrays.binarySearch(blockedChannelIds, channelId) >= 0;
     }
 
     /**
-     * Define o tempo máximo em segundos para os jogos.
+     * Obtém o número máximo de erros de digitação aceitos em uma resposta.
      *
-     * @param maxGameTimeSeconds O novo limite de tempo.
+     * @return O número de erros, ou {@code 0} se o valor não estiver definido.
      */
-    public void setMaxGameTimeSeconds(long maxGameTimeSeconds) {
-        this.maxGameTimeSeconds = maxGameTimeSeconds;
+    public int getTypoMaxEdits() {
+        return typoMaxEdits;
     }
 
     /**
-     * Retorna uma cópia do conjunto de IDs de canais bloqueados.
+     * Obtém a tolerância a erros de digitação como porcentagem do tamanho da resposta.
      *
-     * @return Um {@link Set} contendo os IDs dos canais bloqueados.
+     * @return A porcentagem, ou {@code 0} se o valor não estiver definido.
      */
-    public Set<String> getBlockedChannelIds() {
-        // Retorna uma cópia para proteger a lista interna de modificações externas (encapsulamento).
-        if (blockedChannelIds == null) {
-            return new HashSet<>();
+    public int getTypoTolerancePercent() {
+        return typoTolerancePercent;
+    }
+
+    /**
+     * Calcula quantos erros de digitação (letras trocadas, faltando ou sobrando) são aceitos
+     * em uma resposta de um determinado tamanho.
+     *
+     * @param tamanhoResposta O tamanho da resposta correta.
+     * @return O número de erros aceitos; {@code 0} exige a resposta exata.
+     */
+    public int calcularErrosPermitidos(int tamanhoResposta) {
+        if (typoTolerancePercent > 0) {
+            return tamanhoResposta * typoTolerancePercent / 100;
         }
-        return new HashSet<>(blockedChannelIds);
+        return Math.max(0, typoMaxEdits);
     }
 
     /**
-     * Adiciona um ID de canal à lista de canais bloqueados.
-     * Inclui uma verificação de nulidade para segurança ao desserializar de um JSON antigo.
+     * Verifica se esta configuração é equivalente à padrão, caso em que ela não precisa ser guardada.
+     *
+     * @return {@code true} se nenhum valor difere do padrão.
+     */
+    public boolean isPadrao() {
+        return !allowCreatorToPlay && maxGameTimeSeconds <= 0 && blockedChannelIds.length == 0
+                && typoMaxEdits <= 0 && typoTolerancePercent <= 0;
+    }
+
+    /**
+     * Cria uma nova versão com a permissão do criador do jogo alterada.
+     *
+     * @param allowCreatorToPlay O novo valor da permissão.
+     * @return A nova configuração.
+     */
+    public ServerConfig comAllowCreatorToPlay(boolean allowCreatorToPlay) {
+        return new ServerConfig(allowCreatorToPlay, maxGameTimeSeconds, blockedChannelIds,
+                typoMaxEdits, typoTolerancePercent);
+    }
+
+    /**
+     * Cria uma nova versão com o tempo máximo dos jogos alterado.
+     *
+     * @param maxGameTimeSeconds O novo limite de tempo.
+     * @return A nova configuração.
+     */
+    public ServerConfig comMaxGameTimeSeconds(long maxGameTimeSeconds) {
+        return new ServerConfig(allowCreatorToPlay, maxGameTimeSeconds, blockedChannelIds,
+                typoMaxEdits, typoTolerancePercent);
+    }
+
+    /**
+     * Cria uma nova versão com a tolerância a erros de digitação alterada. Apenas uma das formas
+     * (número de erros ou porcentagem) fica ativa; passar zero nas duas desativa a tolerância.
+     *
+     * @param typoMaxEdits         O número máximo de erros, usado se a porcentagem for zero.
+     * @param typoTolerancePercent A porcentagem do tamanho da resposta.
+     * @return A nova configuração.
+     */
+    public ServerConfig comTypoTolerance(int typoMaxEdits, int typoTolerancePercent) {
+        int percentual = Math.max(0, typoTolerancePercent);
+        int erros = percentual > 0 ? 0 : Math.max(0, typoMaxEdits);
+        return new ServerConfig(allowCreatorToPlay, maxGameTimeSeconds, blockedChannelIds, erros, percentual);
+    }
+
+    /**
+     * Cria uma nova versão com um canal adicionado à lista de canais bloqueados.
      *
      * @param channelId O ID do canal a ser bloqueado.
+     * @return A nova configuração, ou esta mesma instância se o canal já estava bloqueado.
      */
-    public void blockChannel(String channelId) {
-        if (this.blockedChannelIds == null) {
-            this.blockedChannelIds = new HashSet<>();
+    public ServerConfig comCanalBloqueado(long channelId) {
+        int pos = Arrays.binarySearch(blockedChannelIds, channelId);
+        if (pos >= 0) {
+            return this;
         }
-        this.blockedChannelIds.add(channelId);
+        int insercao = -pos - 1;
+        long[] canais = new long[blockedChannelIds.length + 1];
+        System.arraycopy(blockedChannelIds, 0, canais, 0, insercao);
+        canais[insercao] = channelId;
+        System.arraycopy(blockedChannelIds, insercao, canais, insercao + 1, blockedChannelIds.length - insercao);
+        return new ServerConfig(allowCreatorToPlay, maxGameTimeSeconds, canais, typoMaxEdits, typoTolerancePercent);
     }
 
     /**
-     * Remove um ID de canal da lista de canais bloqueados.
+     * Cria uma nova versão com um canal removido da lista de canais bloqueados.
      *
      * @param channelId O ID do canal a ser desbloqueado.
+     * @return A nova configuração, ou esta mesma instância se o canal não estava bloqueado.
      */
-    public void unblockChannel(String channelId) {
-        if (this.blockedChannelIds != null) {
-            this.blockedChannelIds.remove(channelId);
+    public ServerConfig semCanalBloqueado(long channelId) {
+        int pos = Arrays.binarySearch(blockedChannelIds, channelId);
+        if (pos < 0) {
+            return this;
+        }
+        long[] canais = new long[blockedChannelIds.length - 1];
+        System.arraycopy(blockedChannelIds, 0, canais, 0, pos);
+        System.arraycopy(blockedChannelIds, pos + 1, canais, pos, blockedChannelIds.length - pos - 1);
+        return new ServerConfig(allowCreatorToPlay, maxGameTimeSeconds, canais, typoMaxEdits, typoTolerancePercent);
+    }
+
+    /**
+     * Converte a configuração para o formato JSON original
+     * ({@code allowCreatorToPlay}, {@code maxGameTimeSeconds} e {@code blockedChannelIds} como textos),
+     * acrescido dos campos de tolerância a erros de digitação.
+     */
+    static final class Adapter extends TypeAdapter<ServerConfig> {
+
+        @Override
+        public void write(JsonWriter out, ServerConfig config) throws IOException {
+            if (config == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("allowCreatorToPlay").value(config.allowCreatorToPlay);
+            out.name("maxGameTimeSeconds").value(config.maxGameTimeSeconds);
+            out.name("blockedChannelIds").beginArray();
+            for (long channelId : config.blockedChannelIds) {
+                out.value(Long.toString(channelId));
+            }
+            out.endArray();
+            out.name("typoMaxEdits").value(config.typoMaxEdits);
+            out.name("typoTolerancePercent").value(config.typoTolerancePercent);
+            out.endObject();
+        }
+
+        @Override
+        public ServerConfig read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            boolean allowCreatorToPlay = false;
+            long maxGameTimeSeconds = -1;
+            long[] canais = NENHUM_CANAL;
+            int typoMaxEdits = 0;
+            int typoTolerancePercent = 0;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String nome = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (nome) {
+                    case "allowCreatorToPlay":
+                        allowCreatorToPlay = in.nextBoolean();
+                        break;
+                    case "maxGameTimeSeconds":
+                        maxGameTimeSeconds = in.nextLong();
+                        break;
+                    case "blockedChannelIds":
+                        long[] lidos = new long[4];
+                        int n = 0;
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            if (n == lidos.length) {
+                                lidos = Arrays.copyOf(lidos, n * 2);
+                            }
+                            // nextLong aceita tanto o formato original (texto) quanto números.
+                            lidos[n++] = in.nextLong();
+                        }
+                        in.endArray();
+                        canais = Arrays.stream(lidos, 0, n).sorted().distinct().toArray();
+                        break;
+                    case "typoMaxEdits":
+                        typoMaxEdits = in.nextInt();
+                        break;
+                    case "typoTolerancePercent":
+                        typoTolerancePercent = in.nextInt();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ServerConfig(allowCreatorToPlay, maxGameTimeSeconds, canais, typoMaxEdits, typoTolerancePercent);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package br.com.bot.core;
+
+import br.com.bot.shared.IMetricsSource;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+/**
+ * Mede o custo de inicialização do bot para cada {@link GatewayProfile}.
+ * <p>
+ * Registra o tempo entre a construção da conexão e o momento em que ela fica pronta e o uso
+ * de heap logo após a inicialização. A última medição de cada perfil é guardada no arquivo
+ * {@value #STATS_FILE}, permitindo comparar, no log, o perfil atual com a última execução
+ * do outro perfil.
+ *
+ * @author Lucas
+ */
+public class StartupStats implements IMetricsSource {
+
+    /** O arquivo onde a última medição de cada perfil é guardada. */
+    private static final String STATS_FILE = "gateway_profile_stats.properties";
+
+    private final GatewayProfile perfil;
+    private final long inicioNanos;
+
+    private volatile long tempoAteProntoMs = -1;
+    private volatile long heapUsadoBytes = -1;
+    private volatile long servidores = -1;
+
+    /**
+     * Inicia a medição. Deve ser criado no início da inicialização do bot, antes da conexão.
+     *
+     * @param perfil O perfil de gateway em uso.
+     */
+    public StartupStats(GatewayProfile perfil) {
+        this.perfil = perfil;
+        this.inicioNanos = System.nanoTime();
+    }
+
+    /**
+     * Finaliza a medição quando a conexão fica pronta, registra o resultado no log,
+     * compara com a última medição do outro perfil e salva a medição atual.
+     *
+     * @param totalServidores O número de servidores carregados, para dar contexto à comparação.
+     */
+    public void registrarPronto(long totalServidores) {
+        tempoAteProntoMs = (System.nanoTime() - inicioNanos) / 1_000_000;
+        servidores = totalServidores;
+
+        // Uma coleta antes da medição descarta o lixo da inicialização e mede apenas o que ficou retido.
+        System.gc();
+        heapUsadoBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        System.out.printf("Perfil de gateway '%s': pronto em %d ms, heap em uso %.1f MB, %d servidores.%n",
+                perfil, tempoAteProntoMs, heapUsadoBytes / 1048576.0, servidores);
+
+        Properties historico = carregarHistorico();
+        for (GatewayProfile outro : GatewayProfile.values()) {
+            if (outro == perfil) continue;
+            String prefixo = outro.name() + ".";
+            String tempoAnterior = historico.getProperty(prefixo + "tempoAteProntoMs");
+            String heapAnterior = historico.getProperty(prefixo + "heapUsadoBytes");
+            String servidoresAnterior = historico.getProperty(prefixo + "servidores");
+            if (tempoAnterior == null || heapAnterior == null) {
+                System.out.println("Sem medição anterior do perfil '" + outro + "' para comparação.");
+                continue;
+            }
+            long tempo = Long.parseLong(tempoAnterior);
+            long heap = Long.parseLong(heapAnterior);
+            System.out.printf("Comparação com a última execução do perfil '%s' (%s servidores): tempo %+d ms (%+.1f%%), heap %+.1f MB (%+.1f%%).%n",
+                    outro, servidoresAnterior,
+                    tempoAteProntoMs - tempo, variacao(tempoAteProntoMs, tempo),
+                    (heapUsadoBytes - heap) / 1048576.0, variacao(heapUsadoBytes, heap));
+        }
+
+        String prefixo = perfil.name() + ".";
+        historico.setProperty(prefixo + "tempoAteProntoMs", String.valueOf(tempoAteProntoMs));
+        historico.setProperty(prefixo + "heapUsadoBytes", String.valueOf(heapUsadoBytes));
+        historico.setProperty(prefixo + "servidores", String.valueOf(servidores));
+        salvarHistorico(historico);
+    }
+
+    private static double variacao(long atual, long anterior) {
+        return anterior == 0 ? 0.0 : (atual - anterior) * 100.0 / anterior;
+    }
+
+    private Properties carregarHistorico() {
+        Properties historico = new Properties();
+        try (FileReader reader = new FileReader(STATS_FILE)) {
+            historico.load(reader);
+        } catch (IOException e) {
+            // Primeira execução: ainda não há histórico.
+        }
+        return historico;
+    }
+
+    private void salvarHistorico(Properties historico) {
+        try (FileWriter writer = new FileWriter(STATS_FILE)) {
+            historico.store(writer, "Ultima medicao de inicializacao de cada perfil de gateway");
+        } catch (IOException e) {
+            System.err.println("AVISO: Não foi possível salvar as métricas de inicialização.");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMetricsName() {
+        return "Inicialização";
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Exibe o perfil em uso, o tempo até ficar pronto, o heap medido na inicialização e o heap atual.
+     */
+    @Override
+    public String getMetricsSummary() {
+        long heapAtual = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        return String.format("perfil %s | pronto em %d ms | %d servidores%n" +
+                        "heap na inicialização %.1f MB | heap atual %.1f MB%n",
+                perfil, tempoAteProntoMs, servidores, heapUsadoBytes / 1048576.0, heapAtual / 1048576.0);
+    }
+}
@@ -0,0 +1,321 @@
+package br.com.bot.core;
+
+import br.com.bot.shared.IMetricsSource;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Um agendador de timers baseado em uma "roda de tempo" hierárquica (hierarchical timing wheel).
+ * <p>
+ * O tempo é dividido em "ticks" de duração fixa. Cada nível da roda possui {@value #SLOTS} posições;
+ * o primeiro nível cobre os próximos {@value #SLOTS} ticks e cada nível seguinte cobre um intervalo
+ * {@value #SLOTS} vezes maior. Quando o primeiro nível completa uma volta, os timers do nível de
+ * cima são redistribuídos ("cascata"). Agendar e cancelar custam O(1), e timers cancelados liberam
+ * imediatamente a tarefa que carregavam, evitando que objetos capturados fiquem vivos até o prazo.
+ * <p>
+ * Uma única thread avança a roda. As tarefas vencidas são executadas nessa thread, então devem ser
+ * curtas (tipicamente apenas repassam o trabalho para outro executor).
+ *
+ * @author Lucas
+ */
+public class TimingWheel implements IMetricsSource {
+
+    /** Número de posições por nível da roda. Deve ser uma potência de 2. */
+    private static final int SLOTS = 256;
+    /** Número de bits necessários para indexar uma posição. */
+    private static final int BITS = 8;
+    /** Número de níveis. Com ticks de 10 ms, quatro níveis cobrem mais de 497 dias. */
+    private static final int NIVEIS = 4;
+
+    private final long tickNanos;
+    private final long inicioNanos;
+    private final Bucket[][] roda = new Bucket[NIVEIS][SLOTS];
+    private final Thread thread;
+
+    /** Timers recém-agendados, aguardando a thread da roda colocá-los em uma posição. */
+    private final Queue<Timeout> novos = new ConcurrentLinkedQueue<>();
+    /** Timers cancelados, aguardando a thread da roda removê-los de sua posição. */
+    private final Queue<Timeout> cancelados = new ConcurrentLinkedQueue<>();
+
+    /** O próximo tick a ser processado. Acessado apenas pela thread da roda. */
+    private long proximoTick;
+    private volatile boolean ativo = true;
+
+    // --- MÉTRICAS ---
+    private final LongAdder agendados = new LongAdder();
+    private final LongAdder disparados = new LongAdder();
+    private final LongAdder cancelamentos = new LongAdder();
+    private final AtomicLong pendentes = new AtomicLong();
+    private final LongAdder atrasoTotalNanos = new LongAdder();
+    private final AtomicLong atrasoMaximoNanos = new AtomicLong();
+
+    /**
+     * Constrói e inicia a roda de tempo.
+     *
+     * @param tick A duração de cada tick (a resolução dos timers).
+     * @param unit A unidade de tempo do tick.
+     */
+    public TimingWheel(long tick, TimeUnit unit) {
+        this.tickNanos = Math.max(1, unit.toNanos(tick));
+        this.inicioNanos = System.nanoTime();
+        for (int nivel = 0; nivel < NIVEIS; nivel++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                roda[nivel][slot] = new Bucket();
+            }
+        }
+        this.thread = new Thread(this::loop, "timing-wheel");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Agenda uma tarefa para ser executada após um atraso.
+     *
+     * @param tarefa A tarefa a ser executada.
+     * @param atraso O atraso até a execução.
+     * @param unit   A unidade de tempo do atraso.
+     * @return Um {@link Timeout} que pode ser usado para cancelar a tarefa.
+     */
+    public Timeout agendar(Runnable tarefa, long atraso, TimeUnit unit) {
+        Timeout timeout = new Timeout(this, tarefa, System.nanoTime() + unit.toNanos(Math.max(0, atraso)));
+        agendados.increment();
+        pendentes.incrementAndGet();
+        novos.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Encerra a thread da roda. Os timers pendentes são descartados sem execução.
+     */
+    public void shutdown() {
+        ativo = false;
+        thread.interrupt();
+    }
+
+    /**
+     * O laço principal da thread: dorme até o próximo tick e processa todos os ticks vencidos.
+     */
+    private void loop() {
+        while (ativo) {
+            long prazoDoTick = inicioNanos + proximoTick * tickNanos;
+            long espera = prazoDoTick - System.nanoTime();
+            if (espera > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(espera);
+                } catch (InterruptedException e) {
+                    if (!ativo) return;
+                }
+            }
+
+            long tickAtual = (System.nanoTime() - inicioNanos) / tickNanos;
+            while (proximoTick <= tickAtual) {
+                processarCancelamentos();
+                processarNovos();
+                processarTick(proximoTick);
+                proximoTick++;
+            }
+        }
+    }
+
+    private void processarNovos() {
+        Timeout timeout;
+        while ((timeout = novos.poll()) != null) {
+            if (timeout.estado.get() == Timeout.PENDENTE) {
+                inserir(timeout);
+            }
+        }
+    }
+
+    private void processarCancelamentos() {
+        Timeout timeout;
+        while ((timeout = cancelados.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remover(timeout);
+            }
+        }
+    }
+
+    /**
+     * Coloca um timer na posição correta da roda, de acordo com a distância até seu prazo.
+     */
+    private void inserir(Timeout timeout) {
+        long tickDoPrazo = (timeout.prazoNanos - inicioNanos + tickNanos - 1) / tickNanos;
+        if (tickDoPrazo < proximoTick) {
+            tickDoPrazo = proximoTick;
+        }
+        long distancia = tickDoPrazo - proximoTick;
+
+        int nivel = 0;
+        while (nivel < NIVEIS - 1 && distancia >= (1L << (BITS * (nivel + 1)))) {
+            nivel++;
+        }
+        int slot = (int) ((tickDoPrazo >>> (BITS * nivel)) & (SLOTS - 1));
+        roda[nivel][slot].adicionar(timeout);
+    }
+
+    /**
+     * Processa um tick: faz a cascata dos níveis superiores quando necessário e
+     * dispara todos os timers da posição atual do primeiro nível.
+     */
+    private void processarTick(long tick) {
+        for (int nivel = 1; nivel < NIVEIS; nivel++) {
+            // Só desce um nível quando todos os níveis abaixo completaram uma volta.
+            if ((tick & ((1L << (BITS * nivel)) - 1)) != 0) {
+                break;
+            }
+            int slot = (int) ((tick >>> (BITS * nivel)) & (SLOTS - 1));
+            Timeout timeout = roda[nivel][slot].esvaziar();
+            while (timeout != null) {
+                Timeout proximo = timeout.proximo;
+                timeout.proximo = null;
+                if (timeout.estado.get() == Timeout.PENDENTE) {
+                    inserir(timeout);
+                }
+                timeout = proximo;
+            }
+        }
+
+        Timeout timeout = roda[0][(int) (tick & (SLOTS - 1))].esvaziar();
+        while (timeout != null) {
+            Timeout proximo = timeout.proximo;
+            timeout.proximo = null;
+            disparar(timeout);
+            timeout = proximo;
+        }
+    }
+
+    private void disparar(Timeout timeout) {
+        if (!timeout.estado.compareAndSet(Timeout.PENDENTE, Timeout.DISPARADO)) {
+            return;
+        }
+        Runnable tarefa = timeout.tarefa;
+        timeout.tarefa = null;
+        pendentes.decrementAndGet();
+        disparados.increment();
+
+        long atraso = Math.max(0, System.nanoTime() - timeout.prazoNanos);
+        atrasoTotalNanos.add(atraso);
+        atrasoMaximoNanos.accumulateAndGet(atraso, Math::max);
+
+        try {
+            tarefa.run();
+        } catch (Exception e) {
+            System.err.println("ERRO: Falha ao executar uma tarefa agendada.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMetricsName() {
+        return "Timers (roda de tempo)";
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Exibe os contadores de timers e o atraso (médio e máximo) entre o prazo de cada
+     * timer e o momento em que ele de fato disparou.
+     */
+    @Override
+    public String getMetricsSummary() {
+        long totalDisparados = disparados.sum();
+        double atrasoMedioMs = totalDisparados == 0 ? 0.0 : atrasoTotalNanos.sum() / (double) totalDisparados / 1_000_000.0;
+        return String.format("pendentes %d | agendados %d | disparados %d | cancelados %d%n" +
+                        "atraso médio %.3f ms | atraso máx %.3f ms | tick %.1f ms%n",
+                pendentes.get(), agendados.sum(), totalDisparados, cancelamentos.sum(),
+                atrasoMedioMs, atrasoMaximoNanos.get() / 1_000_000.0, tickNanos / 1_000_000.0);
+    }
+
+    /**
+     * O "handle" de um timer agendado, que permite cancelá-lo.
+     */
+    public static final class Timeout {
+        private static final int PENDENTE = 0;
+        private static final int DISPARADO = 1;
+        private static final int CANCELADO = 2;
+
+        private final TimingWheel roda;
+        private final long prazoNanos;
+        private final AtomicInteger estado = new AtomicInteger(PENDENTE);
+        private volatile Runnable tarefa;
+
+        // Campos de encadeamento, acessados apenas pela thread da roda.
+        private Bucket bucket;
+        private Timeout anterior;
+        private Timeout proximo;
+
+        private Timeout(TimingWheel roda, Runnable tarefa, long prazoNanos) {
+            this.roda = roda;
+            this.tarefa = tarefa;
+            this.prazoNanos = prazoNanos;
+        }
+
+        /**
+         * Cancela o timer, se ele ainda não tiver disparado. A tarefa é liberada imediatamente.
+         *
+         * @return {@code true} se o timer foi cancelado por esta chamada, {@code false} se ele
+         * já havia disparado ou sido cancelado.
+         */
+        public boolean cancelar() {
+            if (!estado.compareAndSet(PENDENTE, CANCELADO)) {
+                return false;
+            }
+            tarefa = null;
+            roda.pendentes.decrementAndGet();
+            roda.cancelamentos.increment();
+            roda.cancelados.add(this);
+            return true;
+        }
+    }
+
+    /**
+     * Uma posição da roda: uma lista duplamente encadeada de timers, permitindo remoção em O(1).
+     * Acessada apenas pela thread da roda.
+     */
+    private static final class Bucket {
+        private Timeout cabeca;
+
+        private void adicionar(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.anterior = null;
+            timeout.proximo = cabeca;
+            if (cabeca != null) {
+                cabeca.anterior = timeout;
+            }
+            cabeca = timeout;
+        }
+
+        private void remover(Timeout timeout) {
+            if (timeout.anterior != null) {
+                timeout.anterior.proximo = timeout.proximo;
+            } else if (cabeca == timeout) {
+                cabeca = timeout.proximo;
+            }
+            if (timeout.proximo != null) {
+                timeout.proximo.anterior = timeout.anterior;
+            }
+            timeout.bucket = null;
+            timeout.anterior = null;
+            timeout.proximo = null;
+        }
+
+        /** Remove e retorna todos os timers da posição, encadeados pelo campo {@code proximo}. */
+        private Timeout esvaziar() {
+            Timeout lista = cabeca;
+            cabeca = null;
+            for (Timeout t = lista; t != null; t = t.proximo) {
+                t.bucket = null;
+                t.anterior = null;
+            }
+            return lista;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package br.com.bot.core;
+
+import br.com.bot.shared.IMetricsSource;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Persistência "write-behind" de dados mantidos por servidor (ex: configurações, estatísticas).
+ * <p>
+ * Quem altera os dados apenas marca o servidor como alterado e retorna imediatamente.
+ * Uma thread de fundo espera o intervalo de agrupamento (debounce) a partir da primeira alteração
+ * pendente e grava, de uma só vez, todos os servidores alterados nesse intervalo. Várias alterações
+ * seguidas, de um ou de vários servidores, resultam em uma única gravação em disco.
+ * <p>
+ * Se a gravação falhar, os servidores voltam para a lista de alterados e uma nova tentativa é feita
+ * no próximo intervalo. No encerramento, as alterações pendentes são gravadas antes de a thread parar.
+ *
+ * @author Lucas
+ */
+public class WriteBehindPersister implements IMetricsSource {
+
+    /** Os IDs dos servidores alterados desde a última gravação. */
+    private final Set<String> alterados = ConcurrentHashMap.newKeySet();
+
+    /** O nome legível do que é persistido, usado nas métricas. */
+    private final String nome;
+
+    /** A ação que grava um lote de servidores alterados. */
+    private final Consumer<Set<String>> gravador;
+
+    /** O intervalo de agrupamento, em nanossegundos. */
+    private final long debounceNanos;
+
+    private final Object monitor = new Object();
+    private final Thread thread;
+
+    /** Indica que há alterações esperando o fim do intervalo. Protegido por {@link #monitor}. */
+    private boolean pendente;
+    /** O instante da primeira alteração do lote atual. Protegido por {@link #monitor}. */
+    private long primeiraAlteracaoNanos;
+    private volatile boolean encerrado;
+
+    // --- Métricas ---
+    private final LongAdder alteracoesRecebidas = new LongAdder();
+    private final LongAdder gravacoes = new LongAdder();
+    private final LongAdder servidoresGravados = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder tempoGravacaoTotalNanos = new LongAdder();
+    private final AtomicLong tempoGravacaoMaximoNanos = new AtomicLong();
+    private final LongAdder atrasoTotalNanos = new LongAdder();
+    private final AtomicLong atrasoMaximoNanos = new AtomicLong();
+
+    /**
+     * Constrói o persistidor e inicia sua thread de fundo.
+     *
+     * @param nome         O nome exibido nas métricas.
+     * @param nomeDaThread O nome da thread de fundo.
+     * @param gravador     A ação que grava em disco os servidores informados. Executada apenas
+     *                     pela thread de fundo (ou pela thread que chamar {@link #encerrar()}), nunca em paralelo.
+     * @param debounce     O intervalo de agrupamento entre a primeira alteração e a gravação.
+     * @param unit         A unidade de tempo do intervalo.
+     */
+    public WriteBehindPersister(String nome, String nomeDaThread, Consumer<Set<String>> gravador, long debounce, TimeUnit unit) {
+        this.nome = nome;
+        this.gravador = gravador;
+        this.debounceNanos = Math.max(0, unit.toNanos(debounce));
+        this.thread = new Thread(this::loop, nomeDaThread);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Marca um servidor como alterado. A gravação acontece em segundo plano, após o intervalo de agrupamento.
+     *
+     * @param guildId O ID do servidor alterado.
+     */
+    public void marcarAlterado(String guildId) {
+        alteracoesRecebidas.increment();
+        alterados.add(guildId);
+        synchronized (monitor) {
+            if (!pendente) {
+                pendente = true;
+                primeiraAlteracaoNanos = System.nanoTime();
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Para a thread de fundo e grava as alterações pendentes na thread atual.
+     * Pode ser chamado mais de uma vez.
+     */
+    public void encerrar() {
+        encerrado = true;
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            long inicioDoLote;
+            synchronized (monitor) {
+                inicioDoLote = primeiraAlteracaoNanos;
+                pendente = false;
+            }
+            gravarLote(inicioDoLote);
+        }
+    }
+
+    private void loop() {
+        while (!encerrado) {
+            long inicioDoLote;
+            try {
+                synchronized (monitor) {
+                    while (!pendente && !encerrado) {
+                        monitor.wait();
+                    }
+                    // Espera o fim do intervalo contado a partir da primeira alteração do lote.
+                    long prazo = primeiraAlteracaoNanos + debounceNanos;
+                    long restante;
+                    while (!encerrado && (restante = prazo - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(monitor, restante);
+                    }
+                    if (encerrado) {
+                        return; // O restante é gravado por encerrar().
+                    }
+                    pendente = false;
+                    inicioDoLote = primeiraAlteracaoNanos;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            synchronized (this) {
+                gravarLote(inicioDoLote);
+            }
+        }
+    }
+
+    /**
+     * Retira os servidores alterados da lista e os grava. Em caso de falha, eles são devolvidos
+     * à lista e uma nova tentativa é agendada.
+     */
+    private void gravarLote(long inicioDoLote) {
+        Set<String> lote = new TreeSet<>();
+        for (Iterator<String> it = alterados.iterator(); it.hasNext(); ) {
+            lote.add(it.next());
+            it.remove();
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            gravador.accept(lote);
+        } catch (RuntimeException e) {
+            falhas.increment();
+            System.err.println("ERRO: Falha na gravação em segundo plano (" + nome + "). Nova tentativa em breve.");
+            e.printStackTrace();
+            alterados.addAll(lote);
+            synchronized (monitor) {
+                if (!pendente) {
+                    pendente = true;
+                    // A nova tentativa espera um intervalo inteiro, para não insistir em um disco com problema.
+                    primeiraAlteracaoNanos = System.nanoTime();
+                }
+            }
+            return;
+        }
+        long fim = System.nanoTime();
+
+        gravacoes.increment();
+        servidoresGravados.add(lote.size());
+        registrarMaximo(tempoGravacaoTotalNanos, tempoGravacaoMaximoNanos, fim - inicio);
+        registrarMaximo(atrasoTotalNanos, atrasoMaximoNanos, fim - inicioDoLote);
+    }
+
+    private static void registrarMaximo(LongAdder total, AtomicLong maximo, long valor) {
+        total.add(valor);
+        maximo.accumulateAndGet(valor, Math::max);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMetricsName() {
+        return nome;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Exibe quantas alterações foram agrupadas em quantas gravações, o tempo de cada gravação
+     * e o atraso entre a primeira alteração de um lote e o fim da sua gravação.
+     */
+    @Override
+    public String getMetricsSummary() {
+        long n = gravacoes.sum();
+        double gravacaoMedia = n == 0 ? 0 : tempoGravacaoTotalNanos.sum() / (double) n / 1_000_000;
+        double atrasoMedio = n == 0 ? 0 : atrasoTotalNanos.sum() / (double) n / 1_000_000;
+        return String.format("alterações %d | gravações %d | servidores gravados %d | falhas %d | pendentes %d%n" +
+                        "gravação média %.2f ms (máx %.2f ms) | atraso médio %.0f ms (máx %.0f ms)%n",
+                alteracoesRecebidas.sum(), n, servidoresGravados.sum(), falhas.sum(), alterados.size(),
+                gravacaoMedia, tempoGravacaoMaximoNanos.get() / 1_000_000.0,
+                atrasoMedio, atrasoMaximoNanos.get() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.bot.estatisticas;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Um esboço dos tempos de reação de um jogador (ou de um grupo de jogadores) em um jogo, do qual se
+ * estimam os percentis sem guardar cada tempo.
+ * <p>
+ * Os tempos são contados em faixas logarítmicas, como no DDSketch: a faixa {@code i} contém os tempos
+ * entre {@code γ^(i-1)} e {@code γ^i} milissegundos, com {@code γ = (1 + α) / (1 - α)}. Qualquer percentil
+ * estimado fica a no máximo {@link #ERRO_RELATIVO} do valor real. Tempos acima de {@link #TEMPO_MAXIMO_MS}
+ * caem na última faixa, então um esboço tem no máximo {@link #TOTAL_FAIXAS} contadores, qualquer que seja
+ * o número de partidas. Só o intervalo de faixas de fato usado é alocado.
+ * <p>
+ * Dois esboços podem ser mesclados somando os contadores, o que permite montar os percentis de um
+ * servidor inteiro ou de um jogador em todos os servidores. A classe não é thread-safe.
+ *
+ * @author Lucas
+ */
+public final class EsbocoDeTempos {
+
+    /** O erro relativo máximo dos percentis estimados. */
+    public static final double ERRO_RELATIVO = 0.02;
+
+    /** O maior tempo distinguido pelo esboço; tempos maiores contam como ele. */
+    public static final long TEMPO_MAXIMO_MS = 10 * 60 * 1000;
+
+    private static final double GAMA = (1 + ERRO_RELATIVO) / (1 - ERRO_RELATIVO);
+    private static final double LOG_GAMA = Math.log(GAMA);
+
+    /** O número de faixas necessárias para cobrir de 1 ms até {@link #TEMPO_MAXIMO_MS}. */
+    public static final int TOTAL_FAIXAS = faixaDe(TEMPO_MAXIMO_MS) + 1;
+
+    /** A faixa do primeiro contador. */
+    private int primeiraFaixa;
+    /** Os contadores das faixas, a partir de {@link #primeiraFaixa}; vazio enquanto não houver tempos. */
+    private int[] contadores = new int[0];
+    private long total;
+
+    /**
+     * Conta um tempo de reação.
+     *
+     * @param tempoMs O tempo, em milissegundos (valores negativos contam como zero).
+     */
+    public void registrar(long tempoMs) {
+        contar(faixaDe(tempoMs), 1);
+        total++;
+    }
+
+    /**
+     * Soma a este esboço todos os tempos de outro.
+     *
+     * @param outro O esboço a somar (não é alterado).
+     */
+    public void mesclar(EsbocoDeTempos outro) {
+        for (int i = 0; i < outro.contadores.length; i++) {
+            if (outro.contadores[i] != 0) {
+                contar(outro.primeiraFaixa + i, outro.contadores[i]);
+            }
+        }
+        total += outro.total;
+    }
+
+    /**
+     * Estima um percentil dos tempos contados.
+     *
+     * @param quantil O quantil, entre 0 e 1 (ex: 0.9 para o p90).
+     * @return O tempo estimado, em milissegundos, ou -1 se o esboço estiver vazio.
+     */
+    public long quantil(double quantil) {
+        if (total == 0) {
+            return -1;
+        }
+        long posicao = (long) Math.floor(Math.max(0, Math.min(1, quantil)) * (total - 1));
+        long acumulado = 0;
+        for (int i = 0; i < contadores.length; i++) {
+            acumulado += contadores[i];
+            if (acumulado > posicao) {
+                return valorDa(primeiraFaixa + i);
+            }
+        }
+        return valorDa(primeiraFaixa + contadores.length - 1);
+    }
+
+    /**
+     * @return Quantos tempos foram contados.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Uma cópia independente deste esboço.
+     */
+    public EsbocoDeTempos copiar() {
+        EsbocoDeTempos copia = new EsbocoDeTempos();
+        copia.primeiraFaixa = primeiraFaixa;
+        copia.contadores = contadores.clone();
+        copia.total = total;
+        return copia;
+    }
+
+    /**
+     * Grava o esboço de forma compacta: a primeira faixa, o número de contadores e cada contador,
+     * todos como inteiros de tamanho variável (um byte para valores até 127).
+     *
+     * @param out O destino.
+     * @throws IOException Se a gravação falhar.
+     */
+    public void escrever(DataOutput out) throws IOException {
+        escreverVarint(out, primeiraFaixa);
+        escreverVarint(out, contadores.length);
+        for (int contador : contadores) {
+            escreverVarint(out, contador);
+        }
+    }
+
+    /**
+     * Lê um esboço gravado por {@link #escrever}.
+     *
+     * @param in A origem.
+     * @return O esboço lido.
+     * @throws IOException Se a leitura falhar ou os dados forem inválidos.
+     */
+    public static EsbocoDeTempos ler(DataInput in) throws IOException {
+        EsbocoDeTempos esboco = new EsbocoDeTempos();
+        int primeira = lerVarint(in);
+        int tamanho = lerVarint(in);
+        if (primeira < 0 || tamanho < 0 || (long) primeira + tamanho > TOTAL_FAIXAS) {
+            throw new IOException("Esboço de tempos inválido: faixas " + primeira + " + " + tamanho + ".");
+        }
+        esboco.primeiraFaixa = primeira;
+        esboco.contadores = new int[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            esboco.contadores[i] = lerVarint(in);
+            esboco.total += esboco.contadores[i];
+        }
+        return esboco;
+    }
+
+    /**
+     * Soma a uma faixa, estendendo o intervalo de contadores se a faixa estiver fora dele.
+     */
+    private void contar(int faixa, int quantidade) {
+        if (contadores.length == 0) {
+            primeiraFaixa = faixa;
+            contadores = new int[1];
+        } else if (faixa < primeiraFaixa) {
+            int[] novos = new int[contadores.length + primeiraFaixa - faixa];
+            System.arraycopy(contadores, 0, novos, primeiraFaixa - faixa, contadores.length);
+            contadores = novos;
+            primeiraFaixa = faixa;
+        } else if (faixa >= primeiraFaixa + contadores.length) {
+            contadores = Arrays.copyOf(contadores, faixa - primeiraFaixa + 1);
+        }
+        contadores[faixa - primeiraFaixa] += quantidade;
+    }
+
+    private static int faixaDe(long tempoMs) {
+        if (tempoMs <= 1) {
+            return 0;
+        }
+        return (int) Math.ceil(Math.log(Math.min(tempoMs, TEMPO_MAXIMO_MS)) / LOG_GAMA);
+    }
+
+    /**
+     * O valor representativo de uma faixa: o ponto cujo erro relativo para os dois extremos é o mesmo.
+     */
+    private static long valorDa(int faixa) {
+        return faixa == 0 ? 1 : Math.round(2 * Math.pow(GAMA, faixa) / (GAMA + 1));
+    }
+
+    private static void escreverVarint(DataOutput out, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            out.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        out.writeByte(valor);
+    }
+
+    private static int lerVarint(DataInput in) throws IOException {
+        int valor = 0;
+        for (int deslocamento = 0; deslocamento < 35; deslocamento += 7) {
+            byte b = in.readByte();
+            valor |= (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Inteiro de tamanho variável inválido.");
+    }
+}
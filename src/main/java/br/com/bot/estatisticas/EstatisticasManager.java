@@ -0,0 +1,373 @@
+package br.com.bot.estatisticas;
+
+import br.com.bot.core.WriteBehindPersister;
+import br.com.bot.shared.Fase;
+import br.com.bot.shared.Game;
+import br.com.bot.shared.IMetricsSource;
+import br.com.bot.shared.OuvinteDeFases;
+import br.com.bot.shared.ResultadoDaPartida;
+import br.com.bot.shared.TipoDeJogo;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mantém as estatísticas de tempo de reação dos jogadores: um {@link EsbocoDeTempos} por jogador e
+ * jogo em cada servidor, além de um esboço de cada jogo com todos os jogadores do servidor.
+ * <p>
+ * As estatísticas são alimentadas pelo fim das partidas: ao ser notificado de que uma partida chegou a
+ * {@link Fase#FINALIZADO} com um {@link ResultadoDaPartida}, o gerenciador conta o tempo de reação de
+ * cada participante que o tenha. Os totais globais (de um jogador em todos os servidores, ou de todos
+ * os servidores) são montados na consulta, mesclando os esboços.
+ * <p>
+ * Cada servidor é gravado em um arquivo próprio ({@code estatisticas/<ID do servidor>.bin}), em segundo
+ * plano, por um {@link WriteBehindPersister}: uma rajada de partidas resulta em uma única gravação, e apenas
+ * os servidores alterados são regravados. Formato do arquivo:
+ * {@code [mágico: int][versão: int][esboços do servidor][jogadores: int]} seguido, para cada jogador, de
+ * {@code [ID do usuário: long][esboços]}, em que {@code [esboços]} é uma máscara de bits (um bit por
+ * código de {@link TipoDeJogo}) seguida dos esboços presentes.
+ *
+ * @author Lucas
+ */
+public class EstatisticasManager implements OuvinteDeFases, IMetricsSource {
+
+    public static final String DIRETORIO = "estatisticas";
+
+    private static final int MAGICO = 0x45535442; // "ESTB"
+    private static final int VERSAO = 1;
+
+    /** O intervalo de agrupamento das gravações. */
+    private static final long DEBOUNCE_MS = 10_000;
+
+    private static final int TOTAL_JOGOS = TipoDeJogo.values().length;
+
+    /** As estatísticas de um servidor. Protegidas pela trava da própria instância. */
+    private static final class Servidor {
+        private final Map<Long, EsbocoDeTempos[]> porJogador = new HashMap<>();
+        private final EsbocoDeTempos[] doServidor = new EsbocoDeTempos[TOTAL_JOGOS];
+    }
+
+    private final Path diretorio;
+    private final Map<Long, Servidor> porServidor = new ConcurrentHashMap<>();
+    private final WriteBehindPersister persister;
+
+    // --- Métricas ---
+    private final LongAdder temposRegistrados = new LongAdder();
+    private final LongAdder bytesGravados = new LongAdder();
+    private long tempoCargaMs;
+
+    /**
+     * @param diretorioBase O diretório de trabalho; os arquivos ficam no subdiretório {@value #DIRETORIO}.
+     */
+    public EstatisticasManager(Path diretorioBase) {
+        this.diretorio = diretorioBase.resolve(DIRETORIO);
+        this.persister = new WriteBehindPersister("Persistência de estatísticas", "estatisticas-persister",
+                this::gravar, DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lê os arquivos de todos os servidores. Um arquivo inválido é renomeado para {@code .corrompido}
+     * e o servidor começa sem estatísticas.
+     *
+     * @throws UncheckedIOException Se o diretório não puder ser criado ou listado.
+     */
+    public void carregar() {
+        long inicio = System.nanoTime();
+        try {
+            Files.createDirectories(diretorio);
+            try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*.bin")) {
+                for (Path arquivo : arquivos) {
+                    carregarArquivo(arquivo);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        tempoCargaMs = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.printf("Estatísticas carregadas: %d servidores em %d ms.%n", porServidor.size(), tempoCargaMs);
+    }
+
+    /**
+     * Grava as estatísticas pendentes.
+     */
+    public void fechar() {
+        persister.encerrar();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Conta os tempos de reação dos participantes das partidas finalizadas com resultado.
+     */
+    @Override
+    public void aoMudarDeFase(long guildId, long channelId, Game game, Fase anterior, Fase nova) {
+        if (nova != Fase.FINALIZADO) {
+            return;
+        }
+        ResultadoDaPartida resultado = game.getResultado();
+        if (resultado == null || !resultado.getTipo().isMedeTempo()) {
+            return;
+        }
+        int jogo = resultado.getTipo().ordinal();
+        Servidor servidor = porServidor.computeIfAbsent(guildId, id -> new Servidor());
+        boolean alterado = false;
+        synchronized (servidor) {
+            for (ResultadoDaPartida.Participante p : resultado.getParticipantes()) {
+                if (p.getTempoDeReacaoMs() == ResultadoDaPartida.SEM_TEMPO) {
+                    continue;
+                }
+                EsbocoDeTempos[] esbocos = servidor.porJogador.computeIfAbsent(p.getUserId(), id -> new EsbocoDeTempos[TOTAL_JOGOS]);
+                obter(esbocos, jogo).registrar(p.getTempoDeReacaoMs());
+                obter(servidor.doServidor, jogo).registrar(p.getTempoDeReacaoMs());
+                temposRegistrados.increment();
+                alterado = true;
+            }
+        }
+        if (alterado) {
+            persister.marcarAlterado(String.valueOf(guildId));
+        }
+    }
+
+    /**
+     * Retorna os tempos de um jogador em um servidor.
+     *
+     * @param guildId O ID do servidor.
+     * @param userId  O ID do jogador.
+     * @param jogo    O jogo.
+     * @return Uma cópia do esboço (vazio se o jogador não tiver tempos).
+     */
+    public EsbocoDeTempos getDoJogador(long guildId, long userId, TipoDeJogo jogo) {
+        EsbocoDeTempos resultado = new EsbocoDeTempos();
+        Servidor servidor = porServidor.get(guildId);
+        if (servidor != null) {
+            synchronized (servidor) {
+                mesclar(resultado, servidor.porJogador.get(userId), jogo);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna os tempos de um jogador em todos os servidores.
+     *
+     * @param userId O ID do jogador.
+     * @param jogo   O jogo.
+     * @return O esboço mesclado (vazio se o jogador não tiver tempos).
+     */
+    public EsbocoDeTempos getDoJogadorGlobal(long userId, TipoDeJogo jogo) {
+        EsbocoDeTempos resultado = new EsbocoDeTempos();
+        for (Servidor servidor : porServidor.values()) {
+            synchronized (servidor) {
+                mesclar(resultado, servidor.porJogador.get(userId), jogo);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna os tempos de todos os jogadores de um servidor.
+     *
+     * @param guildId O ID do servidor.
+     * @param jogo    O jogo.
+     * @return Uma cópia do esboço (vazio se ninguém do servidor tiver tempos).
+     */
+    public EsbocoDeTempos getDoServidor(long guildId, TipoDeJogo jogo) {
+        EsbocoDeTempos resultado = new EsbocoDeTempos();
+        Servidor servidor = porServidor.get(guildId);
+        if (servidor != null) {
+            synchronized (servidor) {
+                mesclar(resultado, servidor.doServidor, jogo);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna os tempos de todos os jogadores de todos os servidores.
+     *
+     * @param jogo O jogo.
+     * @return O esboço mesclado.
+     */
+    public EsbocoDeTempos getGlobal(TipoDeJogo jogo) {
+        EsbocoDeTempos resultado = new EsbocoDeTempos();
+        for (Servidor servidor : porServidor.values()) {
+            synchronized (servidor) {
+                mesclar(resultado, servidor.doServidor, jogo);
+            }
+        }
+        return resultado;
+    }
+
+    private static void mesclar(EsbocoDeTempos destino, EsbocoDeTempos[] esbocos, TipoDeJogo jogo) {
+        if (esbocos != null && esbocos[jogo.ordinal()] != null) {
+            destino.mesclar(esbocos[jogo.ordinal()]);
+        }
+    }
+
+    private static EsbocoDeTempos obter(EsbocoDeTempos[] esbocos, int jogo) {
+        if (esbocos[jogo] == null) {
+            esbocos[jogo] = new EsbocoDeTempos();
+        }
+        return esbocos[jogo];
+    }
+
+    /**
+     * Grava os arquivos dos servidores alterados. Executado pela thread do {@link WriteBehindPersister}.
+     * Os dados são serializados sob a trava do servidor e gravados fora dela. Cada arquivo temporário é
+     * sincronizado com o disco antes da renomeação, para que uma queda não deixe um arquivo vazio no lugar do anterior.
+     */
+    private void gravar(Set<String> guildIds) {
+        try {
+            Files.createDirectories(diretorio);
+            for (String guildId : guildIds) {
+                Servidor servidor = porServidor.get(Long.parseLong(guildId));
+                if (servidor == null) {
+                    continue;
+                }
+                byte[] conteudo;
+                synchronized (servidor) {
+                    conteudo = serializar(servidor);
+                }
+                Path destino = diretorio.resolve(guildId + ".bin");
+                Path temporario = diretorio.resolve(guildId + ".bin.tmp");
+                try (FileOutputStream out = new FileOutputStream(temporario.toFile())) {
+                    out.write(conteudo);
+                    out.getFD().sync();
+                }
+                try {
+                    Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+                }
+                bytesGravados.add(conteudo.length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] serializar(Servidor servidor) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGICO);
+        out.writeInt(VERSAO);
+        escreverEsbocos(out, servidor.doServidor);
+        out.writeInt(servidor.porJogador.size());
+        for (Map.Entry<Long, EsbocoDeTempos[]> jogador : servidor.porJogador.entrySet()) {
+            out.writeLong(jogador.getKey());
+            escreverEsbocos(out, jogador.getValue());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void carregarArquivo(Path arquivo) throws IOException {
+        String nome = arquivo.getFileName().toString();
+        long guildId;
+        try {
+            guildId = Long.parseLong(nome.substring(0, nome.length() - ".bin".length()));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        Servidor servidor = new Servidor();
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo))) {
+            DataInputStream in = new DataInputStream(entrada);
+            if (in.readInt() != MAGICO || in.readInt() != VERSAO) {
+                throw new IOException("Cabeçalho desconhecido.");
+            }
+            lerEsbocos(in, servidor.doServidor);
+            int jogadores = in.readInt();
+            for (int i = 0; i < jogadores; i++) {
+                long userId = in.readLong();
+                EsbocoDeTempos[] esbocos = new EsbocoDeTempos[TOTAL_JOGOS];
+                lerEsbocos(in, esbocos);
+                servidor.porJogador.put(userId, esbocos);
+            }
+        } catch (IOException e) {
+            System.err.println("AVISO: O arquivo de estatísticas " + arquivo + " é inválido e foi ignorado: " + e.getMessage());
+            Files.move(arquivo, arquivo.resolveSibling(nome + ".corrompido"), StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        porServidor.put(guildId, servidor);
+    }
+
+    /**
+     * Grava a máscara dos jogos presentes (o bit {@code código - 1} de cada jogo) e os seus esboços.
+     */
+    private static void escreverEsbocos(DataOutputStream out, EsbocoDeTempos[] esbocos) throws IOException {
+        int mascara = 0;
+        for (TipoDeJogo jogo : TipoDeJogo.values()) {
+            if (esbocos[jogo.ordinal()] != null) {
+                mascara |= 1 << (jogo.getCodigo() - 1);
+            }
+        }
+        out.writeByte(mascara);
+        for (TipoDeJogo jogo : TipoDeJogo.values()) {
+            if (esbocos[jogo.ordinal()] != null) {
+                esbocos[jogo.ordinal()].escrever(out);
+            }
+        }
+    }
+
+    private static void lerEsbocos(DataInputStream in, EsbocoDeTempos[] esbocos) throws IOException {
+        int mascara = in.readUnsignedByte();
+        for (TipoDeJogo jogo : TipoDeJogo.values()) {
+            if ((mascara & (1 << (jogo.getCodigo() - 1))) != 0) {
+                esbocos[jogo.ordinal()] = EsbocoDeTempos.ler(in);
+                mascara &= ~(1 << (jogo.getCodigo() - 1));
+            }
+        }
+        if (mascara != 0) {
+            throw new IOException("Código de jogo desconhecido na máscara " + Integer.toBinaryString(mascara) + ".");
+        }
+    }
+
+    /**
+     * @return O persistidor em segundo plano, para as métricas.
+     */
+    public WriteBehindPersister getPersister() {
+        return persister;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMetricsName() {
+        return "Estatísticas";
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Exibe quantos servidores e jogadores têm estatísticas, os tempos contados e os bytes gravados.
+     */
+    @Override
+    public String getMetricsSummary() {
+        long jogadores = 0;
+        for (Servidor servidor : porServidor.values()) {
+            synchronized (servidor) {
+                jogadores += servidor.porJogador.size();
+            }
+        }
+        return String.format("servidores %d | jogadores %d | tempos %d | bytes gravados %d | carga %d ms%n",
+                porServidor.size(), jogadores, temposRegistrados.sum(), bytesGravados.sum(), tempoCargaMs);
+    }
+}
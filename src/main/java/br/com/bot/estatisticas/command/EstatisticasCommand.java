@@ -0,0 +1,118 @@
+package br.com.bot.estatisticas.command;
+
+import br.com.bot.estatisticas.EsbocoDeTempos;
+import br.com.bot.estatisticas.EstatisticasManager;
+import br.com.bot.shared.ICommand;
+import br.com.bot.shared.TipoDeJogo;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+import java.awt.Color;
+
+/**
+ * Exibe os tempos de reação de um jogador em cada jogo: a mediana (p50), o p90 e o p99, comparados
+ * com a mediana de todos os jogadores.
+ * <p>
+ * Com o escopo 'servidor' (padrão), considera apenas as partidas do servidor atual; com 'global',
+ * as partidas de todos os servidores.
+ *
+ * @author Lucas
+ */
+public class EstatisticasCommand implements ICommand {
+
+    private static final String ESCOPO_SERVIDOR = "servidor";
+    private static final String ESCOPO_GLOBAL = "global";
+
+    private static final Color COR = new Color(0x3498DB);
+
+    private final EstatisticasManager estatisticasManager;
+
+    /**
+     * Constrói o comando de estatísticas com suas dependências.
+     *
+     * @param estatisticasManager O gerenciador das estatísticas de tempo de reação.
+     */
+    public EstatisticasCommand(EstatisticasManager estatisticasManager) {
+        this.estatisticasManager = estatisticasManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Consulta o jogador da opção 'usuario' ou, se omitida, quem usou o comando. Os jogos sem
+     * nenhum tempo registrado são omitidos.
+     */
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        if (event.getGuild() == null) {
+            event.reply("Este comando só pode ser usado em um servidor.").setEphemeral(true).queue();
+            return;
+        }
+        long guildId = event.getGuild().getIdLong();
+        OptionMapping opcaoUsuario = event.getOption("usuario");
+        User usuario = opcaoUsuario == null ? event.getUser() : opcaoUsuario.getAsUser();
+        OptionMapping opcaoEscopo = event.getOption("escopo");
+        boolean global = opcaoEscopo != null && ESCOPO_GLOBAL.equals(opcaoEscopo.getAsString());
+
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle("⏱️ Tempos de reação" + (global ? " (todos os servidores)" : ""))
+                .setColor(COR);
+        StringBuilder descricao = new StringBuilder(usuario.getAsMention()).append('\n');
+        for (TipoDeJogo jogo : TipoDeJogo.values()) {
+            if (!jogo.isMedeTempo()) {
+                continue;
+            }
+            EsbocoDeTempos doJogador = global
+                    ? estatisticasManager.getDoJogadorGlobal(usuario.getIdLong(), jogo)
+                    : estatisticasManager.getDoJogador(guildId, usuario.getIdLong(), jogo);
+            if (doJogador.getTotal() == 0) {
+                continue;
+            }
+            EsbocoDeTempos deTodos = global ? estatisticasManager.getGlobal(jogo) : estatisticasManager.getDoServidor(guildId, jogo);
+            embed.addField(jogo.getNome() + " · " + doJogador.getTotal() + (doJogador.getTotal() == 1 ? " resposta" : " respostas"),
+                    String.format("p50 **%s** · p90 %s · p99 %s%nMediana %s: %s",
+                            formatar(doJogador.quantil(0.5)), formatar(doJogador.quantil(0.9)), formatar(doJogador.quantil(0.99)),
+                            global ? "geral" : "do servidor", formatar(deTodos.quantil(0.5))),
+                    false);
+        }
+
+        if (embed.getFields().isEmpty()) {
+            event.reply("ℹ️ " + (usuario.getIdLong() == event.getUser().getIdLong() ? "Você ainda não tem" : usuario.getAsMention() + " ainda não tem")
+                    + " tempos de reação registrados" + (global ? "." : " neste servidor.")).setEphemeral(true).queue();
+            return;
+        }
+        embed.setDescription(descricao)
+                .setFooter(String.format("Estimativas com erro de até %.0f%%.", EsbocoDeTempos.ERRO_RELATIVO * 100));
+        event.replyEmbeds(embed.build()).queue();
+    }
+
+    /**
+     * Formata um tempo em milissegundos, ou em segundos a partir de 1 segundo.
+     */
+    private static String formatar(long tempoMs) {
+        if (tempoMs < 1000) {
+            return tempoMs + " ms";
+        }
+        return String.format("%.2f s", tempoMs / 1000.0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cria e retorna a definição do comando /estatisticas para o Discord.
+     */
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("estatisticas", "Mostra os tempos de reação de um jogador (p50, p90 e p99).")
+                .addOption(OptionType.USER, "usuario", "Consulta os tempos de outro jogador.", false)
+                .addOptions(new OptionData(OptionType.STRING, "escopo", "Considerar as partidas deste servidor ou de todos.", false)
+                        .addChoice("Este servidor", ESCOPO_SERVIDOR)
+                        .addChoice("Todos os servidores", ESCOPO_GLOBAL));
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.bot.games.embaralhar;
+
+import java.util.Random;
+
+/**
+ * Embaralha os caracteres de uma palavra para o Jogo de Embaralhar.
+ * <p>
+ * O resultado é, sempre que possível, um desarranjo: nenhuma posição mantém o caractere da palavra
+ * original. Os caracteres são embaralhados no próprio vetor com o algoritmo de Sattolo (a variante
+ * do Fisher–Yates que gera uma permutação cíclica, em que todo caractere sai da sua posição). Com
+ * letras repetidas, uma posição ainda pode receber uma letra igual à sua; cada uma delas é corrigida
+ * com uma troca que não cria outra. Um desarranjo só é impossível quando uma mesma letra ocupa mais da
+ * metade da palavra (ex: "aaab"); nesse caso, o resultado apenas difere da palavra original, se possível.
+ *
+ * @author Lucas
+ */
+public final class Embaralhador {
+
+    private Embaralhador() {
+    }
+
+    /**
+     * Embaralha os caracteres de uma palavra.
+     *
+     * @param palavra A palavra original.
+     * @param random  A fonte de números aleatórios.
+     * @return Os caracteres embaralhados.
+     */
+    public static char[] embaralhar(String palavra, Random random) {
+        char[] letras = palavra.toCharArray();
+        int n = letras.length;
+        if (n < 2) {
+            return letras;
+        }
+
+        // Sattolo: j < i (e não j <= i) garante que nenhum caractere fique na própria posição.
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i);
+            char temp = letras[i];
+            letras[i] = letras[j];
+            letras[j] = temp;
+        }
+
+        // Letras repetidas: corrige as posições que receberam a mesma letra da palavra original.
+        for (int i = 0; i < n; i++) {
+            char c = palavra.charAt(i);
+            if (letras[i] != c) {
+                continue;
+            }
+            int inicio = random.nextInt(n);
+            for (int k = 0; k < n; k++) {
+                int j = (inicio + k) % n;
+                // A troca corrige a posição i sem estragar a posição j.
+                if (letras[j] != c && palavra.charAt(j) != c) {
+                    letras[i] = letras[j];
+                    letras[j] = c;
+                    break;
+                }
+            }
+        }
+
+        // Sem desarranjo possível: garante ao menos que o resultado difira da palavra original.
+        if (iguais(palavra, letras)) {
+            for (int j = 1; j < n; j++) {
+                if (letras[j] != letras[0]) {
+                    letras[j] = letras[0];
+                    letras[0] = palavra.charAt(j);
+                    break;
+                }
+            }
+        }
+        return letras;
+    }
+
+    private static boolean iguais(String palavra, char[] letras) {
+        for (int i = 0; i < letras.length; i++) {
+            if (palavra.charAt(i) != letras[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
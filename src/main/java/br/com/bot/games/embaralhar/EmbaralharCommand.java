@@ -4,64 +4,46 @@ import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
 import br.com.bot.shared.AbstractSimpleGameCommand;
 import br.com.bot.shared.Game;
+import br.com.bot.utils.CorpusDePalavras;
+import br.com.bot.utils.OpcoesDoCorpus;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Comando que implementa o Jogo de Embaralhar Palavras.
  * <p>
  * Esta classe herda do molde de jogos simples, {@link AbstractSimpleGameCommand}, e fornece a lógica para
- * embaralhar uma palavra e iniciar o jogo de adivinhação.
+ * embaralhar uma palavra e iniciar o jogo de adivinhação. Os anagramas da palavra no corpus também
+ * são aceitos como resposta.
  *
  * @author Lucas
  */
 public class EmbaralharCommand extends AbstractSimpleGameCommand {
 
+    /** O banco de palavras usado quando a palavra não é informada, ou {@code null}. */
+    private final CorpusDePalavras corpus;
+
+    /** Os anagramas das palavras do corpus, para aceitar qualquer resposta válida. */
+    private final IndiceDeAnagramas anagramas;
+
     /**
      * Constrói o comando de embaralhar com suas dependências necessárias,
      * passando-as para a classe-mãe abstrata.
      *
      * @param gameManager O gerenciador de jogos ativos.
      * @param configManager O gerenciador de configurações de servidor.
-     * @param scheduler O agendador de tarefas para os timers.
+     * @param corpus O banco de palavras para sorteio, ou {@code null} se não estiver disponível.
      */
-    public EmbaralharCommand(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
-        super(gameManager, configManager, scheduler);
-    }
-
-    /**
-     * Embaralha os caracteres de uma palavra de forma aleatória.
-     * Garante que a palavra embaralhada não seja igual à original.
-     *
-     * @param palavra A palavra original.
-     * @return A palavra com os caracteres embaralhados.
-     */
-    private String embaralharPalavra(String palavra) {
-        List<Character> chars = new ArrayList<>();
-        for (char c : palavra.toCharArray()) {
-            chars.add(c);
-        }
-
-        String embaralhada;
-        // Evita que uma palavra curta como "oi" seja embaralhada para "oi" novamente.
-        do {
-            Collections.shuffle(chars);
-            StringBuilder sb = new StringBuilder();
-            for (char c : chars) {
-                sb.append(c);
-            }
-            embaralhada = sb.toString();
-        } while (embaralhada.equals(palavra) && palavra.length() > 1);
-
-        return embaralhada;
+    public EmbaralharCommand(GameManager gameManager, ConfigManager configManager, CorpusDePalavras corpus) {
+        super(gameManager, configManager);
+        this.corpus = corpus;
+        this.anagramas = IndiceDeAnagramas.doCorpus(corpus);
     }
 
     /**
@@ -69,6 +51,8 @@ public class EmbaralharCommand extends AbstractSimpleGameCommand {
      * <p>
      * Valida as opções 'tempo' e 'palavra' fornecidas pelo usuário
      * e cria uma instância de {@link EmbaralharGame} com esses dados.
+     * Se a palavra não for informada, ela é sorteada do banco de palavras e, como ninguém a conhece,
+     * o anfitrião também pode jogar.
      */
     @Override
     protected Optional<Game> createGame(SlashCommandInteractionEvent event) {
@@ -77,10 +61,13 @@ public class EmbaralharCommand extends AbstractSimpleGameCommand {
             return Optional.empty();
         }
 
-        String palavra = event.getOption("palavra").getAsString();
-        String issuerId = event.getUser().getId();
-
-        return Optional.of(new EmbaralharGame(tempoOpt.get(), palavra, issuerId));
+        Optional<String> palavraInformada = OpcoesDoCorpus.getPalavraInformada(event);
+        if (palavraInformada.isPresent()) {
+            List<String> solucoes = anagramas.getSolucoes(palavraInformada.get().trim());
+            return Optional.of(new EmbaralharGame(tempoOpt.get(), solucoes, event.getUser().getIdLong(), null));
+        }
+        return OpcoesDoCorpus.sortear(event, corpus)
+                .map(sorteada -> new EmbaralharGame(tempoOpt.get(), anagramas.getSolucoes(sorteada.getTexto()), Game.SEM_CRIADOR, sorteada.getCategoria()));
     }
 
     /**
@@ -97,13 +84,21 @@ public class EmbaralharCommand extends AbstractSimpleGameCommand {
     @Override
     protected String getStartMessage(Game game) {
         EmbaralharGame embaralharGame = (EmbaralharGame) game;
-        String palavraOriginal = embaralharGame.getPalavraOriginal();
-        String palavraEmbaralhada = embaralharPalavra(palavraOriginal);
+        String palavraEmbaralhada = embaralharGame.embaralhar(ThreadLocalRandom.current());
         double tempoEmSegundos = embaralharGame.getTempoLimiteMs() / 1000.0;
+        String dica = embaralharGame.getCategoria() == null ? "" : "\nCategoria: **" + embaralharGame.getCategoria() + "**";
+        int totalSolucoes = embaralharGame.getSolucoes().size();
+        if (totalSolucoes > 1) {
+            dica += "\nHá **" + totalSolucoes + "** palavras possíveis com essas letras, e qualquer uma vale!";
+        }
+        if (embaralharGame.isToleranciaDesativada()) {
+            dica += "\nNesta partida, só a palavra exata vale: com erros de digitação, a própria palavra embaralhada seria aceita.";
+        }
 
         return String.format(
-                "Tempo limite: **%.1f segundos**\n\nDesembaralhe a seguinte palavra: `%s`",
+                "Tempo limite: **%.1f segundos**%s\n\nDesembaralhe a seguinte palavra: `%s`",
                 tempoEmSegundos,
+                dica,
                 palavraEmbaralhada
         );
     }
@@ -114,7 +109,12 @@ public class EmbaralharCommand extends AbstractSimpleGameCommand {
     @Override
     protected String getTimeoutMessage(Game game) {
         EmbaralharGame embaralharGame = (EmbaralharGame) game;
-        return "O tempo esgotou! A palavra correta era: `" + embaralharGame.getPalavraOriginal() + "`";
+        List<String> solucoes = embaralharGame.getSolucoes();
+        String mensagem = "O tempo esgotou! A palavra correta era: `" + embaralharGame.getPalavraOriginal() + "`";
+        if (solucoes.size() > 1) {
+            mensagem += " (também valiam: `" + String.join("`, `", solucoes.subList(1, solucoes.size())) + "`)";
+        }
+        return mensagem;
     }
 
     /**
@@ -122,8 +122,8 @@ public class EmbaralharCommand extends AbstractSimpleGameCommand {
      */
     @Override
     public SlashCommandData getCommandData() {
-        return Commands.slash("embaralhar", "Inicia um jogo de adivinhar a palavra embaralhada.")
-                .addOption(OptionType.STRING, "tempo", "O tempo limite em segundos.", true)
-                .addOption(OptionType.STRING, "palavra", "A palavra a ser embaralhada.", true);
+        SlashCommandData comando = Commands.slash("embaralhar", "Inicia um jogo de adivinhar a palavra embaralhada.")
+                .addOption(OptionType.STRING, "tempo", "O tempo limite em segundos.", true);
+        return OpcoesDoCorpus.adicionarOpcoes(comando, "A palavra a ser embaralhada.", corpus);
     }
 }
\ No newline at end of file
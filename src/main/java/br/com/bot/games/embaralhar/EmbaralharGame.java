@@ -2,14 +2,21 @@ package br.com.bot.games.embaralhar;
 
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
+import br.com.bot.shared.AnswerMatcher;
 import br.com.bot.shared.Game;
+import br.com.bot.shared.TipoDeJogo;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
 /**
  * Representa o estado e a lógica de um Jogo de Embaralhar Palavras.
  * <p>
  * Esta classe guarda a palavra original e implementa a lógica para verificar se a
  * tentativa de um jogador corresponde à palavra correta, finalizando o jogo em caso de acerto.
+ * Qualquer anagrama válido da palavra (ex: "roma" para "amor") também é aceito.
  *
  * @author Lucas
  */
@@ -18,6 +25,24 @@ public class EmbaralharGame extends Game {
     /** A palavra original, não embaralhada, que é a resposta correta. */
     private final String palavraOriginal;
 
+    /** As respostas aceitas: a palavra original, primeiro, e os seus anagramas válidos. */
+    private final List<String> solucoes;
+
+    /** Um comparador por resposta aceita, preparados uma única vez na criação do jogo. */
+    private final AnswerMatcher[] matchers;
+
+    /** A categoria da palavra sorteada, exibida como dica, ou {@code null}. */
+    private final String categoria;
+
+    /** Quantas vezes a palavra é embaralhada de novo se o resultado for aceito como resposta. */
+    private static final int TENTATIVAS_EMBARALHAR = 10;
+
+    /**
+     * Se a tolerância a erros de digitação do servidor foi desativada nesta partida, porque nenhum
+     * embaralhamento ficou longe o bastante das respostas. Definido antes da fase de respostas.
+     */
+    private volatile boolean toleranciaDesativada;
+
     /**
      * Constrói uma nova instância do Jogo de Embaralhar.
      *
@@ -25,9 +50,39 @@ public class EmbaralharGame extends Game {
      * @param palavraOriginal A palavra correta que os jogadores devem adivinhar.
      * @param issuerId        O ID do usuário que iniciou o jogo.
      */
-    public EmbaralharGame(long tempoLimiteMs, String palavraOriginal, String issuerId) {
+    public EmbaralharGame(long tempoLimiteMs, String palavraOriginal, long issuerId) {
+        this(tempoLimiteMs, palavraOriginal, issuerId, null);
+    }
+
+    /**
+     * Constrói uma nova instância do Jogo de Embaralhar, com a categoria da palavra como dica.
+     *
+     * @param tempoLimiteMs   O tempo limite para o jogo em milissegundos.
+     * @param palavraOriginal A palavra correta que os jogadores devem adivinhar.
+     * @param issuerId        O ID do usuário que iniciou o jogo, ou {@link Game#SEM_CRIADOR}.
+     * @param categoria       A categoria da palavra (ex: "Frutas"), ou {@code null} para não exibir.
+     */
+    public EmbaralharGame(long tempoLimiteMs, String palavraOriginal, long issuerId, String categoria) {
+        this(tempoLimiteMs, List.of(palavraOriginal), issuerId, categoria);
+    }
+
+    /**
+     * Constrói uma nova instância do Jogo de Embaralhar que aceita várias respostas.
+     *
+     * @param tempoLimiteMs O tempo limite para o jogo em milissegundos.
+     * @param solucoes      As respostas aceitas; a primeira é a palavra original, que é embaralhada.
+     * @param issuerId      O ID do usuário que iniciou o jogo, ou {@link Game#SEM_CRIADOR}.
+     * @param categoria     A categoria da palavra (ex: "Frutas"), ou {@code null} para não exibir.
+     */
+    public EmbaralharGame(long tempoLimiteMs, List<String> solucoes, long issuerId, String categoria) {
         super(tempoLimiteMs, issuerId);
-        this.palavraOriginal = palavraOriginal;
+        this.palavraOriginal = solucoes.get(0);
+        this.solucoes = Collections.unmodifiableList(solucoes);
+        this.matchers = new AnswerMatcher[solucoes.size()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = AnswerMatcher.compilar(solucoes.get(i), AnswerMatcher.Modo.ESPACOS_COLAPSADOS);
+        }
+        this.categoria = categoria;
     }
 
     /**
@@ -39,25 +94,133 @@ public class EmbaralharGame extends Game {
         return palavraOriginal;
     }
 
+    /**
+     * Retorna todas as respostas aceitas.
+     *
+     * @return A palavra original, seguida dos seus anagramas válidos.
+     */
+    public List<String> getSolucoes() {
+        return solucoes;
+    }
+
+    /**
+     * Verifica se um texto seria aceito como resposta, com a mesma tolerância a erros de digitação
+     * aplicada aos jogadores. Usado para não exibir como "embaralhada" uma palavra que já vence o jogo.
+     *
+     * @param texto O texto a ser verificado.
+     * @return {@code true} se o texto for uma resposta aceita.
+     */
+    public boolean isSolucao(CharSequence texto) {
+        return indiceDaSolucao(texto) >= 0;
+    }
+
+    /**
+     * Embaralha a palavra original de forma que nenhuma letra fique na sua posição (sempre que possível)
+     * e que o resultado não seja aceito como resposta. Se a tolerância do servidor aceitar todos os
+     * embaralhamentos tentados (comum em palavras curtas), ela é desativada nesta partida.
+     *
+     * @param random A fonte de números aleatórios.
+     * @return A palavra embaralhada.
+     */
+    public String embaralhar(Random random) {
+        String embaralhada = palavraOriginal;
+        for (int t = 0; t < 2 * TENTATIVAS_EMBARALHAR; t++) {
+            if (t == TENTATIVAS_EMBARALHAR && aceitaErros()) {
+                toleranciaDesativada = true;
+            }
+            embaralhada = new String(Embaralhador.embaralhar(palavraOriginal, random));
+            if (!isSolucao(embaralhada)) {
+                break;
+            }
+        }
+        return embaralhada;
+    }
+
+    /**
+     * Verifica se a configuração do servidor aceita erros de digitação em alguma das respostas.
+     */
+    private boolean aceitaErros() {
+        for (AnswerMatcher matcher : matchers) {
+            if (getConfig().calcularErrosPermitidos(matcher.getChave().length()) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica se a tolerância a erros de digitação foi desativada nesta partida (ver {@link #embaralhar}).
+     *
+     * @return {@code true} se só as respostas exatas são aceitas.
+     */
+    public boolean isToleranciaDesativada() {
+        return toleranciaDesativada;
+    }
+
+    /**
+     * Retorna a categoria da palavra, exibida como dica.
+     *
+     * @return A categoria, ou {@code null} se a palavra foi escolhida pelo anfitrião.
+     */
+    public String getCategoria() {
+        return categoria;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TipoDeJogo getTipo() {
+        return TipoDeJogo.EMBARALHAR;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
-     * Processa a mensagem de um jogador. Se a mensagem for igual à palavra original
-     * (ignorando maiúsculas/minúsculas), o jogo é finalizado e o vencedor é anunciado.
+     * Processa a mensagem de um jogador. Se a mensagem for igual à palavra original ou a um dos seus anagramas
+     * (ignorando maiúsculas/minúsculas, acentos e espaços extras), a mensagem reivindica a vitória; entre respostas
+     * corretas simultâneas, vence a enviada primeiro.
      * Respostas incorretas são simplesmente ignoradas.
+     * Se o servidor tiver configurado uma tolerância, respostas com poucos erros de digitação também são aceitas.
      */
     @Override
     protected void processarRespostaDoJogo(MessageReceivedEvent event, GameManager gameManager, ConfigManager configManager) {
-        String respostaDoUsuario = event.getMessage().getContentRaw();
-        if (respostaDoUsuario.equalsIgnoreCase(palavraOriginal)) {
-            gameManager.finalizarJogo(event.getChannel().getId());
-            long tempoDeReacao = System.currentTimeMillis() - getTempoInicio();
-            String resultado = String.format(
-                    "✅ **Correto!** %s desembaraçou a palavra em %.2f segundos!",
-                    event.getAuthor().getAsMention(),
-                    tempoDeReacao / 1000.0
-            );
-            event.getChannel().sendMessage(resultado).queue();
+        if (indiceDaSolucao(event.getMessage().getContentRaw()) >= 0) {
+            reivindicarVitoria(event, gameManager);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void anunciarVitoria(MessageReceivedEvent vencedor, GameManager gameManager) {
+        long tempoDeReacao = calcularTempoDeReacaoMs(vencedor.getMessageIdLong());
+        String resultado = String.format(
+                "✅ **Correto!** %s desembaraçou a palavra%s!",
+                vencedor.getAuthor().getAsMention(),
+                emSegundos(tempoDeReacao)
+        );
+        int i = indiceDaSolucao(vencedor.getMessage().getContentRaw());
+        if (i > 0) {
+            resultado += " (`" + solucoes.get(i) + "` também vale; a palavra sorteada era `" + palavraOriginal + "`.)";
+        }
+        vencedor.getChannel().sendMessage(resultado).queue();
+    }
+
+    /**
+     * Procura a solução à qual a mensagem corresponde, com os erros de digitação aceitos
+     * segundo a configuração do servidor (/config-tolerancia), a menos que a tolerância tenha sido desativada.
+     *
+     * @return O índice da solução, ou -1 se a mensagem não corresponde a nenhuma.
+     */
+    private int indiceDaSolucao(CharSequence conteudo) {
+        for (int i = 0; i < matchers.length; i++) {
+            int errosPermitidos = toleranciaDesativada ? 0 : getConfig().calcularErrosPermitidos(matchers[i].getChave().length());
+            if (matchers[i].corresponde(conteudo, errosPermitidos)) {
+                return i;
+            }
         }
+        return -1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package br.com.bot.games.embaralhar;
+
+import br.com.bot.utils.CorpusDePalavras;
+import br.com.bot.utils.NormalizadorDeTexto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Um índice das palavras do {@link CorpusDePalavras} pela sua assinatura: as letras da palavra,
+ * sem acentos e em minúsculas, em ordem alfabética (ex: "amor", "roma" e "ramo" têm a assinatura "amor").
+ * <p>
+ * Duas palavras são anagramas uma da outra se, e somente se, têm a mesma assinatura. O índice é
+ * montado uma única vez, e cada consulta custa apenas o cálculo da assinatura e uma busca no mapa.
+ * O Jogo de Embaralhar o usa para aceitar qualquer anagrama válido como resposta e para evitar que
+ * a palavra embaralhada seja, ela mesma, uma resposta.
+ *
+ * @author Lucas
+ */
+public final class IndiceDeAnagramas {
+
+    /** O índice vazio, usado quando o corpus não está disponível. */
+    public static final IndiceDeAnagramas VAZIO = new IndiceDeAnagramas(Collections.emptyMap());
+
+    /** As palavras de cada assinatura com mais de uma palavra; assinaturas com uma só palavra não precisam ser guardadas. */
+    private final Map<String, List<String>> anagramasPorAssinatura;
+
+    private IndiceDeAnagramas(Map<String, List<String>> anagramasPorAssinatura) {
+        this.anagramasPorAssinatura = anagramasPorAssinatura;
+    }
+
+    /**
+     * Monta o índice com todas as palavras do corpus.
+     *
+     * @param corpus O corpus de palavras, ou {@code null}.
+     * @return O índice (vazio se não houver corpus).
+     */
+    public static IndiceDeAnagramas doCorpus(CorpusDePalavras corpus) {
+        if (corpus == null) {
+            return VAZIO;
+        }
+        Map<String, List<String>> porAssinatura = new HashMap<>();
+        for (int i = 0; i < corpus.getTotalPalavras(); i++) {
+            String palavra = corpus.getPalavra(i);
+            porAssinatura.computeIfAbsent(assinatura(palavra), k -> new ArrayList<>(1)).add(palavra);
+        }
+        porAssinatura.values().removeIf(palavras -> palavras.size() < 2);
+        porAssinatura.replaceAll((assinatura, palavras) -> Collections.unmodifiableList(palavras));
+        return new IndiceDeAnagramas(porAssinatura);
+    }
+
+    /**
+     * Calcula a assinatura de uma palavra: suas letras e dígitos, sem acentos e em minúsculas,
+     * em ordem alfabética. Espaços, hífens e pontuação são ignorados.
+     *
+     * @param palavra A palavra.
+     * @return A assinatura.
+     */
+    public static String assinatura(String palavra) {
+        String normalizada = NormalizadorDeTexto.normalizar(palavra);
+        char[] letras = new char[normalizada.length()];
+        int total = 0;
+        for (int i = 0; i < normalizada.length(); i++) {
+            char c = normalizada.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                letras[total++] = c;
+            }
+        }
+        Arrays.sort(letras, 0, total);
+        return new String(letras, 0, total);
+    }
+
+    /**
+     * Retorna as respostas válidas para uma palavra embaralhada: a própria palavra, primeiro,
+     * seguida dos seus anagramas no corpus.
+     *
+     * @param palavra A palavra original.
+     * @return As soluções, sem repetições (ignorando acentos e maiúsculas).
+     */
+    public List<String> getSolucoes(String palavra) {
+        List<String> anagramas = anagramasPorAssinatura.get(assinatura(palavra));
+        if (anagramas == null) {
+            return List.of(palavra);
+        }
+        List<String> solucoes = new ArrayList<>(anagramas.size() + 1);
+        solucoes.add(palavra);
+        String original = NormalizadorDeTexto.normalizar(palavra);
+        for (String anagrama : anagramas) {
+            if (!NormalizadorDeTexto.normalizar(anagrama).equals(original)) {
+                solucoes.add(anagrama);
+            }
+        }
+        return solucoes;
+    }
+}
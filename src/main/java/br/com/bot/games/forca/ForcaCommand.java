@@ -4,6 +4,8 @@ import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
 import br.com.bot.shared.AbstractInteractiveGameCommand;
 import br.com.bot.shared.Game;
+import br.com.bot.utils.CorpusDePalavras;
+import br.com.bot.utils.OpcoesDoCorpus;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
@@ -11,7 +13,6 @@ import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Comando que implementa o Jogo da Forca.
@@ -24,22 +25,28 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 public class ForcaCommand extends AbstractInteractiveGameCommand {
 
+    /** O banco de palavras usado quando a palavra não é informada, ou {@code null}. */
+    private final CorpusDePalavras corpus;
+
     /**
      * Constrói o comando da Forca com suas dependências necessárias,
      * passando-as para a classe-mãe abstrata.
      *
      * @param gameManager O gerenciador de jogos ativos.
      * @param configManager O gerenciador de configurações de servidor.
-     * @param scheduler O agendador de tarefas para os timers.
+     * @param corpus O banco de palavras para sorteio, ou {@code null} se não estiver disponível.
      */
-    public ForcaCommand(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
-        super(gameManager, configManager, scheduler);
+    public ForcaCommand(GameManager gameManager, ConfigManager configManager, CorpusDePalavras corpus) {
+        super(gameManager, configManager);
+        this.corpus = corpus;
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * Valida as opções 'tempo', 'palavra' e 'erros' e cria uma instância de {@link ForcaGame}.
+     * Se a palavra não for informada, ela é sorteada do banco de palavras e, como ninguém a conhece,
+     * o anfitrião também pode jogar.
      */
     @Override
     protected Optional<Game> createGame(SlashCommandInteractionEvent event) {
@@ -48,11 +55,14 @@ public class ForcaCommand extends AbstractInteractiveGameCommand {
             return Optional.empty();
         }
 
-        String palavra = event.getOption("palavra").getAsString();
         int erros = event.getOption("erros").getAsInt();
-        String issuerId = event.getUser().getId();
 
-        return Optional.of(new ForcaGame(tempoOpt.get(), palavra, erros, issuerId));
+        Optional<String> palavraInformada = OpcoesDoCorpus.getPalavraInformada(event);
+        if (palavraInformada.isPresent()) {
+            return Optional.of(new ForcaGame(tempoOpt.get(), palavraInformada.get(), erros, event.getUser().getIdLong()));
+        }
+        return OpcoesDoCorpus.sortear(event, corpus)
+                .map(sorteada -> new ForcaGame(tempoOpt.get(), sorteada.getTexto(), erros, Game.SEM_CRIADOR, sorteada.getCategoria()));
     }
 
     /**
@@ -72,7 +82,7 @@ public class ForcaCommand extends AbstractInteractiveGameCommand {
      * Define o ID da mensagem no objeto do jogo para que ele possa ser editado posteriormente.
      */
     @Override
-    protected void setGameMessageId(Game game, String messageId) {
+    protected void setGameMessageId(Game game, long messageId) {
         ((ForcaGame) game).setMessageId(messageId);
     }
 
@@ -89,9 +99,9 @@ public class ForcaCommand extends AbstractInteractiveGameCommand {
      */
     @Override
     public SlashCommandData getCommandData() {
-        return Commands.slash("forca", "Inicia um jogo da forca.")
-                .addOption(OptionType.STRING, "palavra", "A palavra secreta a ser adivinhada.", true)
+        SlashCommandData comando = Commands.slash("forca", "Inicia um jogo da forca.")
                 .addOption(OptionType.STRING, "tempo", "O tempo limite em segundos (ex: 120).", true)
                 .addOption(OptionType.INTEGER, "erros", "O número máximo de erros permitidos (mínimo 1).", true);
+        return OpcoesDoCorpus.adicionarOpcoes(comando, "A palavra secreta a ser adivinhada.", corpus);
     }
 }
\ No newline at end of file
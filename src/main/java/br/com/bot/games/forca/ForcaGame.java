@@ -2,16 +2,19 @@ package br.com.bot.games.forca;
 
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
+import br.com.bot.shared.AnswerMatcher;
 import br.com.bot.shared.Game;
+import br.com.bot.shared.ResultadoDaPartida;
+import br.com.bot.shared.TipoDeJogo;
 import br.com.bot.utils.NormalizadorDeTexto;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 import java.awt.Color;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Representa o estado e a lógica de um Jogo da Forca.
@@ -19,16 +22,63 @@ import java.util.stream.Collectors;
  * Esta classe gerencia a palavra secreta, as tentativas corretas e incorretas (tanto de letras
  * quanto de palavras inteiras), e é responsável por construir a representação visual
  * do jogo (o "tabuleiro") através de um MessageEmbed.
+ * <p>
+ * As letras de 'a' a 'z' já tentadas ficam em uma máscara de bits (uma letra por bit), e as
+ * demais letras (raras, já que a palavra é normalizada sem acentos) em um pequeno vetor. A palavra
+ * exibida é mantida pronta e, a cada acerto, apenas as posições da letra adivinhada são reveladas;
+ * um contador de letras ocultas indica a vitória sem percorrer a palavra. A mensagem é normalizada em
+ * um buffer reutilizado. Assim, processar um palpite de letra não aloca memória e não depende do
+ * tamanho da palavra; só um palpite de palavra errada cria uma String, a que é guardada.
  *
  * @author Lucas
  */
 public class ForcaGame extends Game {
+
+    /** Indica que a partida terminou sem vencedor (os jogadores foram enforcados). */
+    private static final long SEM_VENCEDOR = -1;
+    private static final Color COR = Color.CYAN;
+    private static final String TITULO = " Jogo da Forca ";
+    private static final String RODAPE = "Digite uma letra ou a palavra completa no chat para adivinhar!";
+    private static final String SEM_ERROS = "Nenhuma ainda.";
+
     private final String palavraSecreta;
+    /** O comparador da palavra completa, preparado uma única vez na criação do jogo. */
+    private final AnswerMatcher matcher;
     private final int maxErros;
-    private final Set<Character> letrasCorretas = new HashSet<>();
-    private final Set<Character> letrasErradas = new HashSet<>();
-    private final Set<String> palavrasErradas = new HashSet<>();
-    private String messageId;
+
+    /** As letras de 'a' a 'z' presentes na palavra, uma por bit. */
+    private final int letrasDaPalavra;
+    /** As letras de 'a' a 'z' já tentadas, uma por bit. */
+    private int letrasTentadas;
+    /** As demais letras já tentadas (fora de 'a' a 'z'), nas primeiras {@code totalOutrasTentadas} posições. */
+    private char[] outrasTentadas = new char[4];
+    private int totalOutrasTentadas;
+
+    /** As posições de cada letra 'a' a 'z' na palavra: a letra {@code l} ocupa {@code posicoes[inicioDaLetra[l]..inicioDaLetra[l+1]]}. */
+    private final int[] inicioDaLetra = new int[27];
+    private final int[] posicoes;
+
+    /** A palavra exibida (ex: "G _ A _ D A"), com um espaço entre cada caractere, atualizada a cada acerto. */
+    private final char[] exibicao;
+    /** Quantas letras da palavra ainda estão ocultas. */
+    private int letrasOcultas;
+
+    /** As letras erradas, na ordem em que foram tentadas (ex: "x, k"). */
+    private final StringBuilder letrasErradas = new StringBuilder();
+    private int totalLetrasErradas;
+    private final Set<String> palavrasErradas = new LinkedHashSet<>();
+
+    /**
+     * O palpite normalizado, reutilizado a cada mensagem. As mensagens do canal são processadas
+     * uma de cada vez no trabalhador do canal, então o buffer não é compartilhado.
+     */
+    private final StringBuilder tentativa = new StringBuilder();
+
+    /** O campo de tempo limite do tabuleiro, que não muda durante o jogo. */
+    private final MessageEmbed.Field campoTempoLimite;
+    /** O campo com a categoria da palavra sorteada, ou {@code null} se a palavra foi escolhida pelo anfitrião. */
+    private final MessageEmbed.Field campoCategoria;
+    private long messageId;
 
     /**
      * Constrói uma nova instância do Jogo da Forca.
@@ -39,10 +89,64 @@ public class ForcaGame extends Game {
      * @param maxErros O número máximo de tentativas incorretas permitidas.
      * @param issuerId O ID do usuário que iniciou o jogo.
      */
-    public ForcaGame(long tempoLimiteMs, String palavraSecreta, int maxErros, String issuerId) {
+    public ForcaGame(long tempoLimiteMs, String palavraSecreta, int maxErros, long issuerId) {
+        this(tempoLimiteMs, palavraSecreta, maxErros, issuerId, null);
+    }
+
+    /**
+     * Constrói uma nova instância do Jogo da Forca, exibindo a categoria da palavra como dica.
+     *
+     * @param tempoLimiteMs O tempo limite total para o jogo em milissegundos.
+     * @param palavraSecreta A palavra que os jogadores devem adivinhar.
+     * @param maxErros O número máximo de tentativas incorretas permitidas.
+     * @param issuerId O ID do usuário que iniciou o jogo, ou {@link Game#SEM_CRIADOR}.
+     * @param categoria A categoria da palavra (ex: "Frutas"), ou {@code null} para não exibir.
+     */
+    public ForcaGame(long tempoLimiteMs, String palavraSecreta, int maxErros, long issuerId, String categoria) {
         super(tempoLimiteMs, issuerId);
-        this.palavraSecreta = NormalizadorDeTexto.removerAcentos(palavraSecreta.toLowerCase());
+        this.matcher = AnswerMatcher.compilar(palavraSecreta, AnswerMatcher.Modo.SEM_ACENTOS);
+        this.palavraSecreta = matcher.getChave();
         this.maxErros = maxErros;
+
+        String palavra = this.palavraSecreta;
+        int tamanho = palavra.length();
+
+        // Monta a palavra exibida: letras ocultas, espaços, hífens etc. já revelados.
+        this.exibicao = new char[Math.max(0, 2 * tamanho - 1)];
+        Arrays.fill(exibicao, ' ');
+        int mascara = 0;
+        int[] contagem = new int[26];
+        for (int i = 0; i < tamanho; i++) {
+            char c = palavra.charAt(i);
+            if (Character.isLetter(c)) {
+                exibicao[2 * i] = '_';
+                letrasOcultas++;
+                if (c >= 'a' && c <= 'z') {
+                    mascara |= 1 << (c - 'a');
+                    contagem[c - 'a']++;
+                }
+            } else {
+                exibicao[2 * i] = c;
+            }
+        }
+        this.letrasDaPalavra = mascara;
+
+        // Agrupa as posições de cada letra (ordenação por contagem).
+        for (int l = 0; l < 26; l++) {
+            inicioDaLetra[l + 1] = inicioDaLetra[l] + contagem[l];
+        }
+        this.posicoes = new int[inicioDaLetra[26]];
+        int[] proxima = Arrays.copyOf(inicioDaLetra, 26);
+        for (int i = 0; i < tamanho; i++) {
+            char c = palavra.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                posicoes[proxima[c - 'a']++] = i;
+            }
+        }
+
+        double tempoEmSegundos = getTempoLimiteMs() / 1000.0;
+        this.campoTempoLimite = new MessageEmbed.Field("Tempo Limite:", String.format("**%.1f** segundos", tempoEmSegundos), true);
+        this.campoCategoria = categoria == null ? null : new MessageEmbed.Field("Categoria:", categoria, false);
     }
 
     /**
@@ -50,7 +154,7 @@ public class ForcaGame extends Game {
      * Essencial para que o bot possa editar a mensagem e atualizar o estado do jogo.
      * @param messageId O ID da mensagem a ser editada.
      */
-    public void setMessageId(String messageId) {
+    public void setMessageId(long messageId) {
         this.messageId = messageId;
     }
 
@@ -69,103 +173,192 @@ public class ForcaGame extends Game {
      */
     public MessageEmbed buildGameEmbed() {
         EmbedBuilder embed = new EmbedBuilder();
-        embed.setTitle(" Jogo da Forca ");
-        embed.setColor(Color.CYAN);
-
-        // Constrói a exibição da palavra (ex: G U A R D A - C H U V A)
-        String palavraExibida = palavraSecreta.chars()
-                .mapToObj(cInt -> {
-                    char c = (char) cInt;
-                    if (!Character.isLetter(c)) {
-                        return String.valueOf(c); // Revela espaços, hífens, etc.
-                    } else if (letrasCorretas.contains(c)) {
-                        return String.valueOf(c); // Revela letras corretas
-                    } else {
-                        return "_"; // Esconde letras não adivinhadas
-                    }
-                })
-                .collect(Collectors.joining(" "));
-        embed.addField("Palavra:", "`" + palavraExibida + "`", false);
-
-        String letrasErradasStr = letrasErradas.stream()
-                .map(String::valueOf)
-                .collect(Collectors.joining(", "));
-        if (letrasErradasStr.isEmpty()) {
-            letrasErradasStr = "Nenhuma ainda.";
+        embed.setTitle(TITULO);
+        embed.setColor(COR);
+
+        // A exibição da palavra (ex: G U A R D A - C H U V A) já está pronta.
+        embed.addField("Palavra:", "`" + new String(exibicao) + "`", false);
+        if (campoCategoria != null) {
+            embed.addField(campoCategoria);
         }
+
+        String letrasErradasStr = letrasErradas.length() == 0 ? SEM_ERROS : letrasErradas.toString();
         if (!palavrasErradas.isEmpty()) {
             letrasErradasStr += "\n**Palavras erradas:** " + String.join(", ", palavrasErradas);
         }
         embed.addField("Tentativas Erradas:", letrasErradasStr, true);
 
-        int errosAtuais = letrasErradas.size() + palavrasErradas.size();
+        int errosAtuais = getErrosAtuais();
         StringBuilder errosDisplay = new StringBuilder();
         for (int i = 0; i < maxErros; i++) {
             errosDisplay.append(i < errosAtuais ? "❌" : "⬜");
         }
         embed.addField("Erros:", errosDisplay.toString() + String.format(" (%d/%d)", errosAtuais, maxErros), true);
 
-        double tempoEmSegundos = getTempoLimiteMs() / 1000.0;
-        embed.addField("Tempo Limite:", String.format("**%.1f** segundos", tempoEmSegundos), true);
-
-        embed.setFooter("Digite uma letra ou a palavra completa no chat para adivinhar!");
+        embed.addField(campoTempoLimite);
+        embed.setFooter(RODAPE);
 
         return embed.build();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TipoDeJogo getTipo() {
+        return TipoDeJogo.FORCA;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * Processa a tentativa de um jogador. Verifica se a tentativa é uma letra ou uma palavra inteira,
      * atualiza o estado do jogo (letras corretas/erradas) e edita a mensagem do tabuleiro.
-     * Também verifica as condições de vitória ou derrota após cada jogada válida.
+     * Também verifica as condições de vitória ou derrota após cada jogada válida. O acerto da palavra
+     * completa reivindica a vitória (vence o palpite enviado primeiro); a partir daí, o tabuleiro não muda mais.
      */
     @Override
     protected void processarRespostaDoJogo(MessageReceivedEvent event, GameManager gameManager, ConfigManager configManager) {
-        String tentativa = NormalizadorDeTexto.removerAcentos(event.getMessage().getContentRaw().toLowerCase());
+        String conteudo = event.getMessage().getContentRaw();
+
+        // Acerto da palavra completa, verificado sem normalizar a mensagem
+        if (matcher.corresponde(conteudo)) {
+            reivindicarVitoria(event, gameManager);
+            return;
+        }
+        if (isVitoriaPendente()) {
+            return; // Alguém já acertou a palavra: o tabuleiro não muda mais.
+        }
+
+        NormalizadorDeTexto.normalizar(conteudo, tentativa);
 
-        if (tentativa.isEmpty()) return;
+        if (tentativa.length() == 0) return;
 
-        // Lógica para tentativa de palavra inteira
+        // Lógica para tentativa de palavra inteira (errada, já que o acerto foi tratado acima).
+        // Só aqui o palpite vira uma String, pois a palavra errada é guardada.
         if (tentativa.length() > 1) {
-            if (tentativa.equals(palavraSecreta)) {
-                gameManager.finalizarJogo(event.getChannel().getId());
-                event.getChannel().sendMessage("🎉 **VITÓRIA!** " + event.getAuthor().getAsMention() + " acertou a palavra completa: `" + palavraSecreta + "`!").queue();
-                return;
-            } else {
-                palavrasErradas.add(tentativa);
+            if (!palavrasErradas.add(tentativa.toString())) {
+                return; // Palavra já tentada: nada muda.
             }
             // Lógica para tentativa de letra
         } else if (Character.isLetter(tentativa.charAt(0))) {
-            char letra = tentativa.charAt(0);
-            if (letrasCorretas.contains(letra) || letrasErradas.contains(letra)) {
-                return;
-            }
-            if (palavraSecreta.indexOf(letra) >= 0) {
-                letrasCorretas.add(letra);
-            } else {
-                letrasErradas.add(letra);
+            if (!registrarLetra(tentativa.charAt(0))) {
+                return; // Letra já tentada: nada muda.
             }
         } else {
             return; // Ignora inputs que não são letras ou palavras
         }
 
-        // Atualiza o tabuleiro e verifica condições de fim de jogo
-        event.getChannel().editMessageEmbedsById(messageId, buildGameEmbed()).queue();
+        // Atualiza o tabuleiro (as edições são agrupadas: só o estado mais recente é enviado)
+        // e verifica condições de fim de jogo
+        gameManager.getEditCoalescer().atualizar(event.getJDA(), event.getChannel().getIdLong(), messageId, this::buildGameEmbed);
 
-        boolean vitoriaPorLetras = palavraSecreta.chars()
-                .filter(Character::isLetter)
-                .allMatch(c -> letrasCorretas.contains((char) c));
-        if (vitoriaPorLetras) {
-            gameManager.finalizarJogo(event.getChannel().getId());
+        if (letrasOcultas == 0) {
+            if (!encerrarPartida(event, gameManager, event.getAuthor().getIdLong())) return;
             event.getChannel().sendMessage("🎉 **Parabéns!** " + event.getAuthor().getAsMention() + " adivinhou a última letra e vocês venceram! A palavra era `" + palavraSecreta + "`.").queue();
             return;
         }
 
-        int errosAtuais = letrasErradas.size() + palavrasErradas.size();
-        if (errosAtuais >= maxErros) {
-            gameManager.finalizarJogo(event.getChannel().getId());
+        if (getErrosAtuais() >= maxErros) {
+            if (!encerrarPartida(event, gameManager, SEM_VENCEDOR)) return;
             event.getChannel().sendMessage("💀 **Fim de jogo!** Vocês foram enforcados! A palavra era `" + palavraSecreta + "`.").queue();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void anunciarVitoria(MessageReceivedEvent vencedor, GameManager gameManager) {
+        vencedor.getChannel().sendMessage("🎉 **VITÓRIA!** " + vencedor.getAuthor().getAsMention() + " acertou a palavra completa: `" + palavraSecreta + "`!").queue();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Na Forca, o tempo até o acerto não mede reação, então não é registrado.
+     */
+    @Override
+    protected ResultadoDaPartida criarResultadoDaVitoria(MessageReceivedEvent vencedor) {
+        return ResultadoDaPartida.vitoria(getTipo(), vencedor.getAuthor().getIdLong(), ResultadoDaPartida.SEM_TEMPO);
+    }
+
+    /**
+     * Encerra e finaliza a partida pelo tabuleiro (última letra revelada ou erros esgotados).
+     *
+     * @param vencedorId O ID de quem revelou a última letra, ou {@link #SEM_VENCEDOR} se os jogadores perderam.
+     * @return {@code true} se esta jogada decidiu o desfecho e deve anunciá-lo.
+     */
+    private boolean encerrarPartida(MessageReceivedEvent event, GameManager gameManager, long vencedorId) {
+        if (!encerrar()) {
+            return false;
+        }
+        if (vencedorId != SEM_VENCEDOR) {
+            registrarResultado(ResultadoDaPartida.vitoria(getTipo(), vencedorId, ResultadoDaPartida.SEM_TEMPO));
+        }
+        return gameManager.finalizarJogo(event.getGuild().getIdLong(), event.getChannel().getIdLong(), this);
+    }
+
+    /**
+     * Registra a tentativa de uma letra, revelando suas posições na palavra ou contando um erro.
+     *
+     * @param letra A letra tentada (normalizada).
+     * @return {@code false} se a letra já havia sido tentada.
+     */
+    private boolean registrarLetra(char letra) {
+        if (letra >= 'a' && letra <= 'z') {
+            int bit = 1 << (letra - 'a');
+            if ((letrasTentadas & bit) != 0) {
+                return false;
+            }
+            letrasTentadas |= bit;
+            if ((letrasDaPalavra & bit) == 0) {
+                registrarErro(letra);
+                return true;
+            }
+            // Revela apenas as posições da letra.
+            int l = letra - 'a';
+            for (int p = inicioDaLetra[l]; p < inicioDaLetra[l + 1]; p++) {
+                exibicao[2 * posicoes[p]] = letra;
+            }
+            letrasOcultas -= inicioDaLetra[l + 1] - inicioDaLetra[l];
+            return true;
+        }
+
+        // Letras fora de 'a' a 'z': raras, tratadas por busca simples.
+        for (int k = 0; k < totalOutrasTentadas; k++) {
+            if (outrasTentadas[k] == letra) {
+                return false;
+            }
+        }
+        if (totalOutrasTentadas == outrasTentadas.length) {
+            outrasTentadas = Arrays.copyOf(outrasTentadas, totalOutrasTentadas * 2);
+        }
+        outrasTentadas[totalOutrasTentadas++] = letra;
+
+        int reveladas = 0;
+        for (int i = 0; i < palavraSecreta.length(); i++) {
+            if (palavraSecreta.charAt(i) == letra) {
+                exibicao[2 * i] = letra;
+                reveladas++;
+            }
+        }
+        if (reveladas == 0) {
+            registrarErro(letra);
+        }
+        letrasOcultas -= reveladas;
+        return true;
+    }
+
+    private void registrarErro(char letra) {
+        if (totalLetrasErradas > 0) {
+            letrasErradas.append(", ");
+        }
+        letrasErradas.append(letra);
+        totalLetrasErradas++;
+    }
+
+    private int getErrosAtuais() {
+        return totalLetrasErradas + palavrasErradas.size();
+    }
+}
@@ -3,7 +3,11 @@ package br.com.bot.games.memoria;
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
 import br.com.bot.shared.AbstractInteractiveGameCommand;
+import br.com.bot.shared.ContextoDaFase;
+import br.com.bot.shared.Fase;
 import br.com.bot.shared.Game;
+import br.com.bot.shared.RoteiroDeFases;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
@@ -11,68 +15,82 @@ import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Comando que implementa o Jogo da Memória.
  * <p>
  * Esta classe herda do molde de jogos interativos, {@link AbstractInteractiveGameCommand},
- * mas com uma lógica customizada em seu fluxo para acomodar os dois timers distintos
+ * mas com um roteiro de fases próprio para acomodar os dois tempos distintos
  * (tempo para memorizar e tempo para responder).
  *
  * @author Lucas
  */
 public class MemoriaCommand extends AbstractInteractiveGameCommand {
 
+    /** As fases do Jogo da Memória: preparo, memorização, ocultação, respostas e tempo esgotado. */
+    private final RoteiroDeFases roteiro = new RoteiroDeFases()
+            .fase(Fase.PREPARAR, PREPARE_DELAY_MS, contexto -> { })
+            .fase(Fase.MOSTRAR, RoteiroDeFases.AO_CONCLUIR, this::mostrarString)
+            .fase(Fase.OCULTAR, 0, this::ocultarString)
+            .fase(Fase.RESPONDER, Game::getTempoLimiteMs, contexto -> { })
+            .fase(Fase.ESGOTADO, RoteiroDeFases.SEM_PRAZO, this::esgotarTempo);
+
     /**
      * Constrói o comando da Memória com suas dependências necessárias,
      * passando-as para a classe-mãe abstrata.
      *
      * @param gameManager O gerenciador de jogos ativos.
      * @param configManager O gerenciador de configurações de servidor.
-     * @param scheduler O agendador de tarefas para os timers.
      */
-    public MemoriaCommand(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
-        super(gameManager, configManager, scheduler);
+    public MemoriaCommand(GameManager gameManager, ConfigManager configManager) {
+        super(gameManager, configManager);
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Para o Jogo da Memória, o fluxo de início é customizado para lidar com o
-     * tempo de memorização antes de iniciar o timer do jogo.
+     * Para o Jogo da Memória, o fluxo de início tem uma fase de memorização antes das respostas:
+     * a string fica visível por 'tempo_ocultar' a partir da confirmação da mensagem, é ocultada e
+     * só então o tempo para responder começa.
      */
     @Override
     protected void startGameFlow(SlashCommandInteractionEvent event, Game game) {
-        long tempoOcultarMs = parseTimeOption(event, "tempo_ocultar").orElse(5000L); // Padrão de 5s
-
-        event.reply(String.format("O jogo da memória vai começar em %d segundos...", PREPARE_DELAY_SECONDS)).queue();
-
-        scheduler.schedule(() -> {
-            MessageCreateData initialMessage = getInitialMessage(game);
-            event.getChannel().sendMessage(initialMessage).queue(message -> {
-                // Agenda a edição da mensagem (para ocultar a string)
-                scheduler.schedule(() -> {
-                    // Guarda o ID da mensagem no objeto do jogo
-                    setGameMessageId(game, message.getId());
-
-                    double tempoLimiteSeg = game.getTempoLimiteMs() / 1000.0;
-                    message.editMessage(String.format("**Qual era a string?** Você tem %.1f segundos!", tempoLimiteSeg)).queue();
-
-                    // AGORA o jogo efetivamente começa
-                    gameManager.iniciarJogo(event.getChannel().getId(), game);
-
-                    // Agenda o timeout final do jogo
-                    scheduler.schedule(() -> {
-                        Game jogoFinalizado = gameManager.finalizarJogo(event.getChannel().getId());
-                        if (jogoFinalizado != null) {
-                            event.getChannel().sendMessage(getTimeoutMessage(jogoFinalizado)).queue();
-                        }
-                    }, game.getTempoLimiteMs(), TimeUnit.MILLISECONDS);
-                }, tempoOcultarMs, TimeUnit.MILLISECONDS);
-            });
-        }, PREPARE_DELAY_SECONDS, TimeUnit.SECONDS);
+        iniciarFases(event, game, String.format("O jogo da memória vai começar em %d segundos...", PREPARE_DELAY_SECONDS), roteiro);
+    }
+
+    /**
+     * Exibe a string e, quando a mensagem é confirmada, agenda o fim da memorização.
+     */
+    private void mostrarString(ContextoDaFase contexto) {
+        MessageChannel canal = contexto.getCanal();
+        if (canal == null) {
+            contexto.abortar();
+            return;
+        }
+        MemoriaGame memoriaGame = (MemoriaGame) contexto.getGame();
+        canal.sendMessage(getInitialMessage(memoriaGame)).queue(message -> {
+            setGameMessageId(memoriaGame, message.getIdLong());
+            contexto.concluirApos(memoriaGame.getTempoOcultarMs());
+        }, erro -> contexto.abortar());
+    }
+
+    /**
+     * Substitui a string pela pergunta. O tempo de reação conta a partir desta edição, no relógio do Discord.
+     */
+    private void ocultarString(ContextoDaFase contexto) {
+        MessageChannel canal = contexto.getCanal();
+        if (canal == null) {
+            contexto.abortar();
+            return;
+        }
+        MemoriaGame memoriaGame = (MemoriaGame) contexto.getGame();
+        double tempoLimiteSeg = memoriaGame.getTempoLimiteMs() / 1000.0;
+        canal.editMessageById(memoriaGame.getMessageId(), String.format("**Qual era a string?** Você tem %.1f segundos!", tempoLimiteSeg))
+                .queue(editada -> {
+                    if (editada.getTimeEdited() != null) {
+                        memoriaGame.marcarInicioNoDiscord(editada.getTimeEdited().toInstant().toEpochMilli());
+                    }
+                });
     }
 
     /**
@@ -87,16 +105,16 @@ public class MemoriaCommand extends AbstractInteractiveGameCommand {
             return Optional.empty();
         }
 
-        // Validação extra para o tempo_ocultar
+        // O tempo de memorização é lido uma única vez e guardado no jogo.
         Optional<Long> tempoOcultarOpt = parseTimeOption(event, "tempo_ocultar");
         if(tempoOcultarOpt.isEmpty()) {
             return Optional.empty();
         }
 
         String stringSecreta = event.getOption("string").getAsString();
-        String issuerId = event.getUser().getId();
+        long issuerId = event.getUser().getIdLong();
 
-        return Optional.of(new MemoriaGame(tempoLimiteOpt.get(), stringSecreta, issuerId));
+        return Optional.of(new MemoriaGame(tempoLimiteOpt.get(), tempoOcultarOpt.get(), stringSecreta, issuerId));
     }
 
     /**
@@ -116,7 +134,7 @@ public class MemoriaCommand extends AbstractInteractiveGameCommand {
      * Define o ID da mensagem no objeto do jogo para referência futura.
      */
     @Override
-    protected void setGameMessageId(Game game, String messageId) {
+    protected void setGameMessageId(Game game, long messageId) {
         ((MemoriaGame) game).setMessageId(messageId);
     }
 
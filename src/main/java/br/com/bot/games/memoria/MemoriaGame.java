@@ -2,8 +2,9 @@ package br.com.bot.games.memoria;
 
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
+import br.com.bot.shared.AnswerMatcher;
 import br.com.bot.shared.Game;
-import br.com.bot.utils.NormalizadorDeTexto;
+import br.com.bot.shared.TipoDeJogo;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 /**
@@ -19,19 +20,39 @@ public class MemoriaGame extends Game {
     /** A string original que os jogadores devem memorizar e digitar. */
     private final String stringSecreta;
 
+    /** O comparador da string secreta, preparado uma única vez na criação do jogo. */
+    private final AnswerMatcher matcher;
+
+    /** Por quanto tempo a string fica visível antes de ser ocultada, em milissegundos. */
+    private final long tempoOcultarMs;
+
     /** O ID da mensagem do Discord que exibe o desafio, para que ela possa ser editada. */
-    private String messageId;
+    private volatile long messageId;
 
     /**
-     * Constrói uma nova instância do Jogo da Memória.
+     * Constrói uma nova instância do Jogo da Memória, com a string visível por 5 segundos.
      *
      * @param tempoLimiteMs O tempo limite para o jogo em milissegundos.
      * @param stringSecreta A string correta que os jogadores devem adivinhar.
      * @param issuerId      O ID do usuário que iniciou o jogo.
      */
-    public MemoriaGame(long tempoLimiteMs, String stringSecreta, String issuerId) {
+    public MemoriaGame(long tempoLimiteMs, String stringSecreta, long issuerId) {
+        this(tempoLimiteMs, 5000L, stringSecreta, issuerId);
+    }
+
+    /**
+     * Constrói uma nova instância do Jogo da Memória.
+     *
+     * @param tempoLimiteMs  O tempo para responder, após a string ser ocultada, em milissegundos.
+     * @param tempoOcultarMs Por quanto tempo a string fica visível, em milissegundos.
+     * @param stringSecreta  A string correta que os jogadores devem adivinhar.
+     * @param issuerId       O ID do usuário que iniciou o jogo.
+     */
+    public MemoriaGame(long tempoLimiteMs, long tempoOcultarMs, String stringSecreta, long issuerId) {
         super(tempoLimiteMs, issuerId);
+        this.tempoOcultarMs = tempoOcultarMs;
         this.stringSecreta = stringSecreta;
+        this.matcher = AnswerMatcher.compilar(stringSecreta, AnswerMatcher.Modo.ESPACOS_COLAPSADOS);
     }
 
     /**
@@ -40,10 +61,28 @@ public class MemoriaGame extends Game {
      *
      * @param messageId O ID da mensagem a ser guardada.
      */
-    public void setMessageId(String messageId) {
+    public void setMessageId(long messageId) {
         this.messageId = messageId;
     }
 
+    /**
+     * Retorna o ID da mensagem que exibe o desafio.
+     *
+     * @return O ID da mensagem, ou 0 se ela ainda não foi enviada.
+     */
+    public long getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Retorna por quanto tempo a string fica visível antes de ser ocultada.
+     *
+     * @return O tempo, em milissegundos.
+     */
+    public long getTempoOcultarMs() {
+        return tempoOcultarMs;
+    }
+
     /**
      * Retorna a string secreta e correta do jogo.
      *
@@ -53,33 +92,46 @@ public class MemoriaGame extends Game {
         return stringSecreta;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TipoDeJogo getTipo() {
+        return TipoDeJogo.MEMORIA;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * Processa a mensagem de um jogador. A resposta é normalizada (ignorando acentos e
-     * maiúsculas/minúsculas) e comparada com a string secreta. Se corresponder,
-     * o jogo é finalizado e o vencedor é anunciado. Respostas incorretas são ignoradas.
+     * maiúsculas/minúsculas) e comparada com a string secreta. Se corresponder, a resposta
+     * reivindica a vitória; entre respostas corretas simultâneas, vence a enviada primeiro.
+     * Respostas incorretas são ignoradas.
+     * Se o servidor tiver configurado uma tolerância, respostas com poucos erros de digitação também são aceitas.
      */
     @Override
     protected void processarRespostaDoJogo(MessageReceivedEvent event, GameManager gameManager, ConfigManager configManager) {
-        String respostaDoUsuario = event.getMessage().getContentRaw();
-
-        // Normaliza a resposta para uma comparação justa
-        String respostaNormalizadaUsuario = NormalizadorDeTexto.removerAcentos(respostaDoUsuario.trim().toLowerCase());
-        String respostaNormalizadaCorreta = NormalizadorDeTexto.removerAcentos(getStringSecreta().trim().toLowerCase());
-
-        if (respostaNormalizadaUsuario.equals(respostaNormalizadaCorreta)) {
-            // Se a resposta estiver correta, finaliza o jogo e anuncia o vencedor
-            gameManager.finalizarJogo(event.getChannel().getId());
-            long tempoDeReacao = System.currentTimeMillis() - getTempoInicio();
-
-            String resultado = String.format(
-                    "🧠 **Memória Incrível!** %s acertou em %.2f segundos!",
-                    event.getAuthor().getAsMention(),
-                    tempoDeReacao / 1000.0
-            );
-            event.getChannel().sendMessage(resultado).queue();
+        // Comparação justa: ignora maiúsculas/minúsculas, espaços extras, acentos e,
+        // se o servidor permitir, alguns erros de digitação
+        int errosPermitidos = getConfig().calcularErrosPermitidos(matcher.getChave().length());
+        if (matcher.corresponde(event.getMessage().getContentRaw(), errosPermitidos)) {
+            // A resposta correta enviada primeiro (pelo snowflake) vence
+            reivindicarVitoria(event, gameManager);
         }
         // Se a resposta estiver errada, o método termina, permitindo que outros jogadores tentem.
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void anunciarVitoria(MessageReceivedEvent vencedor, GameManager gameManager) {
+        long tempoDeReacao = calcularTempoDeReacaoMs(vencedor.getMessageIdLong());
+        String resultado = String.format(
+                "🧠 **Memória Incrível!** %s acertou%s!",
+                vencedor.getAuthor().getAsMention(),
+                emSegundos(tempoDeReacao)
+        );
+        vencedor.getChannel().sendMessage(resultado).queue();
+    }
 }
\ No newline at end of file
@@ -5,12 +5,12 @@ import br.com.bot.core.GameManager;
 import br.com.bot.shared.AbstractSimpleGameCommand;
 import br.com.bot.shared.Game;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Comando que implementa o Jogo de Reflexo, onde os jogadores devem digitar uma frase rapidamente.
@@ -22,22 +22,24 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 public class ReflexoCommand extends AbstractSimpleGameCommand {
 
+    /** A maior janela de coleta aceita, em milissegundos. */
+    private static final long JANELA_MAXIMA_MS = 30_000L;
+
     /**
      * Constrói o comando de reflexo com suas dependências necessárias,
      * passando-as para a classe-mãe abstrata.
      *
      * @param gameManager O gerenciador de jogos ativos.
      * @param configManager O gerenciador de configurações de servidor.
-     * @param scheduler O agendador de tarefas para os timers.
      */
-    public ReflexoCommand(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
-        super(gameManager, configManager, scheduler);
+    public ReflexoCommand(GameManager gameManager, ConfigManager configManager) {
+        super(gameManager, configManager);
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Valida as opções 'tempo' e 'frase' fornecidas pelo usuário
+     * Valida as opções 'tempo', 'frase' e 'janela' fornecidas pelo usuário
      * e cria uma instância de {@link ReflexoGame} com esses dados.
      */
     @Override
@@ -48,10 +50,24 @@ public class ReflexoCommand extends AbstractSimpleGameCommand {
             return Optional.empty(); // O erro já foi reportado ao usuário pelo método auxiliar.
         }
 
+        long janelaMs = 0;
+        OptionMapping janelaOpt = event.getOption("janela");
+        if (janelaOpt != null) {
+            Optional<Long> janela = parseTimeOption(event, "janela");
+            if (janela.isEmpty()) {
+                return Optional.empty();
+            }
+            janelaMs = janela.get();
+            if (janelaMs < 0 || janelaMs > JANELA_MAXIMA_MS) {
+                event.reply(String.format("A janela deve estar entre 0 e %d segundos.", JANELA_MAXIMA_MS / 1000)).setEphemeral(true).queue();
+                return Optional.empty();
+            }
+        }
+
         String frase = event.getOption("frase").getAsString();
-        String issuerId = event.getUser().getId();
+        long issuerId = event.getUser().getIdLong();
 
-        return Optional.of(new ReflexoGame(frase, tempoOpt.get(), issuerId));
+        return Optional.of(new ReflexoGame(frase, tempoOpt.get(), janelaMs, issuerId));
     }
 
     /**
@@ -70,10 +86,14 @@ public class ReflexoCommand extends AbstractSimpleGameCommand {
     protected String getStartMessage(Game game) {
         ReflexoGame reflexoGame = (ReflexoGame) game;
         double tempoEmSegundos = reflexoGame.getTempoLimiteMs() / 1000.0;
+        String janela = reflexoGame.getJanelaMs() > 0
+                ? String.format(" | Respostas aceitas até **%.1f s** após a primeira", reflexoGame.getJanelaMs() / 1000.0)
+                : "";
 
         return String.format(
-                "Tempo limite: **%.1f segundos**\n\nVAI! Digite a frase: `%s`",
+                "Tempo limite: **%.1f segundos**%s\n\nVAI! Digite a frase: `%s`",
                 tempoEmSegundos,
+                janela,
                 reflexoGame.getFraseCorreta()
         );
     }
@@ -93,6 +113,7 @@ public class ReflexoCommand extends AbstractSimpleGameCommand {
     public SlashCommandData getCommandData() {
         return Commands.slash("reflexo", "Inicia um teste de reflexo no canal.")
                 .addOption(OptionType.STRING, "tempo", "O tempo limite em segundos (ex: 2.5 ou 2,5).", true)
-                .addOption(OptionType.STRING, "frase", "A frase a ser digitada.", true);
+                .addOption(OptionType.STRING, "frase", "A frase a ser digitada.", true)
+                .addOption(OptionType.STRING, "janela", "Segundos, após a primeira resposta, para aceitar as demais e classificar todos.", false);
     }
 }
\ No newline at end of file
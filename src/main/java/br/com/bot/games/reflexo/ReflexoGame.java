@@ -3,35 +3,110 @@ package br.com.bot.games.reflexo;
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
 import br.com.bot.shared.Game;
+import br.com.bot.shared.ResultadoDaPartida;
+import br.com.bot.shared.TipoDeJogo;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Representa o estado e a lógica de um Jogo de Reflexo.
  * <p>
- * Esta classe guarda a frase que deve ser digitada e, ao receber a primeira resposta,
- * finaliza o jogo e calcula a pontuação do jogador com base na precisão da digitação,
- * utilizando a classe {@link VerificadorDePontos}.
+ * Esta classe guarda a frase que deve ser digitada e pontua cada resposta com base na precisão
+ * da digitação, utilizando a classe {@link VerificadorDePontos}.
+ * <p>
+ * A primeira resposta abre uma janela de coleta: durante ela, a primeira resposta de cada jogador
+ * também é registrada e, ao final, os que pontuaram são classificados pela pontuação e, no empate,
+ * pelo tempo de reação; respostas sem pontos não vencem nem entram na classificação. O tempo de
+ * reação vem dos snowflakes da mensagem de início e da resposta (ver
+ * {@link Game#calcularTempoDeReacaoMs(long)}), então a ordem não depende de quando o bot
+ * processou cada mensagem. Com janela zero, vence só a resposta enviada primeiro (menor snowflake),
+ * decidida após a janela de desempate ({@link Game#JANELA_DE_DESEMPATE_MS}).
+ * <p>
+ * As respostas e o fim da janela são tratados no trabalhador do canal, então o estado da coleta
+ * não precisa de sincronização.
  *
  * @author Lucas
  */
 public class ReflexoGame extends Game {
 
+    /** Quantas vezes o tamanho da frase uma resposta pode ter para ser pontuada caractere a caractere. */
+    private static final int FATOR_LIMITE_RESPOSTA = 2;
+
+    /** Quantos jogadores são listados na classificação final, para respeitar o limite de tamanho da mensagem. */
+    private static final int MAXIMO_LISTADOS = 10;
+
+    /** Quantos caracteres de cada resposta aparecem na classificação. */
+    private static final int MAXIMO_CARACTERES_RESPOSTA = 60;
+
     /** A frase correta que o jogador deve digitar. */
     private final String fraseCorreta;
 
     /** Instância do verificador de pontos para calcular a pontuação. */
-    private final VerificadorDePontos verificador = new VerificadorDePontos();
+    private final VerificadorDePontos verificador;
+
+    /** Por quanto tempo, após a primeira resposta, as respostas dos outros jogadores são aceitas. */
+    private final long janelaMs;
 
     /**
-     * Constrói uma nova instância do Jogo de Reflexo.
+     * A ordem da classificação: maior pontuação primeiro e, no empate, a resposta enviada primeiro (menor snowflake).
+     * Todos os tempos partem do mesmo início, então isso equivale ao menor tempo de reação, mesmo quando ele não foi medido.
+     */
+    private static final Comparator<Participacao> CLASSIFICACAO =
+            Comparator.comparingInt((Participacao p) -> -p.pontos).thenComparingLong(p -> p.respostaId);
+
+    /** As respostas registradas, na ordem de chegada (uma por jogador). */
+    private final List<Participacao> participacoes = new ArrayList<>();
+
+    /** A resposta de um jogador, já pontuada. */
+    private static final class Participacao {
+        private final long userId;
+        private final long respostaId;
+        private final String mencao;
+        private final String resposta;
+        private final long tempoDeReacaoMs;
+        private final int pontos;
+
+        private Participacao(long userId, long respostaId, String mencao, String resposta, long tempoDeReacaoMs, int pontos) {
+            this.userId = userId;
+            this.respostaId = respostaId;
+            this.mencao = mencao;
+            this.resposta = resposta;
+            this.tempoDeReacaoMs = tempoDeReacaoMs;
+            this.pontos = pontos;
+        }
+    }
+
+    /**
+     * Constrói uma nova instância do Jogo de Reflexo, que termina na primeira resposta.
      *
      * @param fraseCorreta   A frase que deve ser digitada pelo jogador.
      * @param tempoLimiteMs  O tempo limite para o jogo em milissegundos.
      * @param issuerId       O ID do usuário que iniciou o jogo.
      */
-    public ReflexoGame(String fraseCorreta, long tempoLimiteMs, String issuerId) {
+    public ReflexoGame(String fraseCorreta, long tempoLimiteMs, long issuerId) {
+        this(fraseCorreta, tempoLimiteMs, 0, issuerId);
+    }
+
+    /**
+     * Constrói uma nova instância do Jogo de Reflexo com uma janela de coleta.
+     *
+     * @param fraseCorreta   A frase que deve ser digitada pelos jogadores.
+     * @param tempoLimiteMs  O tempo limite para a primeira resposta, em milissegundos.
+     * @param janelaMs       Por quanto tempo, após a primeira resposta, outras respostas são aceitas (0 para nenhuma).
+     * @param issuerId       O ID do usuário que iniciou o jogo.
+     */
+    public ReflexoGame(String fraseCorreta, long tempoLimiteMs, long janelaMs, long issuerId) {
         super(tempoLimiteMs, issuerId);
         this.fraseCorreta = fraseCorreta;
+        this.janelaMs = Math.max(0, janelaMs);
+        // Limita o trabalho feito com respostas enormes (ex: um texto colado no canal)
+        this.verificador = new VerificadorDePontos(FATOR_LIMITE_RESPOSTA * fraseCorreta.length());
     }
 
     /**
@@ -43,35 +118,183 @@ public class ReflexoGame extends Game {
         return fraseCorreta;
     }
 
+    /**
+     * Retorna a duração da janela de coleta.
+     *
+     * @return A janela, em milissegundos (0 se o jogo termina na primeira resposta).
+     */
+    public long getJanelaMs() {
+        return janelaMs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TipoDeJogo getTipo() {
+        return TipoDeJogo.REFLEXO;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
-     * Processa a primeira e única resposta do jogador. O jogo é imediatamente finalizado
-     * e o método calcula o tempo de reação e a pontuação detalhada da digitação,
-     * enviando um resumo completo para o canal.
+     * Registra a primeira resposta de cada jogador, com a pontuação e o tempo de reação. A primeira
+     * resposta do jogo substitui o timer de tempo esgotado pelo fim da janela de coleta; sem janela,
+     * o jogo é decidido após a janela de desempate.
      */
     @Override
     protected void processarRespostaDoJogo(MessageReceivedEvent event, GameManager gameManager, ConfigManager configManager) {
-        gameManager.finalizarJogo(event.getChannel().getId());
+        long userId = event.getAuthor().getIdLong();
+        for (Participacao p : participacoes) {
+            if (p.userId == userId) {
+                return; // Vale apenas a primeira resposta de cada jogador.
+            }
+        }
+
         String respostaDoUsuario = event.getMessage().getContentRaw();
-        long tempoDeReacao = System.currentTimeMillis() - getTempoInicio();
+        long tempoDeReacao = calcularTempoDeReacaoMs(event.getMessageIdLong());
+        int pontosObtidos = verificador.calcularPontuacao(getFraseCorreta(), respostaDoUsuario);
+        participacoes.add(new Participacao(userId, event.getMessageIdLong(), event.getAuthor().getAsMention(), respostaDoUsuario, tempoDeReacao, pontosObtidos));
+
+        if (participacoes.size() > 1) {
+            return;
+        }
+        long guildId = event.getGuild().getIdLong();
+        long channelId = event.getChannel().getIdLong();
+        JDA jda = event.getJDA();
+        // Sem janela, aguarda apenas o desempate: vence a resposta de menor snowflake.
+        long espera = janelaMs == 0 ? JANELA_DE_DESEMPATE_MS : janelaMs;
+        gameManager.agendar(guildId, channelId, espera, TimeUnit.MILLISECONDS, () -> encerrarJanela(jda, guildId, channelId, gameManager));
+    }
+
+    /**
+     * Encerra a janela de coleta: encerra e finaliza o jogo, se ninguém o encerrou antes, e publica o resultado.
+     */
+    private void encerrarJanela(JDA jda, long guildId, long channelId, GameManager gameManager) {
+        if (!encerrar()) {
+            return; // O jogo foi encerrado por outro caminho (ex: /cancelar).
+        }
+        registrarResultado(criarResultado());
+        if (!gameManager.finalizarJogo(guildId, channelId, this)) {
+            return;
+        }
+        MessageChannel canal = jda.getChannelById(MessageChannel.class, channelId);
+        if (canal != null) {
+            canal.sendMessage(montarResultado()).queue();
+        }
+    }
 
+    /**
+     * Monta a mensagem final: o resumo detalhado quando houve um único jogador, ou a classificação.
+     */
+    private String montarResultado() {
         int pontuacaoMaxima = getFraseCorreta().length() * 2;
-        int pontosObtidos = verificador.calcularPontuacao(getFraseCorreta(), respostaDoUsuario);
-        double porcentagem = (pontuacaoMaxima > 0) ? ((double) pontosObtidos / pontuacaoMaxima) * 100.0 : 0.0;
-        String resultado = String.format(
-                "🎉 %s respondeu em %.2f segundos!\n" +
-                        "**Frase correta:** `%s`\n" +
-                        "**Sua resposta:** `%s`\n" +
-                        "**Pontuação:** %d de %d (%.2f%%)",
-                event.getAuthor().getAsMention(),
-                tempoDeReacao / 1000.0,
-                getFraseCorreta(),
-                respostaDoUsuario,
-                pontosObtidos,
-                pontuacaoMaxima,
-                porcentagem
-        );
-        event.getChannel().sendMessage(resultado).queue();
+        if (janelaMs == 0 || participacoes.size() == 1) {
+            Participacao p = primeiraEnviada();
+            return String.format(
+                    "🎉 %s respondeu%s!\n" +
+                            "**Frase correta:** `%s`\n" +
+                            "**Sua resposta:** `%s`\n" +
+                            "**Pontuação:** %d de %d (%.2f%%)",
+                    p.mencao,
+                    emSegundos(p.tempoDeReacaoMs),
+                    getFraseCorreta(),
+                    p.resposta,
+                    p.pontos,
+                    pontuacaoMaxima,
+                    porcentagem(p.pontos, pontuacaoMaxima)
+            );
+        }
+
+        // Só as respostas que pontuaram são classificadas, como no resultado da partida.
+        List<Participacao> classificacao = new ArrayList<>(participacoes);
+        classificacao.removeIf(p -> p.pontos <= 0);
+        classificacao.sort(CLASSIFICACAO);
+        int semPontos = participacoes.size() - classificacao.size();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("🏁 **Resultado do reflexo** (").append(participacoes.size()).append(" jogadores)\n");
+        sb.append("**Frase correta:** `").append(getFraseCorreta()).append("`\n\n");
+        int listados = Math.min(classificacao.size(), MAXIMO_LISTADOS);
+        for (int i = 0; i < listados; i++) {
+            Participacao p = classificacao.get(i);
+            sb.append(String.format("**%d.** %s — %s — %d de %d (%.2f%%) — `%s`\n",
+                    i + 1,
+                    p.mencao,
+                    p.tempoDeReacaoMs == ResultadoDaPartida.SEM_TEMPO ? "? s" : String.format("%.2f s", p.tempoDeReacaoMs / 1000.0),
+                    p.pontos,
+                    pontuacaoMaxima,
+                    porcentagem(p.pontos, pontuacaoMaxima),
+                    resumir(p.resposta)));
+        }
+        if (classificacao.size() > listados) {
+            sb.append("...e mais ").append(classificacao.size() - listados).append(" jogadores.\n");
+        }
+        if (semPontos > 0) {
+            sb.append(semPontos == 1
+                    ? "1 resposta não pontuou e ficou fora da classificação."
+                    : semPontos + " respostas não pontuaram e ficaram fora da classificação.");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Monta o resultado da partida: sem janela, apenas a resposta enviada primeiro pontua; com janela,
+     * a classificação entra no resultado, na ordem da mensagem final. Respostas sem nenhum ponto no
+     * {@link VerificadorDePontos} (ex: uma mensagem qualquer enviada às pressas) não são classificadas
+     * nem têm o tempo de reação registrado.
+     *
+     * @return O resultado, ou {@code null} se nenhuma resposta pontuou.
+     */
+    private ResultadoDaPartida criarResultado() {
+        List<Participacao> ordem = new ArrayList<>(participacoes);
+        Participacao primeira = primeiraEnviada();
+        if (janelaMs == 0) {
+            ordem.remove(primeira);
+            ordem.add(0, primeira);
+        } else {
+            ordem.sort(CLASSIFICACAO);
+        }
+        ordem.removeIf(p -> p.pontos <= 0);
+        if (ordem.isEmpty()) {
+            return null;
+        }
+        long[] userIds = new long[ordem.size()];
+        long[] tempos = new long[ordem.size()];
+        for (int i = 0; i < ordem.size(); i++) {
+            userIds[i] = ordem.get(i).userId;
+            tempos[i] = ordem.get(i).tempoDeReacaoMs;
+        }
+        if (janelaMs != 0) {
+            return ResultadoDaPartida.classificacao(getTipo(), userIds, tempos);
+        }
+        // Sem janela, só o primeiro vence (se pontuou); os demais entram apenas com o tempo de reação.
+        int posicoesPontuadas = ordem.get(0) == primeira ? 1 : 0;
+        return ResultadoDaPartida.classificacao(getTipo(), userIds, tempos, posicoesPontuadas);
+    }
+
+    /**
+     * A participação enviada primeiro segundo o Discord (menor snowflake), independente da ordem de chegada.
+     */
+    private Participacao primeiraEnviada() {
+        Participacao primeira = participacoes.get(0);
+        for (Participacao p : participacoes) {
+            if (p.respostaId < primeira.respostaId) {
+                primeira = p;
+            }
+        }
+        return primeira;
+    }
+
+    private static double porcentagem(int pontos, int pontuacaoMaxima) {
+        return (pontuacaoMaxima > 0) ? ((double) pontos / pontuacaoMaxima) * 100.0 : 0.0;
+    }
+
+    private static String resumir(String resposta) {
+        String semCrases = resposta.replace('`', '\'').replace('\n', ' ');
+        if (semCrases.length() <= MAXIMO_CARACTERES_RESPOSTA) {
+            return semCrases;
+        }
+        return semCrases.substring(0, MAXIMO_CARACTERES_RESPOSTA - 1) + "…";
     }
-}
\ No newline at end of file
+}
@@ -2,17 +2,59 @@ package br.com.bot.games.reflexo;
 
 import br.com.bot.utils.NormalizadorDeTexto;
 
+import java.util.Arrays;
+
 /**
  * Uma classe de utilidade para calcular uma pontuação complexa para o Jogo de Reflexo.
  * <p>
  * O cálculo é feito comparando uma frase correta (gabarito) com a entrada de um usuário,
  * seguindo um conjunto de regras que pontuam acertos de caracteres e posição, e penalizam
  * erros e caracteres extras.
+ * <p>
+ * O cálculo é linear no tamanho das frases: os caracteres do gabarito ainda não usados são
+ * contados em um histograma, em vez de procurados um a um. Os buffers de trabalho pertencem à
+ * instância e são reutilizados entre as chamadas, então uma instância não deve ser usada por
+ * várias threads ao mesmo tempo (cada {@link ReflexoGame} tem a sua).
  *
  * @author Lucas
  */
 public class VerificadorDePontos {
 
+    /** O tamanho máximo (em caracteres) da resposta que é pontuada caractere a caractere. */
+    private final int limiteResposta;
+
+    /** O gabarito normalizado da última chamada, reaproveitado enquanto a frase correta for a mesma. */
+    private final StringBuilder gabarito = new StringBuilder();
+    private String ultimaFraseCorreta;
+
+    /** A resposta normalizada, reescrita a cada chamada. */
+    private final StringBuilder resposta = new StringBuilder();
+
+    /** Quantas vezes cada caractere ASCII do gabarito ainda pode ser usado na 2ª passada. */
+    private final int[] disponiveisAscii = new int[128];
+
+    /** O mesmo, para os demais caracteres: vetores paralelos de caracteres e contagens. */
+    private char[] outrosCaracteres = new char[8];
+    private int[] disponiveisOutros = new int[8];
+    private int totalOutros;
+
+    /**
+     * Cria um verificador sem limite de tamanho para a resposta.
+     */
+    public VerificadorDePontos() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cria um verificador que pontua no máximo {@code limiteResposta} caracteres da resposta.
+     *
+     * @param limiteResposta O tamanho máximo da resposta pontuada caractere a caractere. Os caracteres
+     *                       excedentes são penalizados como extras, sem serem examinados.
+     */
+    public VerificadorDePontos(int limiteResposta) {
+        this.limiteResposta = Math.max(0, limiteResposta);
+    }
+
     /**
      * Calcula a pontuação do input do usuário comparado à frase correta.
      * <p>
@@ -25,6 +67,9 @@ public class VerificadorDePontos {
      * <li><b>-1 ponto:</b> Para cada caractere incorreto (que não existe no gabarito).</li>
      * <li><b>-2 pontos:</b> Para cada caractere extra (além do tamanho do gabarito).</li>
      * </ul>
+     * Os caracteres da resposta são avaliados em ordem na 2ª passada: cada um usa uma ocorrência ainda
+     * livre do mesmo caractere no gabarito, se houver. Caracteres além do limite de tamanho do
+     * verificador contam como extras (-2).
      * A pontuação final nunca será menor que zero.
      *
      * @param fraseCorreta   A string que o usuário deveria ter digitado.
@@ -33,51 +78,113 @@ public class VerificadorDePontos {
      */
     public int calcularPontuacao(String fraseCorreta, String inputDoUsuario) {
         // Normaliza as strings para uma comparação justa
-        String gabaritoNormalizado = NormalizadorDeTexto.removerAcentos(fraseCorreta.toLowerCase());
-        String respostaNormalizada = NormalizadorDeTexto.removerAcentos(inputDoUsuario.toLowerCase());
-
-        char[] gabarito = gabaritoNormalizado.toCharArray();
-        char[] resposta = respostaNormalizada.toCharArray();
-
-        boolean[] gabaritoUtilizado = new boolean[gabarito.length];
-        boolean[] respostaUtilizada = new boolean[resposta.length];
+        if (!fraseCorreta.equals(ultimaFraseCorreta)) {
+            NormalizadorDeTexto.normalizar(fraseCorreta, gabarito);
+            ultimaFraseCorreta = fraseCorreta;
+        }
+        int excedentes = normalizarResposta(inputDoUsuario);
 
+        int tamanhoGabarito = gabarito.length();
+        int tamanhoResposta = resposta.length();
         int pontuacao = 0;
 
-        // 1ª Passada: Verificar acertos perfeitos (+2 pontos)
-        for (int i = 0; i < gabarito.length && i < resposta.length; i++) {
-            if (gabarito[i] == resposta[i]) {
+        // 1ª Passada: acertos perfeitos (+2 pontos). Os demais caracteres do gabarito vão para o histograma.
+        limparHistograma();
+        for (int j = 0; j < tamanhoGabarito; j++) {
+            char c = gabarito.charAt(j);
+            if (j < tamanhoResposta && c == resposta.charAt(j)) {
                 pontuacao += 2;
-                gabaritoUtilizado[i] = true;
-                respostaUtilizada[i] = true;
+            } else {
+                adicionarDisponivel(c);
             }
         }
 
-        // 2ª Passada: Verificar letras corretas em posições erradas (+1 ponto)
-        for (int i = 0; i < resposta.length; i++) {
-            if (!respostaUtilizada[i]) {
-                for (int j = 0; j < gabarito.length; j++) {
-                    if (!gabaritoUtilizado[j] && resposta[i] == gabarito[j]) {
-                        pontuacao += 1;
-                        gabaritoUtilizado[j] = true;
-                        respostaUtilizada[i] = true;
-                        break;
-                    }
-                }
+        // 2ª e 3ª Passadas: letras corretas em posições erradas (+1), erradas (-1) e extras (-2)
+        for (int i = 0; i < tamanhoResposta; i++) {
+            char c = resposta.charAt(i);
+            if (i < tamanhoGabarito && c == gabarito.charAt(i)) {
+                continue; // Já pontuado na 1ª passada.
+            }
+            if (consumirDisponivel(c)) {
+                pontuacao += 1;
+            } else if (i < tamanhoGabarito) {
+                pontuacao -= 1;
+            } else {
+                pontuacao -= 2;
             }
         }
 
-        // 3ª Passada: Penalizar letras erradas e extras (-1 e -2 pontos)
-        for (int i = 0; i < resposta.length; i++) {
-            if (!respostaUtilizada[i]) {
-                if (i < gabarito.length) {
-                    pontuacao -= 1;
-                } else {
-                    pontuacao -= 2;
-                }
+        // Caracteres além do limite: sempre extras, pois o limite nunca é menor que o gabarito.
+        pontuacao -= 2 * excedentes;
+
+        return Math.max(0, pontuacao);
+    }
+
+    /**
+     * Normaliza a resposta no buffer até o limite de tamanho (ou o tamanho do gabarito, se for maior).
+     *
+     * @return Quantos caracteres da resposta original ficaram de fora.
+     */
+    private int normalizarResposta(String inputDoUsuario) {
+        int limite = Math.max(limiteResposta, gabarito.length());
+        resposta.setLength(0);
+        int i = 0;
+        while (i < inputDoUsuario.length() && resposta.length() < limite) {
+            i = NormalizadorDeTexto.normalizarCaractere(inputDoUsuario, i, resposta) + 1;
+        }
+        int excedentes = inputDoUsuario.length() - i;
+        if (resposta.length() > limite) {
+            excedentes += resposta.length() - limite;
+            resposta.setLength(limite);
+        }
+        return excedentes;
+    }
+
+    private void limparHistograma() {
+        Arrays.fill(disponiveisAscii, 0);
+        totalOutros = 0;
+    }
+
+    private void adicionarDisponivel(char c) {
+        if (c < 128) {
+            disponiveisAscii[c]++;
+            return;
+        }
+        for (int k = 0; k < totalOutros; k++) {
+            if (outrosCaracteres[k] == c) {
+                disponiveisOutros[k]++;
+                return;
             }
         }
+        if (totalOutros == outrosCaracteres.length) {
+            outrosCaracteres = Arrays.copyOf(outrosCaracteres, totalOutros * 2);
+            disponiveisOutros = Arrays.copyOf(disponiveisOutros, totalOutros * 2);
+        }
+        outrosCaracteres[totalOutros] = c;
+        disponiveisOutros[totalOutros] = 1;
+        totalOutros++;
+    }
 
-        return Math.max(0, pontuacao);
+    /**
+     * Usa uma ocorrência livre do caractere no gabarito, se houver.
+     */
+    private boolean consumirDisponivel(char c) {
+        if (c < 128) {
+            if (disponiveisAscii[c] > 0) {
+                disponiveisAscii[c]--;
+                return true;
+            }
+            return false;
+        }
+        for (int k = 0; k < totalOutros; k++) {
+            if (outrosCaracteres[k] == c) {
+                if (disponiveisOutros[k] > 0) {
+                    disponiveisOutros[k]--;
+                    return true;
+                }
+                return false;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -3,42 +3,65 @@ package br.com.bot.games.resposta;
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
 import br.com.bot.shared.AbstractSimpleGameCommand;
+import br.com.bot.shared.AliasMatcher;
 import br.com.bot.shared.Game;
+import br.com.bot.utils.BancoDePerguntas;
+import br.com.bot.utils.Dificuldade;
+import br.com.bot.utils.ValidationUtils;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Comando que implementa o Jogo de Pergunta e Resposta.
  * <p>
  * Esta classe herda do molde de jogos simples, {@link AbstractSimpleGameCommand},
  * e define a lógica específica para iniciar um jogo de trivia.
+ * A resposta pode ter apelidos, separados por {@value #SEPARADOR_APELIDOS} (ex: "São Paulo | SP | Sampa").
+ * Se a pergunta e a resposta forem omitidas, uma pergunta é sorteada do {@link BancoDePerguntas},
+ * sem repetir as últimas perguntas do canal.
  *
  * @author Lucas
  */
 public class RespostaCommand extends AbstractSimpleGameCommand {
 
+    /** O separador das respostas alternativas na opção 'resposta'. */
+    private static final String SEPARADOR_APELIDOS = "|";
+
+    private static final Pattern PADRAO_SEPARADOR = Pattern.compile(Pattern.quote(SEPARADOR_APELIDOS));
+
+    /** O banco de perguntas usado quando a pergunta não é informada. Carregado no primeiro sorteio. */
+    private final BancoDePerguntas banco;
+
     /**
      * Constrói o comando de resposta com suas dependências necessárias,
      * passando-as para a classe-mãe abstrata.
      *
      * @param gameManager O gerenciador de jogos ativos.
      * @param configManager O gerenciador de configurações de servidor.
-     * @param scheduler O agendador de tarefas para os timers.
+     * @param banco O banco de perguntas para sorteio.
      */
-    public RespostaCommand(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
-        super(gameManager, configManager, scheduler);
+    public RespostaCommand(GameManager gameManager, ConfigManager configManager, BancoDePerguntas banco) {
+        super(gameManager, configManager);
+        this.banco = banco;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Valida as opções 'tempo', 'pergunta' e 'resposta' fornecidas pelo usuário
-     * e cria uma instância de {@link RespostaGame} com esses dados.
+     * Valida as opções 'tempo', 'pergunta', 'resposta' e 'modo' fornecidas pelo usuário
+     * e cria uma instância de {@link RespostaGame} com esses dados. Sem pergunta e resposta, sorteia
+     * uma pergunta do banco (filtrada por 'categoria' e 'dificuldade'); como ninguém conhece a resposta,
+     * o anfitrião também pode jogar.
      */
     @Override
     protected Optional<Game> createGame(SlashCommandInteractionEvent event) {
@@ -47,11 +70,69 @@ public class RespostaCommand extends AbstractSimpleGameCommand {
             return Optional.empty();
         }
 
-        String pergunta = event.getOption("pergunta").getAsString();
-        String resposta = event.getOption("resposta").getAsString();
-        String issuerId = event.getUser().getId();
+        OptionMapping modoOpt = event.getOption("modo");
+        AliasMatcher.Modo modo = modoOpt != null
+                ? AliasMatcher.Modo.valueOf(modoOpt.getAsString())
+                : AliasMatcher.Modo.MENSAGEM_INTEIRA;
+
+        OptionMapping perguntaOpt = event.getOption("pergunta");
+        OptionMapping respostaOpt = event.getOption("resposta");
+        if (perguntaOpt == null && respostaOpt == null) {
+            return sortearPergunta(event, tempoOpt.get(), modo);
+        }
+        if (perguntaOpt == null || respostaOpt == null) {
+            event.reply("Informe a pergunta e a resposta, ou nenhuma das duas para sortear uma pergunta do banco.").setEphemeral(true).queue();
+            return Optional.empty();
+        }
+
+        String pergunta = perguntaOpt.getAsString();
+        List<String> respostas = Arrays.asList(PADRAO_SEPARADOR.split(respostaOpt.getAsString()));
+        long issuerId = event.getUser().getIdLong();
 
-        return Optional.of(new RespostaGame(tempoOpt.get(), pergunta, resposta, issuerId));
+        try {
+            return Optional.of(new RespostaGame(tempoOpt.get(), pergunta, respostas, modo, issuerId));
+        } catch (IllegalArgumentException e) {
+            event.reply("A resposta informada não é válida. Separe as respostas alternativas com `" + SEPARADOR_APELIDOS + "`.").setEphemeral(true).queue();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sorteia uma pergunta do banco, segundo as opções 'categoria' e 'dificuldade'.
+     * Se não for possível, envia uma mensagem de erro efêmera.
+     * <p>
+     * O sorteio registra a pergunta na janela do canal, então só é feito depois de todas as validações:
+     * o jogo ativo já foi verificado pelo portão, e o tempo máximo é verificado aqui, antes do sorteio.
+     */
+    private Optional<Game> sortearPergunta(SlashCommandInteractionEvent event, long tempoMs, AliasMatcher.Modo modo) {
+        if (!banco.isDisponivel()) {
+            event.reply("O banco de perguntas não está disponível. Informe a pergunta e a resposta.").setEphemeral(true).queue();
+            return Optional.empty();
+        }
+
+        int categoria = -1;
+        OptionMapping categoriaOpt = event.getOption("categoria");
+        if (categoriaOpt != null) {
+            categoria = banco.indiceDaCategoria(categoriaOpt.getAsString());
+            if (categoria < 0) {
+                event.reply("Categoria desconhecida. Categorias disponíveis: " + String.join(", ", banco.getCategorias()) + ".").setEphemeral(true).queue();
+                return Optional.empty();
+            }
+        }
+        OptionMapping dificuldadeOpt = event.getOption("dificuldade");
+        Dificuldade dificuldade = dificuldadeOpt != null ? Dificuldade.valueOf(dificuldadeOpt.getAsString()) : null;
+
+        if (!ValidationUtils.checkMaxGameTime(event, configManager, tempoMs)) {
+            return Optional.empty();
+        }
+
+        Optional<BancoDePerguntas.Pergunta> sorteada = banco.sortear(event.getChannel().getIdLong(), categoria, dificuldade);
+        if (sorteada.isEmpty()) {
+            event.reply("Nenhuma pergunta do banco atende a esses filtros. Tente outra combinação.").setEphemeral(true).queue();
+            return Optional.empty();
+        }
+        BancoDePerguntas.Pergunta p = sorteada.get();
+        return Optional.of(new RespostaGame(tempoMs, p.getTexto(), p.getRespostas(), modo, Game.SEM_CRIADOR, p.getCategoria()));
     }
 
     /**
@@ -69,10 +150,12 @@ public class RespostaCommand extends AbstractSimpleGameCommand {
     protected String getStartMessage(Game game) {
         RespostaGame respostaGame = (RespostaGame) game;
         double tempoEmSegundos = respostaGame.getTempoLimiteMs() / 1000.0;
+        String dica = respostaGame.getCategoria() == null ? "" : "\nCategoria: **" + respostaGame.getCategoria() + "**";
 
         return String.format(
-                "Tempo limite: **%.1f segundos**\n\nQual é a resposta para:\n>>> %s",
+                "Tempo limite: **%.1f segundos**%s\n\nQual é a resposta para:\n>>> %s",
                 tempoEmSegundos,
+                dica,
                 respostaGame.getPergunta()
         );
     }
@@ -83,7 +166,14 @@ public class RespostaCommand extends AbstractSimpleGameCommand {
     @Override
     protected String getTimeoutMessage(Game game) {
         RespostaGame respostaGame = (RespostaGame) game;
-        return "O tempo esgotou! A resposta correta era: `" + respostaGame.getRespostaCorreta() + "`";
+        List<String> aceitas = respostaGame.getRespostasAceitas();
+        String mensagem = "O tempo esgotou! A resposta correta era: `" + respostaGame.getRespostaCorreta() + "`";
+        if (aceitas.size() > 1) {
+            mensagem += " (também valiam: " + aceitas.subList(1, aceitas.size()).stream()
+                    .map(apelido -> "`" + apelido + "`")
+                    .collect(Collectors.joining(", ")) + ")";
+        }
+        return mensagem;
     }
 
     /**
@@ -91,9 +181,19 @@ public class RespostaCommand extends AbstractSimpleGameCommand {
      */
     @Override
     public SlashCommandData getCommandData() {
+        OptionData dificuldade = new OptionData(OptionType.STRING, "dificuldade", "Sorteio: a dificuldade da pergunta.", false);
+        for (Dificuldade d : Dificuldade.values()) {
+            dificuldade.addChoice(d.getNome(), d.name());
+        }
+        // As categorias não são listadas como escolhas para que o banco só seja carregado no primeiro sorteio.
         return Commands.slash("resposta", "Inicia um jogo de pergunta e resposta.")
                 .addOption(OptionType.STRING, "tempo", "O tempo para responder em segundos (ex: 30).", true)
-                .addOption(OptionType.STRING, "pergunta", "A pergunta a ser exibida.", true)
-                .addOption(OptionType.STRING, "resposta", "A resposta correta esperada.", true);
+                .addOption(OptionType.STRING, "pergunta", "A pergunta a ser exibida. Sem pergunta e resposta, uma pergunta é sorteada.", false)
+                .addOption(OptionType.STRING, "resposta", "A resposta correta. Separe alternativas com | (ex: São Paulo | SP | Sampa).", false)
+                .addOptions(new OptionData(OptionType.STRING, "modo", "Se a resposta deve ser a mensagem inteira (padrão) ou pode estar contida nela.", false)
+                        .addChoice("Mensagem inteira", AliasMatcher.Modo.MENSAGEM_INTEIRA.name())
+                        .addChoice("Contida na mensagem", AliasMatcher.Modo.CONTIDA.name()))
+                .addOption(OptionType.STRING, "categoria", "Sorteio: a categoria da pergunta (ex: Geografia).", false)
+                .addOptions(dificuldade);
     }
 }
\ No newline at end of file
@@ -2,15 +2,20 @@ package br.com.bot.games.resposta;
 
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
+import br.com.bot.shared.AliasMatcher;
+import br.com.bot.shared.AnswerMatcher;
 import br.com.bot.shared.Game;
-import br.com.bot.utils.NormalizadorDeTexto;
+import br.com.bot.shared.TipoDeJogo;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
+import java.util.List;
+
 /**
  * Representa o estado e a lógica de um Jogo de Pergunta e Resposta.
  * <p>
- * Esta classe guarda a pergunta a ser feita e a resposta correta esperada.
- * Implementa a lógica para verificar se a tentativa de um jogador corresponde à resposta.
+ * Esta classe guarda a pergunta a ser feita e as respostas aceitas (a resposta correta e seus
+ * apelidos, como "São Paulo", "SP" e "Sampa"). Implementa a lógica para verificar se a tentativa
+ * de um jogador corresponde a alguma delas, seja como a mensagem inteira ou contida na mensagem.
  *
  * @author Lucas
  */
@@ -19,21 +24,63 @@ public class RespostaGame extends Game {
     /** A pergunta que será exibida para os jogadores. */
     private final String pergunta;
 
-    /** A resposta correta para a pergunta. */
-    private final String respostaCorreta;
+    /** O autômato com todas as respostas aceitas, preparado uma única vez na criação do jogo. */
+    private final AliasMatcher aliasMatcher;
+
+    /** Um comparador por resposta aceita, usado apenas quando o servidor tolera erros de digitação. */
+    private final AnswerMatcher[] matchersTolerantes;
+
+    /** A categoria da pergunta sorteada do banco, exibida como dica, ou {@code null}. */
+    private final String categoria;
 
     /**
-     * Constrói uma nova instância do Jogo de Pergunta e Resposta.
+     * Constrói uma nova instância do Jogo de Pergunta e Resposta com uma única resposta,
+     * que deve ser a mensagem inteira.
      *
      * @param tempoLimiteMs   O tempo limite para o jogo em milissegundos.
      * @param pergunta        A pergunta a ser exibida no canal.
      * @param respostaCorreta A resposta exata que os jogadores devem digitar.
      * @param issuerId        O ID do usuário que iniciou o jogo.
      */
-    public RespostaGame(long tempoLimiteMs, String pergunta, String respostaCorreta, String issuerId) {
+    public RespostaGame(long tempoLimiteMs, String pergunta, String respostaCorreta, long issuerId) {
+        this(tempoLimiteMs, pergunta, List.of(respostaCorreta), AliasMatcher.Modo.MENSAGEM_INTEIRA, issuerId);
+    }
+
+    /**
+     * Constrói uma nova instância do Jogo de Pergunta e Resposta com várias respostas aceitas.
+     *
+     * @param tempoLimiteMs   O tempo limite para o jogo em milissegundos.
+     * @param pergunta        A pergunta a ser exibida no canal.
+     * @param respostas       As respostas aceitas; a primeira é a exibida como resposta correta.
+     * @param modo            Se a resposta deve ser a mensagem inteira ou pode estar contida nela.
+     * @param issuerId        O ID do usuário que iniciou o jogo.
+     * @throws IllegalArgumentException Se nenhuma resposta válida for informada.
+     */
+    public RespostaGame(long tempoLimiteMs, String pergunta, List<String> respostas, AliasMatcher.Modo modo, long issuerId) {
+        this(tempoLimiteMs, pergunta, respostas, modo, issuerId, null);
+    }
+
+    /**
+     * Constrói uma nova instância do Jogo de Pergunta e Resposta com a categoria da pergunta como dica.
+     *
+     * @param tempoLimiteMs   O tempo limite para o jogo em milissegundos.
+     * @param pergunta        A pergunta a ser exibida no canal.
+     * @param respostas       As respostas aceitas; a primeira é a exibida como resposta correta.
+     * @param modo            Se a resposta deve ser a mensagem inteira ou pode estar contida nela.
+     * @param issuerId        O ID do usuário que iniciou o jogo, ou {@link Game#SEM_CRIADOR}.
+     * @param categoria       A categoria da pergunta (ex: "Geografia"), ou {@code null} para não exibir.
+     * @throws IllegalArgumentException Se nenhuma resposta válida for informada.
+     */
+    public RespostaGame(long tempoLimiteMs, String pergunta, List<String> respostas, AliasMatcher.Modo modo, long issuerId, String categoria) {
         super(tempoLimiteMs, issuerId);
         this.pergunta = pergunta;
-        this.respostaCorreta = respostaCorreta;
+        this.categoria = categoria;
+        this.aliasMatcher = AliasMatcher.compilar(respostas, modo);
+        List<String> apelidos = aliasMatcher.getApelidos();
+        this.matchersTolerantes = new AnswerMatcher[apelidos.size()];
+        for (int i = 0; i < apelidos.size(); i++) {
+            matchersTolerantes[i] = AnswerMatcher.compilar(apelidos.get(i), AnswerMatcher.Modo.ESPACOS_COLAPSADOS);
+        }
     }
 
     /**
@@ -46,41 +93,88 @@ public class RespostaGame extends Game {
     }
 
     /**
-     * Retorna a resposta correta do jogo.
+     * Retorna a categoria da pergunta, exibida como dica.
+     *
+     * @return A categoria, ou {@code null} se a pergunta foi escrita pelo anfitrião.
+     */
+    public String getCategoria() {
+        return categoria;
+    }
+
+    /**
+     * Retorna a resposta correta do jogo (a primeira das respostas aceitas).
      *
      * @return A resposta correta.
      */
     public String getRespostaCorreta() {
-        return respostaCorreta;
+        return aliasMatcher.getApelidos().get(0);
+    }
+
+    /**
+     * Retorna todas as respostas aceitas, na ordem informada.
+     *
+     * @return A lista de respostas aceitas.
+     */
+    public List<String> getRespostasAceitas() {
+        return aliasMatcher.getApelidos();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TipoDeJogo getTipo() {
+        return TipoDeJogo.RESPOSTA;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Processa a mensagem de um jogador. A resposta é normalizada (ignorando acentos,
-     * espaços e maiúsculas/minúsculas) e comparada com a resposta correta. Se corresponder,
-     * o jogo é finalizado e o vencedor é anunciado. Respostas incorretas são ignoradas.
+     * Processa a mensagem de um jogador. A mensagem é normalizada (ignorando acentos,
+     * espaços e maiúsculas/minúsculas) e testada contra todas as respostas aceitas de uma só vez.
+     * Se corresponder, a resposta reivindica a vitória; entre respostas corretas simultâneas, vence a
+     * enviada primeiro. Respostas incorretas são ignoradas.
+     * Se o servidor tiver configurado uma tolerância, respostas com poucos erros de digitação também
+     * são aceitas (apenas no modo de mensagem inteira).
      */
     @Override
     protected void processarRespostaDoJogo(MessageReceivedEvent event, GameManager gameManager, ConfigManager configManager) {
         String respostaDoUsuario = event.getMessage().getContentRaw();
 
-        // Normaliza as respostas para uma comparação justa (ignora maiúsculas/minúsculas, espaços e acentos)
-        String respostaNormalizadaUsuario = NormalizadorDeTexto.removerAcentos(respostaDoUsuario.trim().toLowerCase());
-        String respostaNormalizadaCorreta = NormalizadorDeTexto.removerAcentos(getRespostaCorreta().trim().toLowerCase());
-
-        if (respostaNormalizadaUsuario.equals(respostaNormalizadaCorreta)) {
-            // Se a resposta estiver correta, finaliza o jogo e anuncia o vencedor
-            gameManager.finalizarJogo(event.getChannel().getId());
-            long tempoDeReacao = System.currentTimeMillis() - getTempoInicio();
-
-            String resultado = String.format(
-                    "🏆 **Correto!** %s acertou a resposta em %.2f segundos!",
-                    event.getAuthor().getAsMention(),
-                    tempoDeReacao / 1000.0
-            );
-            event.getChannel().sendMessage(resultado).queue();
+        if (aliasMatcher.corresponde(respostaDoUsuario) || correspondeComErros(respostaDoUsuario)) {
+            reivindicarVitoria(event, gameManager);
         }
         // Se a resposta estiver errada, o metodo simplesmente termina, permitindo outras tentativas.
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void anunciarVitoria(MessageReceivedEvent vencedor, GameManager gameManager) {
+        long tempoDeReacao = calcularTempoDeReacaoMs(vencedor.getMessageIdLong());
+        String resultado = String.format(
+                "🏆 **Correto!** %s acertou a resposta%s!",
+                vencedor.getAuthor().getAsMention(),
+                emSegundos(tempoDeReacao)
+        );
+        vencedor.getChannel().sendMessage(resultado).queue();
+    }
+
+    /**
+     * Verifica a mensagem contra cada resposta aceita, tolerando os erros de digitação permitidos
+     * pela configuração do servidor (/config-tolerancia). Sem tolerância configurada, não faz nada.
+     */
+    private boolean correspondeComErros(String respostaDoUsuario) {
+        if (aliasMatcher.getModo() != AliasMatcher.Modo.MENSAGEM_INTEIRA) {
+            return false;
+        }
+        for (AnswerMatcher matcher : matchersTolerantes) {
+            int errosPermitidos = getConfig().calcularErrosPermitidos(matcher.getChave().length());
+            if (errosPermitidos > 0 && matcher.corresponde(respostaDoUsuario, errosPermitidos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,370 @@
+package br.com.bot.ranking;
+
+import br.com.bot.shared.TipoDeJogo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * O log local, somente de acréscimo, dos pontos dos rankings.
+ * <p>
+ * Cada ponto ganho acrescenta um registro de tamanho fixo ao fim de {@code ranking.log}, então o custo
+ * de gravação não depende do número de jogadores. As gravações são feitas por uma thread própria:
+ * quem registra os pontos (o trabalhador de um canal) apenas enfileira o registro. A thread grava tudo
+ * o que estiver na fila de uma só vez e sincroniza o arquivo com o disco quando a fila esvazia.
+ * <p>
+ * Formato de cada registro: {@code [CRC32: int][ID do servidor: long][ID do usuário: long][jogo: byte][pontos: long]}.
+ * Na carga, o log é percorrido do início e a leitura para no primeiro registro inválido. Se ele é o
+ * último do arquivo (um registro incompleto, caso o processo caia durante uma gravação), é descartado.
+ * Se ainda há registros completos depois dele, o arquivo está danificado: ele é preservado em
+ * {@code ranking.log.corrompido}, para recuperação manual, e o log passa a conter só os registros anteriores.
+ * <p>
+ * Como os pontos só se acumulam, o log pode ser compactado para um registro por jogador: a compactação
+ * grava um arquivo temporário e só então o renomeia para {@code ranking.log}, então uma queda durante
+ * ela apenas descarta o trabalho incompleto.
+ *
+ * @author Lucas
+ */
+public class LogDePontos {
+
+    public static final String ARQUIVO = "ranking.log";
+
+    /** O tamanho de um registro: CRC (4) + servidor (8) + usuário (8) + jogo (1) + pontos (8). */
+    static final int TAMANHO_REGISTRO = 29;
+
+    /** Quantos registros a thread de gravação junta, no máximo, em uma única escrita. */
+    private static final int LOTE_MAXIMO = 1024;
+
+    /** Um registro do log. */
+    public static final class Registro {
+        private final long guildId;
+        private final long userId;
+        private final TipoDeJogo jogo;
+        private final long pontos;
+
+        public Registro(long guildId, long userId, TipoDeJogo jogo, long pontos) {
+            this.guildId = guildId;
+            this.userId = userId;
+            this.jogo = jogo;
+            this.pontos = pontos;
+        }
+
+        public long getGuildId() { return guildId; }
+        public long getUserId() { return userId; }
+        public TipoDeJogo getJogo() { return jogo; }
+        public long getPontos() { return pontos; }
+    }
+
+    /** Recebe os registros lidos na carga. */
+    @FunctionalInterface
+    public interface LeitorDeRegistros {
+        void aceitar(Registro registro);
+    }
+
+    private static final Registro FIM = new Registro(0, 0, null, 0);
+
+    private final Path arquivo;
+    private final BlockingQueue<Registro> fila = new LinkedBlockingQueue<>();
+    private FileChannel canal;
+    private Thread gravador;
+    private long registrosNoArquivo;
+
+    // --- Métricas ---
+    private final LongAdder registrosGravados = new LongAdder();
+    private final LongAdder escritas = new LongAdder();
+    private final LongAdder sincronizacoes = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+
+    /**
+     * @param diretorio O diretório onde o log é mantido.
+     */
+    public LogDePontos(Path diretorio) {
+        this.arquivo = diretorio.resolve(ARQUIVO);
+    }
+
+    /**
+     * Lê todos os registros válidos do log, descarta um registro incompleto no fim e abre o log para gravação.
+     * Um registro inválido antes do fim não é descartado: o arquivo é preservado (ver {@link #separarCorrompido}).
+     *
+     * @param leitor Recebe cada registro, na ordem em que foi gravado.
+     * @return O número de registros válidos lidos.
+     * @throws IOException Se o arquivo não puder ser lido ou aberto.
+     */
+    public synchronized long carregar(LeitorDeRegistros leitor) throws IOException {
+        canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long tamanho = canal.size();
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_REGISTRO * LOTE_MAXIMO);
+        long posicao = 0;
+        long lidos = 0;
+        leitura:
+        while (posicao + TAMANHO_REGISTRO <= tamanho) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), (tamanho - posicao) / TAMANHO_REGISTRO * TAMANHO_REGISTRO));
+            while (buffer.hasRemaining() && canal.read(buffer, posicao + buffer.position()) >= 0) {
+                // Lê o bloco inteiro de registros.
+            }
+            buffer.flip();
+            while (buffer.remaining() >= TAMANHO_REGISTRO) {
+                Registro registro = ler(buffer);
+                if (registro == null) {
+                    break leitura;
+                }
+                leitor.aceitar(registro);
+                posicao += TAMANHO_REGISTRO;
+                lidos++;
+            }
+        }
+
+        if (posicao + 2L * TAMANHO_REGISTRO <= tamanho) {
+            // Há registros completos depois do inválido, então não é uma gravação interrompida; truncar os descartaria.
+            Path corrompido = separarCorrompido(posicao);
+            System.err.printf("ERRO: Registro inválido no meio do log do ranking (byte %d de %d). Só os %d registros anteriores foram carregados; "
+                    + "o arquivo original foi preservado em %s.%n", posicao, tamanho, lidos, corrompido);
+        } else if (posicao != tamanho) {
+            System.err.println("AVISO: Registro incompleto no fim do log do ranking (provável queda durante uma gravação). Ele foi descartado.");
+            canal.truncate(posicao);
+            canal.force(true);
+        }
+        canal.position(posicao);
+        registrosNoArquivo = lidos;
+        iniciarGravador();
+        return lidos;
+    }
+
+    /**
+     * Move o log danificado para {@code ranking.log.corrompido}, sem alterá-lo, e o substitui por uma cópia
+     * dos seus primeiros bytes (os registros válidos). A cópia é gravada e sincronizada antes das renomeações,
+     * então uma queda no meio do processo nunca perde o arquivo original.
+     *
+     * @param bytesValidos O tamanho do trecho inicial válido.
+     * @return O caminho do arquivo preservado.
+     * @throws IOException Se a separação falhar, ou se já houver um log corrompido não resolvido.
+     */
+    private Path separarCorrompido(long bytesValidos) throws IOException {
+        Path corrompido = arquivo.resolveSibling(ARQUIVO + ".corrompido");
+        if (Files.exists(corrompido)) {
+            canal.close();
+            canal = null;
+            throw new IOException("O log do ranking tem um registro inválido antes do fim e " + corrompido
+                    + " já existe. Recupere ou remova esse arquivo antes de iniciar o bot.");
+        }
+        Path temporario = arquivo.resolveSibling(ARQUIVO + ".tmp");
+        try (FileChannel saida = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long copiados = 0;
+            while (copiados < bytesValidos) {
+                copiados += canal.transferTo(copiados, bytesValidos - copiados, saida);
+            }
+            saida.force(true);
+        }
+        canal.close();
+        mover(arquivo, corrompido);
+        mover(temporario, arquivo);
+        canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return corrompido;
+    }
+
+    /**
+     * Renomeia um arquivo, de forma atômica quando o sistema de arquivos permite.
+     */
+    private static void mover(Path origem, Path destino) throws IOException {
+        try {
+            Files.move(origem, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Enfileira um registro para gravação. Retorna imediatamente.
+     *
+     * @param registro O registro a gravar.
+     */
+    public void registrar(Registro registro) {
+        fila.add(registro);
+    }
+
+    /**
+     * Substitui o conteúdo do log pelos registros informados (normalmente, o total de cada jogador).
+     * Deve ser chamado logo após {@link #carregar}, antes de qualquer registro novo.
+     *
+     * @param registros Os registros do novo log.
+     * @throws IOException Se o novo log não puder ser gravado; nesse caso o log atual continua em uso.
+     */
+    public synchronized void compactar(List<Registro> registros) throws IOException {
+        Path temporario = arquivo.resolveSibling(ARQUIVO + ".tmp");
+        try (FileChannel saida = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_REGISTRO * LOTE_MAXIMO);
+            for (Registro registro : registros) {
+                if (buffer.remaining() < TAMANHO_REGISTRO) {
+                    escreverTudo(saida, buffer);
+                }
+                escrever(buffer, registro);
+            }
+            escreverTudo(saida, buffer);
+            saida.force(true);
+        }
+
+        parar();
+        canal.close();
+        try {
+            mover(temporario, arquivo);
+        } finally {
+            canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            canal.position(canal.size());
+            registrosNoArquivo = canal.size() / TAMANHO_REGISTRO - registrosGravados.sum();
+            iniciarGravador();
+        }
+    }
+
+    /**
+     * Grava os registros pendentes e fecha o arquivo. Pode ser chamado mais de uma vez.
+     */
+    public synchronized void fechar() {
+        if (canal == null) {
+            return;
+        }
+        parar();
+        try {
+            canal.force(true);
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("AVISO: Falha ao fechar o log do ranking.");
+            e.printStackTrace();
+        }
+        canal = null;
+    }
+
+    /**
+     * @return O número de registros no arquivo, incluindo os gravados desde a carga.
+     */
+    public synchronized long getRegistrosNoArquivo() {
+        return registrosNoArquivo + registrosGravados.sum();
+    }
+
+    private void iniciarGravador() {
+        gravador = new Thread(this::loop, "ranking-log");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+
+    /**
+     * Pede à thread de gravação que grave o que estiver na fila e termine, e espera por ela.
+     */
+    private void parar() {
+        if (gravador == null) {
+            return;
+        }
+        fila.add(FIM);
+        try {
+            gravador.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        gravador = null;
+    }
+
+    private void loop() {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_REGISTRO * LOTE_MAXIMO);
+        List<Registro> lote = new ArrayList<>(LOTE_MAXIMO);
+        while (true) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            fila.drainTo(lote, LOTE_MAXIMO - 1);
+
+            boolean fim = false;
+            buffer.clear();
+            int gravados = 0;
+            for (Registro registro : lote) {
+                if (registro == FIM) {
+                    fim = true;
+                    continue;
+                }
+                escrever(buffer, registro);
+                gravados++;
+            }
+            lote.clear();
+            try {
+                escreverTudo(canal, buffer);
+                escritas.increment();
+                registrosGravados.add(gravados);
+                if (fila.isEmpty() || fim) {
+                    canal.force(false);
+                    sincronizacoes.increment();
+                }
+            } catch (IOException e) {
+                falhas.increment();
+                System.err.println("ERRO: Falha ao gravar " + gravados + " registros no log do ranking. Os pontos continuam em memória.");
+                e.printStackTrace();
+            }
+            if (fim) {
+                return;
+            }
+        }
+    }
+
+    private static void escreverTudo(FileChannel destino, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void escrever(ByteBuffer buffer, Registro registro) {
+        int inicio = buffer.position();
+        buffer.position(inicio + Integer.BYTES);
+        buffer.putLong(registro.guildId).putLong(registro.userId).put(registro.jogo.getCodigo()).putLong(registro.pontos);
+        buffer.putInt(inicio, crc(buffer, inicio + Integer.BYTES));
+    }
+
+    /**
+     * Lê um registro da posição atual do buffer.
+     *
+     * @return O registro, ou {@code null} se o CRC ou o tipo de jogo forem inválidos.
+     */
+    private static Registro ler(ByteBuffer buffer) {
+        int inicio = buffer.position();
+        int crc = buffer.getInt();
+        if (crc != crc(buffer, inicio + Integer.BYTES)) {
+            return null;
+        }
+        long guildId = buffer.getLong();
+        long userId = buffer.getLong();
+        TipoDeJogo jogo = TipoDeJogo.deCodigo(buffer.get());
+        long pontos = buffer.getLong();
+        return jogo == null ? null : new Registro(guildId, userId, jogo, pontos);
+    }
+
+    private static int crc(ByteBuffer buffer, int inicioDoConteudo) {
+        CRC32 crc = new CRC32();
+        ByteBuffer conteudo = buffer.duplicate();
+        conteudo.limit(inicioDoConteudo + TAMANHO_REGISTRO - Integer.BYTES).position(inicioDoConteudo);
+        crc.update(conteudo);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return Um resumo das gravações, para as métricas do ranking.
+     */
+    String resumo() {
+        return String.format("log: %d registros | escritas %d | sincronizações %d | falhas %d | pendentes %d",
+                getRegistrosNoArquivo(), escritas.sum(), sincronizacoes.sum(), falhas.sum(), fila.size());
+    }
+}
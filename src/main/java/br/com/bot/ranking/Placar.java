@@ -0,0 +1,276 @@
+package br.com.bot.ranking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * O placar de um ranking: os pontos de cada jogador, mantidos em ordem decrescente.
+ * <p>
+ * Os jogadores ficam em uma skip list indexável: cada ligação guarda quantas posições ela pula,
+ * então a posição de um jogador e o jogador de uma posição são encontrados em O(log n), e os K
+ * primeiros em O(log n + K). Empates são desfeitos pelo ID do jogador, para que a ordem seja estável.
+ * Um mapa do ID para o nó permite consultar os pontos de um jogador em O(1).
+ * <p>
+ * Os métodos são sincronizados: as atualizações vêm dos trabalhadores dos canais e as consultas,
+ * dos comandos.
+ *
+ * @author Lucas
+ */
+public class Placar {
+
+    /** O número máximo de níveis; com p = 1/4, suporta bem dezenas de milhões de jogadores. */
+    private static final int MAX_NIVEIS = 16;
+
+    /** Uma posição do placar. */
+    public static final class Entrada {
+        private final int posicao;
+        private final long userId;
+        private final long pontos;
+
+        private Entrada(int posicao, long userId, long pontos) {
+            this.posicao = posicao;
+            this.userId = userId;
+            this.pontos = pontos;
+        }
+
+        /** @return A posição, a partir de 1. */
+        public int getPosicao() { return posicao; }
+        public long getUserId() { return userId; }
+        public long getPontos() { return pontos; }
+    }
+
+    private static final class No {
+        private long pontos;
+        private final long userId;
+        private final No[] proximo;
+        /** Quantas posições a ligação de cada nível avança. */
+        private final int[] largura;
+
+        private No(long pontos, long userId, int niveis) {
+            this.pontos = pontos;
+            this.userId = userId;
+            this.proximo = new No[niveis];
+            this.largura = new int[niveis];
+        }
+    }
+
+    private final No cabeca = new No(0, 0, MAX_NIVEIS);
+    private final Map<Long, No> porJogador = new HashMap<>();
+    private int niveis = 1;
+    private int tamanho;
+
+    // Áreas de trabalho das atualizações, reutilizadas sob a trava do placar.
+    private final No[] anteriores = new No[MAX_NIVEIS];
+    private final int[] posicoes = new int[MAX_NIVEIS];
+
+    /**
+     * Soma pontos a um jogador, incluindo-o no placar se necessário.
+     *
+     * @param userId O ID do jogador.
+     * @param delta  Os pontos a somar (podem ser negativos).
+     * @return O novo total do jogador.
+     */
+    public synchronized long somar(long userId, long delta) {
+        return atualizar(userId, delta, Long::sum);
+    }
+
+    /**
+     * Define o total de pontos de um jogador, incluindo-o no placar se necessário.
+     *
+     * @param userId O ID do jogador.
+     * @param pontos O novo total.
+     */
+    public synchronized void definir(long userId, long pontos) {
+        atualizar(userId, pontos, (atual, novo) -> novo);
+    }
+
+    private long atualizar(long userId, long valor, LongBinaryOperator operacao) {
+        No no = porJogador.get(userId);
+        long novoTotal = operacao.applyAsLong(no == null ? 0 : no.pontos, valor);
+        if (no != null) {
+            if (novoTotal == no.pontos) {
+                return novoTotal;
+            }
+            remover(no);
+            no.pontos = novoTotal; // O nó é reaproveitado, com os mesmos níveis.
+            inserir(no);
+        } else {
+            no = new No(novoTotal, userId, sortearNiveis());
+            porJogador.put(userId, no);
+            inserir(no);
+        }
+        return novoTotal;
+    }
+
+    /**
+     * Retorna os pontos de um jogador.
+     *
+     * @param userId O ID do jogador.
+     * @return Os pontos, ou 0 se ele não estiver no placar.
+     */
+    public synchronized long getPontos(long userId) {
+        No no = porJogador.get(userId);
+        return no == null ? 0 : no.pontos;
+    }
+
+    /**
+     * Retorna a posição de um jogador.
+     *
+     * @param userId O ID do jogador.
+     * @return A posição (a partir de 1), ou 0 se ele não estiver no placar.
+     */
+    public synchronized int posicaoDe(long userId) {
+        No alvo = porJogador.get(userId);
+        if (alvo == null) {
+            return 0;
+        }
+        No x = cabeca;
+        int posicao = 0;
+        for (int i = niveis - 1; i >= 0; i--) {
+            while (x.proximo[i] != null && !vemAntes(alvo, x.proximo[i])) {
+                posicao += x.largura[i];
+                x = x.proximo[i];
+            }
+            if (x == alvo) {
+                return posicao;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Retorna uma faixa do placar, a partir de uma posição.
+     *
+     * @param posicaoInicial A primeira posição (a partir de 1).
+     * @param quantidade     Quantas posições retornar, no máximo.
+     * @return As entradas, em ordem (vazio se a posição inicial estiver além do fim).
+     */
+    public synchronized List<Entrada> faixa(int posicaoInicial, int quantidade) {
+        List<Entrada> entradas = new ArrayList<>(Math.max(0, Math.min(quantidade, tamanho - posicaoInicial + 1)));
+        No no = noNaPosicao(posicaoInicial);
+        for (int posicao = posicaoInicial; no != null && entradas.size() < quantidade; posicao++) {
+            entradas.add(new Entrada(posicao, no.userId, no.pontos));
+            no = no.proximo[0];
+        }
+        return entradas;
+    }
+
+    /**
+     * Percorre todos os jogadores, em ordem.
+     *
+     * @param consumidor Recebe o ID e os pontos de cada jogador.
+     */
+    public synchronized void paraCada(JogadorConsumer consumidor) {
+        for (No no = cabeca.proximo[0]; no != null; no = no.proximo[0]) {
+            consumidor.aceitar(no.userId, no.pontos);
+        }
+    }
+
+    /** Recebe um jogador do placar. */
+    @FunctionalInterface
+    public interface JogadorConsumer {
+        void aceitar(long userId, long pontos);
+    }
+
+    /**
+     * @return O número de jogadores no placar.
+     */
+    public synchronized int getTotalJogadores() {
+        return tamanho;
+    }
+
+    private No noNaPosicao(int posicao) {
+        if (posicao < 1 || posicao > tamanho) {
+            return null;
+        }
+        No x = cabeca;
+        int percorrido = 0;
+        for (int i = niveis - 1; i >= 0; i--) {
+            while (x.proximo[i] != null && percorrido + x.largura[i] <= posicao) {
+                percorrido += x.largura[i];
+                x = x.proximo[i];
+            }
+            if (percorrido == posicao) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private void inserir(No novo) {
+        No x = cabeca;
+        for (int i = niveis - 1; i >= 0; i--) {
+            posicoes[i] = i == niveis - 1 ? 0 : posicoes[i + 1];
+            while (x.proximo[i] != null && vemAntes(x.proximo[i], novo)) {
+                posicoes[i] += x.largura[i];
+                x = x.proximo[i];
+            }
+            anteriores[i] = x;
+        }
+        int nivelDoNo = novo.proximo.length;
+        if (nivelDoNo > niveis) {
+            for (int i = niveis; i < nivelDoNo; i++) {
+                posicoes[i] = 0;
+                anteriores[i] = cabeca;
+                cabeca.largura[i] = tamanho;
+            }
+            niveis = nivelDoNo;
+        }
+        for (int i = 0; i < nivelDoNo; i++) {
+            novo.proximo[i] = anteriores[i].proximo[i];
+            anteriores[i].proximo[i] = novo;
+            novo.largura[i] = anteriores[i].largura[i] - (posicoes[0] - posicoes[i]);
+            anteriores[i].largura[i] = posicoes[0] - posicoes[i] + 1;
+        }
+        for (int i = nivelDoNo; i < niveis; i++) {
+            anteriores[i].largura[i]++;
+        }
+        tamanho++;
+    }
+
+    private void remover(No alvo) {
+        No x = cabeca;
+        for (int i = niveis - 1; i >= 0; i--) {
+            while (x.proximo[i] != null && vemAntes(x.proximo[i], alvo)) {
+                x = x.proximo[i];
+            }
+            anteriores[i] = x;
+        }
+        for (int i = 0; i < niveis; i++) {
+            if (anteriores[i].proximo[i] == alvo) {
+                anteriores[i].largura[i] += alvo.largura[i] - 1;
+                anteriores[i].proximo[i] = alvo.proximo[i];
+            } else {
+                anteriores[i].largura[i]--;
+            }
+        }
+        for (int i = 0; i < alvo.proximo.length; i++) {
+            alvo.proximo[i] = null;
+            alvo.largura[i] = 0;
+        }
+        while (niveis > 1 && cabeca.proximo[niveis - 1] == null) {
+            niveis--;
+        }
+        tamanho--;
+    }
+
+    /**
+     * A ordem do placar: mais pontos primeiro e, no empate, o menor ID.
+     */
+    private static boolean vemAntes(No a, No b) {
+        return a.pontos > b.pontos || (a.pontos == b.pontos && a.userId < b.userId);
+    }
+
+    private static int sortearNiveis() {
+        int nivel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nivel < MAX_NIVEIS && (random.nextInt() & 3) == 0) {
+            nivel++;
+        }
+        return nivel;
+    }
+}
@@ -0,0 +1,174 @@
+package br.com.bot.ranking;
+
+import br.com.bot.shared.Fase;
+import br.com.bot.shared.Game;
+import br.com.bot.shared.IMetricsSource;
+import br.com.bot.shared.OuvinteDeFases;
+import br.com.bot.shared.ResultadoDaPartida;
+import br.com.bot.shared.TipoDeJogo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mantém os rankings de cada servidor: um placar geral e um placar por jogo.
+ * <p>
+ * Os rankings são alimentados pelo fim das partidas: ao ser notificado de que uma partida chegou a
+ * {@link Fase#FINALIZADO} com um {@link ResultadoDaPartida}, o gerenciador soma os pontos de cada
+ * participante ao placar do jogo e ao placar geral do servidor, e registra os pontos no {@link LogDePontos}.
+ * Os placares ficam inteiramente em memória, então as consultas de {@code /ranking} e {@code /meurank}
+ * não tocam no disco e custam O(log n) mesmo em servidores com muitos jogadores.
+ *
+ * @author Lucas
+ */
+public class RankingManager implements OuvinteDeFases, IMetricsSource {
+
+    /** Logs menores que isto nunca são compactados. */
+    private static final long TAMANHO_MINIMO_COMPACTACAO = 1 << 20;
+
+    private static final int GERAL = 0;
+
+    private final Map<Long, Placar[]> porServidor = new ConcurrentHashMap<>();
+    private final LogDePontos log;
+
+    // --- Métricas ---
+    private final LongAdder partidasRegistradas = new LongAdder();
+    private final LongAdder pontosRegistrados = new LongAdder();
+    private long tempoCargaMs;
+
+    /**
+     * @param diretorio O diretório onde o log dos pontos é mantido.
+     */
+    public RankingManager(Path diretorio) {
+        this.log = new LogDePontos(diretorio);
+    }
+
+    /**
+     * Reconstrói os placares a partir do log e o compacta se ele tiver crescido demais.
+     *
+     * @throws UncheckedIOException Se o log não puder ser lido.
+     */
+    public void carregar() {
+        long inicio = System.nanoTime();
+        long registros;
+        try {
+            registros = log.carregar(r -> somar(r.getGuildId(), r.getUserId(), r.getJogo(), r.getPontos()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<LogDePontos.Registro> vivos = new ArrayList<>();
+        porServidor.forEach((guildId, placares) -> {
+            for (TipoDeJogo jogo : TipoDeJogo.values()) {
+                placares[indice(jogo)].paraCada((userId, pontos) ->
+                        vivos.add(new LogDePontos.Registro(guildId, userId, jogo, pontos)));
+            }
+        });
+        if (registros * LogDePontos.TAMANHO_REGISTRO >= TAMANHO_MINIMO_COMPACTACAO && registros > 2L * vivos.size()) {
+            try {
+                log.compactar(vivos);
+                System.out.printf("Log do ranking compactado: %d registros reduzidos a %d.%n", registros, vivos.size());
+            } catch (IOException e) {
+                System.err.println("ERRO: Falha ao compactar o log do ranking. O log atual continua em uso.");
+                e.printStackTrace();
+            }
+        }
+
+        tempoCargaMs = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.printf("Ranking carregado: %d servidores, %d registros em %d ms.%n",
+                porServidor.size(), registros, tempoCargaMs);
+    }
+
+    /**
+     * Grava os pontos pendentes e fecha o log.
+     */
+    public void fechar() {
+        log.fechar();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Soma os pontos das partidas finalizadas com resultado. Partidas canceladas ou encerradas
+     * por tempo esgotado não têm resultado e são ignoradas.
+     */
+    @Override
+    public void aoMudarDeFase(long guildId, long channelId, Game game, Fase anterior, Fase nova) {
+        if (nova != Fase.FINALIZADO) {
+            return;
+        }
+        ResultadoDaPartida resultado = game.getResultado();
+        if (resultado == null) {
+            return;
+        }
+        partidasRegistradas.increment();
+        for (ResultadoDaPartida.Participante p : resultado.getParticipantes()) {
+            if (p.getPontos() <= 0) {
+                continue;
+            }
+            somar(guildId, p.getUserId(), resultado.getTipo(), p.getPontos());
+            log.registrar(new LogDePontos.Registro(guildId, p.getUserId(), resultado.getTipo(), p.getPontos()));
+            pontosRegistrados.add(p.getPontos());
+        }
+    }
+
+    /**
+     * Retorna o placar de um servidor.
+     *
+     * @param guildId O ID do servidor.
+     * @param jogo    O jogo, ou {@code null} para o placar geral.
+     * @return O placar (vazio se ninguém do servidor pontuou).
+     */
+    public Placar getPlacar(long guildId, TipoDeJogo jogo) {
+        Placar[] placares = porServidor.get(guildId);
+        if (placares == null) {
+            return new Placar();
+        }
+        return placares[jogo == null ? GERAL : indice(jogo)];
+    }
+
+    private void somar(long guildId, long userId, TipoDeJogo jogo, long pontos) {
+        Placar[] placares = porServidor.computeIfAbsent(guildId, id -> {
+            Placar[] novos = new Placar[TipoDeJogo.values().length + 1];
+            for (int i = 0; i < novos.length; i++) {
+                novos[i] = new Placar();
+            }
+            return novos;
+        });
+        placares[indice(jogo)].somar(userId, pontos);
+        placares[GERAL].somar(userId, pontos);
+    }
+
+    private static int indice(TipoDeJogo jogo) {
+        return jogo.ordinal() + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMetricsName() {
+        return "Ranking";
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Exibe o tamanho dos placares, os pontos registrados desde o início e o estado do log.
+     */
+    @Override
+    public String getMetricsSummary() {
+        long jogadores = 0;
+        for (Placar[] placares : porServidor.values()) {
+            jogadores += placares[GERAL].getTotalJogadores();
+        }
+        return String.format("servidores %d | jogadores %d | partidas %d | pontos %d | carga %d ms%n%s%n",
+                porServidor.size(), jogadores, partidasRegistradas.sum(), pontosRegistrados.sum(), tempoCargaMs, log.resumo());
+    }
+}
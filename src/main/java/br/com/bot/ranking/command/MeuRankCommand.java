@@ -0,0 +1,88 @@
+package br.com.bot.ranking.command;
+
+import br.com.bot.ranking.Placar;
+import br.com.bot.ranking.RankingManager;
+import br.com.bot.shared.ICommand;
+import br.com.bot.shared.TipoDeJogo;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+/**
+ * Exibe a posição e os pontos de um jogador no ranking do servidor, geral ou de um jogo.
+ * <p>
+ * Além da posição, mostra quantos pontos faltam para alcançar o jogador logo acima.
+ *
+ * @author Lucas
+ */
+public class MeuRankCommand implements ICommand {
+
+    private final RankingManager rankingManager;
+
+    /**
+     * Constrói o comando com suas dependências.
+     *
+     * @param rankingManager O gerenciador dos rankings.
+     */
+    public MeuRankCommand(RankingManager rankingManager) {
+        this.rankingManager = rankingManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Consulta o jogador da opção 'usuario' ou, se omitida, quem usou o comando.
+     */
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        if (event.getGuild() == null) {
+            event.reply("Este comando só pode ser usado em um servidor.").setEphemeral(true).queue();
+            return;
+        }
+        OptionMapping opcaoUsuario = event.getOption("usuario");
+        User usuario = opcaoUsuario == null ? event.getUser() : opcaoUsuario.getAsUser();
+        TipoDeJogo jogo = OpcaoDeJogo.ler(event);
+        Placar placar = rankingManager.getPlacar(event.getGuild().getIdLong(), jogo);
+
+        int posicao = placar.posicaoDe(usuario.getIdLong());
+        boolean proprio = usuario.getIdLong() == event.getUser().getIdLong();
+        if (posicao == 0) {
+            event.reply("ℹ️ " + (proprio ? "Você ainda não pontuou" : usuario.getAsMention() + " ainda não pontuou")
+                    + " no " + OpcaoDeJogo.titulo(jogo).toLowerCase() + " deste servidor.").setEphemeral(true).queue();
+            return;
+        }
+
+        long pontos = placar.getPontos(usuario.getIdLong());
+        StringBuilder descricao = new StringBuilder()
+                .append(usuario.getAsMention()).append(" está em **").append(posicao).append("º** de ")
+                .append(placar.getTotalJogadores()).append(" com **").append(pontos).append(pontos == 1 ? " ponto**." : " pontos**.");
+        if (posicao > 1) {
+            Placar.Entrada acima = placar.faixa(posicao - 1, 1).get(0);
+            // No empate, fica à frente quem tem o menor ID.
+            long faltam = acima.getPontos() - pontos + (usuario.getIdLong() < acima.getUserId() ? 0 : 1);
+            descricao.append("\nFaltam **").append(faltam).append("** para passar <@").append(acima.getUserId()).append(">.");
+        }
+
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle("📊 " + OpcaoDeJogo.titulo(jogo))
+                .setDescription(descricao)
+                .setColor(RankingCommand.COR);
+        event.replyEmbeds(embed.build()).queue();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cria e retorna a definição do comando /meurank para o Discord.
+     */
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("meurank", "Mostra sua posição no ranking do servidor.")
+                .addOptions(OpcaoDeJogo.criar())
+                .addOption(OptionType.USER, "usuario", "Consulta a posição de outro jogador.", false);
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.bot.ranking.command;
+
+import br.com.bot.shared.TipoDeJogo;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+
+/**
+ * A opção 'jogo' dos comandos de ranking: escolhe o placar de um jogo ou, se omitida, o placar geral.
+ *
+ * @author Lucas
+ */
+final class OpcaoDeJogo {
+
+    static final String JOGO = "jogo";
+
+    private OpcaoDeJogo() {
+    }
+
+    /**
+     * @return A definição da opção, com uma escolha por tipo de jogo.
+     */
+    static OptionData criar() {
+        OptionData jogo = new OptionData(OptionType.STRING, JOGO, "O jogo do ranking. Se omitido, mostra o ranking geral.", false);
+        for (TipoDeJogo tipo : TipoDeJogo.values()) {
+            jogo.addChoice(tipo.getNome(), tipo.name());
+        }
+        return jogo;
+    }
+
+    /**
+     * @param event O evento do comando.
+     * @return O jogo escolhido, ou {@code null} para o ranking geral (ou um valor desconhecido).
+     */
+    static TipoDeJogo ler(SlashCommandInteractionEvent event) {
+        OptionMapping opcao = event.getOption(JOGO);
+        return opcao == null ? null : TipoDeJogo.deTexto(opcao.getAsString()).orElse(null);
+    }
+
+    /**
+     * @return O título do ranking de um jogo, ou do ranking geral.
+     */
+    static String titulo(TipoDeJogo jogo) {
+        return jogo == null ? "Ranking geral" : "Ranking de " + jogo.getNome();
+    }
+}
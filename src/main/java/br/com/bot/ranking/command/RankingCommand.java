@@ -0,0 +1,98 @@
+package br.com.bot.ranking.command;
+
+import br.com.bot.ranking.Placar;
+import br.com.bot.ranking.RankingManager;
+import br.com.bot.shared.ICommand;
+import br.com.bot.shared.TipoDeJogo;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * Exibe os primeiros colocados do ranking do servidor, geral ou de um jogo, em páginas de 10 jogadores.
+ * <p>
+ * A página é lida diretamente do {@link Placar} em memória, então a resposta é imediata mesmo em
+ * servidores com muitos jogadores. Os jogadores aparecem como menções dentro de um embed, que não
+ * notificam ninguém.
+ *
+ * @author Lucas
+ */
+public class RankingCommand implements ICommand {
+
+    /** Quantos jogadores cada página exibe. */
+    static final int POR_PAGINA = 10;
+
+    static final Color COR = new Color(0xF1C40F);
+
+    private static final String[] MEDALHAS = {"🥇", "🥈", "🥉"};
+
+    private final RankingManager rankingManager;
+
+    /**
+     * Constrói o comando de ranking com suas dependências.
+     *
+     * @param rankingManager O gerenciador dos rankings.
+     */
+    public RankingCommand(RankingManager rankingManager) {
+        this.rankingManager = rankingManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Lê as opções 'jogo' e 'pagina' e monta a página pedida do placar.
+     */
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        if (event.getGuild() == null) {
+            event.reply("Este comando só pode ser usado em um servidor.").setEphemeral(true).queue();
+            return;
+        }
+        TipoDeJogo jogo = OpcaoDeJogo.ler(event);
+        Placar placar = rankingManager.getPlacar(event.getGuild().getIdLong(), jogo);
+        int total = placar.getTotalJogadores();
+        if (total == 0) {
+            event.reply("ℹ️ Ninguém pontuou no " + OpcaoDeJogo.titulo(jogo).toLowerCase() + " deste servidor ainda.").setEphemeral(true).queue();
+            return;
+        }
+
+        int paginas = (total + POR_PAGINA - 1) / POR_PAGINA;
+        OptionMapping opcaoPagina = event.getOption("pagina");
+        int pagina = Math.min(opcaoPagina == null ? 1 : opcaoPagina.getAsInt(), paginas);
+        List<Placar.Entrada> entradas = placar.faixa((pagina - 1) * POR_PAGINA + 1, POR_PAGINA);
+
+        StringBuilder linhas = new StringBuilder();
+        for (Placar.Entrada e : entradas) {
+            String posicao = e.getPosicao() <= MEDALHAS.length ? MEDALHAS[e.getPosicao() - 1] : "**" + e.getPosicao() + ".**";
+            linhas.append(posicao).append(" <@").append(e.getUserId()).append("> — ")
+                    .append(e.getPontos()).append(e.getPontos() == 1 ? " ponto" : " pontos").append('\n');
+        }
+
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle("🏆 " + OpcaoDeJogo.titulo(jogo))
+                .setDescription(linhas)
+                .setColor(COR)
+                .setFooter(String.format("Página %d de %d · %d jogadores", pagina, paginas, total));
+        event.replyEmbeds(embed.build()).queue();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cria e retorna a definição do comando /ranking para o Discord.
+     */
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("ranking", "Mostra os jogadores com mais pontos no servidor.")
+                .addOptions(OpcaoDeJogo.criar(),
+                        new OptionData(OptionType.INTEGER, "pagina", "A página do ranking (10 jogadores por página).", false)
+                                .setMinValue(1));
+    }
+}
@@ -4,11 +4,11 @@ import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
 import br.com.bot.core.ServerConfig;
 import br.com.bot.utils.ValidationUtils;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * A classe base para TODOS os comandos de jogo.
@@ -23,14 +23,15 @@ public abstract class AbstractGameCommand implements ICommand {
 
     public static final int PREPARE_DELAY_SECONDS = 3;
 
+    /** A duração da fase de preparo, em milissegundos. */
+    protected static final long PREPARE_DELAY_MS = PREPARE_DELAY_SECONDS * 1000L;
+
     protected final GameManager gameManager;
     protected final ConfigManager configManager;
-    protected final ScheduledExecutorService scheduler;
 
-    public AbstractGameCommand(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
+    public AbstractGameCommand(GameManager gameManager, ConfigManager configManager) {
         this.gameManager = gameManager;
         this.configManager = configManager;
-        this.scheduler = scheduler;
     }
 
     /**
@@ -41,11 +42,11 @@ public abstract class AbstractGameCommand implements ICommand {
     @Override
     public final void execute(final SlashCommandInteractionEvent event) {
         ServerConfig config = configManager.getConfig(event.getGuild().getId());
-        if (config.getBlockedChannelIds().contains(event.getChannel().getId())) {
+        if (config.isChannelBlocked(event.getChannel().getIdLong())) {
             event.reply("Este canal está bloqueado para jogos.").setEphemeral(true).queue();
             return;
         }
-        if (gameManager.isJogoAtivo(event.getChannel().getId())) {
+        if (gameManager.isJogoAtivo(event.getGuild().getIdLong(), event.getChannel().getIdLong())) {
             event.reply("Já existe um jogo ativo neste canal!").setEphemeral(true).queue();
             return;
         }
@@ -53,6 +54,7 @@ public abstract class AbstractGameCommand implements ICommand {
         Optional<Game> gameOptional = createGame(event);
         if (gameOptional.isEmpty()) return;
         Game novoJogo = gameOptional.get();
+        novoJogo.setConfig(config);
 
         if (!ValidationUtils.checkMaxGameTime(event, configManager, novoJogo.getTempoLimiteMs())) {
             return;
@@ -83,6 +85,37 @@ public abstract class AbstractGameCommand implements ICommand {
         }
     }
 
+    /**
+     * Responde à interação com a mensagem de preparo e entrega a partida ao {@link MotorDeFases},
+     * que a registra no canal e a conduz pelas fases do roteiro. Nada do evento é retido depois daqui.
+     *
+     * @param event O evento do comando original.
+     * @param game O jogo já criado e validado.
+     * @param mensagemDePreparo O aviso de que o jogo vai começar.
+     * @param roteiro As fases do tipo de jogo.
+     */
+    protected void iniciarFases(SlashCommandInteractionEvent event, Game game, String mensagemDePreparo, RoteiroDeFases roteiro) {
+        event.reply(mensagemDePreparo).queue();
+        gameManager.getMotorDeFases().iniciar(roteiro, event.getJDA(), event.getGuild().getIdLong(), event.getChannel().getIdLong(), game);
+    }
+
+    /**
+     * A ação da fase {@link Fase#ESGOTADO}: encerra e finaliza o jogo, se ninguém o venceu antes, e avisa o canal que o tempo acabou.
+     *
+     * @param contexto O contexto da fase.
+     */
+    protected void esgotarTempo(ContextoDaFase contexto) {
+        Game game = contexto.getGame();
+        // Uma vitória decidida antes do prazo já encerrou a partida.
+        if (!game.encerrar() || !gameManager.finalizarJogo(contexto.getGuildId(), contexto.getChannelId(), game)) {
+            return;
+        }
+        MessageChannel canal = contexto.getCanal();
+        if (canal != null) {
+            canal.sendMessage(getTimeoutMessage(game)).queue();
+        }
+    }
+
     /**
      * As subclasses devem implementar este método para validar suas opções e criar a instância do jogo.
      * @param event O evento do comando para extrair as opções.
@@ -97,4 +130,12 @@ public abstract class AbstractGameCommand implements ICommand {
      * @param game O objeto de estado do jogo já criado e validado.
      */
     protected abstract void startGameFlow(SlashCommandInteractionEvent event, Game game);
+
+    /**
+     * As subclasses devem implementar este método para definir a mensagem enviada
+     * quando o tempo do jogo se esgota sem um vencedor.
+     * @param game O jogo que foi finalizado por tempo.
+     * @return O texto da mensagem.
+     */
+    protected abstract String getTimeoutMessage(Game game);
 }
\ No newline at end of file
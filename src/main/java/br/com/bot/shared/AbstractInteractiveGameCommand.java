@@ -2,10 +2,9 @@ package br.com.bot.shared;
 
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Um "molde" especializado para jogos interativos que precisam editar sua mensagem de estado.
@@ -15,35 +14,46 @@ import java.util.concurrent.TimeUnit;
  * @author Lucas
  */
 public abstract class AbstractInteractiveGameCommand extends AbstractGameCommand {
-    public AbstractInteractiveGameCommand(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
-        super(gameManager, configManager, scheduler);
+
+    /**
+     * As fases do fluxo interativo. A exibição só termina quando a mensagem inicial é confirmada,
+     * pois as jogadas editam essa mensagem e precisam do seu ID.
+     */
+    private final RoteiroDeFases roteiro = new RoteiroDeFases()
+            .fase(Fase.PREPARAR, PREPARE_DELAY_MS, contexto -> { })
+            .fase(Fase.MOSTRAR, RoteiroDeFases.AO_CONCLUIR, this::enviarMensagemInicial)
+            .fase(Fase.RESPONDER, Game::getTempoLimiteMs, contexto -> { })
+            .fase(Fase.ESGOTADO, RoteiroDeFases.SEM_PRAZO, this::esgotarTempo);
+
+    public AbstractInteractiveGameCommand(GameManager gameManager, ConfigManager configManager) {
+        super(gameManager, configManager);
     }
 
     /**
      * {@inheritDoc}
      * Implementa o fluxo de início interativo: envia uma mensagem de preparo, espera,
-     * envia a mensagem inicial do jogo, captura seu ID, e então agenda o timeout.
+     * envia a mensagem inicial do jogo, captura seu ID, e então aguarda as jogadas até o tempo esgotar.
      */
     @Override
     protected void startGameFlow(SlashCommandInteractionEvent event, Game game) {
-        event.reply(String.format("O jogo vai começar em %d segundos...", PREPARE_DELAY_SECONDS)).queue();
-        scheduler.schedule(() -> {
-            MessageCreateData initialMessage = getInitialMessage(game);
-            event.getChannel().sendMessage(initialMessage).queue(message -> {
-                setGameMessageId(game, message.getId()); // Ponto crucial!
-                gameManager.iniciarJogo(event.getChannel().getId(), game);
-                scheduler.schedule(() -> {
-                    Game jogoFinalizado = gameManager.finalizarJogo(event.getChannel().getId());
-                    if (jogoFinalizado != null) {
-                        event.getChannel().sendMessage(getTimeoutMessage(jogoFinalizado)).queue();
-                    }
-                }, game.getTempoLimiteMs(), TimeUnit.MILLISECONDS);
-            });
-        }, PREPARE_DELAY_SECONDS, TimeUnit.SECONDS);
+        iniciarFases(event, game, String.format("O jogo vai começar em %d segundos...", PREPARE_DELAY_SECONDS), roteiro);
+    }
+
+    private void enviarMensagemInicial(ContextoDaFase contexto) {
+        MessageChannel canal = contexto.getCanal();
+        if (canal == null) {
+            contexto.abortar();
+            return;
+        }
+        Game game = contexto.getGame();
+        canal.sendMessage(getInitialMessage(game)).queue(message -> {
+            setGameMessageId(game, message.getIdLong()); // Ponto crucial!
+            game.marcarMensagemDeInicio(message.getIdLong());
+            contexto.concluir();
+        }, erro -> contexto.abortar());
     }
 
     // Novos métodos abstratos para as subclasses (Forca, etc.) preencherem
     protected abstract MessageCreateData getInitialMessage(Game game);
-    protected abstract void setGameMessageId(Game game, String messageId);
-    protected abstract String getTimeoutMessage(Game game);
-}
\ No newline at end of file
+    protected abstract void setGameMessageId(Game game, long messageId);
+}
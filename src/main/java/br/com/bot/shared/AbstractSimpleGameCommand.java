@@ -2,9 +2,8 @@ package br.com.bot.shared;
 
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Um "molde" especializado para jogos com um fluxo de início simples ("dispare e esqueça").
@@ -14,32 +13,43 @@ import java.util.concurrent.TimeUnit;
  * @author Lucas
  */
 public abstract class AbstractSimpleGameCommand extends AbstractGameCommand {
-    public AbstractSimpleGameCommand(GameManager gameManager, ConfigManager configManager, ScheduledExecutorService scheduler) {
-        super(gameManager, configManager, scheduler);
+
+    /**
+     * As fases do fluxo simples: preparo, exibição da mensagem de início, respostas e tempo esgotado.
+     * O jogo aceita respostas assim que a mensagem de início é enviada; o seu ID, quando confirmado,
+     * marca o início da contagem do tempo de reação.
+     */
+    private final RoteiroDeFases roteiro = new RoteiroDeFases()
+            .fase(Fase.PREPARAR, PREPARE_DELAY_MS, contexto -> { })
+            .fase(Fase.MOSTRAR, 0, this::enviarMensagemDeInicio)
+            .fase(Fase.RESPONDER, Game::getTempoLimiteMs, contexto -> { })
+            .fase(Fase.ESGOTADO, RoteiroDeFases.SEM_PRAZO, this::esgotarTempo);
+
+    public AbstractSimpleGameCommand(GameManager gameManager, ConfigManager configManager) {
+        super(gameManager, configManager);
     }
 
     /**
      * {@inheritDoc}
      * Implementa o fluxo de início padrão: envia uma mensagem de preparo, espera,
-     * envia a mensagem de início e agenda o timeout.
+     * envia a mensagem de início e aguarda as respostas até o tempo esgotar.
      */
     @Override
     protected void startGameFlow(SlashCommandInteractionEvent event, Game game) {
-        event.reply(getPrepareMessage()).queue();
-        scheduler.schedule(() -> {
-            event.getChannel().sendMessage(getStartMessage(game)).queue();
-            gameManager.iniciarJogo(event.getChannel().getId(), game);
-            scheduler.schedule(() -> {
-                Game jogoFinalizado = gameManager.finalizarJogo(event.getChannel().getId());
-                if (jogoFinalizado != null) {
-                    event.getChannel().sendMessage(getTimeoutMessage(jogoFinalizado)).queue();
-                }
-            }, game.getTempoLimiteMs(), TimeUnit.MILLISECONDS);
-        }, PREPARE_DELAY_SECONDS, TimeUnit.SECONDS);
+        iniciarFases(event, game, getPrepareMessage(), roteiro);
+    }
+
+    private void enviarMensagemDeInicio(ContextoDaFase contexto) {
+        MessageChannel canal = contexto.getCanal();
+        if (canal == null) {
+            contexto.abortar();
+            return;
+        }
+        Game game = contexto.getGame();
+        canal.sendMessage(getStartMessage(game)).queue(message -> game.marcarMensagemDeInicio(message.getIdLong()));
     }
 
     // Novos métodos abstratos para as subclasses (Reflexos, etc.) preencherem
     protected abstract String getPrepareMessage();
     protected abstract String getStartMessage(Game game);
-    protected abstract String getTimeoutMessage(Game game);
-}
\ No newline at end of file
+}
@@ -0,0 +1,290 @@
+package br.com.bot.shared;
+
+import br.com.bot.utils.NormalizadorDeTexto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Verifica se uma mensagem corresponde a qualquer uma das respostas aceitas (apelidos) de um jogo,
+ * como "São Paulo", "SP" e "Sampa", com uma única passada sobre a mensagem.
+ * <p>
+ * Os apelidos são convertidos para a forma canônica do {@link AnswerMatcher.Modo#ESPACOS_COLAPSADOS}
+ * (sem acentos, em minúsculas, com os espaços colapsados) e compilados em um autômato de Aho-Corasick:
+ * uma árvore de prefixos (trie) com links de falha. A mensagem é convertida caractere a caractere e
+ * cada caractere convertido avança o autômato, qualquer que seja o número de apelidos.
+ * <ul>
+ * <li>No modo {@link Modo#MENSAGEM_INTEIRA}, apenas as arestas da árvore são seguidas, e a mensagem
+ * é rejeitada no primeiro caractere que não continua nenhum apelido.</li>
+ * <li>No modo {@link Modo#CONTIDA}, os links de falha permitem encontrar um apelido em qualquer ponto
+ * da mensagem. Só conta a ocorrência de um apelido como palavra inteira: "SP" não é encontrado
+ * dentro de "espero".</li>
+ * </ul>
+ * As arestas ficam em vetores ordenados por nó, consultados por busca binária. Como o
+ * {@link AnswerMatcher}, uma instância reutiliza um buffer e não deve ser usada por várias threads ao mesmo tempo.
+ *
+ * @author Lucas
+ */
+public final class AliasMatcher {
+
+    /**
+     * Onde um apelido precisa aparecer para que a mensagem seja aceita.
+     */
+    public enum Modo {
+        /** A mensagem inteira deve ser um dos apelidos. */
+        MENSAGEM_INTEIRA,
+        /** Um dos apelidos deve aparecer na mensagem como palavra (ou expressão) inteira. */
+        CONTIDA
+    }
+
+    private static final int RAIZ = 0;
+
+    private final Modo modo;
+
+    /** Os apelidos, na forma original e sem repetições. */
+    private final List<String> apelidos;
+
+    /** Para cada nó, o índice da sua primeira aresta em {@link #rotulos}; o nó {@code n} vai até {@code inicioArestas[n + 1]}. */
+    private final int[] inicioArestas;
+
+    /** Os caracteres das arestas, ordenados dentro de cada nó. */
+    private final char[] rotulos;
+
+    /** O nó de destino de cada aresta. */
+    private final int[] destinos;
+
+    /** O link de falha de cada nó (o maior sufixo próprio que também é um prefixo de algum apelido). */
+    private final int[] falhas;
+
+    /** O tamanho do apelido que termina em cada nó, ou 0 se nenhum termina nele. */
+    private final int[] comprimentos;
+
+    /** O próximo nó, seguindo os links de falha, onde termina algum apelido (ou -1). */
+    private final int[] proximaSaida;
+
+    /** O buffer reutilizado para a forma canônica das mensagens. */
+    private final StringBuilder buffer = new StringBuilder();
+
+    private AliasMatcher(List<String> apelidos, Modo modo) {
+        this.modo = modo;
+
+        // 1. Monta a árvore de prefixos com mapas, que depois são compactados em vetores.
+        List<TreeMap<Character, Integer>> filhos = new ArrayList<>();
+        List<Integer> terminais = new ArrayList<>();
+        filhos.add(new TreeMap<>());
+        terminais.add(0);
+
+        List<String> unicos = new ArrayList<>();
+        for (String apelido : apelidos) {
+            String chave = AnswerMatcher.compilar(apelido, AnswerMatcher.Modo.ESPACOS_COLAPSADOS).getChave();
+            if (chave.isEmpty()) {
+                continue;
+            }
+            int no = RAIZ;
+            for (int i = 0; i < chave.length(); i++) {
+                Integer proximo = filhos.get(no).get(chave.charAt(i));
+                if (proximo == null) {
+                    proximo = filhos.size();
+                    filhos.add(new TreeMap<>());
+                    terminais.add(0);
+                    filhos.get(no).put(chave.charAt(i), proximo);
+                }
+                no = proximo;
+            }
+            if (terminais.get(no) == 0) {
+                terminais.set(no, chave.length());
+                unicos.add(apelido.trim());
+            }
+        }
+        if (unicos.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma resposta válida foi informada.");
+        }
+        this.apelidos = Collections.unmodifiableList(unicos);
+
+        int totalNos = filhos.size();
+        int totalArestas = totalNos - 1;
+        this.inicioArestas = new int[totalNos + 1];
+        this.rotulos = new char[totalArestas];
+        this.destinos = new int[totalArestas];
+        this.comprimentos = new int[totalNos];
+        int aresta = 0;
+        for (int no = 0; no < totalNos; no++) {
+            inicioArestas[no] = aresta;
+            comprimentos[no] = terminais.get(no);
+            for (Map.Entry<Character, Integer> e : filhos.get(no).entrySet()) {
+                rotulos[aresta] = e.getKey();
+                destinos[aresta] = e.getValue();
+                aresta++;
+            }
+        }
+        inicioArestas[totalNos] = aresta;
+
+        // 2. Calcula os links de falha e de saída em largura, como no algoritmo de Aho-Corasick.
+        this.falhas = new int[totalNos];
+        this.proximaSaida = new int[totalNos];
+        Arrays.fill(proximaSaida, -1);
+        ArrayDeque<Integer> fila = new ArrayDeque<>();
+        for (int a = inicioArestas[RAIZ]; a < inicioArestas[RAIZ + 1]; a++) {
+            falhas[destinos[a]] = RAIZ;
+            fila.add(destinos[a]);
+        }
+        while (!fila.isEmpty()) {
+            int no = fila.poll();
+            for (int a = inicioArestas[no]; a < inicioArestas[no + 1]; a++) {
+                int filho = destinos[a];
+                int f = falhas[no];
+                int destino;
+                while ((destino = transicao(f, rotulos[a])) < 0 && f != RAIZ) {
+                    f = falhas[f];
+                }
+                falhas[filho] = destino >= 0 ? destino : RAIZ;
+                int falha = falhas[filho];
+                proximaSaida[filho] = comprimentos[falha] > 0 ? falha : proximaSaida[falha];
+                fila.add(filho);
+            }
+        }
+    }
+
+    /**
+     * Compila os apelidos aceitos em um autômato.
+     *
+     * @param apelidos As respostas aceitas. Repetições (após a remoção de acentos) e textos vazios são ignorados.
+     * @param modo     Onde os apelidos precisam aparecer na mensagem.
+     * @return O autômato, a ser guardado pelo jogo.
+     * @throws IllegalArgumentException Se nenhum apelido válido for informado.
+     */
+    public static AliasMatcher compilar(List<String> apelidos, Modo modo) {
+        return new AliasMatcher(apelidos, modo);
+    }
+
+    /**
+     * Retorna as respostas aceitas, na forma original, sem repetições e na ordem informada.
+     *
+     * @return A lista de apelidos.
+     */
+    public List<String> getApelidos() {
+        return apelidos;
+    }
+
+    /**
+     * Retorna onde os apelidos precisam aparecer na mensagem.
+     *
+     * @return O modo do autômato.
+     */
+    public Modo getModo() {
+        return modo;
+    }
+
+    /**
+     * Verifica se a mensagem corresponde a algum dos apelidos, segundo o modo.
+     *
+     * @param mensagem O texto digitado pelo jogador.
+     * @return {@code true} se algum apelido for aceito.
+     */
+    public boolean corresponde(CharSequence mensagem) {
+        buffer.setLength(0);
+        boolean espacoPendente = false;
+        int no = RAIZ;
+        // No modo CONTIDA: um apelido terminou no caractere anterior e só falta confirmar que ele termina uma palavra.
+        boolean ocorrenciaPendente = false;
+
+        for (int i = 0; i < mensagem.length(); i++) {
+            char original = mensagem.charAt(i);
+            if (Character.isWhitespace(original)) {
+                espacoPendente = buffer.length() > 0;
+                continue;
+            }
+            if (espacoPendente) {
+                espacoPendente = false;
+                buffer.append(' ');
+                if (ocorrenciaPendente) {
+                    return true;
+                }
+                no = avancar(no, ' ');
+                if (no < 0) {
+                    return false;
+                }
+                ocorrenciaPendente = modo == Modo.CONTIDA && ocorrenciaTerminadaEm(no, buffer.length());
+            }
+
+            int inicio = buffer.length();
+            i = NormalizadorDeTexto.normalizarCaractere(mensagem, i, buffer);
+            for (int j = inicio; j < buffer.length(); j++) {
+                char c = buffer.charAt(j);
+                if (ocorrenciaPendente && !Character.isLetterOrDigit(c)) {
+                    return true;
+                }
+                no = avancar(no, c);
+                if (no < 0) {
+                    return false;
+                }
+                ocorrenciaPendente = modo == Modo.CONTIDA && ocorrenciaTerminadaEm(no, j + 1);
+            }
+        }
+
+        if (modo == Modo.MENSAGEM_INTEIRA) {
+            return comprimentos[no] > 0;
+        }
+        return ocorrenciaPendente;
+    }
+
+    /**
+     * Avança o autômato com um caractere.
+     *
+     * @return O novo nó, ou -1 se, no modo {@link Modo#MENSAGEM_INTEIRA}, nenhum apelido continua com o caractere.
+     */
+    private int avancar(int no, char c) {
+        if (modo == Modo.MENSAGEM_INTEIRA) {
+            return transicao(no, c);
+        }
+        int destino;
+        while ((destino = transicao(no, c)) < 0 && no != RAIZ) {
+            no = falhas[no];
+        }
+        return destino >= 0 ? destino : RAIZ;
+    }
+
+    /**
+     * Verifica se algum apelido termina no último caractere lido (nó atual) e começa no início
+     * de uma palavra. O fim da palavra é confirmado pelo próximo caractere.
+     *
+     * @param no  O nó atual do autômato.
+     * @param fim A posição, no buffer, logo após o último caractere lido.
+     */
+    private boolean ocorrenciaTerminadaEm(int no, int fim) {
+        for (int saida = comprimentos[no] > 0 ? no : proximaSaida[no]; saida >= 0; saida = proximaSaida[saida]) {
+            int inicio = fim - comprimentos[saida];
+            if (inicio == 0 || !Character.isLetterOrDigit(buffer.charAt(inicio - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Segue a aresta da árvore que sai do nó com o caractere, se existir.
+     *
+     * @return O nó de destino, ou -1.
+     */
+    private int transicao(int no, char c) {
+        int baixo = inicioArestas[no];
+        int alto = inicioArestas[no + 1] - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            char rotulo = rotulos[meio];
+            if (rotulo < c) {
+                baixo = meio + 1;
+            } else if (rotulo > c) {
+                alto = meio - 1;
+            } else {
+                return destinos[meio];
+            }
+        }
+        return -1;
+    }
+}
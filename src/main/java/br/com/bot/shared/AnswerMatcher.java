@@ -0,0 +1,301 @@
+package br.com.bot.shared;
+
+import br.com.bot.utils.NormalizadorDeTexto;
+
+import java.util.Arrays;
+
+/**
+ * Compara as mensagens dos jogadores com a resposta correta de um jogo.
+ * <p>
+ * A resposta correta é convertida para a sua forma canônica uma única vez, na criação do jogo.
+ * Cada tentativa é convertida caractere a caractere, com o hash calculado na mesma passada, e
+ * a comparação termina assim que a tentativa fica maior que a resposta. Só quando o tamanho e o
+ * hash coincidem os caracteres são comparados, de modo que uma resposta errada custa quase nada.
+ * <p>
+ * Opcionalmente, aceita respostas com alguns erros de digitação (distância de Levenshtein limitada).
+ * A distância é calculada pelo algoritmo bit-paralelo de Myers: a resposta cabe em um único
+ * {@code long} (até {@value #TAMANHO_MAXIMO_TOLERANTE} caracteres) e cada caractere da tentativa
+ * custa algumas operações sobre ele, sem matriz de programação dinâmica. Respostas maiores só
+ * são aceitas se forem exatas.
+ * <p>
+ * Uma instância guarda um buffer interno e não deve ser usada por várias threads ao mesmo tempo.
+ * Isso nunca acontece em um jogo, já que as mensagens de um canal são processadas em ordem,
+ * uma de cada vez.
+ *
+ * @author Lucas
+ */
+public final class AnswerMatcher {
+
+    /**
+     * As regras de comparação. Cada modo inclui as regras dos modos anteriores.
+     */
+    public enum Modo {
+        /** A tentativa deve ser idêntica à resposta. */
+        EXATO,
+        /** Ignora maiúsculas e minúsculas. */
+        IGNORAR_MAIUSCULAS,
+        /** Ignora também os acentos ("Ação" = "acao"). */
+        SEM_ACENTOS,
+        /** Ignora também os espaços no início e no fim, e trata sequências de espaços como um só. */
+        ESPACOS_COLAPSADOS
+    }
+
+    /** O tamanho máximo de resposta para o qual erros de digitação são tolerados. */
+    public static final int TAMANHO_MAXIMO_TOLERANTE = 64;
+
+    private final Modo modo;
+
+    /** A resposta correta, na forma canônica do modo. */
+    private final String chave;
+
+    /** O hash da chave, no mesmo formato de {@link String#hashCode()}. */
+    private final int hashDaChave;
+
+    /** O buffer reutilizado para a forma canônica das tentativas. */
+    private final StringBuilder buffer;
+
+    /** O hash do conteúdo do buffer, calculado durante a conversão. */
+    private int hashDoBuffer;
+
+    /**
+     * Para cada caractere ASCII, o vetor de bits das posições da chave onde ele aparece
+     * (a tabela "Peq" do algoritmo de Myers). Nulo se a chave for grande demais.
+     */
+    private final long[] posicoesAscii;
+
+    /** Os demais caracteres da chave e os seus vetores de bits, em paralelo. */
+    private final char[] outrosCaracteres;
+    private final long[] posicoesOutros;
+
+    private AnswerMatcher(String resposta, Modo modo) {
+        this.modo = modo;
+        this.buffer = new StringBuilder(resposta.length());
+        canonizar(resposta, Integer.MAX_VALUE);
+        this.chave = buffer.toString();
+        this.hashDaChave = hashDoBuffer;
+
+        if (chave.length() <= TAMANHO_MAXIMO_TOLERANTE) {
+            this.posicoesAscii = new long[128];
+            char[] outros = new char[chave.length()];
+            long[] posicoes = new long[chave.length()];
+            int totalOutros = 0;
+            for (int i = 0; i < chave.length(); i++) {
+                char c = chave.charAt(i);
+                if (c < 128) {
+                    posicoesAscii[c] |= 1L << i;
+                    continue;
+                }
+                int k = 0;
+                while (k < totalOutros && outros[k] != c) {
+                    k++;
+                }
+                if (k == totalOutros) {
+                    outros[totalOutros++] = c;
+                }
+                posicoes[k] |= 1L << i;
+            }
+            this.outrosCaracteres = Arrays.copyOf(outros, totalOutros);
+            this.posicoesOutros = Arrays.copyOf(posicoes, totalOutros);
+        } else {
+            this.posicoesAscii = null;
+            this.outrosCaracteres = null;
+            this.posicoesOutros = null;
+        }
+    }
+
+    /**
+     * Prepara a comparação com uma resposta correta.
+     *
+     * @param resposta A resposta correta do jogo.
+     * @param modo     A regra de comparação.
+     * @return O comparador, a ser guardado pelo jogo.
+     */
+    public static AnswerMatcher compilar(String resposta, Modo modo) {
+        return new AnswerMatcher(resposta, modo);
+    }
+
+    /**
+     * Retorna a resposta correta na forma canônica do modo (ex: sem acentos e em minúsculas).
+     *
+     * @return A resposta canônica.
+     */
+    public String getChave() {
+        return chave;
+    }
+
+    /**
+     * Retorna a regra de comparação usada.
+     *
+     * @return O modo do comparador.
+     */
+    public Modo getModo() {
+        return modo;
+    }
+
+    /**
+     * Verifica se uma tentativa corresponde exatamente (segundo o modo) à resposta correta.
+     *
+     * @param tentativa O texto digitado pelo jogador.
+     * @return {@code true} se a tentativa estiver correta segundo o modo.
+     */
+    public boolean corresponde(CharSequence tentativa) {
+        return corresponde(tentativa, 0);
+    }
+
+    /**
+     * Verifica se uma tentativa corresponde à resposta correta, aceitando alguns erros de digitação.
+     *
+     * @param tentativa O texto digitado pelo jogador.
+     * @param maxErros  O número máximo de caracteres trocados, faltando ou sobrando. Ignorado
+     *                  (exige a resposta exata) se a resposta tiver mais de {@value #TAMANHO_MAXIMO_TOLERANTE} caracteres.
+     * @return {@code true} se a tentativa estiver correta segundo o modo e a tolerância.
+     */
+    public boolean corresponde(CharSequence tentativa, int maxErros) {
+        int tolerancia = posicoesAscii == null ? 0 : Math.max(0, maxErros);
+        if (modo == Modo.EXATO && tolerancia == 0) {
+            if (tentativa.length() != chave.length()) {
+                return false;
+            }
+            if (tentativa instanceof String && tentativa.hashCode() != hashDaChave) {
+                return false; // O hash das Strings fica guardado após o primeiro cálculo.
+            }
+            return chave.contentEquals(tentativa);
+        }
+        if ((modo == Modo.EXATO || modo == Modo.IGNORAR_MAIUSCULAS)
+                && Math.abs(tentativa.length() - chave.length()) > tolerancia) {
+            // Nesses modos cada caractere vira exatamente um, então a diferença de tamanho já é um número mínimo de erros.
+            return false;
+        }
+
+        if (!canonizar(tentativa, chave.length() + tolerancia)) {
+            return false;
+        }
+        if (buffer.length() == chave.length() && hashDoBuffer == hashDaChave && conteudoIgualAChave()) {
+            return true;
+        }
+        return tolerancia > 0 && distanciaLimitada(tolerancia) <= tolerancia;
+    }
+
+    /**
+     * Compara o conteúdo do buffer com a chave, caractere a caractere.
+     */
+    private boolean conteudoIgualAChave() {
+        for (int i = 0; i < buffer.length(); i++) {
+            if (buffer.charAt(i) != chave.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calcula a distância de Levenshtein entre a chave e o conteúdo do buffer pelo algoritmo
+     * bit-paralelo de Myers (na formulação de Hyyrö), parando assim que ela não puder mais
+     * ficar dentro do limite.
+     *
+     * @param limite A maior distância que interessa.
+     * @return A distância, ou {@code limite + 1} se ela for maior que o limite.
+     */
+    private int distanciaLimitada(int limite) {
+        int m = chave.length();
+        int n = buffer.length();
+        if (Math.abs(n - m) > limite) {
+            return limite + 1;
+        }
+        if (m == 0) {
+            return n;
+        }
+
+        long mascara = m == 64 ? -1L : (1L << m) - 1;
+        long ultimoBit = 1L << (m - 1);
+        long pv = mascara; // Diferenças verticais +1 (a primeira coluna vale 0, 1, 2, ..., m)
+        long mv = 0;       // Diferenças verticais -1
+        int distancia = m;
+
+        for (int j = 0; j < n; j++) {
+            long eq = posicoesDe(buffer.charAt(j));
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & ultimoBit) != 0) {
+                distancia++;
+            } else if ((mh & ultimoBit) != 0) {
+                distancia--;
+            }
+            // A primeira linha vale 0, 1, 2, ..., n: cada coluna começa com uma diferença horizontal +1.
+            ph = (ph << 1) | 1;
+            mh = mh << 1;
+            pv = (mh | ~(xv | ph)) & mascara;
+            mv = ph & xv & mascara;
+
+            // Cada caractere restante pode reduzir a distância em no máximo 1.
+            if (distancia - (n - j - 1) > limite) {
+                return limite + 1;
+            }
+        }
+        return distancia;
+    }
+
+    /**
+     * Retorna o vetor de bits das posições da chave onde o caractere aparece.
+     */
+    private long posicoesDe(char c) {
+        if (c < 128) {
+            return posicoesAscii[c];
+        }
+        for (int k = 0; k < outrosCaracteres.length; k++) {
+            if (outrosCaracteres[k] == c) {
+                return posicoesOutros[k];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Escreve a forma canônica do texto no buffer, calculando o seu hash.
+     *
+     * @param texto  O texto a ser convertido.
+     * @param limite O tamanho máximo aceito para o resultado.
+     * @return {@code false} se o resultado ultrapassou o limite (a conversão é interrompida).
+     */
+    private boolean canonizar(CharSequence texto, int limite) {
+        buffer.setLength(0);
+        int hash = 0;
+        boolean colapsar = modo == Modo.ESPACOS_COLAPSADOS;
+        boolean espacoPendente = false;
+
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (colapsar && Character.isWhitespace(c)) {
+                // O espaço só é escrito antes do próximo caractere visível, o que já remove os das pontas.
+                espacoPendente = buffer.length() > 0;
+                continue;
+            }
+            if (espacoPendente) {
+                buffer.append(' ');
+                hash = 31 * hash + ' ';
+                espacoPendente = false;
+            }
+
+            int inicio = buffer.length();
+            if (modo == Modo.EXATO) {
+                buffer.append(c);
+            } else if (modo == Modo.IGNORAR_MAIUSCULAS) {
+                // Mesma regra de String.equalsIgnoreCase.
+                buffer.append(Character.toLowerCase(Character.toUpperCase(c)));
+            } else {
+                i = NormalizadorDeTexto.normalizarCaractere(texto, i, buffer);
+            }
+
+            if (buffer.length() > limite) {
+                return false;
+            }
+            for (int j = inicio; j < buffer.length(); j++) {
+                hash = 31 * hash + buffer.charAt(j);
+            }
+        }
+        hashDoBuffer = hash;
+        return true;
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.bot.shared;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+
+/**
+ * O que a ação de uma fase recebe: a partida, os IDs do seu canal e os meios de avançar
+ * ou abortar o roteiro. Guarda apenas o JDA e os IDs, nunca o evento da interação.
+ * <p>
+ * Os métodos podem ser chamados de qualquer thread (ex: dentro do {@code queue()} de uma mensagem);
+ * chamadas feitas depois que a fase já terminou são ignoradas.
+ *
+ * @author Lucas
+ */
+public final class ContextoDaFase {
+
+    private final MotorDeFases motor;
+    private final RoteiroDeFases roteiro;
+    private final int indice;
+    private final JDA jda;
+    private final long guildId;
+    private final long channelId;
+    private final Game game;
+
+    ContextoDaFase(MotorDeFases motor, RoteiroDeFases roteiro, int indice, JDA jda, long guildId, long channelId, Game game) {
+        this.motor = motor;
+        this.roteiro = roteiro;
+        this.indice = indice;
+        this.jda = jda;
+        this.guildId = guildId;
+        this.channelId = channelId;
+        this.game = game;
+    }
+
+    public Game getGame() { return game; }
+    public JDA getJda() { return jda; }
+    public long getGuildId() { return guildId; }
+    public long getChannelId() { return channelId; }
+    RoteiroDeFases getRoteiro() { return roteiro; }
+    int getIndice() { return indice; }
+
+    /**
+     * Localiza o canal da partida.
+     *
+     * @return O canal, ou {@code null} se ele não existir mais (ex: foi apagado).
+     */
+    public MessageChannel getCanal() {
+        return jda.getChannelById(MessageChannel.class, channelId);
+    }
+
+    /**
+     * Avança para a próxima fase. Usado pelas fases declaradas com {@link RoteiroDeFases#AO_CONCLUIR}.
+     */
+    public void concluir() {
+        concluirApos(0);
+    }
+
+    /**
+     * Avança para a próxima fase depois de um atraso, contado a partir desta chamada.
+     *
+     * @param atrasoMs O atraso, em milissegundos.
+     */
+    public void concluirApos(long atrasoMs) {
+        motor.avancar(this, atrasoMs);
+    }
+
+    /**
+     * Encerra a partida sem passar pelas fases restantes (ex: a mensagem do jogo não pôde ser enviada).
+     */
+    public void abortar() {
+        motor.abortar(this);
+    }
+}
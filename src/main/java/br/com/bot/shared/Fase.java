@@ -0,0 +1,25 @@
+package br.com.bot.shared;
+
+/**
+ * As fases do ciclo de vida de uma partida, na ordem em que acontecem.
+ * <p>
+ * Um {@link RoteiroDeFases} declara quais delas o jogo usa; as fases omitidas são puladas.
+ * {@link #FINALIZADO} não é declarada: o jogo entra nela quando é removido do
+ * {@link br.com.bot.core.GameManager}, seja por vitória, tempo esgotado ou cancelamento.
+ *
+ * @author Lucas
+ */
+public enum Fase {
+    /** O aviso de que o jogo vai começar foi enviado; o canal já está reservado. */
+    PREPARAR,
+    /** O conteúdo do jogo está sendo exibido (ex: a string a ser memorizada). */
+    MOSTRAR,
+    /** O conteúdo exibido está sendo ocultado. */
+    OCULTAR,
+    /** O jogo aceita respostas. */
+    RESPONDER,
+    /** O tempo para responder acabou. */
+    ESGOTADO,
+    /** A partida terminou e não está mais registrada no canal. */
+    FINALIZADO
+}
@@ -3,53 +3,200 @@ package br.com.bot.shared;
 import br.com.bot.core.ConfigManager;
 import br.com.bot.core.GameManager;
 import br.com.bot.core.ServerConfig;
+import br.com.bot.utils.Snowflakes;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Classe base abstrata para o estado de todos os jogos.
  * <p>
- * Contém a lógica e os campos comuns a qualquer partida, como tempo limite,
- * tempo de início e a regra de quem pode responder, que é lida
- * a partir das configurações do servidor.
+ * Contém a lógica e os campos comuns a qualquer partida, como o tempo limite
+ * e a regra de quem pode responder, que é lida
+ * a partir das configurações do servidor vigentes no início da partida.
+ * <p>
+ * O tempo de reação dos jogadores é medido pelo relógio do Discord: do instante em que a mensagem
+ * que inicia o jogo foi publicada até o instante de criação da resposta (ambos extraídos dos
+ * snowflakes). Assim, a fila de eventos e a carga do bot não afetam a medida.
+ * <p>
+ * O desfecho é decidido uma única vez: o estado passa de "em andamento" para "encerrado" por um
+ * compare-and-set, e só quem fez essa transição finaliza o jogo e anuncia o resultado. Entre várias
+ * respostas corretas, vence a de menor snowflake (a primeira enviada segundo o Discord), não a que
+ * chegou primeiro ao bot (ver {@link #reivindicarVitoria}).
  *
  * @author Lucas
  */
 public abstract class Game {
+    /**
+     * O "criador" dos jogos cuja resposta não foi escolhida por ninguém (ex: uma palavra sorteada do banco).
+     * Nenhum usuário do Discord tem este ID, então o anfitrião também pode jogar.
+     */
+    public static final long SEM_CRIADOR = 0L;
+
+    /**
+     * Quanto tempo, após a primeira resposta correta, a vitória aguarda respostas enviadas antes dela
+     * que ainda não chegaram (o Discord pode entregar mensagens quase simultâneas fora de ordem).
+     */
+    public static final long JANELA_DE_DESEMPATE_MS = 100;
+
+    private static final int EM_ANDAMENTO = 0;
+    private static final int ENCERRADO = 1;
+
     private final long tempoLimiteMs;
-    private final long tempoInicio;
-    private final String issuerId;
+    /** O instante, no relógio do Discord, em que o jogo ficou visível no canal, ou 0 se ainda for desconhecido. */
+    private volatile long inicioNoDiscordMs;
+    private final long issuerId;
+    /** A fase atual do ciclo de vida, conduzida pelo {@link MotorDeFases}, ou {@code null} antes da primeira. */
+    private volatile Fase fase;
+    /** O desfecho da partida: passa de {@link #EM_ANDAMENTO} para {@link #ENCERRADO} uma única vez. */
+    private final AtomicInteger estado = new AtomicInteger(EM_ANDAMENTO);
+    /** A resposta vencedora ainda não confirmada: a de menor snowflake entre as corretas recebidas. */
+    private final AtomicReference<MessageReceivedEvent> candidato = new AtomicReference<>();
+    /** O desfecho registrado pelo jogo antes de ser finalizado, ou {@code null} se não houve vencedor. */
+    private volatile ResultadoDaPartida resultado;
+    /** A configuração do servidor no momento em que o jogo foi criado. */
+    private ServerConfig config = ServerConfig.PADRAO;
 
     /**
      * Construtor para um novo estado de jogo.
      * @param tempoLimiteMs O tempo limite para o jogo em milissegundos.
      * @param issuerId O ID do usuário que iniciou o jogo.
      */
-    public Game(long tempoLimiteMs, String issuerId) {
+    public Game(long tempoLimiteMs, long issuerId) {
         this.tempoLimiteMs = tempoLimiteMs;
-        this.tempoInicio = System.currentTimeMillis();
         this.issuerId = issuerId;
     }
 
     public long getTempoLimiteMs() { return tempoLimiteMs; }
-    public long getTempoInicio() { return tempoInicio; }
-    public String getIssuerId() { return issuerId; }
+    public long getIssuerId() { return issuerId; }
+    public ServerConfig getConfig() { return config; }
+    public Fase getFase() { return fase; }
+    public ResultadoDaPartida getResultado() { return resultado; }
+
+    /**
+     * Retorna o tipo do jogo, usado para separar os rankings e as estatísticas.
+     *
+     * @return O tipo do jogo.
+     */
+    public abstract TipoDeJogo getTipo();
+
+    /**
+     * Registra o desfecho da partida. Deve ser chamado por quem encerrou a partida, antes de finalizá-la,
+     * para que os ouvintes de {@link Fase#FINALIZADO} o recebam.
+     *
+     * @param resultado O resultado da partida.
+     */
+    protected void registrarResultado(ResultadoDaPartida resultado) {
+        this.resultado = resultado;
+    }
+
+    void definirFase(Fase fase) { this.fase = fase; }
+
+    /**
+     * Verifica se o desfecho da partida já foi decidido.
+     *
+     * @return {@code true} se a partida já foi encerrada.
+     */
+    public boolean isEncerrado() {
+        return estado.get() == ENCERRADO;
+    }
+
+    /**
+     * Encerra a partida, se ela ainda estiver em andamento. Quem recebe {@code true} é o único
+     * responsável pelo desfecho (finalizar o jogo e anunciar o resultado).
+     *
+     * @return {@code true} se esta chamada encerrou a partida; {@code false} se ela já estava encerrada.
+     */
+    public boolean encerrar() {
+        return estado.compareAndSet(EM_ANDAMENTO, ENCERRADO);
+    }
+
+    /**
+     * Verifica se há uma resposta vencedora aguardando confirmação. Jogos com estado que muda a cada
+     * jogada (ex: Forca) devem ignorar novas jogadas enquanto isso.
+     *
+     * @return {@code true} se alguma resposta correta já foi registrada.
+     */
+    protected boolean isVitoriaPendente() {
+        return candidato.get() != null;
+    }
+
+    /**
+     * Guarda a configuração do servidor vigente no início do jogo. Chamado antes de o jogo
+     * ser registrado como ativo; as respostas usam esta mesma configuração até o fim da partida.
+     *
+     * @param config A configuração atual do servidor.
+     */
+    public void setConfig(ServerConfig config) { this.config = config; }
+
+    /**
+     * Registra o instante, no relógio do Discord, em que o jogo ficou visível no canal
+     * (ex: a criação da mensagem de início, ou a edição que revela a pergunta).
+     *
+     * @param instanteMs O instante, em milissegundos desde a época Unix.
+     */
+    public void marcarInicioNoDiscord(long instanteMs) {
+        this.inicioNoDiscordMs = instanteMs;
+    }
+
+    /**
+     * Registra a mensagem que iniciou o jogo; o seu snowflake indica quando o jogo ficou visível.
+     *
+     * @param mensagemId O ID da mensagem de início.
+     */
+    public void marcarMensagemDeInicio(long mensagemId) {
+        marcarInicioNoDiscord(Snowflakes.instante(mensagemId));
+    }
+
+    /**
+     * Calcula o tempo de reação de uma resposta pelo relógio do Discord. Enquanto o instante de início
+     * no Discord não for conhecido, o tempo não é medido: misturar o relógio local com o do Discord
+     * distorceria a classificação e as estatísticas.
+     *
+     * @param respostaId O ID (snowflake) da mensagem de resposta.
+     * @return O tempo de reação, em milissegundos (nunca negativo), ou {@link ResultadoDaPartida#SEM_TEMPO}
+     *         se o instante de início ainda não for conhecido.
+     */
+    public long calcularTempoDeReacaoMs(long respostaId) {
+        long inicio = inicioNoDiscordMs;
+        if (inicio == 0) {
+            return ResultadoDaPartida.SEM_TEMPO;
+        }
+        return Math.max(0, Snowflakes.instante(respostaId) - inicio);
+    }
+
+    /**
+     * Descreve o tempo de reação para as mensagens de vitória.
+     *
+     * @param tempoDeReacaoMs O tempo de reação, ou {@link ResultadoDaPartida#SEM_TEMPO}.
+     * @return O trecho " em X.XX segundos", ou vazio se o tempo não foi medido.
+     */
+    protected static String emSegundos(long tempoDeReacaoMs) {
+        if (tempoDeReacaoMs == ResultadoDaPartida.SEM_TEMPO) {
+            return "";
+        }
+        return String.format(" em %.2f segundos", tempoDeReacaoMs / 1000.0);
+    }
 
     /**
      * Processa uma tentativa de resposta de um jogador.
      * Este método contém a lógica de verificação para bloquear o criador do jogo de responder,
-     * baseando-se na configuração salva para o servidor específico.
+     * baseando-se na configuração salva para o servidor específico. Mensagens enviadas fora da
+     * fase {@link Fase#RESPONDER} (ex: durante o preparo) são ignoradas.
      *
      * @param event O evento da mensagem recebida.
      * @param gameManager O gerenciador de jogos ativos.
      * @param configManager O gerenciador de configurações de servidor.
      */
     public void processarResposta(MessageReceivedEvent event, GameManager gameManager, ConfigManager configManager) {
-        // Pega a configuração específica do servidor onde a mensagem foi enviada.
-        ServerConfig config = configManager.getConfig(event.getGuild().getId());
-
-        // A verificação é baseada SOMENTE na configuração daquele servidor.
+        if (fase != Fase.RESPONDER || estado.get() == ENCERRADO) {
+            return;
+        }
+        // A verificação é baseada SOMENTE na configuração daquele servidor, capturada no início do jogo.
         if (!config.isAllowCreatorToPlay()) {
-            if (event.getAuthor().getId().equals(getIssuerId())) {
+            if (event.getAuthor().getIdLong() == issuerId) {
                 return; // Bloqueia o criador se a configuração do servidor assim o exigir.
             }
         }
@@ -58,6 +205,74 @@ public abstract class Game {
         processarRespostaDoJogo(event, gameManager, configManager);
     }
 
+    /**
+     * Registra uma resposta correta como candidata à vitória. A primeira candidata agenda a decisão para
+     * daqui a {@link #JANELA_DE_DESEMPATE_MS}, no timer do canal (substituindo o tempo limite); até lá,
+     * uma candidata com snowflake menor substitui a atual. Na decisão, a partida é encerrada e
+     * {@link #anunciarVitoria} é chamado uma única vez, com a resposta de menor snowflake.
+     * <p>
+     * Respostas que chegam depois de uma candidata mais antiga, ou depois do encerramento,
+     * são descartadas sem alocar memória.
+     *
+     * @param event O evento da resposta correta.
+     * @param gameManager O gerenciador de jogos ativos.
+     */
+    protected final void reivindicarVitoria(MessageReceivedEvent event, GameManager gameManager) {
+        if (estado.get() == ENCERRADO) {
+            return;
+        }
+        long respostaId = event.getMessageIdLong();
+        MessageReceivedEvent atual;
+        do {
+            atual = candidato.get();
+            if (atual != null && atual.getMessageIdLong() <= respostaId) {
+                return; // Uma resposta enviada antes já reivindicou a vitória.
+            }
+        } while (!candidato.compareAndSet(atual, event));
+
+        if (atual == null) {
+            long guildId = event.getGuild().getIdLong();
+            long channelId = event.getChannel().getIdLong();
+            gameManager.agendar(guildId, channelId, JANELA_DE_DESEMPATE_MS, TimeUnit.MILLISECONDS,
+                    () -> decidirVitoria(guildId, channelId, gameManager));
+        }
+    }
+
+    /**
+     * Confirma a vitória da candidata atual, se a partida ainda não tiver sido encerrada por outro
+     * caminho (tempo esgotado ou cancelamento).
+     */
+    private void decidirVitoria(long guildId, long channelId, GameManager gameManager) {
+        if (!encerrar()) {
+            return;
+        }
+        MessageReceivedEvent vencedor = candidato.get();
+        registrarResultado(criarResultadoDaVitoria(vencedor));
+        if (gameManager.finalizarJogo(guildId, channelId, this)) {
+            anunciarVitoria(vencedor, gameManager);
+        }
+    }
+
+    /**
+     * Cria o resultado da partida vencida por uma resposta. Por padrão, registra o tempo de reação do vencedor.
+     *
+     * @param vencedor O evento da resposta vencedora.
+     * @return O resultado da partida.
+     */
+    protected ResultadoDaPartida criarResultadoDaVitoria(MessageReceivedEvent vencedor) {
+        return ResultadoDaPartida.vitoria(getTipo(), vencedor.getAuthor().getIdLong(), calcularTempoDeReacaoMs(vencedor.getMessageIdLong()));
+    }
+
+    /**
+     * Anuncia o vencedor. Chamado uma única vez, no trabalhador do canal, com a resposta correta
+     * de menor snowflake registrada por {@link #reivindicarVitoria}. O jogo já foi finalizado.
+     *
+     * @param vencedor O evento da resposta vencedora.
+     * @param gameManager O gerenciador de jogos ativos.
+     */
+    protected void anunciarVitoria(MessageReceivedEvent vencedor, GameManager gameManager) {
+    }
+
     /**
      * Método abstrato que as subclasses devem implementar com a lógica de validação
      * específica para cada tipo de jogo.
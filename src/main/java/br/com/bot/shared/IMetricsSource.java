@@ -0,0 +1,23 @@
+package br.com.bot.shared;
+
+/**
+ * A interface de contrato para componentes que expõem métricas de desempenho.
+ * Permite que o comando de diagnóstico {@code /metricas} reúna o estado de todos
+ * os componentes sem conhecer cada um deles individualmente.
+ *
+ * @author Lucas
+ */
+public interface IMetricsSource {
+
+    /**
+     * Retorna o nome do componente, usado como título na exibição das métricas.
+     * @return O nome legível do componente.
+     */
+    String getMetricsName();
+
+    /**
+     * Gera um resumo textual das métricas atuais do componente.
+     * @return Um texto curto (uma ou mais linhas) com as métricas formatadas.
+     */
+    String getMetricsSummary();
+}
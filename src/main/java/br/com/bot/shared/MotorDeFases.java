@@ -0,0 +1,148 @@
+package br.com.bot.shared;
+
+import br.com.bot.core.GameManager;
+import net.dv8tion.jda.api.JDA;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conduz as partidas pelas fases declaradas em um {@link RoteiroDeFases}.
+ * <p>
+ * A partida é registrada no canal já na primeira fase, então o canal fica reservado durante o
+ * preparo e o {@code /cancelar} funciona em qualquer fase. Cada fase é agendada no único timer do
+ * canal no {@link GameManager}; finalizar o jogo cancela o timer e interrompe o roteiro. As ações
+ * e as transições acontecem no trabalhador do canal, em ordem com as respostas dos jogadores.
+ * <p>
+ * Respostas só são aceitas na fase {@link Fase#RESPONDER} (ver {@link Game#processarResposta}).
+ *
+ * @author Lucas
+ */
+public class MotorDeFases {
+
+    private final GameManager gameManager;
+    private final List<OuvinteDeFases> ouvintes = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param gameManager O gerenciador de jogos, dono dos registros e dos timers dos canais.
+     */
+    public MotorDeFases(GameManager gameManager) {
+        this.gameManager = gameManager;
+    }
+
+    /**
+     * Registra um ouvinte das transições de fase de todas as partidas.
+     *
+     * @param ouvinte O ouvinte.
+     */
+    public void adicionarOuvinte(OuvinteDeFases ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    /**
+     * Registra a partida no canal e inicia a primeira fase do roteiro.
+     *
+     * @param roteiro   O roteiro do tipo de jogo.
+     * @param jda       A instância do JDA, usada para localizar o canal.
+     * @param guildId   O ID do servidor.
+     * @param channelId O ID do canal.
+     * @param game      A partida.
+     */
+    public void iniciar(RoteiroDeFases roteiro, JDA jda, long guildId, long channelId, Game game) {
+        List<RoteiroDeFases.Etapa> etapas = roteiro.getEtapas();
+        gameManager.iniciarJogo(guildId, channelId, game);
+        ContextoDaFase primeira = new ContextoDaFase(this, roteiro, 0, jda, guildId, channelId, game);
+        gameManager.agendar(guildId, channelId, 0, TimeUnit.MILLISECONDS, () -> entrar(primeira, etapas.get(0)));
+    }
+
+    /**
+     * Notifica os ouvintes de que a partida foi finalizada. Chamado pelo {@link GameManager}.
+     *
+     * @param guildId   O ID do servidor.
+     * @param channelId O ID do canal.
+     * @param game      A partida que acabou de ser removida do canal.
+     */
+    public void notificarFim(long guildId, long channelId, Game game) {
+        Fase anterior = game.getFase();
+        if (anterior == Fase.FINALIZADO) {
+            return;
+        }
+        game.definirFase(Fase.FINALIZADO);
+        notificar(guildId, channelId, game, anterior, Fase.FINALIZADO);
+    }
+
+    /**
+     * Avança da fase do contexto para a seguinte, se ela ainda for a fase atual.
+     */
+    void avancar(ContextoDaFase contexto, long atrasoMs) {
+        List<RoteiroDeFases.Etapa> etapas = contexto.getRoteiro().getEtapas();
+        int proxima = contexto.getIndice() + 1;
+        if (proxima >= etapas.size() || !isAtual(contexto, etapas)) {
+            return;
+        }
+        ContextoDaFase seguinte = new ContextoDaFase(this, contexto.getRoteiro(), proxima, contexto.getJda(),
+                contexto.getGuildId(), contexto.getChannelId(), contexto.getGame());
+        gameManager.agendar(contexto.getGuildId(), contexto.getChannelId(), Math.max(0, atrasoMs), TimeUnit.MILLISECONDS, () -> {
+            if (isAtual(contexto, etapas)) {
+                entrar(seguinte, etapas.get(proxima));
+            }
+        });
+    }
+
+    /**
+     * Finaliza a partida do contexto, se ela ainda estiver na fase do contexto.
+     */
+    void abortar(ContextoDaFase contexto) {
+        if (isAtual(contexto, contexto.getRoteiro().getEtapas())) {
+            gameManager.finalizarJogo(contexto.getGuildId(), contexto.getChannelId(), contexto.getGame());
+        }
+    }
+
+    /**
+     * Entra em uma fase: registra a transição, executa a ação e agenda a próxima fase.
+     */
+    private void entrar(ContextoDaFase contexto, RoteiroDeFases.Etapa etapa) {
+        Game game = contexto.getGame();
+        if (gameManager.getJogo(contexto.getGuildId(), contexto.getChannelId()) != game) {
+            return; // A partida foi finalizada (ou substituída) enquanto a fase aguardava.
+        }
+        Fase anterior = game.getFase();
+        game.definirFase(etapa.fase);
+        notificar(contexto.getGuildId(), contexto.getChannelId(), game, anterior, etapa.fase);
+
+        try {
+            etapa.acao.executar(contexto);
+        } catch (RuntimeException e) {
+            System.err.println("Erro na fase " + etapa.fase + " do jogo no canal " + contexto.getChannelId() + ": " + e.getMessage());
+            e.printStackTrace();
+            gameManager.finalizarJogo(contexto.getGuildId(), contexto.getChannelId(), game);
+            return;
+        }
+
+        long duracao = etapa.duracao.emMs(game);
+        if (duracao >= 0) {
+            avancar(contexto, duracao);
+        }
+    }
+
+    /**
+     * Verifica se a partida do contexto ainda está ativa e na fase do contexto.
+     */
+    private boolean isAtual(ContextoDaFase contexto, List<RoteiroDeFases.Etapa> etapas) {
+        Game game = contexto.getGame();
+        return gameManager.getJogo(contexto.getGuildId(), contexto.getChannelId()) == game
+                && game.getFase() == etapas.get(contexto.getIndice()).fase;
+    }
+
+    private void notificar(long guildId, long channelId, Game game, Fase anterior, Fase nova) {
+        for (OuvinteDeFases ouvinte : ouvintes) {
+            try {
+                ouvinte.aoMudarDeFase(guildId, channelId, game, anterior, nova);
+            } catch (RuntimeException e) {
+                System.err.println("Erro em um ouvinte de fases: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
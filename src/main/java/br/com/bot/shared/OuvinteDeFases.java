@@ -0,0 +1,25 @@
+package br.com.bot.shared;
+
+/**
+ * Recebe as transições de fase das partidas conduzidas pelo {@link MotorDeFases}.
+ * <p>
+ * As transições para as fases declaradas são notificadas no trabalhador do canal; a transição para
+ * {@link Fase#FINALIZADO} é notificada na thread que finalizou o jogo. Os ouvintes devem ser rápidos
+ * e não devem bloquear.
+ *
+ * @author Lucas
+ */
+@FunctionalInterface
+public interface OuvinteDeFases {
+
+    /**
+     * Chamado quando uma partida muda de fase.
+     *
+     * @param guildId   O ID do servidor da partida.
+     * @param channelId O ID do canal da partida.
+     * @param game      A partida.
+     * @param anterior  A fase anterior, ou {@code null} na primeira fase.
+     * @param nova      A nova fase.
+     */
+    void aoMudarDeFase(long guildId, long channelId, Game game, Fase anterior, Fase nova);
+}
@@ -0,0 +1,102 @@
+package br.com.bot.shared;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * O desfecho de uma partida: quem participou, quantos pontos cada um ganhou e o tempo de reação medido.
+ * <p>
+ * O jogo registra o resultado antes de ser finalizado, então os ouvintes da transição para
+ * {@link Fase#FINALIZADO} o encontram em {@link Game#getResultado()}. Partidas canceladas ou
+ * encerradas por tempo esgotado não têm resultado.
+ *
+ * @author Lucas
+ */
+public final class ResultadoDaPartida {
+
+    /** Indica que o jogo não mede o tempo de reação do participante (ex: Forca). */
+    public static final long SEM_TEMPO = -1;
+
+    /** Os pontos ganhos pelas primeiras posições; as demais não pontuam. */
+    private static final int[] PONTOS_POR_POSICAO = {3, 2, 1};
+
+    /** Um participante da partida. */
+    public static final class Participante {
+        private final long userId;
+        private final int pontos;
+        private final long tempoDeReacaoMs;
+
+        private Participante(long userId, int pontos, long tempoDeReacaoMs) {
+            this.userId = userId;
+            this.pontos = pontos;
+            this.tempoDeReacaoMs = tempoDeReacaoMs;
+        }
+
+        public long getUserId() { return userId; }
+        public int getPontos() { return pontos; }
+        /** @return O tempo de reação, em milissegundos, ou {@link #SEM_TEMPO}. */
+        public long getTempoDeReacaoMs() { return tempoDeReacaoMs; }
+    }
+
+    private final TipoDeJogo tipo;
+    private final List<Participante> participantes;
+
+    private ResultadoDaPartida(TipoDeJogo tipo, List<Participante> participantes) {
+        this.tipo = tipo;
+        this.participantes = Collections.unmodifiableList(participantes);
+    }
+
+    /**
+     * Cria o resultado de uma partida com um único vencedor.
+     *
+     * @param tipo            O tipo do jogo.
+     * @param userId          O ID do vencedor.
+     * @param tempoDeReacaoMs O tempo de reação do vencedor, ou {@link #SEM_TEMPO}.
+     * @return O resultado.
+     */
+    public static ResultadoDaPartida vitoria(TipoDeJogo tipo, long userId, long tempoDeReacaoMs) {
+        List<Participante> participantes = new ArrayList<>(1);
+        participantes.add(new Participante(userId, PONTOS_POR_POSICAO[0], tempoDeReacaoMs));
+        return new ResultadoDaPartida(tipo, participantes);
+    }
+
+    /**
+     * Cria o resultado de uma partida com classificação. As primeiras posições pontuam
+     * (3, 2 e 1 pontos); as demais entram apenas com o tempo de reação.
+     *
+     * @param tipo             O tipo do jogo.
+     * @param userIds          Os IDs dos participantes, do primeiro ao último colocado.
+     * @param temposDeReacaoMs Os tempos de reação, na mesma ordem.
+     * @return O resultado.
+     */
+    public static ResultadoDaPartida classificacao(TipoDeJogo tipo, long[] userIds, long[] temposDeReacaoMs) {
+        return classificacao(tipo, userIds, temposDeReacaoMs, PONTOS_POR_POSICAO.length);
+    }
+
+    /**
+     * Cria o resultado de uma partida com classificação, em que só as primeiras posições pontuam.
+     *
+     * @param tipo              O tipo do jogo.
+     * @param userIds           Os IDs dos participantes, do primeiro ao último colocado.
+     * @param temposDeReacaoMs  Os tempos de reação, na mesma ordem.
+     * @param posicoesPontuadas Quantas posições pontuam (no máximo 3).
+     * @return O resultado.
+     */
+    public static ResultadoDaPartida classificacao(TipoDeJogo tipo, long[] userIds, long[] temposDeReacaoMs, int posicoesPontuadas) {
+        int pontuadas = Math.min(posicoesPontuadas, PONTOS_POR_POSICAO.length);
+        List<Participante> participantes = new ArrayList<>(userIds.length);
+        for (int i = 0; i < userIds.length; i++) {
+            int pontos = i < pontuadas ? PONTOS_POR_POSICAO[i] : 0;
+            participantes.add(new Participante(userIds[i], pontos, temposDeReacaoMs[i]));
+        }
+        return new ResultadoDaPartida(tipo, participantes);
+    }
+
+    public TipoDeJogo getTipo() { return tipo; }
+
+    /**
+     * @return Os participantes, do primeiro ao último colocado.
+     */
+    public List<Participante> getParticipantes() { return participantes; }
+}
@@ -0,0 +1,108 @@
+package br.com.bot.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A declaração das fases de um tipo de jogo: para cada fase, o que fazer ao entrar nela e quanto
+ * tempo ela dura até a próxima.
+ * <p>
+ * Um roteiro não guarda nada de uma partida específica (a partida chega às ações pelo
+ * {@link ContextoDaFase}), então cada comando declara o seu uma única vez e o reutiliza:
+ * <pre>{@code
+ * new RoteiroDeFases()
+ *         .fase(Fase.PREPARAR, game -> 3000, ctx -> {})
+ *         .fase(Fase.MOSTRAR, 0, ctx -> enviarMensagem(ctx))
+ *         .fase(Fase.RESPONDER, Game::getTempoLimiteMs, ctx -> {})
+ *         .fase(Fase.ESGOTADO, SEM_PRAZO, ctx -> avisarTempoEsgotado(ctx));
+ * }</pre>
+ * As fases devem ser declaradas na ordem de {@link Fase}, sem repetição, e {@link Fase#RESPONDER}
+ * é obrigatória.
+ *
+ * @author Lucas
+ */
+public final class RoteiroDeFases {
+
+    /** A fase só termina quando a ação chamar {@link ContextoDaFase#concluir()} ou {@link ContextoDaFase#concluirApos(long)}. */
+    public static final long AO_CONCLUIR = -1;
+
+    /** A fase não tem próxima fase automática (ex: a última fase do roteiro). */
+    public static final long SEM_PRAZO = -2;
+
+    /** Calcula a duração de uma fase para uma partida. */
+    @FunctionalInterface
+    public interface Duracao {
+        /**
+         * @param game A partida.
+         * @return A duração em milissegundos, {@link #AO_CONCLUIR} ou {@link #SEM_PRAZO}.
+         */
+        long emMs(Game game);
+    }
+
+    /** A ação executada, no trabalhador do canal, ao entrar em uma fase. */
+    @FunctionalInterface
+    public interface Acao {
+        void executar(ContextoDaFase contexto);
+    }
+
+    /** Uma fase declarada. */
+    static final class Etapa {
+        final Fase fase;
+        final Duracao duracao;
+        final Acao acao;
+
+        private Etapa(Fase fase, Duracao duracao, Acao acao) {
+            this.fase = fase;
+            this.duracao = duracao;
+            this.acao = acao;
+        }
+    }
+
+    private final List<Etapa> etapas = new ArrayList<>();
+    private boolean temResponder;
+
+    /**
+     * Declara a próxima fase com uma duração fixa.
+     *
+     * @param fase      A fase.
+     * @param duracaoMs A duração em milissegundos, {@link #AO_CONCLUIR} ou {@link #SEM_PRAZO}.
+     * @param acao      A ação executada ao entrar na fase.
+     * @return O próprio roteiro.
+     */
+    public RoteiroDeFases fase(Fase fase, long duracaoMs, Acao acao) {
+        return fase(fase, game -> duracaoMs, acao);
+    }
+
+    /**
+     * Declara a próxima fase com uma duração que depende da partida.
+     *
+     * @param fase    A fase.
+     * @param duracao Calcula a duração da fase para a partida.
+     * @param acao    A ação executada ao entrar na fase.
+     * @return O próprio roteiro.
+     * @throws IllegalArgumentException se a fase estiver fora de ordem, repetida ou for {@link Fase#FINALIZADO}.
+     */
+    public RoteiroDeFases fase(Fase fase, Duracao duracao, Acao acao) {
+        if (fase == Fase.FINALIZADO) {
+            throw new IllegalArgumentException("A fase FINALIZADO não pode ser declarada.");
+        }
+        if (!etapas.isEmpty() && etapas.get(etapas.size() - 1).fase.ordinal() >= fase.ordinal()) {
+            throw new IllegalArgumentException("Fase fora de ordem ou repetida: " + fase);
+        }
+        etapas.add(new Etapa(fase, duracao, acao));
+        temResponder |= fase == Fase.RESPONDER;
+        return this;
+    }
+
+    /**
+     * Retorna as fases declaradas, na ordem. A lista não deve ser alterada.
+     *
+     * @throws IllegalStateException se o roteiro não tiver a fase {@link Fase#RESPONDER}.
+     */
+    List<Etapa> getEtapas() {
+        if (!temResponder) {
+            throw new IllegalStateException("O roteiro precisa da fase RESPONDER.");
+        }
+        return etapas;
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.bot.shared;
+
+import java.util.Optional;
+
+/**
+ * Os tipos de jogo do bot, usados para separar os rankings e as estatísticas de cada jogo.
+ * <p>
+ * O código de cada tipo é gravado em disco (ver {@link br.com.bot.ranking.LogDePontos} e
+ * {@link br.com.bot.estatisticas.EstatisticasManager});
+ * ele nunca deve ser alterado nem reaproveitado.
+ *
+ * @author Lucas
+ */
+public enum TipoDeJogo {
+    REFLEXO(1, "Reflexo", true),
+    RESPOSTA(2, "Resposta", true),
+    MEMORIA(3, "Memória", true),
+    FORCA(4, "Forca", false),
+    EMBARALHAR(5, "Embaralhar", true);
+
+    private final byte codigo;
+    private final String nome;
+    private final boolean medeTempo;
+
+    TipoDeJogo(int codigo, String nome, boolean medeTempo) {
+        this.codigo = (byte) codigo;
+        this.nome = nome;
+        this.medeTempo = medeTempo;
+    }
+
+    public byte getCodigo() { return codigo; }
+    public String getNome() { return nome; }
+
+    /**
+     * @return {@code true} se o jogo mede o tempo de reação dos participantes (e aparece nas estatísticas).
+     */
+    public boolean isMedeTempo() { return medeTempo; }
+
+    /**
+     * Localiza um tipo de jogo pelo seu código gravado em disco.
+     *
+     * @param codigo O código.
+     * @return O tipo, ou {@code null} se o código for desconhecido.
+     */
+    public static TipoDeJogo deCodigo(byte codigo) {
+        for (TipoDeJogo tipo : values()) {
+            if (tipo.codigo == codigo) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Localiza um tipo de jogo pelo nome da constante (o valor das escolhas dos comandos).
+     *
+     * @param texto O nome da constante, ex: {@code "RESPOSTA"}.
+     * @return O tipo, ou vazio se o texto não corresponder a nenhum.
+     */
+    public static Optional<TipoDeJogo> deTexto(String texto) {
+        for (TipoDeJogo tipo : values()) {
+            if (tipo.name().equalsIgnoreCase(texto)) {
+                return Optional.of(tipo);
+            }
+        }
+        return Optional.empty();
+    }
+}
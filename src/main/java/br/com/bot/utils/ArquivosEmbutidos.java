@@ -0,0 +1,116 @@
+package br.com.bot.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Utilitários para os arquivos binários distribuídos dentro do JAR (o corpus de palavras e o banco
+ * de perguntas), que são copiados para o disco e mapeados em memória em vez de lidos para o heap,
+ * e para as partes do formato que os dois compartilham (textos e categorias).
+ *
+ * @author Lucas
+ */
+public final class ArquivosEmbutidos {
+
+    private ArquivosEmbutidos() {
+    }
+
+    /**
+     * Copia um recurso do JAR para um diretório, somente se o arquivo ainda não existir ou for
+     * diferente. A cópia é feita em um arquivo temporário e depois movida, para que um arquivo
+     * incompleto nunca seja mapeado.
+     *
+     * @param recurso   O nome do recurso, na raiz do classpath.
+     * @param diretorio O diretório de destino.
+     * @return O caminho do arquivo no disco, ou {@code null} se o recurso não existir no JAR.
+     * @throws IOException Se a cópia falhar.
+     */
+    public static Path extrair(String recurso, Path diretorio) throws IOException {
+        try (InputStream in = ArquivosEmbutidos.class.getResourceAsStream("/" + recurso)) {
+            if (in == null) {
+                return null;
+            }
+            byte[] embutido = in.readAllBytes();
+            Path arquivo = diretorio.resolve(recurso);
+            if (!mesmoConteudo(arquivo, embutido)) {
+                Path temporario = diretorio.resolve(recurso + ".tmp");
+                Files.write(temporario, embutido);
+                try {
+                    Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return arquivo;
+        }
+    }
+
+    /**
+     * Mapeia um arquivo inteiro em memória, somente para leitura.
+     * O mapeamento continua válido depois que o arquivo é fechado.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @return O buffer mapeado.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public static MappedByteBuffer mapear(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+    }
+
+    /**
+     * Lê um texto no formato [short bytes][UTF-8] a partir de uma posição do arquivo.
+     * Usa apenas leituras absolutas, então pode ser chamado por várias threads sobre o mesmo buffer.
+     *
+     * @param dados O conteúdo mapeado.
+     * @param pos   A posição do tamanho do texto.
+     * @return O texto.
+     */
+    public static String lerTexto(ByteBuffer dados, int pos) {
+        byte[] bytes = new byte[dados.getShort(pos) & 0xFFFF];
+        ByteBuffer leitura = dados.duplicate();
+        leitura.position(pos + 2);
+        leitura.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Procura uma categoria pelo nome, ignorando acentos e maiúsculas.
+     *
+     * @param categorias As categorias do arquivo, na ordem dos seus índices.
+     * @param nome       O nome da categoria.
+     * @return O índice da categoria, ou -1 se não existir.
+     */
+    public static int indiceDaCategoria(List<String> categorias, String nome) {
+        String procurado = NormalizadorDeTexto.normalizar(nome.trim());
+        for (int i = 0; i < categorias.size(); i++) {
+            if (NormalizadorDeTexto.normalizar(categorias.get(i)).equals(procurado)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean mesmoConteudo(Path arquivo, byte[] esperado) throws IOException {
+        if (!Files.exists(arquivo) || Files.size(arquivo) != esperado.length) {
+            return false;
+        }
+        CRC32 crcEsperado = new CRC32();
+        crcEsperado.update(esperado);
+        CRC32 crcAtual = new CRC32();
+        crcAtual.update(Files.readAllBytes(arquivo));
+        return crcEsperado.getValue() == crcAtual.getValue();
+    }
+}
@@ -0,0 +1,382 @@
+package br.com.bot.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * O banco de perguntas embutido no bot, usado pelo Jogo de Pergunta e Resposta quando o anfitrião
+ * não informa a pergunta.
+ * <p>
+ * O banco é um arquivo binário ({@value #RECURSO}) gerado pelo {@link ImportadorDePerguntas} e
+ * distribuído dentro do JAR. Ele só é carregado no primeiro sorteio: o arquivo é copiado para o
+ * diretório de trabalho (apenas se mudou) e mapeado em memória. Os textos das perguntas nunca são
+ * copiados para o heap, a não ser a pergunta sorteada, então mesmo um banco com centenas de
+ * milhares de perguntas ocupa poucos kilobytes de heap.
+ * <p>
+ * Para cada combinação de filtros (categoria e {@link Dificuldade}, ambas opcionais), as perguntas
+ * correspondentes ocupam um intervalo contíguo de uma lista ordenada, apontado por uma tabela de
+ * acesso direto, como no {@link CorpusDePalavras}. Cada canal tem uma janela com as últimas
+ * {@value #JANELA_SEM_REPETICAO} perguntas sorteadas, que não se repetem enquanto houver outras
+ * perguntas disponíveis no filtro. Só as janelas dos {@value #MAX_CANAIS_COM_HISTORICO} canais que
+ * sortearam mais recentemente são mantidas.
+ * <p>
+ * Formato (inteiros em big-endian):
+ * <pre>
+ * cabeçalho   magico, versao, perguntas (N), categorias (C), e os deslocamentos das seções abaixo
+ * categorias  C × [short bytes][UTF-8]
+ * info        N × [byte categoria][byte dificuldade][short reservado]
+ * textos      N × [int deslocamento na seção de dados]
+ * dados       N × [short bytes][UTF-8 da pergunta][short bytes][UTF-8 das respostas, separadas por '|']
+ * tabela      (C+1) × (D+1) × [int início][int quantidade]; o índice 0 de cada filtro significa "qualquer"
+ * ordens      4 × N × [int pergunta]; uma lista ordenada para cada combinação de filtros usados
+ * </pre>
+ *
+ * @author Lucas
+ */
+public final class BancoDePerguntas {
+
+    /** O nome do recurso embutido no JAR e do arquivo copiado para o diretório de trabalho. */
+    public static final String RECURSO = "perguntas.bin";
+
+    /** O separador das respostas aceitas de uma pergunta. */
+    public static final String SEPARADOR_RESPOSTAS = "|";
+
+    /** Quantas das últimas perguntas sorteadas em um canal não se repetem. */
+    public static final int JANELA_SEM_REPETICAO = 100;
+
+    /** Quantos canais têm a janela de perguntas recentes mantida; a do canal que sorteou há mais tempo é descartada. */
+    public static final int MAX_CANAIS_COM_HISTORICO = 4096;
+
+    static final int MAGICO = 0x50524754; // "PRGT"
+    static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 40;
+
+    // Posições dos campos do cabeçalho.
+    static final int POS_PERGUNTAS = 8;
+    static final int POS_CATEGORIAS = 12;
+    static final int POS_SECAO_CATEGORIAS = 16;
+    static final int POS_SECAO_INFO = 20;
+    static final int POS_SECAO_TEXTOS = 24;
+    static final int POS_SECAO_DADOS = 28;
+    static final int POS_SECAO_TABELA = 32;
+    static final int POS_SECAO_ORDENS = 36;
+
+    /** Quantos números aleatórios são tentados antes de procurar, em sequência, uma pergunta fora da janela. */
+    private static final int TENTATIVAS_ALEATORIAS = 8;
+
+    private static final Pattern PADRAO_SEPARADOR = Pattern.compile(Pattern.quote(SEPARADOR_RESPOSTAS));
+
+    /**
+     * Uma pergunta sorteada do banco.
+     */
+    public static final class Pergunta {
+        private final String texto;
+        private final List<String> respostas;
+        private final String categoria;
+        private final Dificuldade dificuldade;
+
+        private Pergunta(String texto, List<String> respostas, String categoria, Dificuldade dificuldade) {
+            this.texto = texto;
+            this.respostas = respostas;
+            this.categoria = categoria;
+            this.dificuldade = dificuldade;
+        }
+
+        public String getTexto() { return texto; }
+        /** As respostas aceitas; a primeira é a exibida como resposta correta. */
+        public List<String> getRespostas() { return respostas; }
+        public String getCategoria() { return categoria; }
+        public Dificuldade getDificuldade() { return dificuldade; }
+    }
+
+    /** O diretório para onde o recurso é copiado, ou {@code null} se o banco foi mapeado de um arquivo. */
+    private final Path diretorio;
+
+    /** O conteúdo mapeado; carregado no primeiro uso. */
+    private volatile Conteudo conteudo;
+    private boolean carregamentoFalhou;
+
+    /**
+     * As perguntas sorteadas recentemente em cada canal, na ordem do último sorteio (LRU).
+     * Acessado somente sob o seu próprio monitor.
+     */
+    private final Map<Long, JanelaSemRepeticao> historicos = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, JanelaSemRepeticao> maisAntiga) {
+            return size() > MAX_CANAIS_COM_HISTORICO;
+        }
+    };
+
+    private BancoDePerguntas(Path diretorio, Conteudo conteudo) {
+        this.diretorio = diretorio;
+        this.conteudo = conteudo;
+    }
+
+    /**
+     * Cria o banco de perguntas embutido no JAR. Nada é lido até o primeiro uso.
+     *
+     * @param diretorio O diretório onde o arquivo é mantido.
+     * @return O banco, carregado sob demanda.
+     */
+    public static BancoDePerguntas embutido(Path diretorio) {
+        return new BancoDePerguntas(diretorio, null);
+    }
+
+    /**
+     * Mapeia em memória um arquivo de banco de perguntas.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @return O banco, já carregado.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um banco válido.
+     */
+    public static BancoDePerguntas mapear(Path arquivo) throws IOException {
+        return new BancoDePerguntas(null, new Conteudo(ArquivosEmbutidos.mapear(arquivo)));
+    }
+
+    /**
+     * Retorna o conteúdo do banco, carregando-o na primeira chamada.
+     *
+     * @return O conteúdo, ou {@code null} se o banco não estiver disponível.
+     */
+    private Conteudo getConteudo() {
+        Conteudo atual = conteudo;
+        if (atual != null) {
+            return atual;
+        }
+        synchronized (this) {
+            if (conteudo == null && !carregamentoFalhou) {
+                conteudo = carregar();
+                carregamentoFalhou = conteudo == null;
+            }
+            return conteudo;
+        }
+    }
+
+    private Conteudo carregar() {
+        try {
+            Path arquivo = ArquivosEmbutidos.extrair(RECURSO, diretorio);
+            if (arquivo == null) {
+                System.err.println("Banco de perguntas '" + RECURSO + "' não encontrado no JAR. As perguntas deverão ser informadas nos comandos.");
+                return null;
+            }
+            Conteudo carregado = new Conteudo(ArquivosEmbutidos.mapear(arquivo));
+            System.out.println("Banco de perguntas carregado: " + carregado.totalPerguntas + " perguntas em "
+                    + carregado.categorias.size() + " categorias.");
+            return carregado;
+        } catch (IOException e) {
+            System.err.println("Falha ao carregar o banco de perguntas. As perguntas deverão ser informadas nos comandos.");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Verifica se o banco pode ser usado, carregando-o se ainda não foi carregado.
+     *
+     * @return {@code true} se o banco estiver disponível.
+     */
+    public boolean isDisponivel() {
+        return getConteudo() != null;
+    }
+
+    /**
+     * Retorna o número de perguntas do banco.
+     *
+     * @return O total de perguntas, ou 0 se o banco não estiver disponível.
+     */
+    public int getTotalPerguntas() {
+        Conteudo c = getConteudo();
+        return c == null ? 0 : c.totalPerguntas;
+    }
+
+    /**
+     * Retorna os nomes das categorias, na ordem do arquivo.
+     *
+     * @return A lista (imutável) de categorias, vazia se o banco não estiver disponível.
+     */
+    public List<String> getCategorias() {
+        Conteudo c = getConteudo();
+        return c == null ? List.of() : c.categorias;
+    }
+
+    /**
+     * Procura uma categoria pelo nome, ignorando acentos e maiúsculas.
+     *
+     * @param nome O nome da categoria.
+     * @return O índice da categoria, ou -1 se não existir.
+     */
+    public int indiceDaCategoria(String nome) {
+        return ArquivosEmbutidos.indiceDaCategoria(getCategorias(), nome);
+    }
+
+    /**
+     * Sorteia uma pergunta que atenda aos filtros, evitando as últimas perguntas sorteadas no canal.
+     * Se todas as perguntas do filtro estiverem na janela, a sorteada há mais tempo é repetida.
+     *
+     * @param channelId   O ID do canal, cuja janela de perguntas recentes é consultada e atualizada.
+     * @param categoria   O índice da categoria em {@link #getCategorias()}, ou -1 para qualquer uma.
+     * @param dificuldade A dificuldade, ou {@code null} para qualquer uma.
+     * @return A pergunta sorteada, ou vazio se o banco não estiver disponível ou nenhuma pergunta atender aos filtros.
+     */
+    public Optional<Pergunta> sortear(long channelId, int categoria, Dificuldade dificuldade) {
+        Conteudo c = getConteudo();
+        if (c == null || categoria >= c.categorias.size()) {
+            return Optional.empty();
+        }
+        int entrada = c.secaoTabela + indiceDaTabela(categoria < 0 ? 0 : categoria + 1, dificuldade == null ? 0 : dificuldade.ordinal() + 1) * 8;
+        int inicio = c.dados.getInt(entrada);
+        int quantidade = c.dados.getInt(entrada + 4);
+        if (quantidade == 0) {
+            return Optional.empty();
+        }
+
+        JanelaSemRepeticao janela = getJanela(channelId);
+        int sorteada;
+        synchronized (janela) {
+            sorteada = escolher(c, janela, inicio, quantidade);
+            janela.registrar(sorteada);
+        }
+        return Optional.of(c.lerPergunta(sorteada));
+    }
+
+    /**
+     * Escolhe uma pergunta do intervalo fora da janela: primeiro por tentativas aleatórias (suficientes
+     * quando o intervalo é bem maior que a janela) e depois percorrendo o intervalo a partir de um ponto aleatório.
+     */
+    private static int escolher(Conteudo c, JanelaSemRepeticao janela, int inicio, int quantidade) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int t = 0; t < TENTATIVAS_ALEATORIAS; t++) {
+            int candidata = c.perguntaNaOrdem(inicio + random.nextInt(quantidade));
+            if (janela.idade(candidata) < 0) {
+                return candidata;
+            }
+        }
+
+        int deslocamento = random.nextInt(quantidade);
+        int maisAntiga = -1;
+        int maiorIdade = -1;
+        for (int k = 0; k < quantidade; k++) {
+            int candidata = c.perguntaNaOrdem(inicio + (deslocamento + k) % quantidade);
+            int idade = janela.idade(candidata);
+            if (idade < 0) {
+                return candidata;
+            }
+            if (idade > maiorIdade) {
+                maiorIdade = idade;
+                maisAntiga = candidata;
+            }
+        }
+        // Todas as perguntas do filtro foram sorteadas recentemente (só acontece com até JANELA_SEM_REPETICAO perguntas).
+        return maisAntiga;
+    }
+
+    private JanelaSemRepeticao getJanela(long channelId) {
+        synchronized (historicos) {
+            // Como o mapa está em ordem de acesso, a consulta também adia o descarte da janela do canal.
+            return historicos.computeIfAbsent(channelId, id -> new JanelaSemRepeticao(JANELA_SEM_REPETICAO));
+        }
+    }
+
+    /**
+     * Calcula a posição de uma combinação de filtros na tabela de acesso direto.
+     * Cada filtro usa 0 para "qualquer"; a categoria e a dificuldade começam em 1.
+     */
+    static int indiceDaTabela(int categoria, int dificuldade) {
+        return categoria * (Dificuldade.values().length + 1) + dificuldade;
+    }
+
+    /**
+     * O conteúdo mapeado do arquivo. Imutável e seguro para várias threads, pois só usa leituras absolutas.
+     */
+    private static final class Conteudo {
+        private final ByteBuffer dados;
+        private final int totalPerguntas;
+        private final List<String> categorias;
+        private final int secaoInfo;
+        private final int secaoTextos;
+        private final int secaoDados;
+        private final int secaoTabela;
+        private final int secaoOrdens;
+
+        private Conteudo(ByteBuffer dados) throws IOException {
+            this.dados = dados;
+            if (dados.limit() < TAMANHO_CABECALHO || dados.getInt(0) != MAGICO) {
+                throw new IOException("O arquivo não é um banco de perguntas.");
+            }
+            if (dados.getInt(4) != VERSAO) {
+                throw new IOException("Versão do banco de perguntas não suportada: " + dados.getInt(4));
+            }
+            this.totalPerguntas = dados.getInt(POS_PERGUNTAS);
+            int totalCategorias = dados.getInt(POS_CATEGORIAS);
+            this.secaoInfo = dados.getInt(POS_SECAO_INFO);
+            this.secaoTextos = dados.getInt(POS_SECAO_TEXTOS);
+            this.secaoDados = dados.getInt(POS_SECAO_DADOS);
+            this.secaoTabela = dados.getInt(POS_SECAO_TABELA);
+            this.secaoOrdens = dados.getInt(POS_SECAO_ORDENS);
+
+            List<String> nomes = new ArrayList<>(totalCategorias);
+            int pos = dados.getInt(POS_SECAO_CATEGORIAS);
+            for (int i = 0; i < totalCategorias; i++) {
+                nomes.add(ArquivosEmbutidos.lerTexto(dados, pos));
+                pos += 2 + (dados.getShort(pos) & 0xFFFF);
+            }
+            this.categorias = Collections.unmodifiableList(nomes);
+        }
+
+        private int perguntaNaOrdem(int posicao) {
+            return dados.getInt(secaoOrdens + posicao * 4);
+        }
+
+        private Pergunta lerPergunta(int id) {
+            int pos = secaoDados + dados.getInt(secaoTextos + id * 4);
+            String texto = ArquivosEmbutidos.lerTexto(dados, pos);
+            pos += 2 + (dados.getShort(pos) & 0xFFFF);
+            List<String> respostas = Arrays.asList(PADRAO_SEPARADOR.split(ArquivosEmbutidos.lerTexto(dados, pos)));
+            int info = secaoInfo + id * 4;
+            return new Pergunta(texto, Collections.unmodifiableList(respostas),
+                    categorias.get(dados.get(info) & 0xFF), Dificuldade.values()[dados.get(info + 1)]);
+        }
+    }
+
+    /**
+     * As últimas perguntas sorteadas em um canal, em um vetor circular.
+     * Deve ser usada sob o monitor da própria instância.
+     */
+    private static final class JanelaSemRepeticao {
+        private final int[] perguntas;
+        private int proxima;
+        private int total;
+
+        private JanelaSemRepeticao(int tamanho) {
+            this.perguntas = new int[tamanho];
+        }
+
+        /**
+         * Retorna há quantos sorteios a pergunta saiu (0 = o último), ou -1 se ela não está na janela.
+         */
+        private int idade(int pergunta) {
+            for (int k = 1; k <= total; k++) {
+                if (perguntas[Math.floorMod(proxima - k, perguntas.length)] == pergunta) {
+                    return k - 1;
+                }
+            }
+            return -1;
+        }
+
+        private void registrar(int pergunta) {
+            perguntas[proxima] = pergunta;
+            proxima = (proxima + 1) % perguntas.length;
+            total = Math.min(total + 1, perguntas.length);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package br.com.bot.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Um mapa concorrente com chaves {@code long} primitivas, feito para IDs (snowflakes) do Discord.
+ * <p>
+ * Usa endereçamento aberto com sondagem linear, sem objetos de entrada nem chaves "boxed":
+ * uma consulta não aloca nada. O mapa é dividido em segmentos; as escritas de um segmento
+ * são sincronizadas, enquanto as leituras não usam trava alguma. A chave {@code 0} é reservada
+ * para marcar posições vazias, o que não é um problema para snowflakes.
+ * <p>
+ * Uma remoção apenas apaga o valor, mantendo a chave na posição ("lápide"), para que leitores
+ * concorrentes nunca percam uma entrada durante a sondagem. As lápides são descartadas quando
+ * o segmento é redimensionado.
+ *
+ * @param <V> O tipo dos valores.
+ * @author Lucas
+ */
+public class ConcurrentLongMap<V> {
+
+    /** O número de segmentos; deve ser uma potência de dois. */
+    private static final int SEGMENTOS = 16;
+
+    /** A capacidade inicial de cada segmento; deve ser uma potência de dois. */
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private final Segmento<V>[] segmentos;
+
+    /**
+     * Constrói um mapa vazio.
+     */
+    public ConcurrentLongMap() {
+        @SuppressWarnings("unchecked")
+        Segmento<V>[] segmentos = (Segmento<V>[]) new Segmento<?>[SEGMENTOS];
+        this.segmentos = segmentos;
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento<>();
+        }
+    }
+
+    /**
+     * Obtém o valor associado a uma chave, sem alocar memória e sem travas.
+     *
+     * @param chave A chave (diferente de zero).
+     * @return O valor, ou {@code null} se a chave não estiver presente.
+     */
+    public V get(long chave) {
+        int h = hash(chave);
+        return segmentos[h & (SEGMENTOS - 1)].get(chave, h);
+    }
+
+    /**
+     * Verifica se uma chave está presente.
+     *
+     * @param chave A chave (diferente de zero).
+     * @return {@code true} se houver um valor associado à chave.
+     */
+    public boolean containsKey(long chave) {
+        return get(chave) != null;
+    }
+
+    /**
+     * Associa um valor a uma chave, substituindo o valor anterior.
+     *
+     * @param chave A chave (diferente de zero).
+     * @param valor O valor (não nulo).
+     * @return O valor anterior, ou {@code null} se não havia.
+     */
+    public V put(long chave, V valor) {
+        if (chave == 0 || valor == null) {
+            throw new IllegalArgumentException("A chave não pode ser zero e o valor não pode ser nulo.");
+        }
+        int h = hash(chave);
+        return segmentos[h & (SEGMENTOS - 1)].put(chave, h, valor);
+    }
+
+    /**
+     * Remove a entrada de uma chave.
+     *
+     * @param chave A chave.
+     * @return O valor removido, ou {@code null} se a chave não estava presente.
+     */
+    public V remove(long chave) {
+        int h = hash(chave);
+        return segmentos[h & (SEGMENTOS - 1)].remove(chave, h, null);
+    }
+
+    /**
+     * Remove a entrada de uma chave apenas se ela estiver associada ao valor informado (mesma instância).
+     *
+     * @param chave A chave.
+     * @param valor O valor esperado.
+     * @return {@code true} se a entrada foi removida.
+     */
+    public boolean remove(long chave, V valor) {
+        if (valor == null) {
+            return false;
+        }
+        int h = hash(chave);
+        return segmentos[h & (SEGMENTOS - 1)].remove(chave, h, valor) != null;
+    }
+
+    /**
+     * Retorna o número de entradas. Com escritas concorrentes, o valor é apenas uma estimativa.
+     *
+     * @return O número de entradas.
+     */
+    public int size() {
+        int total = 0;
+        for (Segmento<V> segmento : segmentos) {
+            total += segmento.tamanho;
+        }
+        return total;
+    }
+
+    /**
+     * Percorre as entradas do mapa. Entradas adicionadas ou removidas durante a iteração
+     * podem ou não ser vistas.
+     *
+     * @param acao A ação executada para cada par chave/valor.
+     */
+    public void forEach(BiConsumer<Long, ? super V> acao) {
+        for (Segmento<V> segmento : segmentos) {
+            Tabela<V> tabela = segmento.tabela;
+            for (int i = 0; i < tabela.chaves.length(); i++) {
+                V valor = tabela.valores.get(i);
+                if (valor != null) {
+                    acao.accept(tabela.chaves.get(i), valor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Espalha os bits do snowflake. Os bits baixos de um snowflake mudam pouco entre IDs
+     * próximos, então o multiplicador de Fibonacci distribui melhor as chaves.
+     */
+    private static int hash(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * O armazenamento de um segmento. As chaves são escritas antes do valor correspondente,
+     * ambas com escrita volátil: um leitor que encontra a chave vê o valor já publicado, ou
+     * {@code null} se a inserção ainda não terminou.
+     */
+    private static final class Tabela<V> {
+        private final AtomicLongArray chaves;
+        private final AtomicReferenceArray<V> valores;
+
+        private Tabela(int capacidade) {
+            this.chaves = new AtomicLongArray(capacidade);
+            this.valores = new AtomicReferenceArray<>(capacidade);
+        }
+    }
+
+    private static final class Segmento<V> {
+        /** A tabela atual; substituída por inteiro no redimensionamento. */
+        private volatile Tabela<V> tabela = new Tabela<>(CAPACIDADE_INICIAL);
+        /** O número de entradas com valor. */
+        private volatile int tamanho;
+        /** O número de posições com chave (entradas com valor e lápides). */
+        private int ocupadas;
+
+        V get(long chave, int h) {
+            Tabela<V> t = tabela;
+            int mascara = t.chaves.length() - 1;
+            // Os bits baixos do hash já escolheram o segmento; a posição usa os bits altos.
+            for (int i = (h >>> 4) & mascara, sondas = 0; sondas <= mascara; i = (i + 1) & mascara, sondas++) {
+                long k = t.chaves.get(i);
+                if (k == chave) {
+                    return t.valores.get(i);
+                }
+                if (k == 0) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        synchronized V put(long chave, int h, V valor) {
+            Tabela<V> t = tabela;
+            int mascara = t.chaves.length() - 1;
+            int i = (h >>> 4) & mascara;
+            while (true) {
+                long k = t.chaves.get(i);
+                if (k == chave) {
+                    V anterior = t.valores.getAndSet(i, valor);
+                    if (anterior == null) {
+                        tamanho++;
+                    }
+                    return anterior;
+                }
+                if (k == 0) {
+                    t.chaves.set(i, chave);
+                    t.valores.set(i, valor);
+                    tamanho++;
+                    if (++ocupadas * 2 > t.chaves.length()) {
+                        redimensionar();
+                    }
+                    return null;
+                }
+                i = (i + 1) & mascara;
+            }
+        }
+
+        synchronized V remove(long chave, int h, V esperado) {
+            Tabela<V> t = tabela;
+            int mascara = t.chaves.length() - 1;
+            for (int i = (h >>> 4) & mascara, sondas = 0; sondas <= mascara; i = (i + 1) & mascara, sondas++) {
+                long k = t.chaves.get(i);
+                if (k == chave) {
+                    V atual = t.valores.get(i);
+                    if (atual == null || (esperado != null && atual != esperado)) {
+                        return null;
+                    }
+                    t.valores.set(i, null);
+                    tamanho--;
+                    return atual;
+                }
+                if (k == 0) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Recria a tabela sem as lápides, com ao menos o dobro das entradas vivas em posições livres.
+         * A nova tabela é preenchida por completo antes de ser publicada.
+         */
+        private void redimensionar() {
+            Tabela<V> antiga = tabela;
+            int capacidade = CAPACIDADE_INICIAL;
+            while (capacidade < tamanho * 4) {
+                capacidade <<= 1;
+            }
+            Tabela<V> nova = new Tabela<>(capacidade);
+            int mascara = capacidade - 1;
+            for (int j = 0; j < antiga.chaves.length(); j++) {
+                V valor = antiga.valores.get(j);
+                if (valor == null) {
+                    continue;
+                }
+                long chave = antiga.chaves.get(j);
+                int i = (hash(chave) >>> 4) & mascara;
+                while (nova.chaves.get(i) != 0) {
+                    i = (i + 1) & mascara;
+                }
+                nova.chaves.set(i, chave);
+                nova.valores.set(i, valor);
+            }
+            ocupadas = tamanho;
+            tabela = nova;
+        }
+    }
+}
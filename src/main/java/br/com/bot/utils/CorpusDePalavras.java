@@ -0,0 +1,243 @@
+package br.com.bot.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * O corpus de palavras embutido no bot, usado pelos jogos da Forca e de Embaralhar quando o
+ * anfitrião não informa a palavra.
+ * <p>
+ * O corpus é um arquivo binário compacto ({@value #RECURSO}), gerado pelo {@link GeradorDeCorpus}
+ * a partir de uma lista de palavras e distribuído dentro do JAR. Na inicialização, ele é copiado
+ * para o diretório de trabalho (apenas se mudou) e mapeado em memória: as palavras não são
+ * interpretadas nem copiadas para o heap, e o sistema operacional carrega só as páginas usadas.
+ * <p>
+ * Cada palavra tem uma categoria, uma {@link Dificuldade} (calculada pela frequência das suas
+ * letras) e um tamanho. Para cada combinação de filtros (qualquer um deles pode ser omitido), o
+ * arquivo guarda as palavras correspondentes em um intervalo contíguo de uma lista ordenada, e
+ * uma tabela de acesso direto aponta esse intervalo. Sortear uma palavra custa, portanto, uma
+ * consulta à tabela e um número aleatório, qualquer que seja o tamanho do corpus.
+ * <p>
+ * Formato (inteiros em big-endian):
+ * <pre>
+ * cabeçalho   magico, versao, palavras (N), categorias (C), tamanhoMaximo (L),
+ *             e os deslocamentos das seções abaixo
+ * categorias  C × [short bytes][UTF-8]
+ * info        N × [byte categoria][byte dificuldade][byte tamanho][byte reservado]
+ * textos      N × [int deslocamento na seção de dados]
+ * dados       N × [short bytes][UTF-8]
+ * tabela      (C+1) × (D+1) × (L+1) × [int início][int quantidade]; o índice 0 de cada filtro significa "qualquer"
+ * ordens      8 × N × [int palavra]; uma lista ordenada para cada combinação de filtros usados
+ * </pre>
+ *
+ * @author Lucas
+ */
+public final class CorpusDePalavras {
+
+    /** O nome do recurso embutido no JAR e do arquivo copiado para o diretório de trabalho. */
+    public static final String RECURSO = "palavras.bin";
+
+    static final int MAGICO = 0x504C5652; // "PLVR"
+    static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 48;
+    static final int TAMANHO_MAXIMO = 63;
+
+    // Posições dos campos do cabeçalho.
+    static final int POS_PALAVRAS = 8;
+    static final int POS_CATEGORIAS = 12;
+    static final int POS_TAMANHO_MAXIMO = 16;
+    static final int POS_SECAO_CATEGORIAS = 20;
+    static final int POS_SECAO_INFO = 24;
+    static final int POS_SECAO_TEXTOS = 28;
+    static final int POS_SECAO_DADOS = 32;
+    static final int POS_SECAO_TABELA = 36;
+    static final int POS_SECAO_ORDENS = 40;
+
+    /**
+     * Uma palavra sorteada do corpus.
+     */
+    public static final class Palavra {
+        private final String texto;
+        private final String categoria;
+        private final Dificuldade dificuldade;
+
+        private Palavra(String texto, String categoria, Dificuldade dificuldade) {
+            this.texto = texto;
+            this.categoria = categoria;
+            this.dificuldade = dificuldade;
+        }
+
+        public String getTexto() { return texto; }
+        public String getCategoria() { return categoria; }
+        public Dificuldade getDificuldade() { return dificuldade; }
+    }
+
+    private final ByteBuffer dados;
+    private final int totalPalavras;
+    private final int tamanhoMaximo;
+    private final List<String> categorias;
+    private final int secaoInfo;
+    private final int secaoTextos;
+    private final int secaoDados;
+    private final int secaoTabela;
+    private final int secaoOrdens;
+
+    private CorpusDePalavras(ByteBuffer dados) throws IOException {
+        this.dados = dados;
+        if (dados.limit() < TAMANHO_CABECALHO || dados.getInt(0) != MAGICO) {
+            throw new IOException("O arquivo não é um corpus de palavras.");
+        }
+        if (dados.getInt(4) != VERSAO) {
+            throw new IOException("Versão do corpus de palavras não suportada: " + dados.getInt(4));
+        }
+        this.totalPalavras = dados.getInt(POS_PALAVRAS);
+        int totalCategorias = dados.getInt(POS_CATEGORIAS);
+        this.tamanhoMaximo = dados.getInt(POS_TAMANHO_MAXIMO);
+        this.secaoInfo = dados.getInt(POS_SECAO_INFO);
+        this.secaoTextos = dados.getInt(POS_SECAO_TEXTOS);
+        this.secaoDados = dados.getInt(POS_SECAO_DADOS);
+        this.secaoTabela = dados.getInt(POS_SECAO_TABELA);
+        this.secaoOrdens = dados.getInt(POS_SECAO_ORDENS);
+
+        // Os nomes das categorias são poucos e lidos a todo momento: ficam no heap.
+        List<String> nomes = new ArrayList<>(totalCategorias);
+        int pos = dados.getInt(POS_SECAO_CATEGORIAS);
+        for (int i = 0; i < totalCategorias; i++) {
+            nomes.add(ArquivosEmbutidos.lerTexto(dados, pos));
+            pos += 2 + (dados.getShort(pos) & 0xFFFF);
+        }
+        this.categorias = Collections.unmodifiableList(nomes);
+    }
+
+    /**
+     * Mapeia em memória um arquivo de corpus.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @return O corpus.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um corpus válido.
+     */
+    public static CorpusDePalavras mapear(Path arquivo) throws IOException {
+        return new CorpusDePalavras(ArquivosEmbutidos.mapear(arquivo));
+    }
+
+    /**
+     * Carrega o corpus embutido no JAR: copia o recurso {@value #RECURSO} para o diretório informado
+     * (somente se o arquivo não existir ou for diferente) e o mapeia em memória.
+     *
+     * @param diretorio O diretório onde o arquivo é mantido.
+     * @return O corpus, ou {@code null} se ele não estiver disponível (os jogos passam a exigir a palavra).
+     */
+    public static CorpusDePalavras carregarEmbutido(Path diretorio) {
+        try {
+            Path arquivo = ArquivosEmbutidos.extrair(RECURSO, diretorio);
+            if (arquivo == null) {
+                System.err.println("Corpus de palavras '" + RECURSO + "' não encontrado no JAR. As palavras deverão ser informadas nos comandos.");
+                return null;
+            }
+            CorpusDePalavras corpus = mapear(arquivo);
+            System.out.println("Corpus de palavras carregado: " + corpus.getTotalPalavras() + " palavras em "
+                    + corpus.getCategorias().size() + " categorias.");
+            return corpus;
+        } catch (IOException e) {
+            System.err.println("Falha ao carregar o corpus de palavras. As palavras deverão ser informadas nos comandos.");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Retorna o número de palavras do corpus.
+     *
+     * @return O total de palavras.
+     */
+    public int getTotalPalavras() {
+        return totalPalavras;
+    }
+
+    /**
+     * Retorna o tamanho da maior palavra do corpus.
+     *
+     * @return O tamanho máximo, em caracteres.
+     */
+    public int getTamanhoMaximo() {
+        return tamanhoMaximo;
+    }
+
+    /**
+     * Retorna os nomes das categorias, na ordem do arquivo.
+     *
+     * @return A lista (imutável) de categorias.
+     */
+    public List<String> getCategorias() {
+        return categorias;
+    }
+
+    /**
+     * Retorna o texto de uma palavra pela sua posição no arquivo (ex: para montar índices sobre o corpus).
+     *
+     * @param indice A posição da palavra, de 0 a {@link #getTotalPalavras()} - 1.
+     * @return O texto da palavra.
+     */
+    public String getPalavra(int indice) {
+        if (indice < 0 || indice >= totalPalavras) {
+            throw new IndexOutOfBoundsException("Palavra " + indice + " de " + totalPalavras);
+        }
+        return ArquivosEmbutidos.lerTexto(dados, secaoDados + dados.getInt(secaoTextos + indice * 4));
+    }
+
+    /**
+     * Sorteia uma palavra que atenda aos filtros.
+     *
+     * @param categoria   O índice da categoria em {@link #getCategorias()}, ou -1 para qualquer uma.
+     * @param dificuldade A dificuldade, ou {@code null} para qualquer uma.
+     * @param tamanho     O tamanho exato da palavra, ou 0 para qualquer um.
+     * @return A palavra sorteada, ou vazio se nenhuma palavra atender aos filtros.
+     */
+    public Optional<Palavra> sortear(int categoria, Dificuldade dificuldade, int tamanho) {
+        if (categoria >= categorias.size() || tamanho < 0 || tamanho > tamanhoMaximo) {
+            return Optional.empty();
+        }
+        int cat = categoria < 0 ? 0 : categoria + 1;
+        int dif = dificuldade == null ? 0 : dificuldade.ordinal() + 1;
+        int entrada = secaoTabela + indiceDaTabela(cat, dif, tamanho, tamanhoMaximo) * 8;
+        int inicio = dados.getInt(entrada);
+        int quantidade = dados.getInt(entrada + 4);
+        if (quantidade == 0) {
+            return Optional.empty();
+        }
+
+        int sorteada = dados.getInt(secaoOrdens + (inicio + ThreadLocalRandom.current().nextInt(quantidade)) * 4);
+        int info = secaoInfo + sorteada * 4;
+        String texto = getPalavra(sorteada);
+        return Optional.of(new Palavra(texto, categorias.get(dados.get(info) & 0xFF), Dificuldade.values()[dados.get(info + 1)]));
+    }
+
+    /**
+     * Calcula a posição de uma combinação de filtros na tabela de acesso direto.
+     * Cada filtro usa 0 para "qualquer"; a categoria e a dificuldade começam em 1.
+     */
+    static int indiceDaTabela(int categoria, int dificuldade, int tamanho, int tamanhoMaximo) {
+        return (categoria * (Dificuldade.values().length + 1) + dificuldade) * (tamanhoMaximo + 1) + tamanho;
+    }
+
+    /**
+     * Procura uma categoria pelo nome, ignorando acentos e maiúsculas.
+     *
+     * @param nome O nome da categoria.
+     * @return O índice da categoria, ou -1 se não existir.
+     */
+    public int indiceDaCategoria(String nome) {
+        return ArquivosEmbutidos.indiceDaCategoria(categorias, nome);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CorpusDePalavras[palavras=%d, categorias=%d, tamanhoMaximo=%d]", totalPalavras, categorias.size(), tamanhoMaximo);
+    }
+}
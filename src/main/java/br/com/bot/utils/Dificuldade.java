@@ -0,0 +1,45 @@
+package br.com.bot.utils;
+
+import java.util.Optional;
+
+/**
+ * A dificuldade de um item dos bancos embutidos (palavras e perguntas), usada como filtro
+ * nos sorteios.
+ *
+ * @author Lucas
+ */
+public enum Dificuldade {
+    FACIL("Fácil"), MEDIO("Médio"), DIFICIL("Difícil");
+
+    private final String nome;
+
+    Dificuldade(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * Retorna o nome da dificuldade para exibição.
+     *
+     * @return O nome legível (ex: "Difícil").
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Interpreta uma dificuldade escrita por extenso, ignorando acentos e maiúsculas
+     * (ex: "fácil", "MEDIO", "Difícil").
+     *
+     * @param texto O texto a ser interpretado.
+     * @return A dificuldade, ou vazio se o texto não corresponder a nenhuma.
+     */
+    public static Optional<Dificuldade> deTexto(String texto) {
+        String normalizado = NormalizadorDeTexto.normalizar(texto.trim());
+        for (Dificuldade d : values()) {
+            if (d.name().equalsIgnoreCase(normalizado) || NormalizadorDeTexto.normalizar(d.nome).equals(normalizado)) {
+                return Optional.of(d);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,271 @@
+package br.com.bot.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ferramenta de linha de comando que gera o corpus binário lido pelo {@link CorpusDePalavras}
+ * a partir de uma lista de palavras em texto.
+ * <p>
+ * A lista tem uma palavra por linha, agrupadas sob cabeçalhos de categoria ({@code [Frutas]}).
+ * Linhas vazias e iniciadas por '#' são ignoradas, assim como palavras repetidas (mesmo com
+ * acentos diferentes), que ficam na primeira categoria em que aparecem.
+ * <p>
+ * A dificuldade de cada palavra é a raridade média das suas letras distintas, medida pela
+ * frequência das letras no próprio corpus; as palavras são então divididas em três faixas de
+ * mesmo tamanho (fácil, médio e difícil).
+ * <p>
+ * Uso: {@code java -cp target/classes br.com.bot.utils.GeradorDeCorpus <entrada.txt> <saida.bin>}
+ *
+ * @author Lucas
+ */
+public final class GeradorDeCorpus {
+
+    private static final int TOTAL_DIFICULDADES = Dificuldade.values().length;
+
+    private GeradorDeCorpus() {
+    }
+
+    /** Uma palavra lida da lista, com os atributos usados nos filtros. */
+    private static final class Entrada {
+        private final String texto;
+        private final int categoria;
+        private final int tamanho;
+        private int dificuldade;
+        private double raridade;
+
+        private Entrada(String texto, int categoria, int tamanho) {
+            this.texto = texto;
+            this.categoria = categoria;
+            this.tamanho = tamanho;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: GeradorDeCorpus <entrada.txt> <saida.bin>");
+            System.exit(1);
+        }
+        List<String> categorias = new ArrayList<>();
+        List<Entrada> entradas = ler(Paths.get(args[0]), categorias);
+        if (entradas.isEmpty()) {
+            System.err.println("Nenhuma palavra encontrada em " + args[0]);
+            System.exit(1);
+        }
+        calcularDificuldades(entradas);
+
+        byte[] corpus = gerar(categorias, entradas);
+        Files.write(Paths.get(args[1]), corpus);
+        System.out.println("Corpus gerado: " + entradas.size() + " palavras em " + categorias.size()
+                + " categorias (" + corpus.length + " bytes) em " + args[1]);
+    }
+
+    /**
+     * Lê a lista de palavras, descartando as inválidas e as repetidas.
+     */
+    private static List<Entrada> ler(Path arquivo, List<String> categorias) throws IOException {
+        List<Entrada> entradas = new ArrayList<>();
+        Set<String> vistas = new HashSet<>();
+        int numeroDaLinha = 0;
+        for (String linha : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+            numeroDaLinha++;
+            linha = Normalizer.normalize(linha.trim(), Normalizer.Form.NFC);
+            if (linha.isEmpty() || linha.startsWith("#")) {
+                continue;
+            }
+            if (linha.startsWith("[") && linha.endsWith("]")) {
+                categorias.add(linha.substring(1, linha.length() - 1).trim());
+                continue;
+            }
+            if (categorias.isEmpty()) {
+                throw new IOException("Linha " + numeroDaLinha + ": palavra fora de uma categoria.");
+            }
+
+            String palavra = linha.toLowerCase(Locale.ROOT);
+            int tamanho = palavra.codePointCount(0, palavra.length());
+            if (tamanho < 2 || tamanho > CorpusDePalavras.TAMANHO_MAXIMO || palavra.chars().anyMatch(Character::isWhitespace)) {
+                System.err.println("Linha " + numeroDaLinha + ": palavra ignorada (tamanho inválido ou com espaços): " + palavra);
+                continue;
+            }
+            if (!vistas.add(NormalizadorDeTexto.normalizar(palavra))) {
+                System.err.println("Linha " + numeroDaLinha + ": palavra repetida ignorada: " + palavra);
+                continue;
+            }
+            entradas.add(new Entrada(palavra, categorias.size() - 1, tamanho));
+        }
+        if (categorias.size() > 255) {
+            throw new IOException("O corpus suporta no máximo 255 categorias.");
+        }
+        return entradas;
+    }
+
+    /**
+     * Calcula a raridade de cada palavra e a divide em três faixas de dificuldade.
+     */
+    private static void calcularDificuldades(List<Entrada> entradas) {
+        long[] frequencias = new long[26];
+        long total = 0;
+        for (Entrada e : entradas) {
+            String letras = NormalizadorDeTexto.normalizar(e.texto);
+            for (int i = 0; i < letras.length(); i++) {
+                char c = letras.charAt(i);
+                if (c >= 'a' && c <= 'z') {
+                    frequencias[c - 'a']++;
+                    total++;
+                }
+            }
+        }
+
+        for (Entrada e : entradas) {
+            String letras = NormalizadorDeTexto.normalizar(e.texto);
+            int vistas = 0;
+            double soma = 0;
+            int distintas = 0;
+            for (int i = 0; i < letras.length(); i++) {
+                char c = letras.charAt(i);
+                if (c < 'a' || c > 'z' || (vistas & (1 << (c - 'a'))) != 0) {
+                    continue;
+                }
+                vistas |= 1 << (c - 'a');
+                soma += -Math.log(frequencias[c - 'a'] / (double) total);
+                distintas++;
+            }
+            e.raridade = distintas == 0 ? 0 : soma / distintas;
+        }
+
+        List<Entrada> ordenadas = new ArrayList<>(entradas);
+        ordenadas.sort(Comparator.comparingDouble(e -> e.raridade));
+        for (int i = 0; i < ordenadas.size(); i++) {
+            ordenadas.get(i).dificuldade = (int) ((long) i * TOTAL_DIFICULDADES / ordenadas.size());
+        }
+    }
+
+    /**
+     * Monta o arquivo binário no formato descrito em {@link CorpusDePalavras}.
+     */
+    private static byte[] gerar(List<String> categorias, List<Entrada> entradas) throws IOException {
+        int n = entradas.size();
+        int tamanhoMaximo = entradas.stream().mapToInt(e -> e.tamanho).max().orElse(0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(new byte[CorpusDePalavras.TAMANHO_CABECALHO]); // Preenchido no final.
+
+        int secaoCategorias = out.size();
+        for (String categoria : categorias) {
+            escreverTexto(out, categoria);
+        }
+
+        int secaoInfo = out.size();
+        for (Entrada e : entradas) {
+            out.writeByte(e.categoria);
+            out.writeByte(e.dificuldade);
+            out.writeByte(e.tamanho);
+            out.writeByte(0);
+        }
+
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+        DataOutputStream dados = new DataOutputStream(blob);
+        int secaoTextos = out.size();
+        for (Entrada e : entradas) {
+            out.writeInt(dados.size());
+            escreverTexto(dados, e.texto);
+        }
+        int secaoDados = out.size();
+        out.write(blob.toByteArray());
+
+        // Para cada combinação de filtros usados (bit 0: categoria, 1: dificuldade, 2: tamanho), as palavras
+        // são ordenadas pelos filtros usados; cada combinação de valores vira um intervalo contíguo.
+        int totalCategorias = categorias.size();
+        int[] tabela = new int[(totalCategorias + 1) * (TOTAL_DIFICULDADES + 1) * (tamanhoMaximo + 1) * 2];
+        int[][] ordens = new int[8][];
+        for (int forma = 0; forma < 8; forma++) {
+            int f = forma;
+            Integer[] ids = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = i;
+            }
+            Arrays.sort(ids, Comparator.comparingInt((Integer i) -> chave(entradas.get(i), f, tamanhoMaximo)).thenComparingInt(i -> i));
+            ordens[forma] = new int[n];
+            for (int i = 0; i < n; i++) {
+                ordens[forma][i] = ids[i];
+            }
+
+            int inicio = 0;
+            while (inicio < n) {
+                Entrada primeira = entradas.get(ids[inicio]);
+                int fim = inicio;
+                int chave = chave(primeira, f, tamanhoMaximo);
+                while (fim < n && chave(entradas.get(ids[fim]), f, tamanhoMaximo) == chave) {
+                    fim++;
+                }
+                int indice = CorpusDePalavras.indiceDaTabela(
+                        (f & 1) != 0 ? primeira.categoria + 1 : 0,
+                        (f & 2) != 0 ? primeira.dificuldade + 1 : 0,
+                        (f & 4) != 0 ? primeira.tamanho : 0,
+                        tamanhoMaximo);
+                tabela[indice * 2] = forma * n + inicio;
+                tabela[indice * 2 + 1] = fim - inicio;
+                inicio = fim;
+            }
+        }
+
+        int secaoTabela = out.size();
+        for (int valor : tabela) {
+            out.writeInt(valor);
+        }
+        int secaoOrdens = out.size();
+        for (int[] ordem : ordens) {
+            for (int id : ordem) {
+                out.writeInt(id);
+            }
+        }
+        out.flush();
+
+        byte[] resultado = bytes.toByteArray();
+        ByteBuffer cabecalho = ByteBuffer.wrap(resultado);
+        cabecalho.putInt(0, CorpusDePalavras.MAGICO);
+        cabecalho.putInt(4, CorpusDePalavras.VERSAO);
+        cabecalho.putInt(CorpusDePalavras.POS_PALAVRAS, n);
+        cabecalho.putInt(CorpusDePalavras.POS_CATEGORIAS, totalCategorias);
+        cabecalho.putInt(CorpusDePalavras.POS_TAMANHO_MAXIMO, tamanhoMaximo);
+        cabecalho.putInt(CorpusDePalavras.POS_SECAO_CATEGORIAS, secaoCategorias);
+        cabecalho.putInt(CorpusDePalavras.POS_SECAO_INFO, secaoInfo);
+        cabecalho.putInt(CorpusDePalavras.POS_SECAO_TEXTOS, secaoTextos);
+        cabecalho.putInt(CorpusDePalavras.POS_SECAO_DADOS, secaoDados);
+        cabecalho.putInt(CorpusDePalavras.POS_SECAO_TABELA, secaoTabela);
+        cabecalho.putInt(CorpusDePalavras.POS_SECAO_ORDENS, secaoOrdens);
+        return resultado;
+    }
+
+    /**
+     * A chave de ordenação de uma palavra, considerando apenas os filtros usados pela combinação.
+     */
+    private static int chave(Entrada e, int forma, int tamanhoMaximo) {
+        return CorpusDePalavras.indiceDaTabela(
+                (forma & 1) != 0 ? e.categoria + 1 : 0,
+                (forma & 2) != 0 ? e.dificuldade + 1 : 0,
+                (forma & 4) != 0 ? e.tamanho : 0,
+                tamanhoMaximo);
+    }
+
+    private static void escreverTexto(DataOutputStream out, String texto) throws IOException {
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(utf8.length);
+        out.write(utf8);
+    }
+}
@@ -0,0 +1,531 @@
+package br.com.bot.utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ferramenta de linha de comando que importa pacotes de perguntas (CSV ou JSON) e gera o arquivo
+ * binário lido pelo {@link BancoDePerguntas}.
+ * <p>
+ * As entradas são lidas em fluxo, uma pergunta por vez: o texto de cada pergunta vai direto para
+ * um arquivo temporário, e só alguns bytes por pergunta ficam em memória. Perguntas repetidas
+ * (mesmo texto, ignorando acentos, maiúsculas e espaços) são descartadas pelo hash do texto,
+ * mantendo a primeira ocorrência.
+ * <ul>
+ * <li><b>CSV:</b> a primeira linha é o cabeçalho, com as colunas {@code categoria}, {@code dificuldade}
+ * (opcional), {@code pergunta} e {@code resposta}, separadas por vírgula ou ponto e vírgula. Campos
+ * com o separador, aspas ou quebras de linha devem estar entre aspas.</li>
+ * <li><b>JSON:</b> uma lista de objetos (ou um objeto com a lista em {@code "perguntas"}) com os campos
+ * {@code categoria}, {@code dificuldade}, {@code pergunta} e {@code resposta} (texto) ou
+ * {@code respostas} (lista).</li>
+ * </ul>
+ * Respostas alternativas são separadas por '{@value BancoDePerguntas#SEPARADOR_RESPOSTAS}'
+ * (ex: "São Paulo|SP"). Sem dificuldade, a pergunta é considerada média.
+ * <p>
+ * Uso: {@code java -cp target/classes br.com.bot.utils.ImportadorDePerguntas <saida.bin> <pacote.csv|pacote.json>...}
+ *
+ * @author Lucas
+ */
+public final class ImportadorDePerguntas {
+
+    private static final int TOTAL_DIFICULDADES = Dificuldade.values().length;
+
+    private final DataOutputStream dados;
+
+    /** As categorias, na ordem em que aparecem, e o índice de cada uma pelo nome normalizado. */
+    private final List<String> categorias = new ArrayList<>();
+    private final Map<String, Integer> indicesDasCategorias = new HashMap<>();
+
+    /** Os atributos de cada pergunta aceita, em vetores que crescem conforme a leitura. */
+    private int total;
+    private int[] deslocamentos = new int[1024];
+    private byte[] categoriasDasPerguntas = new byte[1024];
+    private byte[] dificuldades = new byte[1024];
+
+    /** Os hashes dos textos já importados, para descartar repetições. */
+    private final ConjuntoDeHashes vistas = new ConjuntoDeHashes();
+
+    /** O tamanho, em bytes, dos textos já escritos no arquivo temporário. */
+    private long tamanhoDados;
+
+    private int repetidas;
+    private int invalidas;
+
+    private ImportadorDePerguntas(DataOutputStream dados) {
+        this.dados = dados;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: ImportadorDePerguntas <saida.bin> <pacote.csv|pacote.json>...");
+            System.exit(1);
+        }
+        Path saida = Paths.get(args[0]);
+        Path temporario = Files.createTempFile("perguntas", ".dados");
+        try {
+            ImportadorDePerguntas importador;
+            try (DataOutputStream dados = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                importador = new ImportadorDePerguntas(dados);
+                for (int i = 1; i < args.length; i++) {
+                    Path entrada = Paths.get(args[i]);
+                    try (BufferedReader leitor = Files.newBufferedReader(entrada, StandardCharsets.UTF_8)) {
+                        if (entrada.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+                            importador.lerJson(leitor);
+                        } else {
+                            importador.lerCsv(leitor);
+                        }
+                    }
+                }
+            }
+            if (importador.total == 0) {
+                System.err.println("Nenhuma pergunta válida foi encontrada.");
+                System.exit(1);
+            }
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(saida))) {
+                importador.gerar(out, temporario);
+            }
+            System.out.println("Banco gerado: " + importador.total + " perguntas em " + importador.categorias.size()
+                    + " categorias (" + importador.repetidas + " repetidas e " + importador.invalidas + " inválidas descartadas) em " + saida);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    /**
+     * Adiciona uma pergunta ao banco, se for válida e inédita.
+     */
+    private void adicionar(String categoria, String dificuldade, String pergunta, List<String> respostas) throws IOException {
+        pergunta = pergunta == null ? "" : pergunta.trim();
+        List<String> aceitas = new ArrayList<>();
+        for (String resposta : respostas) {
+            for (String alternativa : resposta.split("\\" + BancoDePerguntas.SEPARADOR_RESPOSTAS)) {
+                if (!alternativa.isBlank()) {
+                    aceitas.add(alternativa.trim());
+                }
+            }
+        }
+        categoria = categoria == null || categoria.isBlank() ? "Geral" : categoria.trim();
+        Dificuldade nivel = dificuldade == null || dificuldade.isBlank()
+                ? Dificuldade.MEDIO
+                : Dificuldade.deTexto(dificuldade).orElse(null);
+
+        String juntas = String.join(BancoDePerguntas.SEPARADOR_RESPOSTAS, aceitas);
+        if (pergunta.isEmpty() || aceitas.isEmpty() || nivel == null
+                || utf8(pergunta).length > 0xFFFF || utf8(juntas).length > 0xFFFF) {
+            invalidas++;
+            return;
+        }
+        if (!vistas.adicionar(hash(pergunta))) {
+            repetidas++;
+            return;
+        }
+
+        Integer indiceCategoria = indicesDasCategorias.get(NormalizadorDeTexto.normalizar(categoria));
+        if (indiceCategoria == null) {
+            if (categorias.size() == 255) {
+                throw new IOException("O banco suporta no máximo 255 categorias.");
+            }
+            indiceCategoria = categorias.size();
+            categorias.add(categoria);
+            indicesDasCategorias.put(NormalizadorDeTexto.normalizar(categoria), indiceCategoria);
+        }
+
+        if (total == deslocamentos.length) {
+            deslocamentos = Arrays.copyOf(deslocamentos, total * 2);
+            categoriasDasPerguntas = Arrays.copyOf(categoriasDasPerguntas, total * 2);
+            dificuldades = Arrays.copyOf(dificuldades, total * 2);
+        }
+        deslocamentos[total] = (int) tamanhoDados;
+        categoriasDasPerguntas[total] = (byte) (int) indiceCategoria;
+        dificuldades[total] = (byte) nivel.ordinal();
+        total++;
+        tamanhoDados += escreverTexto(dados, pergunta) + escreverTexto(dados, juntas);
+        if (tamanhoDados > Integer.MAX_VALUE) {
+            throw new IOException("O banco excede o tamanho máximo de 2 GB.");
+        }
+    }
+
+    // --- Leitura de CSV ---
+
+    /**
+     * Lê um pacote CSV, registro a registro.
+     */
+    private void lerCsv(Reader leitor) throws IOException {
+        LeitorCsv csv = new LeitorCsv(leitor);
+        List<String> cabecalho = csv.proximoRegistro();
+        if (cabecalho == null) {
+            return;
+        }
+        int colunaCategoria = -1, colunaDificuldade = -1, colunaPergunta = -1, colunaResposta = -1;
+        for (int i = 0; i < cabecalho.size(); i++) {
+            switch (NormalizadorDeTexto.normalizar(cabecalho.get(i).trim())) {
+                case "categoria": colunaCategoria = i; break;
+                case "dificuldade": colunaDificuldade = i; break;
+                case "pergunta": colunaPergunta = i; break;
+                case "resposta":
+                case "respostas": colunaResposta = i; break;
+                default: break;
+            }
+        }
+        if (colunaPergunta < 0 || colunaResposta < 0) {
+            throw new IOException("O cabeçalho do CSV deve ter as colunas 'pergunta' e 'resposta': " + cabecalho);
+        }
+
+        List<String> registro;
+        while ((registro = csv.proximoRegistro()) != null) {
+            if (registro.size() == 1 && registro.get(0).isBlank()) {
+                continue; // Linha vazia.
+            }
+            adicionar(campo(registro, colunaCategoria), campo(registro, colunaDificuldade),
+                    campo(registro, colunaPergunta), List.of(campo(registro, colunaResposta) == null ? "" : campo(registro, colunaResposta)));
+        }
+    }
+
+    private static String campo(List<String> registro, int coluna) {
+        return coluna >= 0 && coluna < registro.size() ? registro.get(coluna) : null;
+    }
+
+    /**
+     * Um leitor de CSV em fluxo (RFC 4180), que detecta o separador (vírgula ou ponto e vírgula) pelo cabeçalho.
+     */
+    private static final class LeitorCsv {
+        private final Reader leitor;
+        private char separador;
+        private int proximo = -2;
+
+        private LeitorCsv(Reader leitor) {
+            this.leitor = leitor;
+        }
+
+        private int ler() throws IOException {
+            if (proximo != -2) {
+                int c = proximo;
+                proximo = -2;
+                return c;
+            }
+            return leitor.read();
+        }
+
+        /**
+         * Lê o próximo registro.
+         *
+         * @return Os campos do registro, ou {@code null} no fim da entrada.
+         */
+        private List<String> proximoRegistro() throws IOException {
+            int c = ler();
+            if (c == '\uFEFF') {
+                c = ler(); // Marca de ordem de bytes no início do arquivo.
+            }
+            if (c == -1) {
+                return null;
+            }
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreAspas = false;
+            boolean cabecalho = separador == 0;
+
+            while (c != -1) {
+                if (entreAspas) {
+                    if (c == '"') {
+                        int seguinte = ler();
+                        if (seguinte == '"') {
+                            campo.append('"');
+                        } else {
+                            entreAspas = false;
+                            proximo = seguinte;
+                        }
+                    } else {
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.length() == 0) {
+                    entreAspas = true;
+                } else if (c == ',' || c == ';') {
+                    if (separador == 0 && cabecalho) {
+                        separador = (char) c;
+                    }
+                    if (c == separador) {
+                        campos.add(campo.toString());
+                        campo.setLength(0);
+                    } else {
+                        campo.append((char) c);
+                    }
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int seguinte = ler();
+                        if (seguinte != '\n') {
+                            proximo = seguinte;
+                        }
+                    }
+                    break;
+                } else {
+                    campo.append((char) c);
+                }
+                c = ler();
+            }
+            campos.add(campo.toString());
+            if (cabecalho && separador == 0) {
+                separador = ',';
+            }
+            return campos;
+        }
+    }
+
+    // --- Leitura de JSON ---
+
+    /**
+     * Lê um pacote JSON, objeto a objeto, sem carregar o documento inteiro.
+     */
+    private void lerJson(Reader leitor) throws IOException {
+        JsonReader json = new JsonReader(leitor);
+        if (json.peek() == JsonToken.BEGIN_OBJECT) {
+            // Formato { "perguntas": [ ... ] }
+            json.beginObject();
+            while (json.hasNext()) {
+                if (json.nextName().equals("perguntas")) {
+                    lerListaJson(json);
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+        } else {
+            lerListaJson(json);
+        }
+    }
+
+    private void lerListaJson(JsonReader json) throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            String categoria = null, dificuldade = null, pergunta = null;
+            List<String> respostas = new ArrayList<>();
+            json.beginObject();
+            while (json.hasNext()) {
+                String nome = json.nextName();
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                switch (nome) {
+                    case "categoria": categoria = json.nextString(); break;
+                    case "dificuldade": dificuldade = json.nextString(); break;
+                    case "pergunta": pergunta = json.nextString(); break;
+                    case "resposta":
+                    case "respostas":
+                        if (json.peek() == JsonToken.BEGIN_ARRAY) {
+                            json.beginArray();
+                            while (json.hasNext()) {
+                                respostas.add(json.nextString());
+                            }
+                            json.endArray();
+                        } else {
+                            respostas.add(json.nextString());
+                        }
+                        break;
+                    default: json.skipValue(); break;
+                }
+            }
+            json.endObject();
+            adicionar(categoria, dificuldade, pergunta, respostas);
+        }
+        json.endArray();
+    }
+
+    // --- Geração do arquivo ---
+
+    /**
+     * Escreve o arquivo no formato descrito em {@link BancoDePerguntas}, copiando os textos do arquivo temporário.
+     */
+    private void gerar(OutputStream saida, Path temporario) throws IOException {
+        int totalCategorias = categorias.size();
+
+        // Para cada combinação de filtros usados (bit 0: categoria, 1: dificuldade), as perguntas são
+        // ordenadas por contagem pelos filtros usados; cada combinação de valores vira um intervalo contíguo.
+        int entradasDaTabela = (totalCategorias + 1) * (TOTAL_DIFICULDADES + 1);
+        int[] tabela = new int[entradasDaTabela * 2];
+        int[][] ordens = new int[4][];
+        for (int forma = 0; forma < 4; forma++) {
+            int[] contagem = new int[entradasDaTabela + 1];
+            for (int i = 0; i < total; i++) {
+                contagem[chave(i, forma) + 1]++;
+            }
+            for (int k = 0; k < entradasDaTabela; k++) {
+                contagem[k + 1] += contagem[k];
+            }
+            for (int k = 0; k < entradasDaTabela; k++) {
+                int quantidade = contagem[k + 1] - contagem[k];
+                if (quantidade > 0) {
+                    tabela[k * 2] = forma * total + contagem[k];
+                    tabela[k * 2 + 1] = quantidade;
+                }
+            }
+            int[] ordem = new int[total];
+            for (int i = 0; i < total; i++) {
+                ordem[contagem[chave(i, forma)]++] = i;
+            }
+            ordens[forma] = ordem;
+        }
+
+        byte[][] nomes = new byte[totalCategorias][];
+        int tamanhoCategorias = 0;
+        for (int i = 0; i < totalCategorias; i++) {
+            nomes[i] = utf8(categorias.get(i));
+            tamanhoCategorias += 2 + nomes[i].length;
+        }
+
+        long secaoCategorias = BancoDePerguntas.TAMANHO_CABECALHO;
+        long secaoInfo = secaoCategorias + tamanhoCategorias;
+        long secaoTextos = secaoInfo + 4L * total;
+        long secaoDados = secaoTextos + 4L * total;
+        long secaoTabela = secaoDados + tamanhoDados;
+        long secaoOrdens = secaoTabela + 4L * tabela.length;
+        if (secaoOrdens + 16L * total > Integer.MAX_VALUE) {
+            throw new IOException("O banco excede o tamanho máximo de 2 GB.");
+        }
+
+        DataOutputStream out = new DataOutputStream(saida);
+        out.writeInt(BancoDePerguntas.MAGICO);
+        out.writeInt(BancoDePerguntas.VERSAO);
+        out.writeInt(total);
+        out.writeInt(totalCategorias);
+        out.writeInt((int) secaoCategorias);
+        out.writeInt((int) secaoInfo);
+        out.writeInt((int) secaoTextos);
+        out.writeInt((int) secaoDados);
+        out.writeInt((int) secaoTabela);
+        out.writeInt((int) secaoOrdens);
+
+        for (byte[] nome : nomes) {
+            out.writeShort(nome.length);
+            out.write(nome);
+        }
+        for (int i = 0; i < total; i++) {
+            out.writeByte(categoriasDasPerguntas[i]);
+            out.writeByte(dificuldades[i]);
+            out.writeShort(0);
+        }
+        for (int i = 0; i < total; i++) {
+            out.writeInt(deslocamentos[i]);
+        }
+        out.flush();
+        Files.copy(temporario, saida);
+        for (int valor : tabela) {
+            out.writeInt(valor);
+        }
+        for (int[] ordem : ordens) {
+            for (int id : ordem) {
+                out.writeInt(id);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * A posição, na tabela, da combinação de filtros de uma pergunta, considerando apenas os filtros usados pela forma.
+     */
+    private int chave(int pergunta, int forma) {
+        return BancoDePerguntas.indiceDaTabela(
+                (forma & 1) != 0 ? (categoriasDasPerguntas[pergunta] & 0xFF) + 1 : 0,
+                (forma & 2) != 0 ? dificuldades[pergunta] + 1 : 0);
+    }
+
+    /**
+     * Escreve um texto no formato [short bytes][UTF-8].
+     *
+     * @return O número de bytes escritos.
+     */
+    private static int escreverTexto(DataOutputStream out, String texto) throws IOException {
+        byte[] bytes = utf8(texto);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+        return 2 + bytes.length;
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * O hash (FNV-1a de 64 bits) do texto de uma pergunta, sem acentos, em minúsculas e com os espaços colapsados.
+     */
+    static long hash(String pergunta) {
+        String normalizado = NormalizadorDeTexto.normalizar(pergunta);
+        long h = 0xcbf29ce484222325L;
+        boolean espaco = false;
+        for (int i = 0; i < normalizado.length(); i++) {
+            char c = normalizado.charAt(i);
+            if (Character.isWhitespace(c)) {
+                espaco = true;
+                continue;
+            }
+            if (espaco) {
+                h = (h ^ ' ') * 0x100000001b3L;
+                espaco = false;
+            }
+            h = (h ^ (c & 0xFF)) * 0x100000001b3L;
+            h = (h ^ (c >>> 8)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Um conjunto de hashes de 64 bits com endereçamento aberto, sem objetos por elemento.
+     */
+    private static final class ConjuntoDeHashes {
+        private long[] chaves = new long[1024];
+        private boolean temZero;
+        private int tamanho;
+
+        /**
+         * @return {@code false} se o hash já estava no conjunto.
+         */
+        private boolean adicionar(long hash) {
+            if (hash == 0) {
+                boolean novo = !temZero;
+                temZero = true;
+                return novo;
+            }
+            if (tamanho * 2 >= chaves.length) {
+                long[] antigas = chaves;
+                chaves = new long[antigas.length * 2];
+                tamanho = 0;
+                for (long chave : antigas) {
+                    if (chave != 0) {
+                        inserir(chave);
+                    }
+                }
+            }
+            return inserir(hash);
+        }
+
+        private boolean inserir(long hash) {
+            int mascara = chaves.length - 1;
+            int i = (int) (hash ^ (hash >>> 32)) & mascara;
+            while (chaves[i] != 0) {
+                if (chaves[i] == hash) {
+                    return false;
+                }
+                i = (i + 1) & mascara;
+            }
+            chaves[i] = hash;
+            tamanho++;
+            return true;
+        }
+    }
+}
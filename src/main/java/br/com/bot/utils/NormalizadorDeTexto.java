@@ -1,18 +1,45 @@
 package br.com.bot.utils;
 
 import java.text.Normalizer;
-import java.util.regex.Pattern;
 
 /**
  * Classe utilitária para manipulação e sanitização de strings.
  * Fornece métodos estáticos para operações comuns de texto.
+ * <p>
+ * A remoção de acentos é feita por tabela: o equivalente sem acento (e em minúsculas) de cada
+ * caractere dos blocos Latin-1 e Latin Extended-A/B é calculado uma única vez, na carga da classe.
+ * Textos só com ASCII passam por um caminho rápido, e apenas caracteres fora da tabela (raros em
+ * mensagens em português) recorrem ao {@link Normalizer}.
  */
 public class NormalizadorDeTexto {
 
+    /** O primeiro caractere fora da tabela (fim do bloco Latin Extended-B). */
+    private static final int FIM_DA_TABELA = 0x250;
+
+    /** Marca, na tabela, os caracteres cuja forma sem acento tem mais de um caractere. */
+    private static final char SEM_MAPEAMENTO = '\0';
+
+    /** O caractere sem acento correspondente a cada caractere da tabela. */
+    private static final char[] SEM_ACENTO = new char[FIM_DA_TABELA];
+
+    /** O caractere sem acento e em minúsculas correspondente a cada caractere da tabela. */
+    private static final char[] SEM_ACENTO_MINUSCULO = new char[FIM_DA_TABELA];
+
+    static {
+        for (char c = 0; c < FIM_DA_TABELA; c++) {
+            String base = removerMarcas(Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD));
+            if (base.length() == 1) {
+                SEM_ACENTO[c] = base.charAt(0);
+                SEM_ACENTO_MINUSCULO[c] = Character.toLowerCase(base.charAt(0));
+            } else {
+                SEM_ACENTO[c] = SEM_MAPEAMENTO;
+                SEM_ACENTO_MINUSCULO[c] = SEM_MAPEAMENTO;
+            }
+        }
+    }
+
     /**
      * Remove todos os acentos e marcas diacríticas de uma string.
-     * Este metodo utiliza o Normalizer do Java para decompor os caracteres
-     * e depois remove as marcas de combinação com uma expressão regular.
      *
      * @param texto A string original que pode conter acentos (ex: "ação").
      * @return A string normalizada sem acentos (ex: "acao"). Retorna null se a entrada for null.
@@ -21,14 +48,129 @@ public class NormalizadorDeTexto {
         if (texto == null) {
             return null;
         }
+        return converter(texto, false);
+    }
+
+    /**
+     * Remove os acentos e converte para minúsculas em uma única passada. É a forma usada para
+     * comparar respostas: "AÇÃO", "ação" e "acao" resultam em "acao".
+     * <p>
+     * Se o texto já estiver normalizado (ex: ASCII em minúsculas), a própria String é retornada, sem alocação.
+     *
+     * @param texto A string original.
+     * @return A string sem acentos e em minúsculas. Retorna null se a entrada for null.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        return converter(texto, true);
+    }
+
+    /**
+     * Versão de {@link #normalizar(String)} que escreve o resultado em um buffer reutilizável,
+     * para quem processa muitas mensagens e quer evitar a criação de Strings.
+     * O conteúdo anterior do buffer é descartado.
+     *
+     * @param texto   O texto original.
+     * @param destino O buffer onde o texto sem acentos e em minúsculas será escrito.
+     * @return O próprio buffer, para encadeamento.
+     */
+    public static StringBuilder normalizar(CharSequence texto, StringBuilder destino) {
+        destino.setLength(0);
+        for (int i = 0; i < texto.length(); i++) {
+            i = converterCaractere(texto, i, destino, true);
+        }
+        return destino;
+    }
+
+    /**
+     * Normaliza (remove o acento e converte para minúsculas) um único caractere do texto,
+     * acrescentando o resultado ao destino. Permite que quem compara textos interrompa
+     * a normalização assim que encontrar uma diferença.
+     * <p>
+     * O resultado pode ter zero caracteres (marcas de combinação soltas) ou mais de um
+     * (pares substitutos e caracteres raros).
+     *
+     * @param texto   O texto original.
+     * @param i       A posição do caractere a ser normalizado.
+     * @param destino O buffer onde o resultado será acrescentado.
+     * @return A posição do último caractere consumido; a próxima chamada deve usar este valor mais um.
+     */
+    public static int normalizarCaractere(CharSequence texto, int i, StringBuilder destino) {
+        return converterCaractere(texto, i, destino, true);
+    }
+
+    /**
+     * Converte um texto, retornando o original quando nenhum caractere precisa mudar.
+     */
+    private static String converter(String texto, boolean minusculas) {
+        // Caminho rápido: procura o primeiro caractere que precisa ser convertido.
+        int i = 0;
+        int tamanho = texto.length();
+        while (i < tamanho) {
+            char c = texto.charAt(i);
+            if (c >= 0x80 || (minusculas && c >= 'A' && c <= 'Z')) {
+                break;
+            }
+            i++;
+        }
+        if (i == tamanho) {
+            return texto;
+        }
 
-        // 1. Decompõe a string, separando letras de seus acentos
-        String textoDecomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(tamanho);
+        sb.append(texto, 0, i);
+        for (; i < tamanho; i++) {
+            i = converterCaractere(texto, i, sb, minusculas);
+        }
+        return sb.toString();
+    }
 
-        // 2. Cria um padrão de regex para encontrar todas as marcas diacríticas (acentos)
-        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    /**
+     * Converte o caractere na posição {@code i} e o acrescenta ao destino.
+     *
+     * @return A posição do último caractere consumido (maior que {@code i} para pares substitutos).
+     */
+    private static int converterCaractere(CharSequence texto, int i, StringBuilder destino, boolean minusculas) {
+        char c = texto.charAt(i);
+        if (c < 0x80) {
+            destino.append(minusculas && c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+            return i;
+        }
+        if (c < FIM_DA_TABELA) {
+            char convertido = minusculas ? SEM_ACENTO_MINUSCULO[c] : SEM_ACENTO[c];
+            if (convertido != SEM_MAPEAMENTO) {
+                destino.append(convertido);
+                return i;
+            }
+        }
+        if (c >= 0x0300 && c <= 0x036F) {
+            return i; // Marca de combinação solta (texto já decomposto): é descartada.
+        }
+        if (Character.isHighSurrogate(c) && i + 1 < texto.length() && Character.isLowSurrogate(texto.charAt(i + 1))) {
+            // Emojis e outros caracteres fora do plano básico não têm acentos.
+            destino.append(c).append(texto.charAt(i + 1));
+            return i + 1;
+        }
 
-        // 3. Remove as marcas encontradas, deixando apenas os caracteres base
-        return pattern.matcher(textoDecomposto).replaceAll("");
+        // Caractere raro: recorre ao Normalizer.
+        String base = removerMarcas(Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD));
+        destino.append(minusculas ? base.toLowerCase() : base);
+        return i;
+    }
+
+    /**
+     * Remove as marcas de combinação (bloco "Combining Diacritical Marks") de um texto decomposto.
+     */
+    private static String removerMarcas(String decomposto) {
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (c < 0x0300 || c > 0x036F) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
     }
-}
\ No newline at end of file
+}
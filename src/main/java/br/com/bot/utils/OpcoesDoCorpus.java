@@ -0,0 +1,121 @@
+package br.com.bot.utils;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+import java.util.Optional;
+
+/**
+ * Opções de comando compartilhadas pelos jogos que podem sortear a palavra do {@link CorpusDePalavras}
+ * (Forca e Embaralhar): a palavra passa a ser opcional e, quando omitida, os filtros de tamanho,
+ * dificuldade e categoria escolhem a palavra sorteada.
+ *
+ * @author Lucas
+ */
+public final class OpcoesDoCorpus {
+
+    public static final String PALAVRA = "palavra";
+    public static final String TAMANHO = "tamanho";
+    public static final String DIFICULDADE = "dificuldade";
+    public static final String CATEGORIA = "categoria";
+
+    /** O Discord aceita no máximo 25 escolhas por opção. */
+    private static final int MAXIMO_ESCOLHAS = 25;
+
+    private OpcoesDoCorpus() {
+    }
+
+    /**
+     * Adiciona ao comando a opção 'palavra' (opcional) e os filtros do sorteio.
+     * Como o Discord exige que as opções obrigatórias venham primeiro, deve ser chamado depois delas.
+     *
+     * @param comando   O comando a ser completado.
+     * @param descricao A descrição da opção 'palavra'.
+     * @param corpus    O corpus de palavras, ou {@code null} se ele não estiver disponível.
+     * @return O próprio comando.
+     */
+    public static SlashCommandData adicionarOpcoes(SlashCommandData comando, String descricao, CorpusDePalavras corpus) {
+        if (corpus == null) {
+            return comando.addOption(OptionType.STRING, PALAVRA, descricao, true);
+        }
+        comando.addOption(OptionType.STRING, PALAVRA, descricao + " Se omitida, uma palavra é sorteada.", false);
+
+        OptionData tamanho = new OptionData(OptionType.INTEGER, TAMANHO, "Sorteio: o número de letras da palavra.", false)
+                .setRequiredRange(2, Math.max(2, corpus.getTamanhoMaximo()));
+
+        OptionData dificuldade = new OptionData(OptionType.STRING, DIFICULDADE, "Sorteio: a dificuldade da palavra.", false);
+        for (Dificuldade d : Dificuldade.values()) {
+            dificuldade.addChoice(d.getNome(), d.name());
+        }
+
+        OptionData categoria = new OptionData(OptionType.STRING, CATEGORIA, "Sorteio: a categoria da palavra.", false);
+        if (corpus.getCategorias().size() <= MAXIMO_ESCOLHAS) {
+            for (String nome : corpus.getCategorias()) {
+                categoria.addChoice(nome, nome);
+            }
+        }
+        return comando.addOptions(tamanho, dificuldade, categoria);
+    }
+
+    /**
+     * Verifica se o anfitrião informou a palavra do jogo.
+     *
+     * @param event O evento do comando.
+     * @return A palavra informada, ou vazio se ela deve ser sorteada.
+     */
+    public static Optional<String> getPalavraInformada(SlashCommandInteractionEvent event) {
+        OptionMapping palavra = event.getOption(PALAVRA);
+        if (palavra == null || palavra.getAsString().isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(palavra.getAsString());
+    }
+
+    /**
+     * Sorteia uma palavra do corpus segundo os filtros do comando.
+     * Se não for possível, envia uma mensagem de erro efêmera.
+     *
+     * @param event  O evento do comando.
+     * @param corpus O corpus de palavras, ou {@code null} se ele não estiver disponível.
+     * @return A palavra sorteada, ou vazio se o sorteio falhou (o usuário já foi avisado).
+     */
+    public static Optional<CorpusDePalavras.Palavra> sortear(SlashCommandInteractionEvent event, CorpusDePalavras corpus) {
+        if (corpus == null) {
+            event.reply("O banco de palavras não está disponível. Informe a palavra na opção '" + PALAVRA + "'.").setEphemeral(true).queue();
+            return Optional.empty();
+        }
+
+        int categoria = -1;
+        OptionMapping categoriaOpt = event.getOption(CATEGORIA);
+        if (categoriaOpt != null) {
+            categoria = corpus.indiceDaCategoria(categoriaOpt.getAsString());
+            if (categoria < 0) {
+                event.reply("Categoria desconhecida: '" + categoriaOpt.getAsString() + "'.").setEphemeral(true).queue();
+                return Optional.empty();
+            }
+        }
+
+        Dificuldade dificuldade = null;
+        OptionMapping dificuldadeOpt = event.getOption(DIFICULDADE);
+        if (dificuldadeOpt != null) {
+            try {
+                dificuldade = Dificuldade.valueOf(dificuldadeOpt.getAsString());
+            } catch (IllegalArgumentException e) {
+                event.reply("Dificuldade desconhecida: '" + dificuldadeOpt.getAsString() + "'.").setEphemeral(true).queue();
+                return Optional.empty();
+            }
+        }
+
+        OptionMapping tamanhoOpt = event.getOption(TAMANHO);
+        int tamanho = tamanhoOpt == null ? 0 : tamanhoOpt.getAsInt();
+
+        Optional<CorpusDePalavras.Palavra> palavra = corpus.sortear(categoria, dificuldade, tamanho);
+        if (palavra.isEmpty()) {
+            event.reply("Nenhuma palavra do banco atende a esses filtros. Tente outra combinação.").setEphemeral(true).queue();
+        }
+        return palavra;
+    }
+}
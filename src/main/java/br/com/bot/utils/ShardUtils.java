@@ -0,0 +1,39 @@
+package br.com.bot.utils;
+
+/**
+ * Classe utilitária para o particionamento de estado por shard.
+ * <p>
+ * O Discord distribui os servidores entre os shards pela fórmula
+ * {@code (guildId >> 22) % totalDeShards}. Usar a mesma fórmula para escolher a partição
+ * de um mapa garante que cada shard acesse apenas as suas próprias partições.
+ */
+public class ShardUtils {
+
+    /**
+     * Calcula o shard responsável por um servidor (Guild).
+     *
+     * @param guildId O ID (snowflake) do servidor.
+     * @param shardsTotal O número total de shards (1 quando o bot não usa sharding).
+     * @return O ID do shard, entre {@code 0} e {@code shardsTotal - 1}.
+     */
+    public static int shardDe(long guildId, int shardsTotal) {
+        if (shardsTotal <= 1) {
+            return 0;
+        }
+        return (int) ((guildId >>> 22) % shardsTotal);
+    }
+
+    /**
+     * Versão de {@link #shardDe(long, int)} para IDs no formato de texto.
+     *
+     * @param guildId O ID do servidor como String.
+     * @param shardsTotal O número total de shards.
+     * @return O ID do shard.
+     */
+    public static int shardDe(String guildId, int shardsTotal) {
+        if (shardsTotal <= 1) {
+            return 0;
+        }
+        return shardDe(Long.parseLong(guildId), shardsTotal);
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.bot.utils;
+
+/**
+ * Utilitários para os IDs do Discord ("snowflakes"), que carregam nos seus 42 bits mais altos o
+ * instante de criação, em milissegundos, segundo o relógio do próprio Discord.
+ * <p>
+ * Medir intervalos pelos IDs (ex: entre a mensagem que inicia um jogo e a resposta de um jogador)
+ * dá o tempo visto pelo Discord, que não depende da fila de eventos, da carga ou das pausas do bot.
+ *
+ * @author Lucas
+ */
+public final class Snowflakes {
+
+    /** O início da contagem dos snowflakes: 01/01/2015, em milissegundos desde a época Unix. */
+    public static final long EPOCA_DISCORD_MS = 1420070400000L;
+
+    /** Os bits mais baixos guardam o trabalhador, o processo e o contador; o instante vem depois deles. */
+    private static final int BITS_SEM_INSTANTE = 22;
+
+    private Snowflakes() {
+    }
+
+    /**
+     * Retorna o instante de criação de um snowflake.
+     *
+     * @param snowflake O ID do Discord.
+     * @return O instante, em milissegundos desde a época Unix.
+     */
+    public static long instante(long snowflake) {
+        return (snowflake >>> BITS_SEM_INSTANTE) + EPOCA_DISCORD_MS;
+    }
+}
@@ -39,10 +39,15 @@ public class CancelarCommand implements ICommand {
      */
     @Override
     public void execute(SlashCommandInteractionEvent event) {
-        String channelId = event.getChannel().getId();
+        if (event.getGuild() == null) {
+            event.reply("Este comando só pode ser usado em um servidor.").setEphemeral(true).queue();
+            return;
+        }
+        long guildId = event.getGuild().getIdLong();
+        long channelId = event.getChannel().getIdLong();
 
-        if (gameManager.isJogoAtivo(channelId)) {
-            gameManager.finalizarJogo(channelId);
+        if (gameManager.isJogoAtivo(guildId, channelId)) {
+            gameManager.finalizarJogo(guildId, channelId);
             event.reply("✅ O jogo ativo neste canal foi cancelado!").queue();
         } else {
             event.reply("ℹ️ Não há nenhum jogo ativo para cancelar neste canal.").setEphemeral(true).queue();
@@ -8,6 +8,7 @@ import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEve
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.sharding.ShardManager;
 
 import java.util.List;
 
@@ -15,7 +16,8 @@ import java.util.List;
  * Um comando de diagnóstico para o dono do bot.
  * <p>
  * Este comando lista todos os servidores (Guilds) em que o bot está atualmente,
- * incluindo nome, ID e contagem de membros de cada um. O uso é restrito a administradores
+ * incluindo nome, ID e contagem de membros de cada um. Quando o bot roda com shards, a lista
+ * é precedida pelos totais de cada shard. O uso é restrito a administradores
  * para evitar a exposição de informações sobre outros servidores.
  *
  * @author Lucas
@@ -38,12 +40,25 @@ public class ListServersCommand implements ICommand {
     @Override
     public void execute(SlashCommandInteractionEvent event) {
         JDA jda = event.getJDA();
-        List<Guild> servers = jda.getGuilds();
+        ShardManager shardManager = jda.getShardManager();
+        List<Guild> servers = shardManager != null ? shardManager.getGuilds() : jda.getGuilds();
 
         // Usa um StringBuilder para construir uma única mensagem grande de forma eficiente
         StringBuilder responseBuilder = new StringBuilder();
         responseBuilder.append("O bot está em **").append(servers.size()).append("** servidores:\n\n");
 
+        if (shardManager != null) {
+            for (JDA shard : shardManager.getShards()) {
+                long membros = shard.getGuildCache().stream().mapToLong(Guild::getMemberCount).sum();
+                responseBuilder.append(String.format("🔹 **Shard %d** (%s): %d servidores, %d membros\n",
+                        shard.getShardInfo().getShardId(),
+                        shard.getStatus(),
+                        shard.getGuildCache().size(),
+                        membros));
+            }
+            responseBuilder.append("\n");
+        }
+
         for (Guild server : servers) {
             String serverInfo = String.format(
                     "- **%s** (ID: %s) - %d membros\n",
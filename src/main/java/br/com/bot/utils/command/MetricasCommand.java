@@ -0,0 +1,67 @@
+package br.com.bot.utils.command;
+
+import br.com.bot.shared.ICommand;
+import br.com.bot.shared.IMetricsSource;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+import java.util.List;
+
+/**
+ * Um comando de diagnóstico para o dono do bot.
+ * <p>
+ * Este comando reúne as métricas de desempenho de todos os componentes registrados
+ * (filas de processamento, timers, persistência, etc.) e as exibe de forma efêmera.
+ * Assim como o {@code /servidores}, ele só é registrado no servidor de teste.
+ *
+ * @author Lucas
+ */
+public class MetricasCommand implements ICommand {
+
+    /** Os componentes cujas métricas serão exibidas. */
+    private final List<IMetricsSource> fontes;
+
+    /**
+     * Constrói o comando de métricas com suas dependências.
+     *
+     * @param fontes Os componentes que expõem métricas.
+     */
+    public MetricasCommand(List<IMetricsSource> fontes) {
+        this.fontes = fontes;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Monta uma única mensagem com um bloco por componente, respeitando o limite
+     * de 2000 caracteres do Discord.
+     */
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        StringBuilder responseBuilder = new StringBuilder();
+        for (IMetricsSource fonte : fontes) {
+            responseBuilder.append("**").append(fonte.getMetricsName()).append("**\n")
+                    .append("```\n").append(fonte.getMetricsSummary()).append("```\n");
+        }
+
+        String resposta = responseBuilder.length() > 2000
+                ? responseBuilder.substring(0, 1990) + "\n(...)"
+                : responseBuilder.toString();
+        event.reply(resposta).setEphemeral(true).queue();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cria e retorna a definição do comando /metricas para o Discord,
+     * restringindo seu uso padrão a membros com a permissão de Administrador.
+     */
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("metricas", "Exibe as métricas de desempenho internas do bot.")
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.ADMINISTRATOR));
+    }
+}
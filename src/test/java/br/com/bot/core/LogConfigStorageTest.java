@@ -0,0 +1,159 @@
+package br.com.bot.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a recuperação do {@link LogConfigStorage} depois de danos no arquivo: um registro incompleto
+ * no fim é descartado, e um registro inválido no meio não leva consigo os registros válidos seguintes.
+ *
+ * @author Lucas
+ */
+class LogConfigStorageTest {
+
+    /** O tamanho do cabeçalho de um registro, como em {@link LogConfigStorage}. */
+    private static final int CABECALHO = 17;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void registroDanificadoNoMeioNaoApagaOsSeguintes() throws IOException {
+        gravarServidores(1, 2, 3);
+        Path log = diretorio.resolve("server_configs.1.log");
+        long[] posicoes = posicoesDosRegistros(log, 3);
+        inverterByte(log, posicoes[1] + CABECALHO + 2); // o conteúdo do servidor 2
+        byte[] original = Files.readAllBytes(log);
+
+        Map<String, ServerConfig> configs = carregar();
+        assertEquals(List.of("1", "3"), ordenadas(configs));
+        assertEquals(30, configs.get("3").getMaxGameTimeSeconds());
+
+        Path copia = unicoCorrompido();
+        assertEquals("server_configs.1.log.corrompido", copia.getFileName().toString());
+        assertArrayEquals(original, Files.readAllBytes(copia));
+
+        // O log foi compactado sem o trecho danificado: novas gravações e recargas seguem normais.
+        LogConfigStorage storage = new LogConfigStorage(diretorio);
+        storage.carregarTodas();
+        storage.gravar(Map.of("4", ServerConfig.PADRAO.comMaxGameTimeSeconds(40)));
+        storage.fechar();
+        configs = carregar();
+        assertEquals(List.of("1", "3", "4"), ordenadas(configs));
+        assertEquals(10, configs.get("1").getMaxGameTimeSeconds());
+        assertEquals(1, contarCorrompidos());
+    }
+
+    @Test
+    void tamanhoDanificadoNoMeioRessincronizaNoProximoRegistro() throws IOException {
+        gravarServidores(1, 2, 3, 4);
+        Path log = diretorio.resolve("server_configs.1.log");
+        long[] posicoes = posicoesDosRegistros(log, 4);
+        inverterByte(log, posicoes[1]); // o byte mais alto do tamanho do registro do servidor 2
+
+        Map<String, ServerConfig> configs = carregar();
+        assertEquals(List.of("1", "3", "4"), ordenadas(configs));
+        assertEquals(1, contarCorrompidos());
+    }
+
+    @Test
+    void registroIncompletoNoFimEDescartado() throws IOException {
+        gravarServidores(1, 2, 3);
+        Path log = diretorio.resolve("server_configs.1.log");
+        long[] posicoes = posicoesDosRegistros(log, 3);
+        inverterByte(log, posicoes[2] + CABECALHO + 2); // o conteúdo do último registro
+
+        assertEquals(List.of("1", "2"), ordenadas(carregar()));
+        assertEquals(0, contarCorrompidos());
+
+        // O lixo foi apagado: o próximo registro ocupa o lugar do descartado e é lido na recarga.
+        LogConfigStorage storage = new LogConfigStorage(diretorio);
+        storage.carregarTodas();
+        storage.gravar(Map.of("5", ServerConfig.PADRAO.comMaxGameTimeSeconds(50)));
+        storage.fechar();
+        Map<String, ServerConfig> configs = carregar();
+        assertEquals(List.of("1", "2", "5"), ordenadas(configs));
+        assertEquals(50, configs.get("5").getMaxGameTimeSeconds());
+        assertEquals(0, contarCorrompidos());
+    }
+
+    /** Grava um servidor por vez, com tempo máximo igual a dez vezes o seu ID. */
+    private void gravarServidores(long... ids) {
+        LogConfigStorage storage = new LogConfigStorage(diretorio);
+        storage.carregarTodas();
+        for (long id : ids) {
+            storage.gravar(Map.of(String.valueOf(id), ServerConfig.PADRAO.comMaxGameTimeSeconds(id * 10)));
+        }
+        storage.fechar();
+    }
+
+    private Map<String, ServerConfig> carregar() {
+        LogConfigStorage storage = new LogConfigStorage(diretorio);
+        try {
+            return storage.carregarTodas();
+        } finally {
+            storage.fechar();
+        }
+    }
+
+    private static long[] posicoesDosRegistros(Path log, int quantidade) throws IOException {
+        long[] posicoes = new long[quantidade];
+        try (RandomAccessFile arquivo = new RandomAccessFile(log.toFile(), "r")) {
+            long pos = 0;
+            for (int i = 0; i < quantidade; i++) {
+                posicoes[i] = pos;
+                arquivo.seek(pos);
+                pos += CABECALHO + arquivo.readInt();
+            }
+        }
+        return posicoes;
+    }
+
+    private static void inverterByte(Path log, long pos) throws IOException {
+        try (RandomAccessFile arquivo = new RandomAccessFile(log.toFile(), "rw")) {
+            arquivo.seek(pos);
+            int valor = arquivo.read();
+            arquivo.seek(pos);
+            arquivo.write(valor ^ 0x40);
+        }
+    }
+
+    private static List<String> ordenadas(Map<String, ServerConfig> configs) {
+        List<String> ids = new ArrayList<>(configs.keySet());
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private Path unicoCorrompido() throws IOException {
+        assertEquals(1, contarCorrompidos());
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*.corrompido")) {
+            return arquivos.iterator().next();
+        }
+    }
+
+    private int contarCorrompidos() throws IOException {
+        int total = 0;
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*.corrompido")) {
+            for (Path ignorado : arquivos) {
+                total++;
+            }
+        }
+        assertFalse(total > 1, "mais de uma cópia do log danificado");
+        return total;
+    }
+}
@@ -0,0 +1,187 @@
+package br.com.bot.estatisticas;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara os percentis do {@link EsbocoDeTempos} com os percentis exatos de tempos aleatórios, e confere
+ * que mesclar esboços equivale a contar todos os tempos em um só e que a gravação compacta é reversível.
+ *
+ * @author Lucas
+ */
+class EsbocoDeTemposTest {
+
+    private static final double[] QUANTIS = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    void percentisFicamDentroDoErroRelativo() {
+        Random random = new Random(7);
+        for (int rodada = 0; rodada < 20; rodada++) {
+            int quantidade = 1 + random.nextInt(20_000);
+            long[] tempos = new long[quantidade];
+            EsbocoDeTempos esboco = new EsbocoDeTempos();
+            for (int i = 0; i < quantidade; i++) {
+                tempos[i] = tempoAleatorio(random);
+                esboco.registrar(tempos[i]);
+            }
+            Arrays.sort(tempos);
+            assertEquals(quantidade, esboco.getTotal());
+            for (double quantil : QUANTIS) {
+                long exato = tempos[(int) Math.floor(quantil * (quantidade - 1))];
+                conferirErro(exato, esboco.quantil(quantil), "rodada " + rodada + ", quantil " + quantil);
+            }
+        }
+    }
+
+    @Test
+    void temposForaDoIntervaloSaoLimitados() {
+        EsbocoDeTempos esboco = new EsbocoDeTempos();
+        assertEquals(-1, esboco.quantil(0.5));
+        assertEquals(0, esboco.getTotal());
+
+        esboco.registrar(-5);
+        esboco.registrar(0);
+        assertEquals(1, esboco.quantil(0));
+        esboco.registrar(EsbocoDeTempos.TEMPO_MAXIMO_MS * 10);
+        conferirErro(EsbocoDeTempos.TEMPO_MAXIMO_MS, esboco.quantil(1), "tempo acima do máximo");
+        // Quantis fora de [0, 1] são limitados ao intervalo.
+        assertEquals(esboco.quantil(0), esboco.quantil(-1));
+        assertEquals(esboco.quantil(1), esboco.quantil(2));
+    }
+
+    @Test
+    void mesclarEquivaleAContarTudoEmUmSo() throws IOException {
+        Random random = new Random(11);
+        for (int rodada = 0; rodada < 50; rodada++) {
+            EsbocoDeTempos todos = new EsbocoDeTempos();
+            EsbocoDeTempos mesclado = new EsbocoDeTempos();
+            int partes = 1 + random.nextInt(5);
+            for (int parte = 0; parte < partes; parte++) {
+                // Cada parte usa um intervalo próprio, para que a mescla estenda o esboço para os dois lados.
+                long escala = 1 + random.nextInt(50_000);
+                EsbocoDeTempos esboco = new EsbocoDeTempos();
+                int quantidade = random.nextInt(500);
+                for (int i = 0; i < quantidade; i++) {
+                    long tempo = (long) (escala * (0.5 + random.nextDouble()));
+                    esboco.registrar(tempo);
+                    todos.registrar(tempo);
+                }
+                byte[] antes = gravar(esboco);
+                mesclado.mesclar(esboco);
+                assertArrayEquals(antes, gravar(esboco), "a mescla não altera o esboço somado");
+            }
+            assertEquals(todos.getTotal(), mesclado.getTotal());
+            assertArrayEquals(gravar(todos), gravar(mesclado), "rodada " + rodada);
+            for (double quantil : QUANTIS) {
+                assertEquals(todos.quantil(quantil), mesclado.quantil(quantil));
+            }
+        }
+    }
+
+    @Test
+    void gravacaoELeituraPreservamOEsboco() throws IOException {
+        Random random = new Random(13);
+        for (int rodada = 0; rodada < 50; rodada++) {
+            EsbocoDeTempos esboco = new EsbocoDeTempos();
+            int quantidade = rodada == 0 ? 0 : random.nextInt(5_000);
+            long repetido = tempoAleatorio(random);
+            for (int i = 0; i < quantidade; i++) {
+                esboco.registrar(tempoAleatorio(random));
+            }
+            // Contadores grandes exercitam os inteiros de dois e três bytes.
+            int repeticoes = rodada * 1_000;
+            for (int i = 0; i < repeticoes; i++) {
+                esboco.registrar(repetido);
+            }
+
+            byte[] bytes = gravar(esboco);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            EsbocoDeTempos lido = EsbocoDeTempos.ler(in);
+            assertEquals(0, in.available(), "a leitura consome exatamente o que foi gravado");
+            assertEquals(esboco.getTotal(), lido.getTotal());
+            assertArrayEquals(bytes, gravar(lido));
+            for (double quantil : QUANTIS) {
+                assertEquals(esboco.quantil(quantil), lido.quantil(quantil));
+            }
+        }
+    }
+
+    @Test
+    void leituraRejeitaDadosInvalidos() throws IOException {
+        EsbocoDeTempos esboco = new EsbocoDeTempos();
+        esboco.registrar(1_000);
+        esboco.registrar(2_000);
+        byte[] bytes = gravar(esboco);
+
+        // Truncado no meio.
+        assertThrows(IOException.class, () -> ler(Arrays.copyOf(bytes, bytes.length - 1)));
+        // Faixas além de TOTAL_FAIXAS.
+        ByteArrayOutputStream excedente = new ByteArrayOutputStream();
+        escreverVarint(excedente, EsbocoDeTempos.TOTAL_FAIXAS - 1); // A última faixa...
+        escreverVarint(excedente, 2);                               // ...com dois contadores.
+        escreverVarint(excedente, 1);
+        escreverVarint(excedente, 1);
+        assertThrows(IOException.class, () -> ler(excedente.toByteArray()));
+        // Um inteiro de tamanho variável que nunca termina.
+        assertThrows(IOException.class, () -> ler(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0}));
+    }
+
+    @Test
+    void copiaEIndependente() throws IOException {
+        EsbocoDeTempos original = new EsbocoDeTempos();
+        original.registrar(100);
+        original.registrar(300);
+        EsbocoDeTempos copia = original.copiar();
+        assertArrayEquals(gravar(original), gravar(copia));
+
+        copia.registrar(50_000);
+        copia.registrar(5);
+        assertEquals(2, original.getTotal());
+        conferirErro(300, original.quantil(1), "original depois de alterar a cópia");
+        conferirErro(100, original.quantil(0), "original depois de alterar a cópia");
+    }
+
+    /** Tempos distribuídos de forma log-uniforme entre 1 ms e o máximo, como os percentis relativos pedem. */
+    private static long tempoAleatorio(Random random) {
+        return Math.round(Math.exp(random.nextDouble() * Math.log(EsbocoDeTempos.TEMPO_MAXIMO_MS)));
+    }
+
+    /** O erro relativo, mais meio milissegundo do arredondamento do valor da faixa para um inteiro. */
+    private static void conferirErro(long exato, long estimado, String contexto) {
+        double limite = EsbocoDeTempos.ERRO_RELATIVO * Math.max(1, exato) + 0.5;
+        assertTrue(Math.abs(estimado - Math.max(1, exato)) <= limite,
+                contexto + ": estimado " + estimado + ", exato " + exato);
+    }
+
+    private static byte[] gravar(EsbocoDeTempos esboco) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        esboco.escrever(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void escreverVarint(ByteArrayOutputStream out, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            out.write((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        out.write(valor);
+    }
+
+    private static EsbocoDeTempos ler(byte[] bytes) throws IOException {
+        return EsbocoDeTempos.ler(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
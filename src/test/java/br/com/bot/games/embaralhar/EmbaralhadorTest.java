@@ -0,0 +1,88 @@
+package br.com.bot.games.embaralhar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Testa as garantias do {@link Embaralhador}: o resultado é sempre uma permutação da palavra,
+ * é um desarranjo quando nenhuma letra ocupa mais da metade da palavra e, nos demais casos,
+ * ao menos difere da palavra original.
+ *
+ * @author Lucas
+ */
+class EmbaralhadorTest {
+
+    @Test
+    void palavrasAleatoriasSemLetraMajoritariaViramDesarranjos() {
+        Random random = new Random(2024);
+        for (int caso = 0; caso < 200_000; caso++) {
+            // Alfabetos pequenos geram muitas letras repetidas, o caso difícil.
+            String palavra = aleatoria(random, 2 + random.nextInt(14), 1 + random.nextInt(6));
+            char[] embaralhada = Embaralhador.embaralhar(palavra, random);
+
+            assertPermutacao(palavra, embaralhada);
+            int maior = maiorFrequencia(palavra);
+            if (maior * 2 <= palavra.length()) {
+                for (int i = 0; i < palavra.length(); i++) {
+                    int pos = i;
+                    assertNotEquals(palavra.charAt(i), embaralhada[i],
+                            () -> "'" + palavra + "' -> '" + new String(embaralhada) + "' mantém a posição " + pos);
+                }
+            } else if (maior < palavra.length()) {
+                assertNotEquals(palavra, new String(embaralhada));
+            }
+        }
+    }
+
+    @Test
+    void casosSemDesarranjoAindaDiferemDaOriginal() {
+        Random random = new Random(7);
+        for (String palavra : new String[]{"aaab", "baaa", "aaba", "aaaaab", "abbb", "zzzzzzzy"}) {
+            for (int i = 0; i < 1_000; i++) {
+                char[] embaralhada = Embaralhador.embaralhar(palavra, random);
+                assertPermutacao(palavra, embaralhada);
+                assertNotEquals(palavra, new String(embaralhada));
+            }
+        }
+    }
+
+    @Test
+    void limitesTriviais() {
+        Random random = new Random(1);
+        assertEquals("", new String(Embaralhador.embaralhar("", random)));
+        assertEquals("a", new String(Embaralhador.embaralhar("a", random)));
+        assertEquals("aaa", new String(Embaralhador.embaralhar("aaa", random)));
+        assertEquals("ba", new String(Embaralhador.embaralhar("ab", random)));
+    }
+
+    private static void assertPermutacao(String palavra, char[] embaralhada) {
+        char[] esperado = palavra.toCharArray();
+        char[] obtido = embaralhada.clone();
+        Arrays.sort(esperado);
+        Arrays.sort(obtido);
+        assertArrayEquals(esperado, obtido, () -> "'" + new String(embaralhada) + "' não é uma permutação de '" + palavra + "'");
+    }
+
+    private static int maiorFrequencia(String palavra) {
+        int[] contagem = new int[128]; // As palavras dos testes são ASCII.
+        int maior = 0;
+        for (int i = 0; i < palavra.length(); i++) {
+            maior = Math.max(maior, ++contagem[palavra.charAt(i)]);
+        }
+        return maior;
+    }
+
+    private static String aleatoria(Random random, int tamanho, int letras) {
+        char[] texto = new char[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            texto[i] = (char) ('a' + random.nextInt(letras));
+        }
+        return new String(texto);
+    }
+}
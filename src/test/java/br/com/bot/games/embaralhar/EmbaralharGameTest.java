@@ -0,0 +1,67 @@
+package br.com.bot.games.embaralhar;
+
+import br.com.bot.core.ServerConfig;
+import br.com.bot.shared.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a escolha da palavra embaralhada exibida pelo {@link EmbaralharGame}: ela nunca pode ser aceita
+ * como resposta, nem com a tolerância a erros de digitação do servidor.
+ *
+ * @author Lucas
+ */
+class EmbaralharGameTest {
+
+    @Test
+    void embaralhadaNaoVenceComTolerancia() {
+        for (int semente = 0; semente < 500; semente++) {
+            EmbaralharGame jogo = criar(List.of("casa"), ServerConfig.PADRAO.comTypoTolerance(2, 0));
+            assertTrue(jogo.isSolucao("acas"), "a tolerância vale para as respostas");
+            String embaralhada = jogo.embaralhar(new Random(semente));
+            assertFalse(jogo.isSolucao(embaralhada), embaralhada);
+        }
+    }
+
+    @Test
+    void toleranciaEDesativadaQuandoTodoEmbaralhamentoVenceria() {
+        // Com 3 erros, qualquer arranjo de 4 letras está perto o bastante de "casa".
+        EmbaralharGame jogo = criar(List.of("casa"), ServerConfig.PADRAO.comTypoTolerance(3, 0));
+        String embaralhada = jogo.embaralhar(new Random(1));
+        assertTrue(jogo.isToleranciaDesativada());
+        assertFalse(jogo.isSolucao(embaralhada));
+        assertFalse(jogo.isSolucao("casx"), "sem tolerância, só a palavra exata vale");
+        assertTrue(jogo.isSolucao("casa"));
+    }
+
+    @Test
+    void toleranciaEMantidaQuandoHaEmbaralhamentoDistante() {
+        for (int semente = 0; semente < 200; semente++) {
+            EmbaralharGame jogo = criar(List.of("computador"), ServerConfig.PADRAO.comTypoTolerance(1, 0));
+            String embaralhada = jogo.embaralhar(new Random(semente));
+            assertFalse(jogo.isToleranciaDesativada());
+            assertFalse(jogo.isSolucao(embaralhada), embaralhada);
+            assertTrue(jogo.isSolucao("computadr"));
+        }
+    }
+
+    @Test
+    void anagramasTambemSaoEvitados() {
+        for (int semente = 0; semente < 200; semente++) {
+            EmbaralharGame jogo = criar(List.of("amor", "roma", "ramo", "mora", "omar"), ServerConfig.PADRAO);
+            String embaralhada = jogo.embaralhar(new Random(semente));
+            assertFalse(jogo.isSolucao(embaralhada), embaralhada);
+        }
+    }
+
+    private static EmbaralharGame criar(List<String> solucoes, ServerConfig config) {
+        EmbaralharGame jogo = new EmbaralharGame(30_000, solucoes, Game.SEM_CRIADOR, null);
+        jogo.setConfig(config);
+        return jogo;
+    }
+}
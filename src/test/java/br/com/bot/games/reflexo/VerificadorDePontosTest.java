@@ -0,0 +1,83 @@
+package br.com.bot.games.reflexo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confere que o {@link VerificadorDePontos} linear dá exatamente as mesmas pontuações que a
+ * implementação original ({@link VerificadorDePontosOriginal}).
+ *
+ * @author Lucas
+ */
+class VerificadorDePontosTest {
+
+    /** Um alfabeto pequeno, com maiúsculas e acentos, para que as frases tenham muitos caracteres em comum. */
+    private static final char[] ALFABETO = {'a', 'e', 'o', 's', 'r', ' ', 'A', 'É', 'ã', 'ç', 'ø', '€', '!'};
+
+    @Test
+    void pontuacoesIguaisAsDaImplementacaoOriginalEm300kPares() {
+        Random random = new Random(15);
+        VerificadorDePontos verificador = new VerificadorDePontos();
+        String frase = aleatoria(random, 20);
+        for (int par = 0; par < 300_000; par++) {
+            if (random.nextInt(50) == 0) {
+                frase = aleatoria(random, random.nextInt(60)); // Troca a frase de vez em quando, como entre partidas.
+            }
+            String resposta = random.nextInt(3) == 0 ? aleatoria(random, random.nextInt(80)) : comErros(random, frase);
+            String f = frase;
+            assertEquals(VerificadorDePontosOriginal.calcularPontuacao(frase, resposta), verificador.calcularPontuacao(frase, resposta),
+                    () -> String.format("frase '%s', resposta '%s'", f, resposta));
+        }
+    }
+
+    @Test
+    void limiteNaoAlteraRespostasDentroDele() {
+        Random random = new Random(16);
+        String frase = "O rato roeu a roupa do rei de Roma";
+        VerificadorDePontos verificador = new VerificadorDePontos(frase.length() * 2);
+        for (int i = 0; i < 50_000; i++) {
+            String resposta = random.nextBoolean() ? comErros(random, frase) : aleatoria(random, random.nextInt(frase.length() * 2 + 1));
+            assertEquals(VerificadorDePontosOriginal.calcularPontuacao(frase, resposta), verificador.calcularPontuacao(frase, resposta), resposta);
+        }
+    }
+
+    @Test
+    void respostaAlemDoLimiteContaComoExtra() {
+        String frase = "abc";
+        VerificadorDePontos verificador = new VerificadorDePontos(6);
+        // Dentro do limite, os extras são examinados (-2 cada); além dele, são penalizados sem exame.
+        assertEquals(0, verificador.calcularPontuacao(frase, "abcxyz"));
+        assertEquals(6, verificador.calcularPontuacao(frase, "abc"));
+        assertEquals(0, verificador.calcularPontuacao(frase, "abc" + "a".repeat(2000)));
+    }
+
+    private static String aleatoria(Random random, int tamanho) {
+        StringBuilder texto = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            texto.append(ALFABETO[random.nextInt(ALFABETO.length)]);
+        }
+        return texto.toString();
+    }
+
+    /** Copia a frase com algumas trocas, inserções, remoções e caracteres extras no fim. */
+    private static String comErros(Random random, String frase) {
+        StringBuilder resultado = new StringBuilder(frase);
+        int erros = random.nextInt(5);
+        for (int e = 0; e < erros; e++) {
+            int operacao = random.nextInt(4);
+            if (operacao == 0 && resultado.length() > 0) {
+                resultado.setCharAt(random.nextInt(resultado.length()), ALFABETO[random.nextInt(ALFABETO.length)]);
+            } else if (operacao == 1 || resultado.length() == 0) {
+                resultado.insert(random.nextInt(resultado.length() + 1), ALFABETO[random.nextInt(ALFABETO.length)]);
+            } else if (operacao == 2) {
+                resultado.deleteCharAt(random.nextInt(resultado.length()));
+            } else {
+                resultado.append(ALFABETO[random.nextInt(ALFABETO.length)]);
+            }
+        }
+        return resultado.toString();
+    }
+}
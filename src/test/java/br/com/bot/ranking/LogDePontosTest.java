@@ -0,0 +1,171 @@
+package br.com.bot.ranking;
+
+import br.com.bot.shared.TipoDeJogo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testa a carga do {@link LogDePontos}: os registros voltam na ordem em que foram gravados, um registro
+ * incompleto no fim é truncado, e um registro inválido no meio preserva o arquivo em {@code .corrompido}.
+ *
+ * @author Lucas
+ */
+class LogDePontosTest {
+
+    private static final int TAMANHO = LogDePontos.TAMANHO_REGISTRO;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void recargaDevolveOsRegistrosNaOrdem() throws IOException {
+        gravar(0, 100);
+        assertEquals(100L * TAMANHO, Files.size(log()));
+
+        List<LogDePontos.Registro> lidos = new ArrayList<>();
+        LogDePontos logDePontos = new LogDePontos(diretorio);
+        assertEquals(100, logDePontos.carregar(lidos::add));
+        conferir(lidos, 0, 100);
+
+        // Os registros novos vão para o fim, depois dos carregados.
+        for (int i = 100; i < 150; i++) {
+            logDePontos.registrar(registro(i));
+        }
+        logDePontos.fechar();
+        conferir(carregarTodos(), 0, 150);
+    }
+
+    @Test
+    void registroIncompletoNoFimETruncado() throws IOException {
+        gravar(0, 10);
+        try (RandomAccessFile arquivo = new RandomAccessFile(log().toFile(), "rw")) {
+            arquivo.seek(arquivo.length());
+            arquivo.write(new byte[TAMANHO - 5]); // Uma gravação interrompida.
+        }
+
+        conferir(carregarTodos(), 0, 10);
+        assertEquals(10L * TAMANHO, Files.size(log()));
+        assertFalse(Files.exists(corrompido()));
+    }
+
+    @Test
+    void ultimoRegistroInvalidoEDescartado() throws IOException {
+        gravar(0, 10);
+        inverterByte(9L * TAMANHO + 10);
+
+        conferir(carregarTodos(), 0, 9);
+        assertEquals(9L * TAMANHO, Files.size(log()));
+        assertFalse(Files.exists(corrompido()));
+
+        // O próximo registro ocupa o lugar do descartado.
+        LogDePontos logDePontos = new LogDePontos(diretorio);
+        logDePontos.carregar(r -> { });
+        logDePontos.registrar(registro(9));
+        logDePontos.fechar();
+        conferir(carregarTodos(), 0, 10);
+    }
+
+    @Test
+    void registroInvalidoNoMeioPreservaOArquivo() throws IOException {
+        gravar(0, 10);
+        inverterByte(4L * TAMANHO + 10);
+        byte[] original = Files.readAllBytes(log());
+
+        conferir(carregarTodos(), 0, 4);
+        assertArrayEquals(original, Files.readAllBytes(corrompido()));
+        assertEquals(4L * TAMANHO, Files.size(log()));
+        assertFalse(Files.exists(diretorio.resolve(LogDePontos.ARQUIVO + ".tmp")));
+
+        // O log segue utilizável a partir dos registros válidos.
+        LogDePontos logDePontos = new LogDePontos(diretorio);
+        assertEquals(4, logDePontos.carregar(r -> { }));
+        logDePontos.registrar(registro(4));
+        logDePontos.fechar();
+        conferir(carregarTodos(), 0, 5);
+        assertArrayEquals(original, Files.readAllBytes(corrompido()));
+    }
+
+    @Test
+    void novoDanoComCorrompidoPendenteImpedeACarga() throws IOException {
+        gravar(0, 10);
+        Files.write(corrompido(), new byte[]{1, 2, 3});
+        inverterByte(2L * TAMANHO + 10);
+        byte[] danificado = Files.readAllBytes(log());
+
+        LogDePontos logDePontos = new LogDePontos(diretorio);
+        assertThrows(IOException.class, () -> logDePontos.carregar(r -> { }));
+        logDePontos.fechar();
+
+        // Nada foi sobrescrito: nem o log atual, nem a cópia anterior.
+        assertArrayEquals(danificado, Files.readAllBytes(log()));
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(corrompido()));
+    }
+
+    /** Grava os registros de índice {@code inicio} (inclusive) a {@code fim} (exclusive) em um log vazio. */
+    private void gravar(int inicio, int fim) throws IOException {
+        LogDePontos logDePontos = new LogDePontos(diretorio);
+        assertEquals(0, logDePontos.carregar(r -> { }));
+        for (int i = inicio; i < fim; i++) {
+            logDePontos.registrar(registro(i));
+        }
+        logDePontos.fechar();
+    }
+
+    private List<LogDePontos.Registro> carregarTodos() throws IOException {
+        List<LogDePontos.Registro> lidos = new ArrayList<>();
+        LogDePontos logDePontos = new LogDePontos(diretorio);
+        try {
+            logDePontos.carregar(lidos::add);
+        } finally {
+            logDePontos.fechar();
+        }
+        return lidos;
+    }
+
+    /** Um registro diferente para cada índice, alternando os jogos. */
+    private static LogDePontos.Registro registro(int i) {
+        TipoDeJogo jogo = TipoDeJogo.values()[i % TipoDeJogo.values().length];
+        return new LogDePontos.Registro(1000 + i % 3, 5000 + i, jogo, i + 1);
+    }
+
+    private static void conferir(List<LogDePontos.Registro> lidos, int inicio, int fim) {
+        assertEquals(fim - inicio, lidos.size());
+        for (int i = inicio; i < fim; i++) {
+            LogDePontos.Registro esperado = registro(i);
+            LogDePontos.Registro lido = lidos.get(i - inicio);
+            assertEquals(esperado.getGuildId(), lido.getGuildId());
+            assertEquals(esperado.getUserId(), lido.getUserId());
+            assertEquals(esperado.getJogo(), lido.getJogo());
+            assertEquals(esperado.getPontos(), lido.getPontos());
+        }
+    }
+
+    private void inverterByte(long pos) throws IOException {
+        try (RandomAccessFile arquivo = new RandomAccessFile(log().toFile(), "rw")) {
+            arquivo.seek(pos);
+            int valor = arquivo.read();
+            arquivo.seek(pos);
+            arquivo.write(valor ^ 0x40);
+        }
+    }
+
+    private Path log() {
+        return diretorio.resolve(LogDePontos.ARQUIVO);
+    }
+
+    private Path corrompido() {
+        return diretorio.resolve(LogDePontos.ARQUIVO + ".corrompido");
+    }
+}
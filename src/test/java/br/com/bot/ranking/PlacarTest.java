@@ -0,0 +1,150 @@
+package br.com.bot.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara o {@link Placar} com um modelo simples (um mapa ordenado a cada passo) depois de atualizações
+ * aleatórias: a ordem, as posições e as faixas calculadas pelas larguras da skip list devem coincidir.
+ *
+ * @author Lucas
+ */
+class PlacarTest {
+
+    private static final int OPERACOES = 20_000;
+
+    /** Poucos jogadores e poucos pontos, para que atualizações do mesmo jogador e empates sejam frequentes. */
+    private static final int JOGADORES = 300;
+    private static final int PONTOS = 50;
+
+    /** A ordem do placar: mais pontos primeiro e, no empate, o menor ID. */
+    private static final Comparator<Map.Entry<Long, Long>> ORDEM =
+            Comparator.comparingLong((Map.Entry<Long, Long> e) -> -e.getValue()).thenComparingLong(Map.Entry::getKey);
+
+    @Test
+    void atualizacoesAleatoriasSeguemOModelo() {
+        Random random = new Random(42);
+        Placar placar = new Placar();
+        Map<Long, Long> modelo = new HashMap<>();
+
+        for (int operacao = 0; operacao < OPERACOES; operacao++) {
+            long userId = random.nextInt(JOGADORES);
+            if (random.nextBoolean()) {
+                long delta = random.nextInt(2 * PONTOS) - PONTOS / 2; // Inclui deltas negativos e zero.
+                long total = modelo.getOrDefault(userId, 0L) + delta;
+                modelo.put(userId, total);
+                assertEquals(total, placar.somar(userId, delta));
+            } else {
+                long pontos = random.nextInt(PONTOS);
+                modelo.put(userId, pontos);
+                placar.definir(userId, pontos);
+            }
+
+            List<Map.Entry<Long, Long>> ordenado = ordenar(modelo);
+            assertEquals(ordenado.size(), placar.getTotalJogadores());
+
+            // A posição de alguns jogadores, incluindo o recém-atualizado.
+            assertEquals(posicaoNoModelo(ordenado, userId), placar.posicaoDe(userId), "operação " + operacao);
+            long outro = random.nextInt(JOGADORES);
+            assertEquals(posicaoNoModelo(ordenado, outro), placar.posicaoDe(outro), "operação " + operacao);
+            assertEquals(modelo.getOrDefault(outro, 0L), placar.getPontos(outro));
+
+            // Uma faixa aleatória, que às vezes ultrapassa o fim.
+            int inicio = 1 + random.nextInt(ordenado.size() + 2);
+            int quantidade = random.nextInt(15);
+            conferirFaixa(ordenado, placar.faixa(inicio, quantidade), inicio, quantidade);
+
+            if (operacao % 500 == 0) {
+                conferirTudo(ordenado, placar);
+            }
+        }
+        conferirTudo(ordenar(modelo), placar);
+    }
+
+    @Test
+    void placarVazioEPosicoesForaDoIntervalo() {
+        Placar placar = new Placar();
+        assertEquals(0, placar.getTotalJogadores());
+        assertEquals(0, placar.posicaoDe(1));
+        assertEquals(0, placar.getPontos(1));
+        assertTrue(placar.faixa(1, 10).isEmpty());
+
+        placar.somar(1, 5);
+        placar.somar(2, 5);
+        placar.somar(3, 7);
+        assertTrue(placar.faixa(0, 10).isEmpty());
+        assertTrue(placar.faixa(4, 10).isEmpty());
+        assertTrue(placar.faixa(1, 0).isEmpty());
+        // Empate em 5 pontos: o menor ID fica na frente.
+        assertEquals(List.of(3L, 1L, 2L), ids(placar.faixa(1, 10)));
+        assertEquals(List.of(1L, 2L), ids(placar.faixa(2, 10)));
+
+        // Uma atualização sem mudança nos pontos não altera a ordem.
+        placar.somar(1, 0);
+        placar.definir(2, 5);
+        assertEquals(List.of(3L, 1L, 2L), ids(placar.faixa(1, 10)));
+        assertEquals(3, placar.getTotalJogadores());
+    }
+
+    /** Confere a ordem completa e a posição de cada jogador. */
+    private static void conferirTudo(List<Map.Entry<Long, Long>> ordenado, Placar placar) {
+        List<Long> ids = new ArrayList<>();
+        List<Long> pontos = new ArrayList<>();
+        placar.paraCada((userId, total) -> {
+            ids.add(userId);
+            pontos.add(total);
+        });
+        assertEquals(ordenado.size(), ids.size());
+        for (int i = 0; i < ordenado.size(); i++) {
+            assertEquals(ordenado.get(i).getKey(), ids.get(i));
+            assertEquals(ordenado.get(i).getValue(), pontos.get(i));
+            assertEquals(i + 1, placar.posicaoDe(ids.get(i)));
+        }
+        conferirFaixa(ordenado, placar.faixa(1, ordenado.size()), 1, ordenado.size());
+    }
+
+    private static void conferirFaixa(List<Map.Entry<Long, Long>> ordenado, List<Placar.Entrada> faixa,
+                                      int inicio, int quantidade) {
+        int esperadas = Math.max(0, Math.min(quantidade, ordenado.size() - inicio + 1));
+        assertEquals(esperadas, faixa.size(), "faixa a partir de " + inicio);
+        for (int i = 0; i < esperadas; i++) {
+            Placar.Entrada entrada = faixa.get(i);
+            Map.Entry<Long, Long> esperada = ordenado.get(inicio - 1 + i);
+            assertEquals(inicio + i, entrada.getPosicao());
+            assertEquals(esperada.getKey(), entrada.getUserId());
+            assertEquals(esperada.getValue(), entrada.getPontos());
+        }
+    }
+
+    private static List<Map.Entry<Long, Long>> ordenar(Map<Long, Long> modelo) {
+        List<Map.Entry<Long, Long>> ordenado = new ArrayList<>(modelo.entrySet());
+        ordenado.sort(ORDEM);
+        return ordenado;
+    }
+
+    private static int posicaoNoModelo(List<Map.Entry<Long, Long>> ordenado, long userId) {
+        for (int i = 0; i < ordenado.size(); i++) {
+            if (ordenado.get(i).getKey() == userId) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static List<Long> ids(List<Placar.Entrada> entradas) {
+        List<Long> ids = new ArrayList<>();
+        for (Placar.Entrada entrada : entradas) {
+            ids.add(entrada.getUserId());
+        }
+        return ids;
+    }
+}
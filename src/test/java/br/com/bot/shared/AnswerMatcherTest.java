@@ -0,0 +1,136 @@
+package br.com.bot.shared;
+
+import br.com.bot.utils.NormalizadorDeTexto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere o {@link AnswerMatcher} com uma implementação ingênua: a forma canônica é calculada
+ * diretamente e a distância, pela programação dinâmica de {@link LevenshteinIngenuo}.
+ *
+ * @author Lucas
+ */
+class AnswerMatcherTest {
+
+    /** Um alfabeto pequeno, para que as tentativas aleatórias fiquem perto da resposta. */
+    private static final char[] ALFABETO = {'a', 'b', 'c', 'A', 'B', 'á', 'ã', 'Ç', 'ø', '€', ' ', ' '};
+
+    @Test
+    void concordaComProgramacaoDinamicaEmPares400k() {
+        Random random = new Random(2024);
+        AnswerMatcher.Modo[] modos = AnswerMatcher.Modo.values();
+        for (int par = 0; par < 400_000; par++) {
+            int tamanho = random.nextInt(10) == 0 ? 50 + random.nextInt(21) : random.nextInt(25);
+            String resposta = aleatoria(random, tamanho);
+            String tentativa = random.nextInt(5) == 0 ? aleatoria(random, random.nextInt(tamanho + 5)) : comErros(random, resposta, random.nextInt(6));
+            AnswerMatcher.Modo modo = modos[par % modos.length];
+            int maxErros = random.nextInt(5);
+
+            boolean obtido = AnswerMatcher.compilar(resposta, modo).corresponde(tentativa, maxErros);
+            assertEquals(esperado(resposta, tentativa, modo, maxErros), obtido,
+                    () -> String.format("modo %s, maxErros %d, resposta '%s', tentativa '%s'", modo, maxErros, resposta, tentativa));
+        }
+    }
+
+    @Test
+    void umMesmoComparadorPodeSerReutilizado() {
+        Random random = new Random(7);
+        String resposta = "pedro alvares cabral";
+        AnswerMatcher matcher = AnswerMatcher.compilar(resposta, AnswerMatcher.Modo.SEM_ACENTOS);
+        for (int i = 0; i < 10_000; i++) {
+            String tentativa = comErros(random, resposta, random.nextInt(4));
+            assertEquals(esperado(resposta, tentativa, AnswerMatcher.Modo.SEM_ACENTOS, 2), matcher.corresponde(tentativa, 2), tentativa);
+        }
+    }
+
+    @Test
+    void respostaDe64CaracteresAceitaErros() {
+        String resposta = "a".repeat(32) + "b".repeat(32);
+        AnswerMatcher matcher = AnswerMatcher.compilar(resposta, AnswerMatcher.Modo.EXATO);
+        assertTrue(matcher.corresponde(resposta.substring(0, 63) + "x", 1));
+        assertTrue(matcher.corresponde(resposta.substring(1), 1));
+        assertTrue(matcher.corresponde(resposta + "b", 1));
+        assertFalse(matcher.corresponde("x" + resposta.substring(0, 62) + "x", 1));
+        // O último caractere é o bit mais alto do vetor.
+        assertTrue(matcher.corresponde("x" + resposta.substring(1, 63) + "x", 2));
+    }
+
+    @Test
+    void respostaMaiorQue64CaracteresSoAceitaAExata() {
+        String resposta = "a".repeat(32) + "b".repeat(33);
+        AnswerMatcher matcher = AnswerMatcher.compilar(resposta, AnswerMatcher.Modo.SEM_ACENTOS);
+        assertTrue(matcher.corresponde(resposta, 5));
+        assertTrue(matcher.corresponde(resposta.toUpperCase(Locale.ROOT), 5));
+        assertFalse(matcher.corresponde(resposta.substring(0, 64) + "x", 5));
+        assertFalse(matcher.corresponde(resposta.substring(1), 5));
+    }
+
+    @Test
+    void toleranciaZeroExigeAFormaCanonicaIgual() {
+        AnswerMatcher matcher = AnswerMatcher.compilar("Ação", AnswerMatcher.Modo.ESPACOS_COLAPSADOS);
+        assertTrue(matcher.corresponde("  ACAO "));
+        assertFalse(matcher.corresponde("acoa"));
+        assertTrue(matcher.corresponde("acoa", 2));
+        assertFalse(matcher.corresponde("acoa", 1));
+    }
+
+    /**
+     * O resultado esperado: a distância ingênua entre as formas canônicas, com tolerância apenas
+     * para respostas de até {@value AnswerMatcher#TAMANHO_MAXIMO_TOLERANTE} caracteres.
+     */
+    private static boolean esperado(String resposta, String tentativa, AnswerMatcher.Modo modo, int maxErros) {
+        String chave = canonica(resposta, modo);
+        String forma = canonica(tentativa, modo);
+        if (chave.length() > AnswerMatcher.TAMANHO_MAXIMO_TOLERANTE) {
+            return chave.equals(forma);
+        }
+        return LevenshteinIngenuo.distancia(chave, forma) <= maxErros;
+    }
+
+    private static String canonica(String texto, AnswerMatcher.Modo modo) {
+        switch (modo) {
+            case EXATO:
+                return texto;
+            case IGNORAR_MAIUSCULAS:
+                StringBuilder minusculas = new StringBuilder();
+                for (int i = 0; i < texto.length(); i++) {
+                    minusculas.append(Character.toLowerCase(Character.toUpperCase(texto.charAt(i))));
+                }
+                return minusculas.toString();
+            case SEM_ACENTOS:
+                return NormalizadorDeTexto.normalizar(texto);
+            default:
+                return NormalizadorDeTexto.normalizar(texto.trim().replaceAll(" +", " "));
+        }
+    }
+
+    private static String aleatoria(Random random, int tamanho) {
+        StringBuilder texto = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            texto.append(ALFABETO[random.nextInt(ALFABETO.length)]);
+        }
+        return texto.toString();
+    }
+
+    /** Aplica erros de digitação aleatórios (troca, inserção ou remoção de um caractere). */
+    private static String comErros(Random random, String texto, int erros) {
+        StringBuilder resultado = new StringBuilder(texto);
+        for (int e = 0; e < erros; e++) {
+            int operacao = random.nextInt(3);
+            if (operacao == 0 && resultado.length() > 0) {
+                resultado.setCharAt(random.nextInt(resultado.length()), ALFABETO[random.nextInt(ALFABETO.length)]);
+            } else if (operacao == 1 || resultado.length() == 0) {
+                resultado.insert(random.nextInt(resultado.length() + 1), ALFABETO[random.nextInt(ALFABETO.length)]);
+            } else {
+                resultado.deleteCharAt(random.nextInt(resultado.length()));
+            }
+        }
+        return resultado.toString();
+    }
+}
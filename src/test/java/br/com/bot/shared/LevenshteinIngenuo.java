@@ -0,0 +1,32 @@
+package br.com.bot.shared;
+
+/**
+ * A distância de Levenshtein pela programação dinâmica clássica, com a matriz inteira (em duas linhas).
+ * É a referência usada para conferir o algoritmo bit-paralelo do {@link AnswerMatcher}.
+ *
+ * @author Lucas
+ */
+final class LevenshteinIngenuo {
+
+    private LevenshteinIngenuo() {
+    }
+
+    static int distancia(CharSequence a, CharSequence b) {
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int troca = anterior[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                atual[j] = Math.min(troca, Math.min(anterior[j], atual[j - 1]) + 1);
+            }
+            int[] t = anterior;
+            anterior = atual;
+            atual = t;
+        }
+        return anterior[b.length()];
+    }
+}
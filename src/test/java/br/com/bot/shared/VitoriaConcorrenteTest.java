@@ -0,0 +1,265 @@
+package br.com.bot.shared;
+
+import br.com.bot.core.ChannelDispatcher;
+import br.com.bot.core.ConfigManager;
+import br.com.bot.core.GameManager;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.unions.GuildMessageChannelUnion;
+import net.dv8tion.jda.api.entities.channel.unions.MessageChannelUnion;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispara respostas corretas de várias threads ao mesmo tempo, chamando {@link Game#processarResposta}
+ * diretamente (sem a serialização do {@link ChannelDispatcher}), contra {@link Game#reivindicarVitoria}:
+ * a vitória deve ser anunciada uma única vez, para a resposta de menor snowflake. Também disputa a
+ * decisão da vitória com o tempo esgotado e com o cancelamento: só um dos desfechos pode acontecer.
+ *
+ * @author Lucas
+ */
+class VitoriaConcorrenteTest {
+
+    private static final long GUILD_ID = 1;
+    private static final long CHANNEL_ID = 7;
+    private static final int THREADS = 16;
+    private static final int RESPOSTAS = 2000;
+    private static final int RODADAS = 20;
+
+    private ChannelDispatcher dispatcher;
+    private GameManager gameManager;
+    private Guild guild;
+    private MessageChannelUnion canal;
+    private User autor;
+
+    /** Um jogo em que toda resposta é correta e que conta os anúncios de vitória. */
+    private static final class JogoDeTeste extends Game {
+        private final AtomicInteger anuncios = new AtomicInteger();
+        private final CountDownLatch anunciado = new CountDownLatch(1);
+        private volatile long vencedorId;
+
+        private JogoDeTeste() {
+            super(60_000, SEM_CRIADOR);
+        }
+
+        @Override
+        public TipoDeJogo getTipo() {
+            return TipoDeJogo.RESPOSTA;
+        }
+
+        @Override
+        protected void processarRespostaDoJogo(MessageReceivedEvent event, GameManager gameManager, ConfigManager configManager) {
+            reivindicarVitoria(event, gameManager);
+        }
+
+        @Override
+        protected void anunciarVitoria(MessageReceivedEvent vencedor, GameManager gameManager) {
+            vencedorId = vencedor.getMessageIdLong();
+            anuncios.incrementAndGet();
+            anunciado.countDown();
+        }
+    }
+
+    @BeforeEach
+    void criar() {
+        dispatcher = new ChannelDispatcher(4);
+        gameManager = new GameManager(dispatcher, 1);
+        autor = stub(User.class, 999, null, null);
+        guild = stub(Guild.class, GUILD_ID, null, null);
+        canal = stub(MessageChannelUnion.class, CHANNEL_ID, guild, null);
+    }
+
+    @AfterEach
+    void encerrar() {
+        gameManager.shutdown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void umUnicoAnuncioParaOMenorSnowflake() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                Random random = new Random(rodada);
+                JogoDeTeste jogo = iniciarJogo();
+                MessageReceivedEvent[] respostas = criarRespostas(random);
+                enviarAoMesmoTempo(threads, jogo, respostas, null);
+
+                assertTrue(jogo.anunciado.await(10, TimeUnit.SECONDS), "rodada " + rodada + ": a vitória não foi anunciada");
+                aguardarDecisao();
+
+                assertEquals(1, jogo.anuncios.get(), "rodada " + rodada + ": anúncios");
+                assertEquals(menorId(respostas), jogo.vencedorId,
+                        "rodada " + rodada + ": o vencedor deve ser a resposta de menor snowflake");
+                assertTrue(jogo.isEncerrado());
+                assertFalse(gameManager.isJogoAtivo(GUILD_ID, CHANNEL_ID));
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void vitoriaDisputadaComTempoEsgotadoOuCancelamento() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            int anunciadas = 0;
+            int interrompidas = 0;
+            for (int rodada = 0; rodada < RODADAS * 2; rodada++) {
+                Random random = new Random(rodada);
+                JogoDeTeste jogo = iniciarJogo();
+                MessageReceivedEvent[] respostas = criarRespostas(random);
+                boolean cancelar = rodada % 2 == 1;
+                // Em torno do fim da janela de desempate, quando a decisão da vitória é executada.
+                long atrasoMs = random.nextInt((int) Game.JANELA_DE_DESEMPATE_MS * 2);
+                AtomicInteger desfechosAlternativos = new AtomicInteger();
+
+                enviarAoMesmoTempo(threads, jogo, respostas, () -> {
+                    Thread.sleep(atrasoMs);
+                    if (cancelar) {
+                        // Como o /cancelar: remove o jogo ativo do canal, qualquer que seja o seu estado.
+                        if (gameManager.finalizarJogo(GUILD_ID, CHANNEL_ID) == jogo) {
+                            desfechosAlternativos.incrementAndGet();
+                        }
+                    } else if (jogo.encerrar() && gameManager.finalizarJogo(GUILD_ID, CHANNEL_ID, jogo)) {
+                        // Como o AbstractGameCommand#esgotarTempo.
+                        desfechosAlternativos.incrementAndGet();
+                    }
+                    return null;
+                });
+                aguardarDecisao();
+
+                String contexto = "rodada " + rodada + (cancelar ? " (cancelamento)" : " (tempo esgotado)");
+                assertTrue(jogo.anuncios.get() <= 1, contexto + ": anúncios");
+                assertEquals(1, jogo.anuncios.get() + desfechosAlternativos.get(), contexto + ": desfechos");
+                assertTrue(jogo.isEncerrado(), contexto);
+                assertFalse(gameManager.isJogoAtivo(GUILD_ID, CHANNEL_ID), contexto);
+                anunciadas += jogo.anuncios.get();
+                interrompidas += desfechosAlternativos.get();
+            }
+            // Os atrasos cobrem os dois lados da janela: cada desfecho deve ter vencido alguma disputa.
+            assertTrue(anunciadas > 0, "nenhuma vitória foi anunciada");
+            assertTrue(interrompidas > 0, "nenhum tempo esgotado ou cancelamento venceu a disputa");
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private JogoDeTeste iniciarJogo() {
+        JogoDeTeste jogo = new JogoDeTeste();
+        jogo.definirFase(Fase.RESPONDER);
+        gameManager.iniciarJogo(GUILD_ID, CHANNEL_ID, jogo);
+        return jogo;
+    }
+
+    private MessageReceivedEvent[] criarRespostas(Random random) {
+        MessageReceivedEvent[] respostas = new MessageReceivedEvent[RESPOSTAS];
+        for (int i = 0; i < RESPOSTAS; i++) {
+            // Instantes próximos e embaralhados; o índice nos bits baixos torna cada snowflake único.
+            long id = (1_000_000L + random.nextInt(1_000)) << 22 | i;
+            Message mensagem = stub(Message.class, id, guild, canal);
+            respostas[i] = new MessageReceivedEvent(null, 0, mensagem);
+        }
+        return respostas;
+    }
+
+    private static long menorId(MessageReceivedEvent[] respostas) {
+        long menor = Long.MAX_VALUE;
+        for (MessageReceivedEvent resposta : respostas) {
+            menor = Math.min(menor, resposta.getMessageIdLong());
+        }
+        return menor;
+    }
+
+    /**
+     * Envia as respostas de {@link #THREADS} threads ao mesmo tempo, cada uma chamando
+     * {@link Game#processarResposta} diretamente, e espera todas terminarem.
+     *
+     * @param concorrente Uma tarefa opcional, iniciada junto com as respostas em outra thread.
+     */
+    private void enviarAoMesmoTempo(ExecutorService threads, JogoDeTeste jogo, MessageReceivedEvent[] respostas,
+                                    Callable<Void> concorrente) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> envios = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int primeira = t;
+            envios.add(threads.submit(() -> {
+                largada.await();
+                for (int i = primeira; i < respostas.length; i += THREADS) {
+                    jogo.processarResposta(respostas[i], gameManager, null);
+                }
+                return null;
+            }));
+        }
+        if (concorrente != null) {
+            envios.add(threads.submit(() -> {
+                largada.await();
+                return concorrente.call();
+            }));
+        }
+        largada.countDown();
+        for (Future<?> envio : envios) {
+            envio.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Dá tempo para a decisão agendada (e para um eventual segundo anúncio) e esvazia a fila do canal. */
+    private void aguardarDecisao() throws InterruptedException {
+        Thread.sleep(Game.JANELA_DE_DESEMPATE_MS * 2);
+        CountDownLatch filaVazia = new CountDownLatch(1);
+        dispatcher.despachar(CHANNEL_ID, filaVazia::countDown);
+        assertTrue(filaVazia.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Cria uma implementação mínima de uma interface do JDA, que responde só ao que o caminho da vitória usa.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T stub(Class<T> tipo, long id, Guild guildDoStub, MessageChannelUnion canalDoStub) {
+        Class<?>[] interfaces = tipo == MessageChannelUnion.class
+                ? new Class<?>[]{tipo, GuildMessageChannelUnion.class}
+                : new Class<?>[]{tipo};
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), interfaces, (proxy, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "getIdLong":
+                    return id;
+                case "getType":
+                    return ChannelType.TEXT;
+                case "asGuildMessageChannel":
+                    return proxy;
+                case "getGuild":
+                    return guildDoStub;
+                case "getChannel":
+                    return canalDoStub;
+                case "getAuthor":
+                    return autor;
+                case "hashCode":
+                    return Long.hashCode(id);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(metodo.getName());
+            }
+        });
+    }
+}